@@ -7,16 +7,18 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.layout.AnchorPane;
 import javafx.stage.Stage;
+import sid.storage.StorageOptions;
 
 /**
  * A GUI for Sid using FXML.
  */
 public class Main extends Application {
 
-    private Sid sid = new Sid("data/sid.txt");
+    private Sid sid;
 
     @Override
     public void start(Stage stage) {
+        sid = new Sid("data/sid.txt", StorageOptions.fromArgs(getParameters().getRaw()));
         try {
             FXMLLoader fxmlLoader = new FXMLLoader(Main.class.getResource("/view/MainWindow.fxml"));
             AnchorPane ap = fxmlLoader.load();
@@ -1,9 +1,12 @@
 package sid;
 
+import java.util.Arrays;
+
 import sid.exceptions.SidException;
 import sid.models.TodoList;
 import sid.parser.Parser;
-import sid.storage.Storage;
+import sid.storage.StorageBackend;
+import sid.storage.StorageOptions;
 import sid.ui.Ui;
 
 /**
@@ -12,7 +15,7 @@ import sid.ui.Ui;
  */
 public class Sid {
 
-    private final Storage storage;
+    private final StorageBackend storage;
     private final TodoList todoList;
     private final Ui ui;
     private final Parser parser;
@@ -25,10 +28,26 @@ public class Sid {
      * @param filePath Relative path (e.g., {@code data/sid.txt}).
      */
     public Sid(String filePath) {
+        this(filePath, StorageOptions.defaults());
+    }
+
+    /**
+     * Constructs the Sid application with the given save file path and storage options.
+     *
+     * <p>If the options select a storage format, the file extension is adjusted to match it
+     * (e.g., {@code data/sid.sidb} for the binary format). The options also choose the
+     * {@link sid.storage.Backend storage backend}.
+     *
+     * @param filePath Relative path (e.g., {@code data/sid.txt}).
+     * @param options  Storage options, typically parsed from command-line flags.
+     */
+    public Sid(String filePath, StorageOptions options) {
         assert filePath != null : "File path cannot be null";
+        assert options != null : "Storage options cannot be null";
         this.ui = new Ui();
-        this.storage = new Storage(filePath);
-        this.todoList = storage.load(); // Storage returns a TodoList bound to itself
+        String path = options.getFormat() == null ? filePath : options.getFormat().applyTo(filePath);
+        this.storage = options.getBackend().create(path, options);
+        this.todoList = storage.load(); // The backend returns a TodoList bound to itself
         assert this.todoList != null : "Loaded TodoList cannot be null";
         this.parser = new Parser();
     }
@@ -41,6 +60,8 @@ public class Sid {
             while (isRunning && ui.hasNextLine()) {
                 String input = ui.readLine();
                 try {
+                    // Another Sid may share the task file, so pick up its changes first.
+                    todoList.refresh();
                     boolean keepGoing = parser.parseAndExecute(input, todoList, ui);
                     if (!keepGoing) {
                         isRunning = false;
@@ -60,7 +81,7 @@ public class Sid {
     }
 
     public static void main(String[] args) {
-        new Sid("data/sid.txt").run();
+        new Sid("data/sid.txt", StorageOptions.fromArgs(Arrays.asList(args))).run();
     }
 
     /**
@@ -68,6 +89,7 @@ public class Sid {
      */
     public String getResponse(String input) {
         assert input != null : "Input cannot be null";
+        todoList.refresh();
         String response = parser.parseAndExecute(input, todoList);
         assert response != null : "Parser response cannot be null";
         return response;
@@ -0,0 +1,42 @@
+package sid.commands;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import sid.exceptions.SidException;
+import sid.messages.ResponseMessage;
+import sid.models.ToDo;
+import sid.models.TodoList;
+
+/**
+ * Command to move done tasks into the archive.
+ *
+ * <p>{@code archive} moves every done task; {@code archive <days>} moves only tasks done at least that
+ * many days ago.
+ */
+public class ArchiveCommand implements Command {
+    @Override
+    public CommandResult execute(String arg, TodoList tasks) throws SidException {
+        LocalDateTime doneBefore = null;
+        if (!arg.isEmpty()) {
+            doneBefore = LocalDateTime.now().minusDays(parseDays(arg));
+        }
+        List<ToDo> archived = tasks.archiveDone(doneBefore);
+        if (archived.isEmpty()) {
+            return new CommandResult(true, ResponseMessage.ARCHIVE_NOTHING.getMessage());
+        }
+        return new CommandResult(true, ResponseMessage.ARCHIVE_SUCCESS.getMessageWith(archived.size()));
+    }
+
+    private static int parseDays(String arg) throws SidException {
+        try {
+            int days = Integer.parseInt(arg.trim());
+            if (days < 0) {
+                throw new SidException(ResponseMessage.ARCHIVE_USAGE_ERROR.getMessage());
+            }
+            return days;
+        } catch (NumberFormatException e) {
+            throw new SidException(ResponseMessage.ARCHIVE_USAGE_ERROR.getMessage());
+        }
+    }
+}
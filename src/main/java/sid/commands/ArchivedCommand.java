@@ -0,0 +1,26 @@
+package sid.commands;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import sid.exceptions.SidException;
+import sid.messages.ResponseMessage;
+import sid.models.TodoList;
+import sid.storage.ArchivedTask;
+
+/**
+ * Command to search the archive; without a keyword it lists every archived task.
+ *
+ * <p>Results are numbered by archive number, which {@code restore} takes.
+ */
+public class ArchivedCommand implements Command {
+    @Override
+    public CommandResult execute(String arg, TodoList tasks) throws SidException {
+        List<ArchivedTask> found = tasks.findArchived(arg);
+        if (found.isEmpty()) {
+            return new CommandResult(true, ResponseMessage.ARCHIVED_NO_RESULTS.getMessage());
+        }
+        String lines = found.stream().map(ArchivedTask::toString).collect(Collectors.joining("\n"));
+        return new CommandResult(true, ResponseMessage.ARCHIVED_RESULTS.getMessageWith(lines));
+    }
+}
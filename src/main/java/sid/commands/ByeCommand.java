@@ -5,11 +5,12 @@ import sid.messages.ResponseMessage;
 import sid.models.TodoList;
 
 /**
- * Command to exit the application.
+ * Command to exit the application, making sure all pending changes are saved and storage is closed first.
  */
 public class ByeCommand implements Command {
     @Override
     public CommandResult execute(String arg, TodoList tasks) throws SidException {
+        tasks.close();
         return new CommandResult(false, ResponseMessage.BYE_MESSAGE.getMessage());
     }
 }
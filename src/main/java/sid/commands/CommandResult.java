@@ -1,5 +1,6 @@
 package sid.commands;
 
+import sid.models.TaskPage;
 import sid.models.ToDo;
 import sid.models.TodoList;
 
@@ -15,6 +16,7 @@ public class CommandResult {
     private final ToDo task;
     private final int totalTasks;
     private final TodoList foundTasks;
+    private final TaskPage page;
 
     /**
      * Constructor for simple messages.
@@ -49,6 +51,17 @@ public class CommandResult {
         this(shouldContinue, message, null, 0, foundTasks);
     }
 
+    /**
+     * Constructor for list and find operations, which show one page of tasks.
+     *
+     * @param shouldContinue Whether the program should continue running.
+     * @param message The message to display.
+     * @param page The page of tasks shown.
+     */
+    public CommandResult(boolean shouldContinue, String message, TaskPage page) {
+        this(shouldContinue, message, null, 0, null, page);
+    }
+
     /**
      * Full constructor.
      *
@@ -59,11 +72,17 @@ public class CommandResult {
      * @param foundTasks The list of tasks found by search (may be null).
      */
     public CommandResult(boolean shouldContinue, String message, ToDo task, int totalTasks, TodoList foundTasks) {
+        this(shouldContinue, message, task, totalTasks, foundTasks, null);
+    }
+
+    private CommandResult(boolean shouldContinue, String message, ToDo task, int totalTasks, TodoList foundTasks,
+            TaskPage page) {
         this.shouldContinue = shouldContinue;
         this.message = message;
         this.task = task;
         this.totalTasks = totalTasks;
         this.foundTasks = foundTasks;
+        this.page = page;
     }
 
     /**
@@ -110,4 +129,13 @@ public class CommandResult {
     public TodoList getFoundTasks() {
         return foundTasks;
     }
+
+    /**
+     * Returns the page of tasks shown by a list or find operation.
+     *
+     * @return The page, or null if not applicable.
+     */
+    public TaskPage getPage() {
+        return page;
+    }
 }
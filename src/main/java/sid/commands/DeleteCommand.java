@@ -7,6 +7,9 @@ import sid.models.TodoList;
 
 /**
  * Command to delete a task.
+ *
+ * <p>Takes the same selections as {@link MarkCommand}, such as {@code delete 3,7,9-12}; the selected tasks
+ * are removed in one pass over the list.
  */
 public class DeleteCommand implements Command {
     @Override
@@ -14,7 +17,14 @@ public class DeleteCommand implements Command {
         if (arg.isEmpty()) {
             throw new SidException(ResponseMessage.DELETE_USAGE_ERROR.getMessage());
         }
-        int id = IndexParser.parseIndex(arg, ResponseMessage.DELETE_INVALID_NUMBER.getMessage());
+        if (IndexParser.isSelection(arg)) {
+            int[] ids = IndexParser.parseTaskNumbers(arg, ResponseMessage.DELETE_INVALID_NUMBER.getMessage(),
+                    tasks);
+            int deleted = tasks.deleteAll(ids).size();
+            return new CommandResult(true, ResponseMessage.DELETE_BATCH_SUCCESS.getMessageWith(deleted), null,
+                    tasks.getSize());
+        }
+        int id = IndexParser.parseTaskNumber(arg, ResponseMessage.DELETE_INVALID_NUMBER.getMessage(), tasks);
         ToDo toRemove = tasks.getTodo(id);
         tasks.delete(id);
         return new CommandResult(true, ResponseMessage.DELETE_SUCCESS.getMessageWith(toRemove), toRemove,
@@ -0,0 +1,22 @@
+package sid.commands;
+
+import java.io.File;
+
+import sid.exceptions.SidException;
+import sid.messages.ResponseMessage;
+import sid.models.TodoList;
+import sid.storage.TaskExchange;
+
+/**
+ * Command to write every task to a CSV or JSON Lines file, chosen by its extension.
+ */
+public class ExportCommand implements Command {
+    @Override
+    public CommandResult execute(String arg, TodoList tasks) throws SidException {
+        if (arg.isEmpty()) {
+            throw new SidException(ResponseMessage.EXPORT_USAGE_ERROR.getMessage());
+        }
+        int count = TaskExchange.export(tasks, new File(arg));
+        return new CommandResult(true, ResponseMessage.EXPORT_SUCCESS.getMessageWith(count));
+    }
+}
@@ -2,22 +2,30 @@ package sid.commands;
 
 import sid.exceptions.SidException;
 import sid.messages.ResponseMessage;
+import sid.models.TaskPage;
 import sid.models.TodoList;
 
 /**
- * Command to find tasks matching a keyword.
+ * Command to find tasks matching a keyword, or keywords combined with {@code AND}, {@code OR} and {@code NOT}.
+ *
+ * <p>Matches are shown a page at a time, like {@link ListCommand} shows tasks; paging options follow the query.
  */
 public class FindCommand implements Command {
     @Override
     public CommandResult execute(String arg, TodoList tasks) throws SidException {
-        if (arg.isEmpty()) {
+        PageOptions options = PageOptions.parse(arg);
+        if (options.getText().isEmpty()) {
             throw new SidException(ResponseMessage.FIND_USAGE_ERROR.getMessage());
         }
-        TodoList foundTodos = tasks.findTodos(arg);
-        if (foundTodos.isEmpty()) {
-            return new CommandResult(true, ResponseMessage.FIND_NO_RESULTS.getMessage(), foundTodos);
+        TaskPage page = tasks.findPage(options.getText(), options.getPage(), options.getAfterId(),
+                options.getSize());
+        if (page.getTotal() == 0) {
+            return new CommandResult(true, ResponseMessage.FIND_NO_RESULTS.getMessage(), page);
+        } else if (page.isEmpty()) {
+            String message = ResponseMessage.PAGE_PAST_END.getMessage() + page.getTotal() + " matches.";
+            return new CommandResult(true, message, page);
         } else {
-            return new CommandResult(true, ResponseMessage.FIND_SUCCESS.getMessageWith(foundTodos), foundTodos);
+            return new CommandResult(true, ResponseMessage.FIND_SUCCESS.getMessage() + page, page);
         }
     }
 }
@@ -0,0 +1,22 @@
+package sid.commands;
+
+import java.io.File;
+
+import sid.exceptions.SidException;
+import sid.messages.ResponseMessage;
+import sid.models.TodoList;
+import sid.storage.TaskExchange;
+
+/**
+ * Command to add the tasks in a CSV or JSON Lines file, chosen by its extension, to the list.
+ */
+public class ImportCommand implements Command {
+    @Override
+    public CommandResult execute(String arg, TodoList tasks) throws SidException {
+        if (arg.isEmpty()) {
+            throw new SidException(ResponseMessage.IMPORT_USAGE_ERROR.getMessage());
+        }
+        TaskExchange.Summary summary = TaskExchange.importInto(tasks, new File(arg));
+        return new CommandResult(true, ResponseMessage.IMPORT_SUCCESS.getMessageWith(summary));
+    }
+}
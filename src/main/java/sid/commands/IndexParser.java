@@ -1,11 +1,113 @@
 package sid.commands;
 
+import java.util.BitSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import sid.exceptions.SidException;
+import sid.messages.ResponseMessage;
+import sid.models.TodoList;
 
 /**
  * Utility class for parsing task indices from strings.
  */
 public class IndexParser {
+    /** Marks a task's stable id, as opposed to its number in the list. */
+    private static final String ID_PREFIX = "#";
+
+    /** Starts a selection of every task matching the query after it. */
+    private static final String FIND_PREFIX = "/find";
+
+    /** A range of task numbers, such as {@code 9-12}. */
+    private static final Pattern RANGE = Pattern.compile("(\\d+)\\s*-\\s*(\\d+)");
+
+    /**
+     * Parses a task number, or {@code #} followed by a task's stable id, into a task number in the list.
+     *
+     * @param s The string to parse, e.g. {@code 3} or {@code #12}.
+     * @param errorMsg The error message to use if parsing fails.
+     * @param tasks The list the task is in.
+     * @return The 1-based task number.
+     * @throws SidException If the string cannot be parsed or no task has the id.
+     */
+    public static int parseTaskNumber(String s, String errorMsg, TodoList tasks) throws SidException {
+        assert s != null : "String to parse cannot be null";
+        assert tasks != null : "TodoList cannot be null";
+        String trimmed = s.trim();
+        if (!trimmed.startsWith(ID_PREFIX)) {
+            return parseIndex(trimmed, errorMsg);
+        }
+        int taskId;
+        try {
+            taskId = Integer.parseInt(trimmed.substring(ID_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new SidException(errorMsg);
+        }
+        if (taskId <= 0) {
+            throw new SidException(ResponseMessage.INVALID_TASK_ID.getMessage());
+        }
+        return tasks.positionOf(taskId);
+    }
+
+    /**
+     * Returns whether {@code s} selects tasks in a way only {@link #parseTaskNumbers} understands: several
+     * items separated by commas, a range, or {@code /find}.
+     *
+     * @param s The string to check.
+     * @return True if it is a selection rather than a single task number or id.
+     */
+    public static boolean isSelection(String s) {
+        String trimmed = s.trim();
+        return trimmed.contains(",") || trimmed.startsWith(FIND_PREFIX) || RANGE.matcher(trimmed).matches();
+    }
+
+    /**
+     * Parses a selection of tasks into task numbers. A selection is either items separated by commas, each a
+     * task number, a {@code #}id or a range of numbers such as {@code 9-12}, or {@code /find} followed by a
+     * query, which selects every task the query finds, e.g. {@code 3,7,9-12} or {@code /find invoice}.
+     *
+     * @param s The selection.
+     * @param errorMsg The error message to use if an item cannot be parsed.
+     * @param tasks The list the tasks are in.
+     * @return 1-based task numbers, ascending and without repeats.
+     * @throws SidException If an item cannot be parsed, a number is out of range or no task has an id.
+     */
+    public static int[] parseTaskNumbers(String s, String errorMsg, TodoList tasks) throws SidException {
+        assert s != null : "String to parse cannot be null";
+        assert tasks != null : "TodoList cannot be null";
+        String trimmed = s.trim();
+        if (trimmed.startsWith(FIND_PREFIX)) {
+            String query = trimmed.substring(FIND_PREFIX.length()).trim();
+            if (query.isEmpty()) {
+                throw new SidException(errorMsg);
+            }
+            return tasks.findNumbers(query);
+        }
+        int size = tasks.getSize();
+        BitSet selected = new BitSet(size + 1);
+        for (String item : trimmed.split(",")) {
+            Matcher range = RANGE.matcher(item.trim());
+            long first;
+            long last;
+            if (range.matches()) {
+                try {
+                    first = Long.parseLong(range.group(1));
+                    last = Long.parseLong(range.group(2));
+                } catch (NumberFormatException e) {
+                    throw new SidException(ResponseMessage.INVALID_TASK_NUMBER.getMessage());
+                }
+            } else {
+                first = parseTaskNumber(item, errorMsg, tasks);
+                last = first;
+            }
+            // Checked here rather than by the list, so that a huge number cannot size the set.
+            if (first < 1 || first > last || last > size) {
+                throw new SidException(ResponseMessage.INVALID_TASK_NUMBER.getMessage());
+            }
+            selected.set((int) first, (int) last + 1);
+        }
+        return selected.stream().toArray();
+    }
 
     /**
      * Parses a string to an integer index.
@@ -2,17 +2,27 @@ package sid.commands;
 
 import sid.exceptions.SidException;
 import sid.messages.ResponseMessage;
+import sid.models.TaskPage;
 import sid.models.TodoList;
 
 /**
- * Command to list all tasks.
+ * Command to list tasks, a page at a time.
+ *
+ * <p>{@code list} shows the first {@value PageOptions#DEFAULT_SIZE} tasks; see {@link PageOptions} for
+ * choosing another page or page size, or continuing after a task.
  */
 public class ListCommand implements Command {
     @Override
     public CommandResult execute(String arg, TodoList tasks) throws SidException {
+        PageOptions options = PageOptions.parse(arg);
         if (tasks.isEmpty()) {
             return new CommandResult(true, ResponseMessage.LIST_EMPTY.getMessage());
         }
-        return new CommandResult(true, ResponseMessage.LIST_WITH_TASKS.getMessageWith(tasks));
+        TaskPage page = tasks.listPage(options.getPage(), options.getAfterId(), options.getSize());
+        if (page.isEmpty()) {
+            String message = ResponseMessage.PAGE_PAST_END.getMessage() + page.getTotal() + " tasks.";
+            return new CommandResult(true, message, page);
+        }
+        return new CommandResult(true, ResponseMessage.LIST_WITH_TASKS.getMessage() + page, page);
     }
 }
@@ -7,6 +7,9 @@ import sid.models.TodoList;
 
 /**
  * Command to mark a task as done.
+ *
+ * <p>Several tasks can be marked at once with a selection, such as {@code mark 1-500}, {@code mark 3,7,9-12}
+ * or {@code mark /find invoice}; the list is then saved once for all of them.
  */
 public class MarkCommand implements Command {
     @Override
@@ -14,7 +17,13 @@ public class MarkCommand implements Command {
         if (arg.isEmpty()) {
             throw new SidException(ResponseMessage.MARK_USAGE_ERROR.getMessage());
         }
-        int id = IndexParser.parseIndex(arg, ResponseMessage.MARK_INVALID_NUMBER.getMessage());
+        if (IndexParser.isSelection(arg)) {
+            int[] ids = IndexParser.parseTaskNumbers(arg, ResponseMessage.MARK_INVALID_NUMBER.getMessage(), tasks);
+            int marked = tasks.markAll(ids).size();
+            return new CommandResult(true, ResponseMessage.MARK_BATCH_SUCCESS.getMessageWith(marked), null,
+                    tasks.getSize());
+        }
+        int id = IndexParser.parseTaskNumber(arg, ResponseMessage.MARK_INVALID_NUMBER.getMessage(), tasks);
         ToDo updated = tasks.markDone(id);
         return new CommandResult(true, ResponseMessage.MARK_SUCCESS.getMessageWith(updated), updated, tasks.getSize());
     }
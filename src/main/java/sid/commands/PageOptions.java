@@ -0,0 +1,103 @@
+package sid.commands;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import sid.exceptions.SidException;
+import sid.messages.ResponseMessage;
+
+/**
+ * Paging options at the end of a {@code list} or {@code find} command: {@code /page <n>}, {@code /size <n>}
+ * and {@code /after #<id>}, in any order.
+ *
+ * <p>Pages hold {@value #DEFAULT_SIZE} tasks unless {@code /size} says otherwise. {@code /after} continues
+ * from the task with the given id, as the end of a page suggests, and takes precedence over {@code /page}.
+ */
+public class PageOptions {
+    static final int DEFAULT_SIZE = 100;
+
+    /** Where the options start: the first option name that is a word of its own. */
+    private static final Pattern FIRST_OPTION = Pattern.compile("(^|\\s)/(page|size|after)(\\s|$)");
+
+    private final String text;
+    private final int page;
+    private final int size;
+    private final int afterId;
+
+    private PageOptions(String text, int page, int size, int afterId) {
+        this.text = text;
+        this.page = page;
+        this.size = size;
+        this.afterId = afterId;
+    }
+
+    /**
+     * Splits a command's argument into the text before any paging options, and the options.
+     *
+     * @param arg The argument, e.g. {@code report /page 2 /size 20}.
+     * @return The text and options, with defaults for options not given.
+     * @throws SidException If an option lacks its value or the value is not a positive number.
+     */
+    public static PageOptions parse(String arg) throws SidException {
+        assert arg != null : "Argument cannot be null";
+        Matcher matcher = FIRST_OPTION.matcher(arg);
+        if (!matcher.find()) {
+            return new PageOptions(arg.trim(), 1, DEFAULT_SIZE, 0);
+        }
+        String text = arg.substring(0, matcher.start()).trim();
+        String[] words = arg.substring(matcher.start()).trim().split("\\s+");
+        int page = 1;
+        int size = DEFAULT_SIZE;
+        int afterId = 0;
+        for (int i = 0; i < words.length; i += 2) {
+            if (i + 1 == words.length) {
+                throw new SidException(ResponseMessage.PAGE_USAGE_ERROR.getMessage());
+            }
+            switch (words[i]) {
+            case "/page":
+                page = parsePositive(words[i + 1]);
+                break;
+            case "/size":
+                size = parsePositive(words[i + 1]);
+                break;
+            case "/after":
+                afterId = parsePositive(words[i + 1].startsWith("#") ? words[i + 1].substring(1) : words[i + 1]);
+                break;
+            default:
+                throw new SidException(ResponseMessage.PAGE_USAGE_ERROR.getMessage());
+            }
+        }
+        return new PageOptions(text, page, size, afterId);
+    }
+
+    private static int parsePositive(String value) throws SidException {
+        try {
+            int number = Integer.parseInt(value);
+            if (number <= 0) {
+                throw new SidException(ResponseMessage.PAGE_USAGE_ERROR.getMessage());
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new SidException(ResponseMessage.PAGE_USAGE_ERROR.getMessage());
+        }
+    }
+
+    /** Returns the argument without the paging options, trimmed. */
+    public String getText() {
+        return this.text;
+    }
+
+    /** Returns the 1-based page number. */
+    public int getPage() {
+        return this.page;
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    /** Returns the id to continue after, or 0 to go by page number. */
+    public int getAfterId() {
+        return this.afterId;
+    }
+}
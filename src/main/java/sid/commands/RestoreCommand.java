@@ -0,0 +1,22 @@
+package sid.commands;
+
+import sid.exceptions.SidException;
+import sid.messages.ResponseMessage;
+import sid.models.ToDo;
+import sid.models.TodoList;
+
+/**
+ * Command to move an archived task back into the task list.
+ */
+public class RestoreCommand implements Command {
+    @Override
+    public CommandResult execute(String arg, TodoList tasks) throws SidException {
+        if (arg.isEmpty()) {
+            throw new SidException(ResponseMessage.RESTORE_USAGE_ERROR.getMessage());
+        }
+        int number = IndexParser.parseIndex(arg, ResponseMessage.RESTORE_INVALID_NUMBER.getMessage());
+        ToDo restored = tasks.restore(number);
+        return new CommandResult(true, ResponseMessage.RESTORE_SUCCESS.getMessageWith(restored), restored,
+                tasks.getSize());
+    }
+}
@@ -7,6 +7,8 @@ import sid.models.TodoList;
 
 /**
  * Command to unmark a task (mark as not done).
+ *
+ * <p>Takes the same selections as {@link MarkCommand}, such as {@code unmark 1-500}.
  */
 public class UnmarkCommand implements Command {
     @Override
@@ -14,7 +16,14 @@ public class UnmarkCommand implements Command {
         if (arg.isEmpty()) {
             throw new SidException(ResponseMessage.UNMARK_USAGE_ERROR.getMessage());
         }
-        int id = IndexParser.parseIndex(arg, ResponseMessage.UNMARK_INVALID_NUMBER.getMessage());
+        if (IndexParser.isSelection(arg)) {
+            int[] ids = IndexParser.parseTaskNumbers(arg, ResponseMessage.UNMARK_INVALID_NUMBER.getMessage(),
+                    tasks);
+            int unmarked = tasks.unmarkAll(ids).size();
+            return new CommandResult(true, ResponseMessage.UNMARK_BATCH_SUCCESS.getMessageWith(unmarked), null,
+                    tasks.getSize());
+        }
+        int id = IndexParser.parseTaskNumber(arg, ResponseMessage.UNMARK_INVALID_NUMBER.getMessage(), tasks);
         ToDo updated = tasks.unmarkDone(id);
         return new CommandResult(true, ResponseMessage.UNMARK_SUCCESS.getMessageWith(updated), updated,
                 tasks.getSize());
@@ -0,0 +1,93 @@
+package sid.commands;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import sid.exceptions.SidException;
+import sid.messages.ResponseMessage;
+import sid.models.TaskPage;
+import sid.models.TodoList;
+
+/**
+ * Command to show the pending deadlines due next.
+ *
+ * <p>{@code upcoming} shows the next {@value #DEFAULT_COUNT} deadlines, including overdue ones;
+ * {@code upcoming <n>} shows the next {@code n}. Adding {@code /within <duration>}, such as {@code 3d}, only
+ * shows deadlines due within that time from now. Durations are a number followed by {@code m} (minutes),
+ * {@code h} (hours), {@code d} (days) or {@code w} (weeks).
+ */
+public class UpcomingCommand implements Command {
+    static final int DEFAULT_COUNT = 5;
+
+    /** Most parts after splitting by "/within": count and duration. */
+    private static final int MAX_UPCOMING_PARTS = 2;
+
+    @Override
+    public CommandResult execute(String arg, TodoList tasks) throws SidException {
+        String[] seg = arg.split("\\s*/within\\s*", MAX_UPCOMING_PARTS);
+        int count = seg[0].isBlank() ? DEFAULT_COUNT : parseCount(seg[0]);
+        LocalDateTime dueBy = null;
+        if (seg.length == MAX_UPCOMING_PARTS) {
+            try {
+                dueBy = LocalDateTime.now().plus(parseDuration(seg[1]));
+            } catch (ArithmeticException | DateTimeException e) {
+                // Further ahead than dates go; every deadline is within it.
+                dueBy = null;
+            }
+        }
+        TaskPage upcoming = tasks.upcomingDeadlines(count, dueBy);
+        if (upcoming.isEmpty()) {
+            return new CommandResult(true, ResponseMessage.UPCOMING_NOTHING.getMessage(), upcoming);
+        }
+        return new CommandResult(true, ResponseMessage.UPCOMING_RESULTS.getMessage() + upcoming, upcoming);
+    }
+
+    private static int parseCount(String arg) throws SidException {
+        try {
+            int count = Integer.parseInt(arg.trim());
+            if (count <= 0) {
+                throw new SidException(ResponseMessage.UPCOMING_USAGE_ERROR.getMessage());
+            }
+            return count;
+        } catch (NumberFormatException e) {
+            throw new SidException(ResponseMessage.UPCOMING_USAGE_ERROR.getMessage());
+        }
+    }
+
+    /**
+     * Parses a duration such as {@code 90m}, {@code 12h}, {@code 3d} or {@code 2w}.
+     *
+     * @param arg The duration text.
+     * @return The parsed duration.
+     * @throws SidException If the text is not a positive number followed by a known unit.
+     */
+    static Duration parseDuration(String arg) throws SidException {
+        String text = arg.trim().toLowerCase();
+        if (text.length() < 2) {
+            throw new SidException(ResponseMessage.UPCOMING_USAGE_ERROR.getMessage());
+        }
+        long amount;
+        try {
+            amount = Long.parseLong(text.substring(0, text.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new SidException(ResponseMessage.UPCOMING_USAGE_ERROR.getMessage());
+        }
+        if (amount <= 0) {
+            throw new SidException(ResponseMessage.UPCOMING_USAGE_ERROR.getMessage());
+        }
+        switch (text.charAt(text.length() - 1)) {
+        case 'm':
+            return Duration.ofMinutes(amount);
+        case 'h':
+            return Duration.ofHours(amount);
+        case 'd':
+            return Duration.ofDays(amount);
+        case 'w':
+            return ChronoUnit.WEEKS.getDuration().multipliedBy(amount);
+        default:
+            throw new SidException(ResponseMessage.UPCOMING_USAGE_ERROR.getMessage());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package sid.commands;
+
+import sid.exceptions.SidException;
+import sid.messages.ResponseMessage;
+import sid.models.TodoList;
+import sid.storage.IntegrityReport;
+
+/**
+ * Command to check the saved tasks against their checksums, without reloading them.
+ */
+public class VerifyCommand implements Command {
+    @Override
+    public CommandResult execute(String arg, TodoList tasks) throws SidException {
+        IntegrityReport report = tasks.verifyStorage();
+        ResponseMessage message = report.isIntact() ? ResponseMessage.VERIFY_INTACT : ResponseMessage.VERIFY_CORRUPTED;
+        return new CommandResult(true, message.getMessageWith(report));
+    }
+}
@@ -11,22 +11,28 @@ public enum ResponseMessage {
 
     // Mark command messages
     MARK_SUCCESS("Sweet! Marking this one as done:\n"),
-    MARK_USAGE_ERROR("Usage: mark <task-number>"),
+    MARK_USAGE_ERROR("Usage: mark <task-number|#id> or mark <n,m,a-b,...|/find <keyword>>"),
+    MARK_BATCH_SUCCESS("Sweet! Tasks marked as done: "),
     MARK_INVALID_NUMBER("Please provide a valid number after 'mark'."),
 
     // Unmark command messages
     UNMARK_SUCCESS("Oops, not done yet? I've unmarked:\n"),
-    UNMARK_USAGE_ERROR("Usage: unmark <task-number>"),
+    UNMARK_USAGE_ERROR("Usage: unmark <task-number|#id> or unmark <n,m,a-b,...|/find <keyword>>"),
+    UNMARK_BATCH_SUCCESS("Oops, not done yet? Tasks unmarked: "),
     UNMARK_INVALID_NUMBER("Please provide a valid number after 'unmark'."),
 
     // Delete command messages
     DELETE_SUCCESS("Deleted your task:\n"),
-    DELETE_USAGE_ERROR("What do you want me to delete?\nUsage: delete <task-number>"),
+    DELETE_USAGE_ERROR("What do you want me to delete?\n"
+        + "Usage: delete <task-number|#id> or delete <n,m,a-b,...|/find <keyword>>"),
+    DELETE_BATCH_SUCCESS("Deleted your tasks: "),
     DELETE_INVALID_NUMBER("Please provide a valid number after 'delete'."),
 
     // List command messages
     LIST_EMPTY("Nothing on your agenda right now! Ready to get busy?"),
     LIST_WITH_TASKS("Here's what's keeping you busy:\n"),
+    PAGE_PAST_END("That page is past the end! There are only "),
+    PAGE_USAGE_ERROR("Paging options: [/page <n>] [/size <n>] [/after #<id>]"),
 
     // Event command messages
     EVENT_SUCCESS("Got it! I've blocked out this time for you:\n"),
@@ -42,13 +48,39 @@ public enum ResponseMessage {
     // Find command messages
     FIND_SUCCESS("Found some matches! Here's what I dug up:\n"),
     FIND_NO_RESULTS("Hmm, I couldn't find any tasks matching that. Try a different keyword?"),
-    FIND_USAGE_ERROR("Usage: find <keyword>"),
+    FIND_USAGE_ERROR("Usage: find <keyword> [AND|OR|NOT <keyword>]..."),
+
+    // Upcoming command messages
+    UPCOMING_RESULTS("Here's what's due next:\n"),
+    UPCOMING_NOTHING("No pending deadlines coming up. Enjoy the breather!"),
+    UPCOMING_USAGE_ERROR("Usage: upcoming [count] [/within <number><m|h|d|w>]"),
+
+    // Archive command messages
+    ARCHIVE_SUCCESS("Cleared out the done pile! Tasks moved to the archive: "),
+    ARCHIVE_NOTHING("No done tasks to archive yet."),
+    ARCHIVE_USAGE_ERROR("Usage: archive [days-since-done]"),
+    ARCHIVED_RESULTS("Here's what I dug out of the archive:\n"),
+    ARCHIVED_NO_RESULTS("Nothing like that in the archive."),
+    RESTORE_SUCCESS("Welcome back! Restored from the archive:\n"),
+    RESTORE_USAGE_ERROR("Usage: restore <archive-number>"),
+    RESTORE_INVALID_NUMBER("Please provide a valid archive number after 'restore'."),
+
+    // Verify command messages
+    VERIFY_INTACT("Your saved tasks look healthy! "),
+    VERIFY_CORRUPTED("Some saved tasks are damaged and will be skipped on the next start. "),
+
+    // Export and import command messages
+    EXPORT_SUCCESS("All packed up! Tasks exported: "),
+    EXPORT_USAGE_ERROR("Usage: export <file.csv|file.jsonl>"),
+    IMPORT_SUCCESS("Moved in! Tasks imported: "),
+    IMPORT_USAGE_ERROR("Usage: import <file.csv|file.jsonl>"),
 
     // Bye command messages
     BYE_MESSAGE("Byebye! See you next time!"),
 
     // General error messages
     INVALID_TASK_NUMBER("Not a valid task number!"),
+    INVALID_TASK_ID("No task has that id!"),
     NO_INPUT_PROVIDED("No input provided."),
 
     // Parser error messages
@@ -35,6 +35,13 @@ public class Deadline extends ToDo {
         this.type = TaskType.DEADLINE;
     }
 
+    /** Constructs a deadline from stored state without checking it; see {@link ToDo}'s matching constructor. */
+    Deadline(String description, LocalDateTime dueDate, boolean isDone, LocalDateTime doneAt, int id) {
+        super(description, isDone, doneAt, id);
+        this.dueDate = dueDate;
+        this.type = TaskType.DEADLINE;
+    }
+
     /**
      * Validates that the given date/time is not in the past.
      *
@@ -63,6 +70,16 @@ public class Deadline extends ToDo {
                 : dt.format(DATE_TIME_FMT);
     }
 
+    @Override
+    public boolean equals(Object other) {
+        return super.equals(other) && dueDate.equals(((Deadline) other).dueDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + dueDate.hashCode();
+    }
+
     @Override
     public String toString() {
         return super.toString() + " (by: " + format(this.dueDate) + ")";
@@ -0,0 +1,90 @@
+package sid.models;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Pending deadlines of a {@link TodoList} in due order, for {@link TodoList#upcomingDeadlines(int, LocalDateTime)}.
+ *
+ * <p>Deadlines are keyed by due date and then by id, which ascends in list order, so deadlines due together
+ * come out in list order. The index holds ids rather than tasks, as the list keeps no task objects to point
+ * at. Adding, removing, marking and unmarking a deadline each take O(log n), and listing the next k
+ * deadlines takes O(log n + k).
+ *
+ * <p>Not thread-safe for changes; {@link TodoList} only changes it under its write lock, while reads may run
+ * in parallel under its read lock.
+ */
+class DeadlineIndex {
+    private final TreeSet<Key> pending = new TreeSet<>();
+
+    private static class Key implements Comparable<Key> {
+        private final LocalDateTime due;
+        private final int id;
+
+        Key(Deadline deadline) {
+            this.due = deadline.getDueDate();
+            this.id = deadline.getId();
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int order = due.compareTo(other.due);
+            return order != 0 ? order : Integer.compare(id, other.id);
+        }
+    }
+
+    /**
+     * Builds the index of the deadlines among the given tasks.
+     *
+     * @param tasks Tasks in list order.
+     */
+    DeadlineIndex(List<ToDo> tasks) {
+        for (ToDo task : tasks) {
+            add(task);
+        }
+    }
+
+    /** Indexes a task appended to the end of the list; tasks other than deadlines are ignored. */
+    void add(ToDo task) {
+        if (task instanceof Deadline && !task.isDone()) {
+            pending.add(new Key((Deadline) task));
+        }
+    }
+
+    /** Removes a task that has left the list. */
+    void remove(ToDo task) {
+        if (task instanceof Deadline) {
+            pending.remove(new Key((Deadline) task));
+        }
+    }
+
+    /** Updates the index after a task in the list was marked or unmarked. */
+    void statusChanged(ToDo task) {
+        if (task.isDone()) {
+            remove(task);
+        } else {
+            add(task);
+        }
+    }
+
+    /**
+     * Returns the ids of the earliest pending deadlines.
+     *
+     * @param limit Most deadlines to return.
+     * @param dueBy Latest due date to include, or {@code null} for no limit.
+     * @return Up to {@code limit} ids in due order.
+     */
+    int[] next(int limit, LocalDateTime dueBy) {
+        int[] ids = new int[Math.min(limit, pending.size())];
+        int count = 0;
+        for (Key key : pending) {
+            if (count == ids.length || dueBy != null && key.due.isAfter(dueBy)) {
+                break;
+            }
+            ids[count++] = key.id;
+        }
+        return count == ids.length ? ids : Arrays.copyOf(ids, count);
+    }
+}
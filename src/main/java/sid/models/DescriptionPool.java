@@ -0,0 +1,182 @@
+package sid.models;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dictionary of task descriptions, as UTF-8 bytes, that lets the leaves of a {@link TaskSnapshot} share equal
+ * descriptions instead of each keeping a copy.
+ *
+ * <p>Lists tend to repeat a few descriptions ("standup", "pay invoice"). The first copy of a description is
+ * stored in its leaf's text column like any other, and the pool remembers where. A second copy gets a byte
+ * array of its own, which the pool hands to every later copy, in whichever leaf, in place of storing the bytes
+ * again. Only those later copies count as shared.
+ *
+ * <p>The pool is a fixed-size table indexed by a hash of the bytes: an equal description in its slot is
+ * found, and anything else takes the slot over. The table never grows, and holds leaf buffers and shared
+ * arrays only weakly, so descriptions of deleted tasks are collected as usual; a collision or a collected
+ * entry only costs a missed chance to share.
+ *
+ * <p>Not thread-safe; each {@link TaskTable} has its own, changed under its list's write lock like the rest of
+ * it. The totals over every pool, from {@link #totals()}, may be read from any thread.
+ */
+public final class DescriptionPool {
+    private static final int DEFAULT_CAPACITY = 1 << 12;
+
+    /** Header of a byte array, and a reference to one, on a 64-bit JVM with compressed pointers. */
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+
+    private static final LongAdder TOTAL_LOOKUPS = new LongAdder();
+    private static final LongAdder TOTAL_HITS = new LongAdder();
+    private static final LongAdder TOTAL_BYTES_SAVED = new LongAdder();
+
+    /** For each slot, the buffer holding the description, where in it the description is, and how long. */
+    private final WeakReference<byte[]>[] buffers;
+    private final int[] starts;
+    private final int[] lengths;
+    /** Whether a slot's buffer is an array of the description's own, which rows may point at. */
+    private final boolean[] isShared;
+
+    /** The reference last made to a leaf buffer; a leaf's descriptions all live in one. */
+    private WeakReference<byte[]> lastBuffer = new WeakReference<>(null);
+
+    private long lookups;
+    private long hits;
+    private long bytesSaved;
+
+    /** Constructs an empty pool of the default size. */
+    DescriptionPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty pool.
+     *
+     * @param capacity Number of slots; a power of two.
+     */
+    @SuppressWarnings("unchecked")
+    DescriptionPool(int capacity) {
+        assert capacity > 0 && Integer.bitCount(capacity) == 1 : "Capacity must be a power of two";
+        this.buffers = (WeakReference<byte[]>[]) new WeakReference<?>[capacity];
+        this.starts = new int[capacity];
+        this.lengths = new int[capacity];
+        this.isShared = new boolean[capacity];
+    }
+
+    /**
+     * Looks up a description about to be stored. If it was seen before, the caller should point its row at
+     * the returned array instead of storing the bytes; otherwise it stores them and calls
+     * {@link #remember(byte[], int, int)}.
+     *
+     * @param description The description's UTF-8 bytes, which the pool may keep as the shared copy.
+     * @return The shared copy of an equal description, or null if there is none.
+     */
+    byte[] share(byte[] description) {
+        lookups++;
+        TOTAL_LOOKUPS.increment();
+        int slot = slotOf(description, 0, description.length);
+        byte[] buffer = buffers[slot] == null ? null : buffers[slot].get();
+        int start = starts[slot];
+        if (buffer == null || !Arrays.equals(buffer, start, start + lengths[slot], description, 0,
+                description.length)) {
+            return null;
+        }
+        if (!isShared[slot]) {
+            // The second copy: it becomes the shared one, at the cost of an array of its own.
+            set(slot, new WeakReference<>(description), 0, description.length, true);
+            addBytesSaved(description.length - arraySize(description.length) - REFERENCE);
+            return description;
+        }
+        hits++;
+        TOTAL_HITS.increment();
+        addBytesSaved(description.length - REFERENCE);
+        return buffer;
+    }
+
+    /**
+     * Notes that a description not shared yet is stored at {@code buffer[start, start + length)}.
+     *
+     * @param buffer A leaf's text column; its bytes in the range never change.
+     */
+    void remember(byte[] buffer, int start, int length) {
+        int slot = slotOf(buffer, start, start + length);
+        set(slot, referenceTo(buffer), start, length, false);
+    }
+
+    /**
+     * Notes that a description stored at {@code oldBuffer[oldStart, ...)} has been copied to
+     * {@code newBuffer[newStart, ...)}, so that the pool keeps finding it once the old buffer is gone.
+     */
+    void moved(byte[] oldBuffer, int oldStart, byte[] newBuffer, int newStart, int length) {
+        int slot = slotOf(newBuffer, newStart, newStart + length);
+        if (!isShared[slot] && starts[slot] == oldStart && buffers[slot] != null
+                && buffers[slot].get() == oldBuffer) {
+            set(slot, referenceTo(newBuffer), newStart, length, false);
+        }
+    }
+
+    private void set(int slot, WeakReference<byte[]> buffer, int start, int length, boolean isShared) {
+        this.buffers[slot] = buffer;
+        this.starts[slot] = start;
+        this.lengths[slot] = length;
+        this.isShared[slot] = isShared;
+    }
+
+    private WeakReference<byte[]> referenceTo(byte[] buffer) {
+        if (lastBuffer.get() != buffer) {
+            lastBuffer = new WeakReference<>(buffer);
+        }
+        return lastBuffer;
+    }
+
+    private int slotOf(byte[] bytes, int from, int to) {
+        int hash = 1;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return (hash ^ (hash >>> 16)) & (buffers.length - 1);
+    }
+
+    private static int arraySize(int length) {
+        return (ARRAY_HEADER + length + 7) / 8 * 8;
+    }
+
+    private void addBytesSaved(long bytes) {
+        bytesSaved += bytes;
+        TOTAL_BYTES_SAVED.add(bytes);
+    }
+
+    /** Returns how many descriptions were looked up, one for each task added to the list. */
+    public long getLookups() {
+        return this.lookups;
+    }
+
+    /** Returns how many descriptions were stored as a reference to an equal shared one. */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns an estimate of the heap saved by sharing descriptions, in bytes: the bytes not stored by shared
+     * copies, less the references to them and the arrays made for them.
+     */
+    public long getBytesSaved() {
+        return this.bytesSaved;
+    }
+
+    /** Returns the statistics of every pool in this process so far, formatted like {@link #toString()}. */
+    public static String totals() {
+        return format(TOTAL_LOOKUPS.sum(), TOTAL_HITS.sum(), TOTAL_BYTES_SAVED.sum());
+    }
+
+    private static String format(long lookups, long hits, long bytesSaved) {
+        return String.format("%d descriptions, %d shared, about %d bytes saved", lookups, hits, bytesSaved);
+    }
+
+    @Override
+    public String toString() {
+        return format(lookups, hits, bytesSaved);
+    }
+}
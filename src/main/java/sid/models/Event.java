@@ -43,6 +43,15 @@ public class Event extends ToDo {
         this.endDate = endDate;
     }
 
+    /** Constructs an event from stored state without checking it; see {@link ToDo}'s matching constructor. */
+    Event(String description, LocalDateTime startDate, LocalDateTime endDate, boolean isDone, LocalDateTime doneAt,
+            int id) {
+        super(description, isDone, doneAt, id);
+        this.type = TaskType.EVENT;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
     /**
      * Validates that the given date/time is not in the past.
      *
@@ -83,6 +92,20 @@ public class Event extends ToDo {
                 : dt.format(DATE_TIME_FMT);
     }
 
+    @Override
+    public boolean equals(Object other) {
+        if (!super.equals(other)) {
+            return false;
+        }
+        Event that = (Event) other;
+        return startDate.equals(that.startDate) && endDate.equals(that.endDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * super.hashCode() + startDate.hashCode()) + endDate.hashCode();
+    }
+
     @Override
     public String toString() {
         return super.toString() + " (from: " + format(this.startDate) + ", to: " + format(this.endDate) + ")";
@@ -0,0 +1,189 @@
+package sid.models;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Interval tree of the events in a {@link TodoList}, for finding the events a new one would overlap.
+ *
+ * <p>Events are kept in an AVL tree ordered by start time, and every node also records the latest end time in
+ * its subtree. A lookup skips any subtree whose latest end is not after the new event's start, and anything
+ * right of a node starting at or after the new event's end, so it takes O(log n + k) for k overlapping
+ * events instead of a pass over the whole list.
+ *
+ * <p>The schedule holds each event's times and id rather than the event, as the list keeps no task objects to
+ * point at. Ids ascend in list order, so events starting together are ordered by id, and overlapping events
+ * are returned by id, which is list order.
+ *
+ * <p>Not thread-safe for changes; {@link TodoList} only changes it under its write lock, while reads may run
+ * in parallel under its read lock.
+ */
+class EventSchedule {
+    private Node root;
+    private int size;
+
+    private static class Node {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final int id;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        Node(Event event) {
+            this.start = event.getStartDate();
+            this.end = event.getEndDate();
+            this.id = event.getId();
+            this.maxEnd = end;
+        }
+    }
+
+    /**
+     * Builds the schedule of the events among the given tasks.
+     *
+     * @param tasks Tasks in list order.
+     */
+    EventSchedule(List<ToDo> tasks) {
+        for (ToDo task : tasks) {
+            if (task instanceof Event) {
+                add((Event) task);
+            }
+        }
+    }
+
+    /** Adds an event appended to the end of the list. */
+    void add(Event event) {
+        root = insert(root, new Node(event));
+        size++;
+    }
+
+    /** Removes an event that has left the list; does nothing if it is not in the schedule. */
+    void remove(Event event) {
+        root = delete(root, event.getStartDate(), event.getId());
+    }
+
+    /**
+     * Returns the ids of the events that overlap the given one, in list order. Events overlap when each starts
+     * before the other ends, so events that only touch at an endpoint do not.
+     */
+    int[] overlapping(Event event) {
+        int[] hits = new int[size];
+        int count = collect(root, event.getStartDate(), event.getEndDate(), hits, 0);
+        int[] ids = Arrays.copyOf(hits, count);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /** Adds the ids of overlapping events under {@code node} to {@code hits} from {@code count} on. */
+    private static int collect(Node node, LocalDateTime start, LocalDateTime end, int[] hits, int count) {
+        if (node == null || !node.maxEnd.isAfter(start)) {
+            return count;
+        }
+        count = collect(node.left, start, end, hits, count);
+        if (node.start.isBefore(end)) {
+            if (node.end.isAfter(start)) {
+                hits[count++] = node.id;
+            }
+            count = collect(node.right, start, end, hits, count);
+        }
+        return count;
+    }
+
+    private static int compare(LocalDateTime start, int id, Node node) {
+        int order = start.compareTo(node.start);
+        return order != 0 ? order : Integer.compare(id, node.id);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, LocalDateTime start, int id) {
+        if (node == null) {
+            return null;
+        }
+        int order = compare(start, id, node);
+        if (order < 0) {
+            node.left = delete(node.left, start, id);
+        } else if (order > 0) {
+            node.right = delete(node.right, start, id);
+        } else if (node.left == null) {
+            size--;
+            return node.right;
+        } else if (node.right == null) {
+            size--;
+            return node.left;
+        } else {
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = delete(node.right, successor.start, successor.id);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+}
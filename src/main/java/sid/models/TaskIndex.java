@@ -0,0 +1,373 @@
+package sid.models;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Trigram index from the three-character sequences of each task's list form to the tasks containing them,
+ * for {@link TodoList}.
+ *
+ * <p>Every task in the list gets an id when it is indexed. Ids only grow and tasks are only ever appended, so
+ * ids are in list order, and each posting list, the ids of the tasks containing one trigram, is a sorted
+ * {@code int[]}. Boolean queries are resolved by merging posting lists; only the tasks a query can match are
+ * ever looked at.
+ *
+ * <p>A keyword matches tasks whose lowercased list form contains it, exactly like a scan with
+ * {@link String#contains(CharSequence)}. Every task containing a keyword also contains all of the keyword's
+ * trigrams, so intersecting their posting lists gives a short list of candidates, which are then checked with
+ * {@code contains}. Keywords shorter than a trigram are checked against every task.
+ *
+ * <p>Not thread-safe for changes; {@link TodoList} only changes it under its write lock, while reads may run
+ * in parallel under its read lock.
+ */
+class TaskIndex {
+    /** Operator keywords; only recognised in upper case, so that lower-case words stay searchable. */
+    static final String AND = "AND";
+    static final String OR = "OR";
+    static final String NOT = "NOT";
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int GRAM_LENGTH = 3;
+
+    /** Below this many list entries per id, intersecting looks ids up instead of merging the lists. */
+    private static final int LOOKUP_RATIO = 16;
+
+    /** Posting lists keyed by trigram, with the three characters packed into one long. */
+    private final HashMap<Long, Postings> postings = new HashMap<>();
+
+    /** Id of the task at each list position, which is ascending. */
+    private final Postings ids = new Postings();
+    private int nextId;
+
+    /** Sorted ids of the tasks containing one trigram. */
+    private static class Postings {
+        private int[] values = new int[INITIAL_CAPACITY];
+        private int size;
+
+        void add(int id) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int i = size;
+            if (size > 0 && values[size - 1] > id) {
+                i = -Arrays.binarySearch(values, 0, size, id) - 1;
+                System.arraycopy(values, i, values, i + 1, size - i);
+            }
+            values[i] = id;
+            size++;
+        }
+
+        void removeAt(int i) {
+            System.arraycopy(values, i + 1, values, i, size - i - 1);
+            size--;
+        }
+
+        void remove(int id) {
+            int i = Arrays.binarySearch(values, 0, size, id);
+            if (i >= 0) {
+                removeAt(i);
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        /** Returns the ids in {@code sorted} that are also in this list; looks each one up if there are few. */
+        int[] retain(int[] sorted) {
+            if ((long) sorted.length * LOOKUP_RATIO >= size) {
+                return and(sorted, values, size);
+            }
+            int count = 0;
+            int from = 0;
+            int[] result = new int[sorted.length];
+            for (int id : sorted) {
+                int i = Arrays.binarySearch(values, from, size, id);
+                if (i >= 0) {
+                    result[count++] = id;
+                    from = i + 1;
+                } else {
+                    from = -i - 1;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+    }
+
+    /**
+     * Builds the index of the given tasks.
+     *
+     * @param tasks Tasks in list order.
+     */
+    TaskIndex(List<ToDo> tasks) {
+        for (ToDo task : tasks) {
+            append(task);
+        }
+    }
+
+    /** Indexes a task added at the end of the list. */
+    void append(ToDo task) {
+        int id = nextId++;
+        ids.add(id);
+        addGrams(id, task);
+    }
+
+    /** Removes the task at the given 0-based position from the index. */
+    void remove(int position, ToDo task) {
+        int id = ids.values[position];
+        ids.removeAt(position);
+        removeGrams(id, task);
+    }
+
+    /**
+     * Removes the trigrams of the task at the given position, before the task changes. Must be followed by
+     * {@link #reindex(int, ToDo)} once it has.
+     */
+    void unindex(int position, ToDo task) {
+        removeGrams(ids.values[position], task);
+    }
+
+    /** Indexes the trigrams of the task at the given position again, after it has changed. */
+    void reindex(int position, ToDo task) {
+        addGrams(ids.values[position], task);
+    }
+
+    private void addGrams(int id, ToDo task) {
+        for (long gram : grams(task.toString().toLowerCase())) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(id);
+        }
+    }
+
+    private void removeGrams(int id, ToDo task) {
+        for (long gram : grams(task.toString().toLowerCase())) {
+            Postings list = postings.get(gram);
+            if (list != null) {
+                list.remove(id);
+                if (list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /** Returns the distinct trigrams of lowercased text, packed into longs, in ascending order. */
+    static long[] grams(String text) {
+        int count = Math.max(text.length() - GRAM_LENGTH + 1, 0);
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = pack(text, i);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || grams[distinct - 1] != grams[i]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private static long pack(String text, int start) {
+        return (long) text.charAt(start) << 32 | (long) text.charAt(start + 1) << 16 | text.charAt(start + 2);
+    }
+
+    /**
+     * Returns the 0-based positions of the tasks matching a query, in list order.
+     *
+     * <p>A query is one or more keywords joined by {@code AND}, {@code OR} and {@code NOT}, where {@code NOT}
+     * binds tightest and {@code OR} loosest, e.g. {@code book OR pen AND NOT lost}. Words between operators
+     * form one keyword. Without operators, the whole query, trimmed, is a single keyword.
+     *
+     * @param query The query; must not be blank.
+     * @param tasks The indexed tasks, in list order.
+     * @return Matching positions, ascending.
+     */
+    int[] search(String query, List<ToDo> tasks) {
+        assert !query.isBlank() : "Query cannot be blank";
+        int[] matched = new QueryParser(query.trim(), tasks).parse();
+        int[] positions = new int[matched.length];
+        for (int i = 0; i < matched.length; i++) {
+            positions[i] = Arrays.binarySearch(ids.values, 0, ids.size, matched[i]);
+        }
+        return positions;
+    }
+
+    /** Returns the ids of tasks containing the keyword, ignoring case, in id order. */
+    private int[] match(String keyword, List<ToDo> tasks) {
+        String phrase = keyword.toLowerCase();
+        int[] candidates = phrase.length() < GRAM_LENGTH ? ids.toArray() : withGrams(grams(phrase));
+        int count = 0;
+        for (int id : candidates) {
+            int position = Arrays.binarySearch(ids.values, 0, ids.size, id);
+            if (tasks.get(position).toString().toLowerCase().contains(phrase)) {
+                candidates[count++] = id;
+            }
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    /** Returns the ids of tasks containing all the given trigrams, intersecting the shortest lists first. */
+    private int[] withGrams(long[] grams) {
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        int[] result = lists[0].toArray();
+        for (int i = 1; i < lists.length && result.length > 0; i++) {
+            result = lists[i].retain(result);
+        }
+        return result;
+    }
+
+    private static int[] and(int[] a, int[] b) {
+        return and(a, b, b.length);
+    }
+
+    /** Intersects {@code a} with the first {@code bLength} ids of {@code b}. */
+    private static int[] and(int[] a, int[] b, int bLength) {
+        int[] result = new int[Math.min(a.length, bLength)];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < a.length && j < bLength) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static int[] or(int[] a, int[] b) {
+        if (a.length == 0) {
+            return b;
+        }
+        int[] result = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                result[count++] = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                result[count++] = b[j++];
+            } else {
+                result[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static int[] andNot(int[] a, int[] b) {
+        int[] result = new int[a.length];
+        int j = 0;
+        int count = 0;
+        for (int id : a) {
+            while (j < b.length && b[j] < id) {
+                j++;
+            }
+            if (j == b.length || b[j] != id) {
+                result[count++] = id;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /** Recursive-descent evaluation of a query, resolving each keyword through the index. */
+    private class QueryParser {
+        private final String query;
+        private final String[] tokens;
+        private final List<ToDo> tasks;
+        private int pos;
+
+        QueryParser(String query, List<ToDo> tasks) {
+            this.query = query;
+            this.tokens = query.split("\\s+");
+            this.tasks = tasks;
+        }
+
+        int[] parse() {
+            boolean hasOperator = false;
+            for (String token : tokens) {
+                hasOperator |= isOperator(token);
+            }
+            if (!hasOperator) {
+                return match(query, tasks);
+            }
+            int[] result = parseOr();
+            while (pos < tokens.length) {
+                // A dangling operator, e.g. "book AND", is read as a keyword of its own.
+                result = or(result, parseOr());
+            }
+            return result;
+        }
+
+        private int[] parseOr() {
+            int[] result = parseAnd();
+            while (accept(OR)) {
+                result = or(result, parseAnd());
+            }
+            return result;
+        }
+
+        private int[] parseAnd() {
+            int[] result = parseNot();
+            while (pos < tokens.length && !tokens[pos].equals(OR)) {
+                // AND may be left out before NOT: "book NOT lost" reads as "book AND NOT lost".
+                accept(AND);
+                result = and(result, parseNot());
+            }
+            return result;
+        }
+
+        private int[] parseNot() {
+            if (accept(NOT)) {
+                return andNot(ids.toArray(), parseNot());
+            }
+            return parseKeyword();
+        }
+
+        private int[] parseKeyword() {
+            StringBuilder keyword = new StringBuilder();
+            while (pos < tokens.length && (!isOperator(tokens[pos]) || keyword.length() == 0 && isLast())) {
+                if (keyword.length() > 0) {
+                    keyword.append(' ');
+                }
+                keyword.append(tokens[pos++]);
+            }
+            if (keyword.length() == 0) {
+                // Operator with nothing to apply it to; treat the operator word as a keyword.
+                return match(tokens[pos++], tasks);
+            }
+            return match(keyword.toString(), tasks);
+        }
+
+        private boolean isLast() {
+            return pos == tokens.length - 1;
+        }
+
+        private boolean accept(String operator) {
+            if (pos < tokens.length - 1 && tokens[pos].equals(operator)) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean isOperator(String token) {
+            return token.equals(AND) || token.equals(OR) || token.equals(NOT);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package sid.models;
+
+/**
+ * One window of a listing, as returned by {@link TodoList#listPage(int, int, int)},
+ * {@link TodoList#findPage(String, int, int, int)} and {@link TodoList#upcomingDeadlines}: the numbered lines
+ * of the tasks in the window, and where the window sits in the whole listing.
+ *
+ * <p>{@link #toString()} adds a line saying which part of the listing is shown and, when more follows, the
+ * {@code /after} cursor that continues it.
+ */
+public final class TaskPage {
+    private final String lines;
+    private final int first;
+    private final int shown;
+    private final int total;
+    private final int nextAfterId;
+
+    /**
+     * Constructs a page.
+     *
+     * @param lines       Numbered lines of the tasks shown.
+     * @param first       Number of the first task shown, counting from 1.
+     * @param shown       Number of tasks shown.
+     * @param total       Number of tasks in the whole listing.
+     * @param nextAfterId Id to continue after, or 0 if nothing follows this page.
+     */
+    TaskPage(String lines, int first, int shown, int total, int nextAfterId) {
+        assert shown >= 0 && total >= shown : "Page cannot show more tasks than the listing has";
+        this.lines = lines;
+        this.first = first;
+        this.shown = shown;
+        this.total = total;
+        this.nextAfterId = nextAfterId;
+    }
+
+    /** Returns the numbered lines of the tasks shown, without the line about the rest of the listing. */
+    public String getLines() {
+        return this.lines;
+    }
+
+    /** Returns the number of the first task shown, counting from 1 across the whole listing. */
+    public int getFirst() {
+        return this.first;
+    }
+
+    public int getShown() {
+        return this.shown;
+    }
+
+    /** Returns the number of tasks in the whole listing, shown or not. */
+    public int getTotal() {
+        return this.total;
+    }
+
+    /** Returns the id to pass to {@code /after} for the next page, or 0 if this is the last one. */
+    public int getNextAfterId() {
+        return this.nextAfterId;
+    }
+
+    public boolean isEmpty() {
+        return this.shown == 0;
+    }
+
+    public boolean hasMore() {
+        return this.nextAfterId > 0;
+    }
+
+    @Override
+    public String toString() {
+        if (shown == total) {
+            return lines;
+        }
+        String range = "\n(Showing " + first + "-" + (first + shown - 1) + " of " + total;
+        return lines + range + (hasMore() ? ". Add /after #" + nextAfterId + " for more.)" : ".)");
+    }
+}
@@ -0,0 +1,989 @@
+package sid.models;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+import sid.enums.TaskType;
+
+/**
+ * An immutable version of a {@link TodoList}, as returned by {@link TodoList#snapshot()}. The current version
+ * is also where the list keeps its tasks.
+ *
+ * <p>Tasks are stored by column rather than as objects, in leaves of up to {@value #LEAF_CAPACITY} tasks. A
+ * leaf has a byte per task for its type, one bit in a {@code long} for whether it is done, an {@code int} id,
+ * its dates as epoch seconds in {@code long} columns, each made only once a task in the leaf has such a date,
+ * and its description as UTF-8 in one byte buffer shared
+ * by the whole leaf. That is a few dozen bytes per task, where a task object with its description and dates
+ * takes several hundred. A description seen before, in this leaf or another, is not stored again: its row
+ * points at a copy that every task with that description shares, which the list's {@link DescriptionPool}
+ * finds when the task is added. The {@link ToDo} objects that {@link #get(int)} and iteration return are views,
+ * made on demand from a row; changing one changes nothing here.
+ *
+ * <p>Leaves hang off a B+ tree in which every branch records how many tasks, and the largest id, are below
+ * each child. Nodes are never changed once a version can see them: a change copies the leaf it touches and
+ * the O(log n) branches above it, and shares every other node with the previous version, so the list can
+ * publish a new snapshot after each change and taking one costs nothing. Appending writes into spare room in
+ * the last leaf's columns when no other version has used that room, so adding tasks one by one does not copy
+ * a whole leaf each time. Leaves left nearly empty by removals are merged with a neighbour.
+ *
+ * <p>Ids must ascend in list order, which {@link TaskTable} ensures; {@link #positionOf(int)} relies on it to
+ * find a task by id in O(log n).
+ *
+ * <p>{@link #toString()} numbers the tasks like {@link TodoList#toString()} does. Rendering a task formats its
+ * dates, so each leaf keeps its tasks' rendered lines once made, and each snapshot keeps its whole listing. A
+ * change replaces only the leaf it touches, so listing again after it renders at most that leaf's tasks and
+ * copies the rest; listing an unchanged list returns the same string.
+ */
+public final class TaskSnapshot extends AbstractList<ToDo> implements RandomAccess {
+    static final TaskSnapshot EMPTY = new TaskSnapshot(null);
+
+    /** Tasks per leaf; one {@code long} holds their done flags. */
+    private static final int LEAF_CAPACITY = Long.SIZE;
+    private static final int BRANCH_CAPACITY = 32;
+
+    /** Leaves at or below this many tasks are merged with a neighbour when they fit together. */
+    private static final int MERGE_THRESHOLD = LEAF_CAPACITY / 4;
+
+    /** Stands for a missing date, such as the due date of a to-do or an unknown completion time. */
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    /** Slots per task in a leaf's nanosecond column, one for each date. */
+    private static final int DATES_PER_TASK = 3;
+    private static final int START = 0;
+    private static final int END = 1;
+    private static final int DONE_AT = 2;
+
+    private static final TaskType[] TYPES = TaskType.values();
+
+    private final Node root;
+
+    /** {@link #toString()} and {@link #toStringWithIds()}, kept once made; a snapshot never changes. */
+    private volatile String listing;
+    private volatile String listingWithIds;
+
+    private abstract static class Node {
+        abstract int size();
+
+        abstract int lastId();
+    }
+
+    /**
+     * Up to {@value #LEAF_CAPACITY} tasks in columns. The arrays may be longer than {@link #count}; rows past
+     * it belong to no task yet and are shared room for appends, guarded by {@link #claimed}.
+     */
+    private static final class Leaf extends Node {
+        final int count;
+        final long doneBits;
+        final byte[] types;
+        final int[] ids;
+        /** Due date of a deadline or start of an event; null while no row has one, as are the other dates. */
+        final long[] starts;
+        final long[] ends;
+        final long[] doneAts;
+        /** Nanoseconds of each date, {@value #DATES_PER_TASK} per task; null while every date is whole seconds. */
+        final int[] nanos;
+        final byte[] text;
+        /** End of each task's description in {@link #text}; it starts where the previous one ends. */
+        final int[] textEnds;
+        /** The shared copy of each row's description, where it has one; null while no row has. */
+        final byte[][] shared;
+        /**
+         * Rows that any leaf sharing these arrays has written, in a one-element array that all of them share.
+         * A leaf may append in place only while it is the one that wrote the last of them.
+         */
+        final int[] claimed;
+
+        /** The rendered tasks, made on first use; a leaf never changes, so neither do they. */
+        private volatile Lines lines;
+
+        Leaf(int count, long doneBits, byte[] types, int[] ids, long[] starts, long[] ends, long[] doneAts,
+                int[] nanos, byte[] text, int[] textEnds, byte[][] shared, int[] claimed) {
+            this.count = count;
+            this.doneBits = doneBits;
+            this.types = types;
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.doneAts = doneAts;
+            this.nanos = nanos;
+            this.text = text;
+            this.textEnds = textEnds;
+            this.shared = shared;
+            this.claimed = claimed;
+        }
+
+        @Override
+        int size() {
+            return count;
+        }
+
+        @Override
+        int lastId() {
+            return ids[count - 1];
+        }
+
+        int textStart(int row) {
+            return row == 0 ? 0 : textEnds[row - 1];
+        }
+
+        /** Returns the shared copy of a row's description, or null if it is stored in {@link #text}. */
+        byte[] sharedAt(int row) {
+            return shared == null ? null : shared[row];
+        }
+
+        boolean isDone(int row) {
+            return (doneBits >>> row & 1) != 0;
+        }
+
+        LocalDateTime time(long[] column, int row, int date) {
+            if (column == null || column[row] == NO_TIME) {
+                return null;
+            }
+            int nano = nanos == null ? 0 : nanos[row * DATES_PER_TASK + date];
+            return LocalDateTime.ofEpochSecond(column[row], nano, ZoneOffset.UTC);
+        }
+
+        ToDo view(int row) {
+            byte[] copy = sharedAt(row);
+            int from = textStart(row);
+            String description = copy != null ? new String(copy, StandardCharsets.UTF_8)
+                    : new String(text, from, textEnds[row] - from, StandardCharsets.UTF_8);
+            LocalDateTime doneAt = time(doneAts, row, DONE_AT);
+            switch (TYPES[types[row]]) {
+            case DEADLINE:
+                return new Deadline(description, time(starts, row, START), isDone(row), doneAt, ids[row]);
+            case EVENT:
+                return new Event(description, time(starts, row, START), time(ends, row, END), isDone(row), doneAt,
+                        ids[row]);
+            default:
+                return new ToDo(description, isDone(row), doneAt, ids[row]);
+            }
+        }
+
+        Lines lines() {
+            Lines rendered = lines;
+            if (rendered == null) {
+                StringBuilder text = new StringBuilder();
+                int[] ends = new int[count];
+                for (int row = 0; row < count; row++) {
+                    text.append(view(row));
+                    ends[row] = text.length();
+                }
+                rendered = new Lines(text.toString(), ends);
+                lines = rendered;
+            }
+            return rendered;
+        }
+
+        /** Returns this leaf with {@code task} appended; the caller checks that there is room for it. */
+        Leaf withAppended(ToDo task, DescriptionPool pool) {
+            assert count < LEAF_CAPACITY : "Leaf must have room for another task";
+            if (claimed[0] != count || count == types.length) {
+                // Another version has written past this one, or the arrays are full: append to copies.
+                LeafBuilder copy = new LeafBuilder(Math.min(LEAF_CAPACITY, Math.max(4, count * 2)), pool);
+                copy.addRows(this, 0, count);
+                copy.add(task);
+                return copy.build();
+            }
+            byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+            byte[] copy = pool.share(description);
+            int length = copy == null ? description.length : 0;
+            int from = textStart(count);
+            byte[] newText = text;
+            if (from + length > text.length) {
+                int size = count + 1 == LEAF_CAPACITY ? from + length : Math.max(text.length * 2, from + length);
+                newText = Arrays.copyOf(text, size);
+                for (int row = 0; row < count; row++) {
+                    int start = textStart(row);
+                    if (sharedAt(row) == null) {
+                        pool.moved(text, start, newText, start, textEnds[row] - start);
+                    }
+                }
+            }
+            int[] newNanos = nanos;
+            if (newNanos == null && hasNanos(task)) {
+                newNanos = new int[types.length * DATES_PER_TASK];
+            }
+            byte[][] newShared = shared;
+            if (newShared == null && copy != null) {
+                newShared = new byte[types.length][];
+            }
+            System.arraycopy(description, 0, newText, from, length);
+            textEnds[count] = from + length;
+            if (newShared != null) {
+                newShared[count] = copy;
+            }
+            if (copy == null) {
+                pool.remember(newText, from, length);
+            }
+            long[] newStarts = timesFor(starts, startOf(task), types.length);
+            long[] newEnds = timesFor(ends, endOf(task), types.length);
+            long[] newDoneAts = timesFor(doneAts, task.getDoneAt(), types.length);
+            writeRow(task, count, types, ids, newStarts, newEnds, newDoneAts, newNanos);
+            claimed[0] = count + 1;
+            long bits = task.isDone() ? doneBits | 1L << count : doneBits;
+            return new Leaf(count + 1, bits, types, ids, newStarts, newEnds, newDoneAts, newNanos, newText,
+                    textEnds, newShared, claimed);
+        }
+
+        /** Returns this leaf with the done state of one row changed; only the columns it touches are copied. */
+        Leaf withStatus(int row, boolean isDone, LocalDateTime doneAt) {
+            long[] newDoneAts = doneAts == null ? timesFor(null, doneAt, types.length) : doneAts.clone();
+            int[] newNanos = nanos;
+            if (newDoneAts != null) {
+                newDoneAts[row] = seconds(doneAt);
+            }
+            int nano = doneAt == null ? 0 : doneAt.getNano();
+            if (nanos != null || nano != 0) {
+                newNanos = nanos == null ? new int[types.length * DATES_PER_TASK] : nanos.clone();
+                newNanos[row * DATES_PER_TASK + DONE_AT] = nano;
+            }
+            long bits = isDone ? doneBits | 1L << row : doneBits & ~(1L << row);
+            return new Leaf(count, bits, types, ids, starts, ends, newDoneAts, newNanos, text, textEnds, shared,
+                    claimed);
+        }
+
+        /** Returns this leaf without one row. */
+        Leaf without(int row, DescriptionPool pool) {
+            LeafBuilder copy = new LeafBuilder(count - 1, pool);
+            copy.addRows(this, 0, row);
+            copy.addRows(this, row + 1, count);
+            return copy.build();
+        }
+    }
+
+    /** Each task of a leaf as {@link ToDo#toString()} renders it, one after another. */
+    private static final class Lines {
+        final String text;
+        /** End of each task's line in {@link #text}; it starts where the previous one ends. */
+        final int[] ends;
+
+        Lines(String text, int[] ends) {
+            this.text = text;
+            this.ends = ends;
+        }
+    }
+
+    /**
+     * Writes every column of a task except its description. A date column may be null if the task has no
+     * such date.
+     */
+    private static void writeRow(ToDo task, int row, byte[] types, int[] ids, long[] starts, long[] ends,
+            long[] doneAts, int[] nanos) {
+        types[row] = (byte) task.type.ordinal();
+        ids[row] = task.getId();
+        LocalDateTime start = startOf(task);
+        LocalDateTime end = endOf(task);
+        writeTime(starts, row, start);
+        writeTime(ends, row, end);
+        writeTime(doneAts, row, task.getDoneAt());
+        if (nanos != null) {
+            nanos[row * DATES_PER_TASK + START] = start == null ? 0 : start.getNano();
+            nanos[row * DATES_PER_TASK + END] = end == null ? 0 : end.getNano();
+            nanos[row * DATES_PER_TASK + DONE_AT] = task.getDoneAt() == null ? 0 : task.getDoneAt().getNano();
+        }
+    }
+
+    private static void writeTime(long[] column, int row, LocalDateTime time) {
+        assert column != null || time == null : "A task's date needs a column";
+        if (column != null) {
+            column[row] = seconds(time);
+        }
+    }
+
+    /** Returns {@code column}, or a new one with no time in any row if it is null and {@code time} is not. */
+    private static long[] timesFor(long[] column, LocalDateTime time, int length) {
+        return column != null || time == null ? column : newTimes(length);
+    }
+
+    private static long[] newTimes(int length) {
+        long[] times = new long[length];
+        Arrays.fill(times, NO_TIME);
+        return times;
+    }
+
+    private static long seconds(LocalDateTime time) {
+        return time == null ? NO_TIME : time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /** Returns the due date of a deadline or the start of an event, or null for a to-do. */
+    private static LocalDateTime startOf(ToDo task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getDueDate();
+        }
+        return task instanceof Event ? ((Event) task).getStartDate() : null;
+    }
+
+    private static LocalDateTime endOf(ToDo task) {
+        return task instanceof Event ? ((Event) task).getEndDate() : null;
+    }
+
+    private static boolean hasNanos(ToDo task) {
+        for (LocalDateTime time : new LocalDateTime[] {startOf(task), endOf(task), task.getDoneAt()}) {
+            if (time != null && time.getNano() != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fills the columns of a new leaf, copying rows from other leaves or adding tasks. Copied rows keep sharing
+     * their descriptions; added tasks are looked up in the pool, and the pool is told where the descriptions
+     * it remembers have moved.
+     */
+    private static final class LeafBuilder {
+        private final DescriptionPool pool;
+        private final byte[] types;
+        private final int[] ids;
+        private final int[] textEnds;
+        private long[] starts;
+        private long[] ends;
+        private long[] doneAts;
+        private int[] nanos;
+        private byte[] text;
+        private byte[][] shared;
+        private long doneBits;
+        private int count;
+
+        LeafBuilder(int capacity, DescriptionPool pool) {
+            this.pool = pool;
+            types = new byte[capacity];
+            ids = new int[capacity];
+            textEnds = new int[capacity];
+            text = new byte[capacity * 16];
+        }
+
+        boolean isFull() {
+            return count == types.length;
+        }
+
+        void add(ToDo task) {
+            if (nanos == null && hasNanos(task)) {
+                nanos = new int[types.length * DATES_PER_TASK];
+            }
+            byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+            byte[] copy = pool.share(description);
+            if (copy != null) {
+                appendShared(copy);
+            } else {
+                appendText(description, 0, description.length);
+                pool.remember(text, textEnds[count] - description.length, description.length);
+            }
+            starts = timesFor(starts, startOf(task), types.length);
+            ends = timesFor(ends, endOf(task), types.length);
+            doneAts = timesFor(doneAts, task.getDoneAt(), types.length);
+            writeRow(task, count, types, ids, starts, ends, doneAts, nanos);
+            if (task.isDone()) {
+                doneBits |= 1L << count;
+            }
+            count++;
+        }
+
+        void addRows(Leaf leaf, int from, int to) {
+            for (int row = from; row < to; row++) {
+                int textFrom = leaf.textStart(row);
+                int length = leaf.textEnds[row] - textFrom;
+                if (leaf.sharedAt(row) != null) {
+                    appendShared(leaf.sharedAt(row));
+                } else {
+                    appendText(leaf.text, textFrom, length);
+                    pool.moved(leaf.text, textFrom, text, textEnds[count] - length, length);
+                }
+                types[count] = leaf.types[row];
+                ids[count] = leaf.ids[row];
+                starts = copyTime(leaf.starts, row, starts);
+                ends = copyTime(leaf.ends, row, ends);
+                doneAts = copyTime(leaf.doneAts, row, doneAts);
+                if (leaf.nanos != null) {
+                    if (nanos == null) {
+                        nanos = new int[types.length * DATES_PER_TASK];
+                    }
+                    System.arraycopy(leaf.nanos, row * DATES_PER_TASK, nanos, count * DATES_PER_TASK,
+                            DATES_PER_TASK);
+                }
+                if (leaf.isDone(row)) {
+                    doneBits |= 1L << count;
+                }
+                count++;
+            }
+        }
+
+        private void appendText(byte[] source, int from, int length) {
+            int start = count == 0 ? 0 : textEnds[count - 1];
+            if (start + length > text.length) {
+                moveText(Arrays.copyOf(text, Math.max(text.length * 2, start + length)));
+            }
+            System.arraycopy(source, from, text, start, length);
+            textEnds[count] = start + length;
+        }
+
+        /** Copies a row's time from another leaf's column to the next row of {@code column}, and returns it. */
+        private long[] copyTime(long[] source, int row, long[] column) {
+            long time = source == null ? NO_TIME : source[row];
+            if (column == null && time == NO_TIME) {
+                return null;
+            }
+            long[] times = column == null ? newTimes(types.length) : column;
+            times[count] = time;
+            return times;
+        }
+
+        private void appendShared(byte[] copy) {
+            if (shared == null) {
+                shared = new byte[types.length][];
+            }
+            shared[count] = copy;
+            textEnds[count] = count == 0 ? 0 : textEnds[count - 1];
+        }
+
+        /** Replaces the text column with a copy of it, telling the pool where the rows' descriptions went. */
+        private void moveText(byte[] newText) {
+            for (int row = 0; row < count; row++) {
+                int start = row == 0 ? 0 : textEnds[row - 1];
+                if (shared == null || shared[row] == null) {
+                    pool.moved(text, start, newText, start, textEnds[row] - start);
+                }
+            }
+            text = newText;
+        }
+
+        Leaf build() {
+            int textLength = count == 0 ? 0 : textEnds[count - 1];
+            if (isFull()) {
+                // A full leaf is never appended to, so it keeps no spare room.
+                moveText(Arrays.copyOf(text, textLength));
+            }
+            return new Leaf(count, doneBits, types, ids, starts, ends, doneAts, nanos, text, textEnds, shared,
+                    new int[] {count});
+        }
+    }
+
+    /** Up to {@value #BRANCH_CAPACITY} children, with running task counts and each child's largest id. */
+    private static final class Branch extends Node {
+        final Node[] children;
+        /** Tasks in this child and every child before it. */
+        final int[] ends;
+        final int[] lastIds;
+
+        Branch(Node[] children) {
+            this.children = children;
+            this.ends = new int[children.length];
+            this.lastIds = new int[children.length];
+            int total = 0;
+            for (int i = 0; i < children.length; i++) {
+                total += children[i].size();
+                ends[i] = total;
+                lastIds[i] = children[i].lastId();
+            }
+        }
+
+        @Override
+        int size() {
+            return ends[ends.length - 1];
+        }
+
+        @Override
+        int lastId() {
+            return lastIds[lastIds.length - 1];
+        }
+
+        /** Returns the index of the child holding the given position. */
+        int childAt(int position) {
+            int low = 0;
+            int high = ends.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ends[mid] > position) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+
+        int offset(int child) {
+            return child == 0 ? 0 : ends[child - 1];
+        }
+
+        Branch with(int child, Node node) {
+            Node[] copy = children.clone();
+            copy[child] = node;
+            return new Branch(copy);
+        }
+
+        Branch withAppended(Node node) {
+            Node[] copy = Arrays.copyOf(children, children.length + 1);
+            copy[children.length] = node;
+            return new Branch(copy);
+        }
+
+        /** Returns this branch with {@code count} children from {@code child} on replaced by {@code node}. */
+        Branch replacing(int child, int count, Node node) {
+            Node[] copy = new Node[children.length - count + (node == null ? 0 : 1)];
+            System.arraycopy(children, 0, copy, 0, child);
+            int next = child;
+            if (node != null) {
+                copy[next++] = node;
+            }
+            System.arraycopy(children, child + count, copy, next, children.length - child - count);
+            return new Branch(copy);
+        }
+    }
+
+    /**
+     * Builds a snapshot from tasks in list order in O(n), with every leaf but the last full.
+     */
+    static final class Builder {
+        private final DescriptionPool pool;
+        private final List<Node> leaves = new ArrayList<>();
+        private LeafBuilder leaf;
+
+        /**
+         * @param pool The list's pool, which finds earlier copies of the added tasks' descriptions.
+         */
+        Builder(DescriptionPool pool) {
+            this.pool = pool;
+            this.leaf = new LeafBuilder(LEAF_CAPACITY, pool);
+        }
+
+        void add(ToDo task) {
+            nextLeafIfFull();
+            leaf.add(task);
+        }
+
+        /** Copies rows {@code [from, to)} of a leaf, which keeps their descriptions as they are stored. */
+        private void addRows(Leaf source, int from, int to) {
+            while (from < to) {
+                nextLeafIfFull();
+                int end = Math.min(to, from + LEAF_CAPACITY - leaf.count);
+                leaf.addRows(source, from, end);
+                from = end;
+            }
+        }
+
+        private void nextLeafIfFull() {
+            if (leaf.isFull()) {
+                leaves.add(leaf.build());
+                leaf = new LeafBuilder(LEAF_CAPACITY, pool);
+            }
+        }
+
+        TaskSnapshot build() {
+            if (leaf.count > 0) {
+                leaves.add(leaf.build());
+            }
+            List<Node> level = leaves;
+            while (level.size() > 1) {
+                List<Node> parents = new ArrayList<>((level.size() + BRANCH_CAPACITY - 1) / BRANCH_CAPACITY);
+                for (int from = 0; from < level.size(); from += BRANCH_CAPACITY) {
+                    List<Node> group = level.subList(from, Math.min(from + BRANCH_CAPACITY, level.size()));
+                    parents.add(new Branch(group.toArray(new Node[0])));
+                }
+                level = parents;
+            }
+            return level.isEmpty() ? EMPTY : new TaskSnapshot(level.get(0));
+        }
+    }
+
+    private TaskSnapshot(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns a snapshot of the given tasks.
+     *
+     * @param tasks Tasks in list order.
+     * @return The snapshot, built in O(n).
+     */
+    static TaskSnapshot of(List<ToDo> tasks) {
+        Builder builder = new Builder(new DescriptionPool());
+        for (ToDo task : tasks) {
+            builder.add(task);
+        }
+        return builder.build();
+    }
+
+    /** Returns a snapshot with {@code task} appended, its description shared through {@code pool}. */
+    TaskSnapshot withAdded(ToDo task, DescriptionPool pool) {
+        if (root == null) {
+            LeafBuilder leaf = new LeafBuilder(4, pool);
+            leaf.add(task);
+            return new TaskSnapshot(leaf.build());
+        }
+        Node[] result = append(root, task, pool);
+        return new TaskSnapshot(result.length == 1 ? result[0] : new Branch(result));
+    }
+
+    /**
+     * Returns a snapshot in which the task at the given 0-based position has the given done state. Nothing
+     * else about the task changes.
+     */
+    TaskSnapshot withStatus(int position, boolean isDone, LocalDateTime doneAt) {
+        checkPosition(position);
+        return new TaskSnapshot(setStatus(root, position, isDone, doneAt));
+    }
+
+    /**
+     * Returns a snapshot without the task at the given 0-based position. {@code pool} is told where the
+     * descriptions of the tasks copied along with it have moved.
+     */
+    TaskSnapshot withRemoved(int position, DescriptionPool pool) {
+        checkPosition(position);
+        Node node = remove(root, position, pool);
+        while (node instanceof Branch && ((Branch) node).children.length == 1) {
+            node = ((Branch) node).children[0];
+        }
+        return new TaskSnapshot(node);
+    }
+
+    /**
+     * Returns a snapshot without the tasks at the given positions, built in one pass from copies of the rows
+     * that are left.
+     *
+     * @param positions 0-based positions, ascending and without repeats.
+     * @param pool      The list's pool, told where the copied descriptions have moved.
+     * @return The snapshot, built in O(n).
+     */
+    TaskSnapshot withoutAll(int[] positions, DescriptionPool pool) {
+        List<Leaf> leaves = new ArrayList<>();
+        collectLeaves(root, leaves);
+        Builder builder = new Builder(pool);
+        int next = 0;
+        int offset = 0;
+        for (Leaf leaf : leaves) {
+            int from = 0;
+            while (next < positions.length && positions[next] < offset + leaf.count) {
+                int row = positions[next++] - offset;
+                assert row >= from : "Positions must be ascending";
+                builder.addRows(leaf, from, row);
+                from = row + 1;
+            }
+            builder.addRows(leaf, from, leaf.count);
+            offset += leaf.count;
+        }
+        assert next == positions.length : "Positions must be within the snapshot";
+        return builder.build();
+    }
+
+    private static void collectLeaves(Node node, List<Leaf> leaves) {
+        if (node instanceof Branch) {
+            for (Node child : ((Branch) node).children) {
+                collectLeaves(child, leaves);
+            }
+        } else if (node != null) {
+            leaves.add((Leaf) node);
+        }
+    }
+
+    /**
+     * Returns the position of the task with the given id.
+     *
+     * @param id Task id.
+     * @return The 0-based position, or -1 if no task has that id.
+     */
+    int positionOf(int id) {
+        Node node = root;
+        int offset = 0;
+        while (node instanceof Branch) {
+            Branch branch = (Branch) node;
+            int child = Arrays.binarySearch(branch.lastIds, id);
+            if (child < 0) {
+                child = -child - 1;
+                if (child == branch.lastIds.length) {
+                    return -1;
+                }
+            }
+            offset += branch.offset(child);
+            node = branch.children[child];
+        }
+        if (node == null) {
+            return -1;
+        }
+        Leaf leaf = (Leaf) node;
+        int row = Arrays.binarySearch(leaf.ids, 0, leaf.count, id);
+        return row < 0 ? -1 : offset + row;
+    }
+
+    /** Returns the id of the last task, or 0 if there are none. */
+    int lastId() {
+        return root == null ? 0 : root.lastId();
+    }
+
+    /** Returns the number of levels in the tree, for tests of its shape. */
+    int height() {
+        int height = 0;
+        for (Node node = root; node != null; node = node instanceof Branch ? ((Branch) node).children[0] : null) {
+            height++;
+        }
+        return height;
+    }
+
+    @Override
+    public ToDo get(int position) {
+        int[] row = new int[1];
+        return leafAt(position, row).view(row[0]);
+    }
+
+    /**
+     * Returns the tasks at positions {@code [from, to)}, numbered by position and with ids, as
+     * {@link #toStringWithIds()} shows them. Takes time in proportion to the range, not the list.
+     *
+     * @param from 0-based position of the first task.
+     * @param to   0-based position after the last task.
+     * @return The numbered tasks with ids.
+     */
+    public String toStringWithIds(int from, int to) {
+        if (from < 0 || from > to || to > size()) {
+            throw new IndexOutOfBoundsException("Range " + from + " to " + to + " of " + size());
+        }
+        return format(from, to, true);
+    }
+
+    /** Returns the task at the given position as {@link ToDo#toString()} renders it. */
+    String lineAt(int position) {
+        int[] row = new int[1];
+        Lines lines = leafAt(position, row).lines();
+        return lines.text.substring(row[0] == 0 ? 0 : lines.ends[row[0] - 1], lines.ends[row[0]]);
+    }
+
+    /** Returns the id of the task at the given position. */
+    int idAt(int position) {
+        int[] row = new int[1];
+        return leafAt(position, row).ids[row[0]];
+    }
+
+    /**
+     * Returns the position of the first task whose id is larger than the given one, or the size if there is
+     * none. Works whether or not a task has that id, so it can continue from a task that was deleted.
+     *
+     * @param id Task id.
+     * @return The 0-based position.
+     */
+    int positionAfter(int id) {
+        Node node = root;
+        int offset = 0;
+        while (node instanceof Branch) {
+            Branch branch = (Branch) node;
+            int child = 0;
+            while (child < branch.lastIds.length && branch.lastIds[child] <= id) {
+                child++;
+            }
+            if (child == branch.lastIds.length) {
+                return offset + branch.size();
+            }
+            offset += branch.offset(child);
+            node = branch.children[child];
+        }
+        if (node == null) {
+            return 0;
+        }
+        Leaf leaf = (Leaf) node;
+        int row = 0;
+        while (row < leaf.count && leaf.ids[row] <= id) {
+            row++;
+        }
+        return offset + row;
+    }
+
+    /** Returns the leaf holding the given position, and the position's row in it in {@code row[0]}. */
+    private Leaf leafAt(int position, int[] row) {
+        checkPosition(position);
+        Node node = root;
+        while (node instanceof Branch) {
+            Branch branch = (Branch) node;
+            int child = branch.childAt(position);
+            position -= branch.offset(child);
+            node = branch.children[child];
+        }
+        row[0] = position;
+        return (Leaf) node;
+    }
+
+    @Override
+    public int size() {
+        return root == null ? 0 : root.size();
+    }
+
+    /** Walks the leaves in order, which finds each leaf once rather than once per task as {@link #get} does. */
+    @Override
+    public Iterator<ToDo> iterator() {
+        return new InOrder();
+    }
+
+    @Override
+    public String toString() {
+        return format(false);
+    }
+
+    /**
+     * Returns the tasks numbered as {@link TodoList#toStringWithIds()} does.
+     *
+     * @return The numbered tasks with ids.
+     */
+    public String toStringWithIds() {
+        return format(true);
+    }
+
+    private String format(boolean showIds) {
+        String cached = showIds ? listingWithIds : listing;
+        if (cached != null) {
+            return cached;
+        }
+        String formatted = format(0, size(), showIds);
+        if (showIds) {
+            listingWithIds = formatted;
+        } else {
+            listing = formatted;
+        }
+        return formatted;
+    }
+
+    private String format(int from, int to, boolean showIds) {
+        StringBuilder output = new StringBuilder();
+        if (from < to) {
+            render(root, 0, from, to, output, showIds);
+        }
+        return output.toString();
+    }
+
+    /**
+     * Appends the numbered lines of the tasks under {@code node} at positions {@code [from, to)}, where the
+     * node's first task is at {@code offset}. Only leaves in the range are visited.
+     */
+    private static void render(Node node, int offset, int from, int to, StringBuilder output, boolean showIds) {
+        if (node instanceof Branch) {
+            Branch branch = (Branch) node;
+            for (int child = branch.childAt(from - offset); child < branch.children.length; child++) {
+                int start = offset + branch.offset(child);
+                if (start >= to) {
+                    break;
+                }
+                render(branch.children[child], start, from, to, output, showIds);
+            }
+            return;
+        }
+        Leaf leaf = (Leaf) node;
+        Lines lines = leaf.lines();
+        for (int row = Math.max(0, from - offset); row < leaf.count && offset + row < to; row++) {
+            if (offset + row > from) {
+                output.append("\n");
+            }
+            output.append(offset + row + 1).append(". ").append(lines.text, row == 0 ? 0 : lines.ends[row - 1],
+                    lines.ends[row]);
+            if (showIds) {
+                output.append(" #").append(leaf.ids[row]);
+            }
+        }
+    }
+
+    private void checkPosition(int position) {
+        if (position < 0 || position >= size()) {
+            throw new IndexOutOfBoundsException("Position " + position + " of " + size());
+        }
+    }
+
+    /** Returns the node with {@code task} appended, followed by a new right sibling if the node split. */
+    private static Node[] append(Node node, ToDo task, DescriptionPool pool) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            if (leaf.count < LEAF_CAPACITY) {
+                return new Node[] {leaf.withAppended(task, pool)};
+            }
+            LeafBuilder sibling = new LeafBuilder(4, pool);
+            sibling.add(task);
+            return new Node[] {leaf, sibling.build()};
+        }
+        Branch branch = (Branch) node;
+        int last = branch.children.length - 1;
+        Node[] result = append(branch.children[last], task, pool);
+        Branch updated = branch.with(last, result[0]);
+        if (result.length == 1) {
+            return new Node[] {updated};
+        }
+        if (updated.children.length < BRANCH_CAPACITY) {
+            return new Node[] {updated.withAppended(result[1])};
+        }
+        return new Node[] {updated, new Branch(new Node[] {result[1]})};
+    }
+
+    private static Node setStatus(Node node, int position, boolean isDone, LocalDateTime doneAt) {
+        if (node instanceof Leaf) {
+            return ((Leaf) node).withStatus(position, isDone, doneAt);
+        }
+        Branch branch = (Branch) node;
+        int child = branch.childAt(position);
+        return branch.with(child, setStatus(branch.children[child], position - branch.offset(child), isDone,
+                doneAt));
+    }
+
+    /** Returns the node without the task at the given position, or null if nothing is left of it. */
+    private static Node remove(Node node, int position, DescriptionPool pool) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            return leaf.count == 1 ? null : leaf.without(position, pool);
+        }
+        Branch branch = (Branch) node;
+        int child = branch.childAt(position);
+        Node updated = remove(branch.children[child], position - branch.offset(child), pool);
+        if (updated == null) {
+            return branch.children.length == 1 ? null : branch.replacing(child, 1, null);
+        }
+        if (updated instanceof Leaf && updated.size() <= MERGE_THRESHOLD) {
+            for (int neighbour : new int[] {child - 1, child + 1}) {
+                if (neighbour >= 0 && neighbour < branch.children.length
+                        && branch.children[neighbour].size() + updated.size() <= LEAF_CAPACITY) {
+                    int first = Math.min(child, neighbour);
+                    Leaf left = (Leaf) (first == child ? updated : branch.children[first]);
+                    Leaf right = (Leaf) (first == child ? branch.children[neighbour] : updated);
+                    LeafBuilder merged = new LeafBuilder(left.count + right.count, pool);
+                    merged.addRows(left, 0, left.count);
+                    merged.addRows(right, 0, right.count);
+                    return branch.replacing(first, 2, merged.build());
+                }
+            }
+        }
+        return branch.with(child, updated);
+    }
+
+    /** Iterates leaf by leaf, looking up the next leaf from the root when one runs out. */
+    private class InOrder implements Iterator<ToDo> {
+        private int position;
+        private Leaf leaf;
+        private int row;
+
+        @Override
+        public boolean hasNext() {
+            return position < size();
+        }
+
+        @Override
+        public ToDo next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (leaf == null || row == leaf.count) {
+                Node node = root;
+                row = position;
+                while (node instanceof Branch) {
+                    Branch branch = (Branch) node;
+                    int child = branch.childAt(row);
+                    row -= branch.offset(child);
+                    node = branch.children[child];
+                }
+                leaf = (Leaf) node;
+            }
+            position++;
+            return leaf.view(row++);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package sid.models;
+
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * The tasks of a {@link TodoList} by position, with a lookup from each task's stable id to its position.
+ *
+ * <p>The tasks live in a {@link TaskSnapshot}, which stores them by column; this table holds the current
+ * version and replaces it on every change, in O(log n) for one task. The tasks it returns are views, so a
+ * change to one must be written back with {@link #updateStatus(int, ToDo)}.
+ *
+ * <p>Ids are positive, unique within the table, and ascend in list order. A task added without an id, or
+ * with one no larger than the last task's, is given the next unused id: one more than the largest id seen so
+ * far, or the high-water mark set by {@link #reserveIds(int)} if that is larger. Storage keeps that mark, so
+ * the id of a deleted task is not handed out again after a restart.
+ *
+ * <p>There is no separate map from id to position, and a deleted task leaves no tombstone behind. Positions
+ * count the tasks that are left, so a map or tombstones would still need a search to turn a position into a
+ * task, and a map would have to be updated for every task after a deleted one. The snapshot finds a task by
+ * position or by id in O(log n), in at most four levels for a million tasks, and a delete copies only the
+ * path to its leaf.
+ *
+ * <p>Not thread-safe for changes; {@link TodoList} only changes it under its write lock, while reads may run
+ * in parallel under its read lock. {@link #snapshot()} needs no lock at all.
+ */
+class TaskTable extends AbstractList<ToDo> implements RandomAccess {
+    private volatile TaskSnapshot current = TaskSnapshot.EMPTY;
+    private final DescriptionPool descriptions = new DescriptionPool();
+    private int nextId = 1;
+
+    @Override
+    public ToDo get(int position) {
+        return current.get(position);
+    }
+
+    @Override
+    public int size() {
+        return current.size();
+    }
+
+    /**
+     * Appends a task, giving it a new id if it has none or its id would not follow the last task's.
+     *
+     * @return Always true.
+     */
+    @Override
+    public boolean add(ToDo task) {
+        assert task != null : "Task cannot be null";
+        assignId(task, current.lastId());
+        current = current.withAdded(task, descriptions);
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Appends tasks as {@link #add(ToDo)} does, building the columns in one pass when the table is empty.
+     *
+     * @return Whether any task was added.
+     */
+    @Override
+    public boolean addAll(Collection<? extends ToDo> tasks) {
+        if (!isEmpty()) {
+            return super.addAll(tasks);
+        }
+        TaskSnapshot.Builder builder = new TaskSnapshot.Builder(descriptions);
+        int lastId = 0;
+        for (ToDo task : tasks) {
+            assert task != null : "Task cannot be null";
+            assignId(task, lastId);
+            lastId = task.getId();
+            builder.add(task);
+        }
+        current = builder.build();
+        modCount++;
+        return !tasks.isEmpty();
+    }
+
+    private void assignId(ToDo task, int lastId) {
+        int id = task.getId();
+        if (id <= lastId) {
+            id = nextId;
+            task.setId(id);
+        }
+        nextId = Math.max(nextId, id + 1);
+    }
+
+    /**
+     * Raises the next id to be assigned to at least {@code nextId}; a lower value leaves it as it is.
+     *
+     * @param nextId The smallest id that may still be given to a new task.
+     */
+    void reserveIds(int nextId) {
+        this.nextId = Math.max(this.nextId, nextId);
+    }
+
+    /** Returns the id the next task added without one will be given. */
+    int nextId() {
+        return nextId;
+    }
+
+    /**
+     * Removes the task at a position.
+     *
+     * @return The removed task.
+     */
+    @Override
+    public ToDo remove(int position) {
+        ToDo task = current.get(position);
+        current = current.withRemoved(position, descriptions);
+        modCount++;
+        return task;
+    }
+
+    /** Removes the matching tasks in one pass, rebuilding the columns from those that are left. */
+    @Override
+    public boolean removeIf(Predicate<? super ToDo> filter) {
+        int[] positions = new int[size()];
+        int count = 0;
+        int position = 0;
+        for (ToDo task : current) {
+            if (filter.test(task)) {
+                positions[count++] = position;
+            }
+            position++;
+        }
+        if (count == 0) {
+            return false;
+        }
+        current = current.withoutAll(Arrays.copyOf(positions, count), descriptions);
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Removes the tasks at the given positions in one pass, rebuilding the columns from those that are left.
+     *
+     * @param positions 0-based positions, ascending and without repeats.
+     * @return The removed tasks, in list order.
+     */
+    List<ToDo> removeAll(int[] positions) {
+        List<ToDo> removed = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            removed.add(current.get(position));
+        }
+        current = current.withoutAll(positions, descriptions);
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * Writes the done state of a task back to its position.
+     *
+     * @param position 0-based position of the task.
+     * @param task The task as it should now be; only whether it is done, and since when, is taken from it.
+     */
+    void updateStatus(int position, ToDo task) {
+        assert task.getId() == current.get(position).getId() : "Task must be the one at the position";
+        LocalDateTime doneAt = task.getDoneAt();
+        current = current.withStatus(position, task.isDone(), doneAt);
+    }
+
+    /**
+     * Returns the position of the task with the given id.
+     *
+     * @param id Stable task id.
+     * @return The 0-based position, or -1 if no task has that id.
+     */
+    int positionOf(int id) {
+        return id > 0 ? current.positionOf(id) : -1;
+    }
+
+    /** Returns the pool through which the table's tasks share their descriptions. */
+    DescriptionPool descriptions() {
+        return descriptions;
+    }
+
+    /** Returns the current version of the table, which later changes leave as it is. */
+    TaskSnapshot snapshot() {
+        return current;
+    }
+}
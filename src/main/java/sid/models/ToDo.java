@@ -1,5 +1,9 @@
 package sid.models;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
 import sid.enums.TaskType;
 
 /**
@@ -23,6 +27,12 @@ public class ToDo {
     /** Whether the task has been completed. */
     private boolean isDone;
 
+    /** When the task was marked done, to the minute; null if not done or not known. */
+    private LocalDateTime doneAt;
+
+    /** Stable id given by the {@link TodoList} holding the task; 0 until it has one. */
+    private int id;
+
     /**
      * Constructs a to-do task with the given description and completion flag.
      *
@@ -37,9 +47,24 @@ public class ToDo {
     }
 
     /**
-     * Marks this task as completed.
+     * Constructs a task from stored state, e.g. as a view of a {@link TaskSnapshot} row. Nothing is checked
+     * again, so tasks that are already due can be read back.
+     */
+    ToDo(String description, boolean isDone, LocalDateTime doneAt, int id) {
+        this.description = description;
+        this.isDone = isDone;
+        this.doneAt = doneAt;
+        this.id = id;
+    }
+
+    /**
+     * Marks this task as completed, recording the current time as its completion time unless it was
+     * already done.
      */
     public void markTask() {
+        if (!this.isDone) {
+            this.doneAt = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        }
         this.isDone = true;
     }
 
@@ -48,16 +73,70 @@ public class ToDo {
      */
     public void unmarkTask() {
         this.isDone = false;
+        this.doneAt = null;
     }
 
     public boolean isDone() {
         return this.isDone;
     }
 
+    /** Returns when this task was marked done, or null if it is not done or the time is not known. */
+    public LocalDateTime getDoneAt() {
+        return this.doneAt;
+    }
+
+    /**
+     * Restores the completion time of a done task, e.g. when loading it from storage.
+     *
+     * @param doneAt Completion time, or null if not known.
+     */
+    public void setDoneAt(LocalDateTime doneAt) {
+        assert doneAt == null || this.isDone : "Only done tasks have a completion time";
+        this.doneAt = doneAt;
+    }
+
     public String getDescription() {
         return this.description;
     }
 
+    /** Returns this task's stable id, or 0 if no list has given it one yet. */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Sets this task's stable id, e.g. when loading it from storage. A {@link TodoList} replaces an id that is
+     * missing, or no larger than the last task's, when the task is added to it.
+     *
+     * @param id Positive id, or 0 for none.
+     */
+    public void setId(int id) {
+        assert id >= 0 : "Task id cannot be negative";
+        this.id = id;
+    }
+
+    /**
+     * Returns whether {@code other} is a task of the same kind with the same state and id. A {@link TodoList}
+     * makes a new object each time a task is read, so two reads of one task are equal but not the same object.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || other.getClass() != getClass()) {
+            return false;
+        }
+        ToDo that = (ToDo) other;
+        return isDone == that.isDone && id == that.id && description.equals(that.description)
+                && Objects.equals(doneAt, that.doneAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, description, isDone, doneAt, id);
+    }
+
     @Override
     public String toString() {
         return "[" + this.type + "][" + (this.isDone ? DONE_FLAG : NOT_DONE_FLAG) + "] " + this.description;
@@ -1,31 +1,94 @@
 package sid.models;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 import sid.exceptions.SidException;
 import sid.messages.ResponseMessage;
-import sid.storage.Storage;
+import sid.storage.ArchivedTask;
+import sid.storage.Change;
+import sid.storage.IntegrityReport;
+import sid.storage.StorageBackend;
+import sid.storage.TaskRecord;
 
 /**
  * Holds an in-memory list of tasks and provides user-facing operations.
  *
  * <p>All mutating operations ({@code add}, {@code delete}, {@code markDone}, {@code unmarkDone})
- * automatically persist the updated list via the injected {@link Storage}
+ * automatically persist the change via the injected {@link StorageBackend}
+ *
+ * <p>The list is safe to use from several threads. Reads ({@code getTodo}, {@code findTodos} and the like)
+ * hold a read lock, so they run in parallel with each other; changes hold the write lock, so they run one at
+ * a time and never alongside a read. Storage takes the same locks, through {@link #readLock()} and
+ * {@link #writeLock()}, to copy the list consistently from a background writer. Both locks are reentrant,
+ * and the thread holding the write lock may also take the read lock, but not the other way around.
+ *
+ * <p>The list's locks come first: changes call into storage while holding the write lock, and storage takes
+ * its own locks only after the list's, including on its background threads. Storage may need the write lock
+ * to apply another process's changes, so {@link #refresh()} must not be called while holding the read lock.
+ *
+ * <p>The tasks are kept in an immutable {@link TaskSnapshot}, stored by column rather than as one object per
+ * task, and every change replaces it. {@link #snapshot()} returns the current one without taking any lock, and
+ * {@link #toString()} renders from it, so showing a long list never blocks a change. Tasks read from the list
+ * are copies made on demand: changing one does not change the list.
  *
  * <p>Unless stated otherwise, user-facing task indices are 1-based (as shown in {@link #toString()}).
+ *
+ * <p>Every task also has a stable id, which stays the same while other tasks come and go and is saved with
+ * the task; {@link #positionOf(int)} finds a task by id. Ids ascend in list order and are never reused: storage
+ * saves {@link #getNextId()} and passes it back when loading, so a task added after the newest one was deleted
+ * still gets a fresh id. Deleting a task only
+ * rewrites the part of the snapshot that held it, so it does not cost time proportional to the list.
  */
 public class TodoList {
-    private final ArrayList<ToDo> todoList;
-    private final Storage storage;
+    private final TaskTable todoList = new TaskTable();
+    private final StorageBackend storage;
+    private final boolean hasNewIds;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Guards building the indexes below under the read lock, where several readers may want one at once. The
+     * fields are volatile so that a reader sees an index another reader built; changes to a built index are
+     * made under the write lock.
+     */
+    private final Object indexBuildLock = new Object();
+
+    /** Trigram index for {@link #findTodos(String)}; built on the first search, then kept up to date. */
+    private volatile TaskIndex index;
+
+    /** Events by time for conflict checks; built when the first event is added, then kept up to date. */
+    private volatile EventSchedule schedule;
+
+    /** Pending deadlines by due date; built on the first lookup, then kept up to date. */
+    private volatile DeadlineIndex deadlines;
 
     /**
      * Constructs a task list initialized with the given tasks and bound storage.
      *
      * @param initialList Initial tasks to populate the list with.
-     * @param storage     Storage used to persist changes after mutations.
+     * @param storage     Backend used to persist changes after mutations.
+     */
+    public TodoList(List<ToDo> initialList, StorageBackend storage) {
+        this(initialList, storage, 1);
+    }
+
+    /**
+     * Constructs a task list initialized with the given tasks and bound storage, which will not give out ids
+     * below {@code nextId}.
+     *
+     * @param initialList Initial tasks to populate the list with.
+     * @param storage     Backend used to persist changes after mutations.
+     * @param nextId      The next id saved with the tasks, as returned by {@link #getNextId()}.
      */
-    public TodoList(List<ToDo> initialList, Storage storage) {
-        this.todoList = new ArrayList<>(initialList);
+    public TodoList(List<ToDo> initialList, StorageBackend storage, int nextId) {
+        this.todoList.reserveIds(nextId);
+        this.hasNewIds = addInitial(initialList);
         this.storage = storage;
     }
 
@@ -35,10 +98,75 @@ public class TodoList {
      * @param initialList Initial tasks to populate the list with.
      */
     public TodoList(List<ToDo> initialList) {
-        this.todoList = new ArrayList<>(initialList);
+        this.hasNewIds = addInitial(initialList);
         this.storage = null;
     }
 
+    /** Adds the initial tasks and returns whether any of them had to be given a new id. */
+    private boolean addInitial(List<ToDo> initialList) {
+        int[] ids = new int[initialList.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = initialList.get(i).getId();
+        }
+        this.todoList.addAll(initialList);
+        boolean isChanged = false;
+        for (int i = 0; i < ids.length; i++) {
+            isChanged |= initialList.get(i).getId() != ids[i];
+        }
+        return isChanged;
+    }
+
+    /**
+     * Returns whether tasks given to the constructor were missing ids or had clashing ones, and were given new
+     * ids. Storage should then save the list whole, so that the new ids are kept.
+     */
+    public boolean hasNewIds() {
+        return this.hasNewIds;
+    }
+
+    /**
+     * Returns the id the next added task will be given. Ids below it may have belonged to deleted tasks, so
+     * storage saves it with the tasks and passes it to the constructor on load.
+     */
+    public int getNextId() {
+        lock.readLock().lock();
+        try {
+            return this.todoList.nextId();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Makes sure no id below {@code nextId} is given to a new task, e.g. because another process has used it.
+     *
+     * @param nextId The next id another writer of the same tasks has saved.
+     */
+    public void reserveIds(int nextId) {
+        lock.writeLock().lock();
+        try {
+            this.todoList.reserveIds(nextId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the lock that reads of this list hold. Storage holds it while copying the list, so that no
+     * change is half applied in the copy.
+     */
+    public Lock readLock() {
+        return this.lock.readLock();
+    }
+
+    /**
+     * Returns the lock that changes to this list hold. Storage holds it while applying changes it has read
+     * back from disk.
+     */
+    public Lock writeLock() {
+        return this.lock.writeLock();
+    }
+
     /**
      * Marks the specified task as done (1-based index), saves, and prints a confirmation.
      *
@@ -47,17 +175,32 @@ public class TodoList {
      * @throws SidException If {@code id} is out of range.
      */
     public ToDo markDone(int id) throws SidException {
-        // Convert to 0 based index
-        int i = id - 1;
+        lock.writeLock().lock();
+        try {
+            // Convert to 0 based index
+            int i = id - 1;
 
-        if (i < 0 || i >= this.getSize()) {
-            throw new SidException(ResponseMessage.INVALID_TASK_NUMBER.getMessage());
+            if (i < 0 || i >= this.getSize()) {
+                throw new SidException(ResponseMessage.INVALID_TASK_NUMBER.getMessage());
+            }
+            assert i >= 0 && i < this.getSize() : "Index must be within valid range after validation";
+            ToDo t = todoList.get(i);
+            if (index != null) {
+                index.unindex(i, t);
+            }
+            t.markTask();
+            todoList.updateStatus(i, t);
+            if (index != null) {
+                index.reindex(i, t);
+            }
+            if (deadlines != null) {
+                deadlines.statusChanged(t);
+            }
+            storage.persistChange(this, Change.mark(id, t));
+            return t;
+        } finally {
+            lock.writeLock().unlock();
         }
-        assert i >= 0 && i < this.getSize() : "Index must be within valid range after validation";
-        ToDo t = todoList.get(i);
-        t.markTask();
-        storage.save(this);
-        return t;
     }
 
     /**
@@ -68,21 +211,145 @@ public class TodoList {
      * @throws SidException If {@code id} is out of range.
      */
     public ToDo unmarkDone(int id) throws SidException {
-        // Convert to 0 based index
-        int i = id - 1;
+        lock.writeLock().lock();
+        try {
+            // Convert to 0 based index
+            int i = id - 1;
 
-        if (i < 0 || i >= this.getSize()) {
-            throw new SidException(ResponseMessage.INVALID_TASK_NUMBER.getMessage());
+            if (i < 0 || i >= this.getSize()) {
+                throw new SidException(ResponseMessage.INVALID_TASK_NUMBER.getMessage());
+            }
+            assert i >= 0 && i < this.getSize() : "Index must be within valid range after validation";
+            ToDo t = this.todoList.get(i);
+            if (index != null) {
+                index.unindex(i, t);
+            }
+            t.unmarkTask();
+            todoList.updateStatus(i, t);
+            if (index != null) {
+                index.reindex(i, t);
+            }
+            if (deadlines != null) {
+                deadlines.statusChanged(t);
+            }
+            storage.persistChange(this, Change.unmark(id, t));
+            return t;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks several tasks as done and persists the changes together, rather than one at a time as
+     * {@link #markDone(int)} does.
+     *
+     * @param ids 1-based task numbers as displayed to the user, ascending and without repeats.
+     * @return The tasks that were not done before, now marked as done, in list order.
+     * @throws SidException If any number is out of range; nothing is changed then.
+     */
+    public List<ToDo> markAll(int[] ids) throws SidException {
+        return setStatusAll(ids, true);
+    }
+
+    /**
+     * Marks several tasks as not done yet and persists the changes together.
+     *
+     * @param ids 1-based task numbers as displayed to the user, ascending and without repeats.
+     * @return The tasks that were done before, now unmarked, in list order.
+     * @throws SidException If any number is out of range; nothing is changed then.
+     */
+    public List<ToDo> unmarkAll(int[] ids) throws SidException {
+        return setStatusAll(ids, false);
+    }
+
+    private List<ToDo> setStatusAll(int[] ids, boolean isDone) throws SidException {
+        lock.writeLock().lock();
+        try {
+            checkTaskNumbers(ids);
+            assert storage != null : "Storage must be available for persistent operations";
+            List<ToDo> changed = new ArrayList<>();
+            List<Change> changes = new ArrayList<>();
+            for (int id : ids) {
+                int i = id - 1;
+                ToDo t = this.todoList.get(i);
+                if (t.isDone() == isDone) {
+                    continue;
+                }
+                if (index != null) {
+                    index.unindex(i, t);
+                }
+                if (isDone) {
+                    t.markTask();
+                } else {
+                    t.unmarkTask();
+                }
+                this.todoList.updateStatus(i, t);
+                if (index != null) {
+                    index.reindex(i, t);
+                }
+                if (deadlines != null) {
+                    deadlines.statusChanged(t);
+                }
+                changed.add(t);
+                changes.add(isDone ? Change.mark(id, t) : Change.unmark(id, t));
+            }
+            if (!changes.isEmpty()) {
+                storage.persistChanges(this, changes);
+            }
+            return changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes several tasks in one pass over the list and persists the deletions together, rather than one at
+     * a time as {@link #delete(int)} does.
+     *
+     * @param ids 1-based task numbers as displayed to the user, ascending and without repeats.
+     * @return The deleted tasks, in list order.
+     * @throws SidException If any number is out of range; nothing is deleted then.
+     */
+    public List<ToDo> deleteAll(int[] ids) throws SidException {
+        lock.writeLock().lock();
+        try {
+            checkTaskNumbers(ids);
+            assert storage != null : "Storage must be available for persistent operations";
+            if (ids.length == 0) {
+                return List.of();
+            }
+            int[] positions = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                positions[i] = ids[i] - 1;
+            }
+            List<ToDo> deleted = this.todoList.removeAll(positions);
+            // Positions after the first deleted task have all moved; rebuild the indexes when next needed.
+            index = null;
+            schedule = null;
+            deadlines = null;
+            storage.persistChanges(this, deletions(positions, deleted));
+            return deleted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void checkTaskNumbers(int[] ids) throws SidException {
+        for (int i = 0; i < ids.length; i++) {
+            assert i == 0 || ids[i - 1] < ids[i] : "Task numbers must be ascending without repeats";
+            if (ids[i] < 1 || ids[i] > this.todoList.size()) {
+                throw new SidException(ResponseMessage.INVALID_TASK_NUMBER.getMessage());
+            }
         }
-        assert i >= 0 && i < this.getSize() : "Index must be within valid range after validation";
-        ToDo t = this.todoList.get(i);
-        t.unmarkTask();
-        storage.save(this);
-        return t;
     }
 
     public int getSize() {
-        return this.todoList.size();
+        lock.readLock().lock();
+        try {
+            return this.todoList.size();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -91,18 +358,59 @@ public class TodoList {
      * @param task - the task to be added
      */
     public void add(ToDo task) throws SidException {
-        assert task != null : "Cannot add null task to list";
+        lock.writeLock().lock();
+        try {
+            assert task != null : "Cannot add null task to list";
 
-        if (task instanceof Event) {
-            List<Event> clashingEvents = detectScheduleConflicts((Event) task);
-            if (!clashingEvents.isEmpty()) {
-                throw new SidException("Scheduling conflict detected! This event overlaps with:\n"
-                        + new TodoList(new ArrayList<ToDo>(clashingEvents)).toString());
+            if (task instanceof Event) {
+                List<ToDo> clashingEvents = detectScheduleConflicts((Event) task);
+                if (!clashingEvents.isEmpty()) {
+                    throw new SidException("Scheduling conflict detected! This event overlaps with:\n"
+                            + new TodoList(clashingEvents).toString());
+                }
             }
+            appendTask(task);
+            assert storage != null : "Storage must be available for persistent operations";
+            storage.persistChange(this, Change.add(todoList.size(), task));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds every task from {@code tasks} to the end of the list and then persists the additions together,
+     * rather than after each task as {@link #add(ToDo)} does.
+     *
+     * <p>Events that clash with a task already in the list, including one added earlier in the same call, are
+     * skipped instead of failing the whole batch. Tasks added before {@code tasks} fails are kept and saved.
+     *
+     * @param tasks Tasks to add, read one at a time.
+     * @return The number of tasks added.
+     */
+    public int addAll(Iterator<? extends ToDo> tasks) {
+        lock.writeLock().lock();
+        try {
+            assert tasks != null : "Tasks to add cannot be null";
+            assert storage != null : "Storage must be available for persistent operations";
+            List<Change> added = new ArrayList<>();
+            try {
+                while (tasks.hasNext()) {
+                    ToDo task = tasks.next();
+                    if (task instanceof Event && !detectScheduleConflicts((Event) task).isEmpty()) {
+                        continue;
+                    }
+                    appendTask(task);
+                    added.add(Change.add(todoList.size(), task));
+                }
+            } finally {
+                if (!added.isEmpty()) {
+                    storage.persistChanges(this, added);
+                }
+            }
+            return added.size();
+        } finally {
+            lock.writeLock().unlock();
         }
-        todoList.add(task);
-        assert storage != null : "Storage must be available for persistent operations";
-        storage.save(this);
     }
 
     /**
@@ -112,14 +420,28 @@ public class TodoList {
      * @throws SidException If {@code id} is out of range
      */
     public void delete(int id) throws SidException {
-        int i = id - 1;
-        if (i < 0 || i >= this.getSize()) {
-            throw new SidException(ResponseMessage.INVALID_TASK_NUMBER.getMessage());
+        lock.writeLock().lock();
+        try {
+            int i = id - 1;
+            if (i < 0 || i >= this.getSize()) {
+                throw new SidException(ResponseMessage.INVALID_TASK_NUMBER.getMessage());
+            }
+            assert i >= 0 && i < this.getSize() : "Index must be within valid range after validation";
+            ToDo deletedTask = this.todoList.remove(i);
+            if (index != null) {
+                index.remove(i, deletedTask);
+            }
+            if (schedule != null && deletedTask instanceof Event) {
+                schedule.remove((Event) deletedTask);
+            }
+            if (deadlines != null) {
+                deadlines.remove(deletedTask);
+            }
+            assert storage != null : "Storage must be available for persistent operations";
+            storage.persistChange(this, Change.delete(id, deletedTask));
+        } finally {
+            lock.writeLock().unlock();
         }
-        assert i >= 0 && i < this.getSize() : "Index must be within valid range after validation";
-        ToDo deletedTask = this.todoList.remove(i);
-        assert storage != null : "Storage must be available for persistent operations";
-        storage.save(this);
     }
 
     /**
@@ -130,60 +452,444 @@ public class TodoList {
      * @throws SidException If {@code id} is out of range.
      */
     public ToDo getTodo(int id) throws SidException {
-        // For one-based indexing
-        id -= 1;
-        if (id < 0 || id >= this.getSize()) {
-            throw new SidException(ResponseMessage.INVALID_TASK_NUMBER.getMessage());
+        lock.readLock().lock();
+        try {
+            // For one-based indexing
+            id -= 1;
+            if (id < 0 || id >= this.getSize()) {
+                throw new SidException(ResponseMessage.INVALID_TASK_NUMBER.getMessage());
+            }
+            assert id >= 0 && id < this.getSize() : "Index must be within valid range after validation";
+            return this.todoList.get(id);
+        } finally {
+            lock.readLock().unlock();
         }
-        assert id >= 0 && id < this.getSize() : "Index must be within valid range after validation";
-        return this.todoList.get(id);
     }
 
     /**
-     * Returns the found tasks matching the given keyword
+     * Returns the position of the task with the given stable id.
      *
-     * @param keyword The keyword to search for
-     * @return A TodoList of the tasks that have matched the keyword
+     * @param taskId The task's id, as shown by {@link #toStringWithIds()}.
+     * @return 1-based task number.
+     * @throws SidException If no task in the list has that id.
+     */
+    public int positionOf(int taskId) throws SidException {
+        lock.readLock().lock();
+        try {
+            int position = this.todoList.positionOf(taskId);
+            if (position < 0) {
+                throw new SidException(ResponseMessage.INVALID_TASK_ID.getMessage());
+            }
+            return position + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the tasks matching the given query, in list order.
+     *
+     * <p>The query is one or more keywords, optionally combined with {@code AND}, {@code OR} and {@code NOT}
+     * (in upper case), e.g. {@code book AND NOT library}. A keyword matches tasks whose list form, as shown
+     * by {@link #toString()}, contains it anywhere, ignoring case, so {@code book} also finds {@code notebook}.
+     * Searches use an index of the three-character sequences in every task, so they only look at tasks that
+     * can match.
+     *
+     * @param keyword The query.
+     * @return A TodoList of the tasks that have matched the query
      */
     public TodoList findTodos(String keyword) {
-        if (keyword == null || keyword.trim().isEmpty()) {
-            return new TodoList(new ArrayList<ToDo>()); // empty
+        lock.readLock().lock();
+        try {
+            if (keyword == null || keyword.trim().isEmpty()) {
+                return new TodoList(new ArrayList<ToDo>()); // empty
+            }
+            int[] positions = taskIndex().search(keyword, this.todoList);
+            List<ToDo> results = new ArrayList<>(positions.length);
+            for (int position : positions) {
+                results.add(this.todoList.get(position));
+            }
+            return new TodoList(results);
+        } finally {
+            lock.readLock().unlock();
         }
+    }
 
-        String query = keyword.trim().toLowerCase();
-        assert !query.isEmpty() : "Query should not be empty after trimming non-empty keyword";
-        List<ToDo> results = this.todoList.stream()
-            .filter(t -> t.toString().toLowerCase().contains(query))
-            .toList();
-        return new TodoList(results);
+    /**
+     * Returns one page of the list, numbered as {@link #toStringWithIds()} numbers it. Only the tasks on the
+     * page are rendered, so the time and memory this takes depend on the page size, not the list.
+     *
+     * @param page    1-based page number; ignored when {@code afterId} is given.
+     * @param afterId Show tasks after the one with this id, as given by {@link TaskPage#getNextAfterId()}, or
+     *                0 to go by page number. The task need not still exist.
+     * @param size    Most tasks to show; must be positive.
+     * @return The page.
+     */
+    public TaskPage listPage(int page, int afterId, int size) {
+        lock.readLock().lock();
+        try {
+            assert page > 0 && size > 0 : "Page and size must be positive";
+            TaskSnapshot tasks = this.todoList.snapshot();
+            int total = tasks.size();
+            int from = afterId > 0 ? tasks.positionAfter(afterId) : pageStart(page, size, total);
+            int to = (int) Math.min(total, (long) from + size);
+            int nextAfterId = to < total ? tasks.idAt(to - 1) : 0;
+            return new TaskPage(tasks.toStringWithIds(from, to), from + 1, to - from, total, nextAfterId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the numbers of the tasks matching a query, as {@link #findTodos(String)} finds them.
+     *
+     * @param keyword The query; must not be blank.
+     * @return 1-based task numbers, ascending.
+     */
+    public int[] findNumbers(String keyword) {
+        lock.readLock().lock();
+        try {
+            assert keyword != null && !keyword.isBlank() : "Query cannot be blank";
+            int[] positions = taskIndex().search(keyword, this.todoList);
+            int[] numbers = new int[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                numbers[i] = positions[i] + 1;
+            }
+            return numbers;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns one page of the tasks matching a query, as {@link #findTodos(String)} finds them. Matches are
+     * numbered from 1 in list order. Only the matches on the page are rendered.
+     *
+     * @param keyword The query; must not be blank.
+     * @param page    1-based page number; ignored when {@code afterId} is given.
+     * @param afterId Show matches after the task with this id, or 0 to go by page number.
+     * @param size    Most matches to show; must be positive.
+     * @return The page.
+     */
+    public TaskPage findPage(String keyword, int page, int afterId, int size) {
+        lock.readLock().lock();
+        try {
+            assert keyword != null && !keyword.isBlank() : "Query cannot be blank";
+            assert page > 0 && size > 0 : "Page and size must be positive";
+            TaskSnapshot tasks = this.todoList.snapshot();
+            int[] positions = taskIndex().search(keyword, this.todoList);
+            int from;
+            if (afterId > 0) {
+                from = Arrays.binarySearch(positions, tasks.positionAfter(afterId));
+                from = from < 0 ? -from - 1 : from;
+            } else {
+                from = pageStart(page, size, positions.length);
+            }
+            int to = (int) Math.min(positions.length, (long) from + size);
+            StringBuilder lines = new StringBuilder();
+            for (int i = from; i < to; i++) {
+                if (i > from) {
+                    lines.append("\n");
+                }
+                int position = positions[i];
+                lines.append(i + 1).append(". ").append(tasks.lineAt(position))
+                        .append(" #").append(tasks.idAt(position));
+            }
+            int nextAfterId = to < positions.length ? tasks.idAt(positions[to - 1]) : 0;
+            return new TaskPage(lines.toString(), from + 1, to - from, positions.length, nextAfterId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Returns the index of the first item on a page, or {@code total} if the page is past the end. */
+    private static int pageStart(int page, int size, int total) {
+        return (int) Math.min(total, (long) (page - 1) * size);
+    }
+
+    /**
+     * Returns the pending deadlines due soonest, including overdue ones, earliest first. Deadlines due at the
+     * same time keep their list order.
+     *
+     * <p>The deadlines are numbered from 1 in due order and keep their own ids, which need not ascend, so
+     * they are rendered from this list's snapshot rather than copied into a new list.
+     *
+     * @param limit Most deadlines to return; must be positive.
+     * @param dueBy Latest due date to include, or {@code null} for no limit.
+     * @return A page holding every deadline found.
+     */
+    public TaskPage upcomingDeadlines(int limit, LocalDateTime dueBy) {
+        lock.readLock().lock();
+        try {
+            assert limit > 0 : "Limit must be positive";
+            TaskSnapshot tasks = this.todoList.snapshot();
+            int[] ids = deadlineIndex().next(limit, dueBy);
+            StringBuilder lines = new StringBuilder();
+            for (int i = 0; i < ids.length; i++) {
+                if (i > 0) {
+                    lines.append("\n");
+                }
+                lines.append(i + 1).append(". ").append(tasks.lineAt(tasks.positionOf(ids[i])))
+                        .append(" #").append(ids[i]);
+            }
+            return new TaskPage(lines.toString(), 1, ids.length, ids.length, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves done tasks out of this list into the storage's archive and persists the removals together.
+     *
+     * @param doneBefore Only archive tasks completed before this time; null to archive every done task.
+     *                   Done tasks with no known completion time always qualify.
+     * @return The archived tasks, in list order.
+     * @throws SidException If the archive cannot be written; the list is then left unchanged.
+     */
+    public List<ToDo> archiveDone(LocalDateTime doneBefore) throws SidException {
+        lock.writeLock().lock();
+        try {
+            assert storage != null : "Storage must be available for persistent operations";
+            Predicate<ToDo> isArchivable = t -> t.isDone()
+                    && (doneBefore == null || t.getDoneAt() == null || t.getDoneAt().isBefore(doneBefore));
+            int[] positions = IntStream.range(0, this.todoList.size())
+                    .filter(i -> isArchivable.test(this.todoList.get(i)))
+                    .toArray();
+            if (positions.length == 0) {
+                return List.of();
+            }
+            List<ToDo> archived = new ArrayList<>(positions.length);
+            for (int position : positions) {
+                archived.add(this.todoList.get(position));
+            }
+            storage.archive(archived);
+            this.todoList.removeAll(positions);
+            // Rebuilt when next needed, which is cheaper than removing many tasks one at a time.
+            index = null;
+            schedule = null;
+            deadlines = null;
+            storage.persistChanges(this, deletions(positions, archived));
+            return archived;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the changes that delete the tasks at {@code positions} one at a time, last first, so that each
+     * change's position is still where its task was when the change is applied.
+     *
+     * @param positions 0-based positions of the deleted tasks, ascending.
+     * @param deleted   The deleted tasks, in the same order.
+     */
+    private static List<Change> deletions(int[] positions, List<ToDo> deleted) {
+        List<Change> changes = new ArrayList<>(positions.length);
+        for (int i = positions.length - 1; i >= 0; i--) {
+            changes.add(Change.delete(positions[i] + 1, deleted.get(i)));
+        }
+        return changes;
+    }
+
+    /**
+     * Moves an archived task back to the end of this list.
+     *
+     * @param number Archive number of the task, as shown by {@link #findArchived(String)}.
+     * @return The restored task.
+     * @throws SidException If there is no such archived task, or it is no longer valid (e.g., its date has
+     *                      passed or it clashes with another event).
+     */
+    public ToDo restore(int number) throws SidException {
+        lock.writeLock().lock();
+        try {
+            assert storage != null : "Storage must be available for persistent operations";
+            TaskRecord record = storage.getArchived(number);
+            ToDo task = record.toTask();
+            add(task);
+            storage.markRestored(number);
+            return task;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the archived tasks matching the given keyword.
+     *
+     * @param keyword The keyword to search for; empty matches every archived task.
+     * @return The matching archived tasks, in archive order.
+     * @throws SidException If the archive cannot be read.
+     */
+    public List<ArchivedTask> findArchived(String keyword) throws SidException {
+        assert storage != null : "Storage must be available for archive searches";
+        return storage.searchArchive(keyword == null ? "" : keyword);
+    }
+
+    /**
+     * Checks the stored copy of this list against its checksums.
+     *
+     * @return The storage's report.
+     * @throws SidException If the stored tasks cannot be read.
+     */
+    public IntegrityReport verifyStorage() throws SidException {
+        assert storage != null : "Storage must be available for verification";
+        return storage.verify();
+    }
+
+    /**
+     * Brings this list up to date with changes another process has saved to the same storage.
+     *
+     * <p>Backends that are not shared between processes leave the list as it is.
+     */
+    public void refresh() {
+        assert lock.getReadHoldCount() == 0 : "The read lock cannot be upgraded to apply other processes' changes";
+        if (storage != null) {
+            storage.refresh(this);
+        }
+    }
+
+    /**
+     * Replaces every task from the given position onward, without persisting anything. Used by storage to
+     * apply changes that are already on disk.
+     *
+     * @param id    1-based position of the first task to replace; one past the end to only append.
+     * @param tasks Tasks to put there.
+     */
+    public void replaceFrom(int id, List<ToDo> tasks) {
+        lock.writeLock().lock();
+        try {
+            assert id >= 1 && id <= this.getSize() + 1 : "Position must be within the list or just past it";
+            assert tasks != null : "Tasks cannot be null";
+            for (int i = this.todoList.size() - 1; i >= id - 1; i--) {
+                ToDo removed = this.todoList.remove(i);
+                if (index != null) {
+                    index.remove(i, removed);
+                }
+                if (schedule != null && removed instanceof Event) {
+                    schedule.remove((Event) removed);
+                }
+                if (deadlines != null) {
+                    deadlines.remove(removed);
+                }
+            }
+            for (ToDo task : tasks) {
+                appendTask(task);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Blocks until every change made to this list has been written by its storage.
+     *
+     * <p>Only matters when storage defers writes; otherwise changes are already on disk.
+     */
+    public void flush() {
+        if (storage != null) {
+            storage.flush();
+        }
+    }
+
+    /**
+     * Writes every change made to this list, then releases its storage's background threads, e.g. on exit.
+     * The list should not be changed afterwards.
+     */
+    public void close() {
+        if (storage != null) {
+            storage.close();
+        }
     }
 
     public boolean isEmpty() {
-        return this.todoList.isEmpty();
+        lock.readLock().lock();
+        try {
+            return this.todoList.isEmpty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the list as it is now, as an immutable snapshot that later changes do not affect. Takes no lock,
+     * so long reads such as rendering or exporting the whole list neither wait for nor hold up changes.
+     *
+     * @return The current version of the list.
+     */
+    public TaskSnapshot snapshot() {
+        return this.todoList.snapshot();
     }
 
-    private List<Event> detectScheduleConflicts(Event newEvent) {
-        return this.todoList.stream()
-            .filter(task -> task instanceof Event)
-            .map(task -> (Event) task)
-            .filter(existingEvent -> eventsOverlap(newEvent, existingEvent))
-            .toList();
+    /** Returns the tasks with the given ids, which must all be in the list, in the order given. */
+    private List<ToDo> byIds(int[] ids) {
+        List<ToDo> tasks = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            tasks.add(this.todoList.get(this.todoList.positionOf(id)));
+        }
+        return tasks;
     }
 
-    private boolean eventsOverlap(Event event1, Event event2) {
-        return event1.getStartDate().isBefore(event2.getEndDate())
-            && event2.getStartDate().isBefore(event1.getEndDate());
+    /** Adds a task to the end of the list and to the indexes that have been built. */
+    private void appendTask(ToDo task) {
+        todoList.add(task);
+        if (index != null) {
+            index.append(task);
+        }
+        if (schedule != null && task instanceof Event) {
+            schedule.add((Event) task);
+        }
+        if (deadlines != null) {
+            deadlines.add(task);
+        }
     }
 
-    @Override
-    public String toString() {
-        StringBuilder output = new StringBuilder();
-        for (int i = 0; i < this.todoList.size(); i++) {
-            output.append((i + 1)).append(". ").append(this.todoList.get(i));
-            if (i < this.todoList.size() - 1) {
-                output.append("\n");
+    /** Returns the trigram index, building it if needed. Caller holds the read or write lock. */
+    private TaskIndex taskIndex() {
+        TaskIndex built = index;
+        if (built == null) {
+            synchronized (indexBuildLock) {
+                if (index == null) {
+                    index = new TaskIndex(this.todoList);
+                }
+                built = index;
             }
         }
-        return output.toString();
+        return built;
+    }
+
+    /** Returns the deadline index, building it if needed. Caller holds the read or write lock. */
+    private DeadlineIndex deadlineIndex() {
+        DeadlineIndex built = deadlines;
+        if (built == null) {
+            synchronized (indexBuildLock) {
+                if (deadlines == null) {
+                    deadlines = new DeadlineIndex(this.todoList);
+                }
+                built = deadlines;
+            }
+        }
+        return built;
+    }
+
+    /** Returns the events in the list that overlap {@code newEvent}, in list order. */
+    private List<ToDo> detectScheduleConflicts(Event newEvent) {
+        if (schedule == null) {
+            schedule = new EventSchedule(this.todoList);
+        }
+        return byIds(schedule.overlapping(newEvent));
+    }
+
+    @Override
+    public String toString() {
+        return this.todoList.snapshot().toString();
+    }
+
+    /**
+     * Returns the list as {@link #toString()} does, with each task's stable id at the end of its line, e.g.
+     * {@code 1. [T][ ] read book #12}.
+     *
+     * @return The numbered list with ids.
+     */
+    public String toStringWithIds() {
+        return this.todoList.snapshot().toStringWithIds();
     }
 }
@@ -2,17 +2,24 @@ package sid.parser;
 
 import java.util.Map;
 
+import sid.commands.ArchiveCommand;
+import sid.commands.ArchivedCommand;
 import sid.commands.ByeCommand;
 import sid.commands.Command;
 import sid.commands.CommandResult;
 import sid.commands.DeadlineCommand;
 import sid.commands.DeleteCommand;
 import sid.commands.EventCommand;
+import sid.commands.ExportCommand;
 import sid.commands.FindCommand;
+import sid.commands.ImportCommand;
 import sid.commands.ListCommand;
 import sid.commands.MarkCommand;
+import sid.commands.RestoreCommand;
 import sid.commands.TodoCommand;
 import sid.commands.UnmarkCommand;
+import sid.commands.UpcomingCommand;
+import sid.commands.VerifyCommand;
 import sid.exceptions.SidException;
 import sid.messages.ResponseMessage;
 import sid.models.TodoList;
@@ -29,16 +36,23 @@ import sid.ui.Ui;
 public class Parser {
     /** Split limit for command parsing: command + arguments. */
     private static final int COMMAND_SPLIT_LIMIT = 2;
-    private final Map<String, Command> commands = Map.of(
-        "list", new ListCommand(),
-        "todo", new TodoCommand(),
-        "deadline", new DeadlineCommand(),
-        "event", new EventCommand(),
-        "mark", new MarkCommand(),
-        "unmark", new UnmarkCommand(),
-        "delete", new DeleteCommand(),
-        "find", new FindCommand(),
-        "bye", new ByeCommand()
+    private final Map<String, Command> commands = Map.ofEntries(
+        Map.entry("list", new ListCommand()),
+        Map.entry("todo", new TodoCommand()),
+        Map.entry("deadline", new DeadlineCommand()),
+        Map.entry("event", new EventCommand()),
+        Map.entry("mark", new MarkCommand()),
+        Map.entry("unmark", new UnmarkCommand()),
+        Map.entry("delete", new DeleteCommand()),
+        Map.entry("find", new FindCommand()),
+        Map.entry("upcoming", new UpcomingCommand()),
+        Map.entry("archive", new ArchiveCommand()),
+        Map.entry("archived", new ArchivedCommand()),
+        Map.entry("restore", new RestoreCommand()),
+        Map.entry("verify", new VerifyCommand()),
+        Map.entry("export", new ExportCommand()),
+        Map.entry("import", new ImportCommand()),
+        Map.entry("bye", new ByeCommand())
     );
 
     /**
@@ -71,6 +85,7 @@ public class Parser {
 
         // Handle special case for bye command that needs UI interaction
         if (cmd.equals("bye")) {
+            tasks.close();
             ui.showGoodbye();
             return false;
         }
@@ -151,7 +166,11 @@ public class Parser {
 
         switch (cmd) {
         case "list":
-            ui.showList(tasks);
+            if (result.getPage() == null || result.getPage().isEmpty()) {
+                ui.showMessage(result.getMessage());
+                break;
+            }
+            ui.showList(result.getPage());
             break;
 
         case "todo":
@@ -161,24 +180,53 @@ public class Parser {
             break;
 
         case "mark":
+            if (result.getTask() == null) {
+                // Several tasks at once; the message says how many.
+                ui.showMessage(result.getMessage());
+                break;
+            }
             ui.showTaskMarked(result.getTask());
             break;
 
         case "unmark":
+            if (result.getTask() == null) {
+                // Several tasks at once; the message says how many.
+                ui.showMessage(result.getMessage());
+                break;
+            }
             ui.showTaskUnmarked(result.getTask());
             break;
 
         case "delete":
+            if (result.getTask() == null) {
+                // Several tasks at once; the message says how many.
+                ui.showMessage(result.getMessage());
+                break;
+            }
             ui.showTaskDeleted(result.getTask(), result.getTotalTasks());
             break;
 
         case "find":
             // Guard clause: handle empty results early
-            if (result.getFoundTasks().isEmpty()) {
+            if (result.getPage().getTotal() == 0) {
                 ui.showError("No tasks found.");
                 break;
             }
-            ui.showFind(result.getFoundTasks());
+            if (result.getPage().isEmpty()) {
+                ui.showMessage(result.getMessage());
+                break;
+            }
+            ui.showFind(result.getPage());
+            break;
+
+        case "upcoming":
+        case "archive":
+        case "archived":
+        case "restore":
+        case "verify":
+        case "export":
+        case "import":
+            ui.showMessage(result.getMessage());
             break;
 
         default:
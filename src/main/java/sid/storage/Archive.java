@@ -0,0 +1,163 @@
+package sid.storage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import sid.exceptions.SidException;
+
+/**
+ * Compressed, append-only store of tasks moved out of the main task file.
+ *
+ * <p>The archive is never loaded at startup; it is only read when searched or when a task is restored.
+ * Each write appends one gzip member to the file, and readers decompress the members in sequence:
+ * <pre>
+ * A | T | 1 | read book | 2019-12-01T09:30
+ * R | 1
+ * </pre>
+ * {@code A} lines hold archived tasks in the main file's record format and are numbered from 1 in the
+ * order they were written; the numbers never change. An {@code R} line records that the task with that
+ * number has been restored, so it no longer shows up.
+ */
+public class Archive {
+    private static final String ARCHIVED_OP = "A";
+    private static final String RESTORED_OP = "R";
+    private static final String SEPARATOR = " | ";
+
+    private final File file;
+
+    /**
+     * Constructs the archive for the given main task file.
+     *
+     * @param taskFile The main task file whose done tasks are archived.
+     */
+    public Archive(File taskFile) {
+        assert taskFile != null : "Task file cannot be null";
+        this.file = new File(taskFile.getPath() + ".archive.gz");
+    }
+
+    /**
+     * Appends tasks to the archive in one compressed batch.
+     *
+     * @param records Records of the tasks to archive, in order.
+     * @throws IOException If the archive cannot be written.
+     */
+    public synchronized void append(List<TaskRecord> records) throws IOException {
+        assert records != null : "Records cannot be null";
+        List<String> lines = new ArrayList<>(records.size());
+        for (TaskRecord record : records) {
+            lines.add(ARCHIVED_OP + SEPARATOR + record.toText());
+        }
+        appendLines(lines);
+    }
+
+    /**
+     * Records that an archived task has been restored, hiding it from later searches.
+     *
+     * @param number Archive number of the restored task.
+     * @throws IOException If the archive cannot be written.
+     */
+    public synchronized void markRestored(int number) throws IOException {
+        appendLines(List.of(RESTORED_OP + SEPARATOR + number));
+    }
+
+    private void appendLines(List<String> lines) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(new FileOutputStream(file, true)), StandardCharsets.UTF_8))) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.write(System.lineSeparator());
+            }
+        }
+    }
+
+    /**
+     * Returns the archived tasks that have not been restored and satisfy {@code filter}, in archive order.
+     *
+     * @param filter Condition on the archived tasks to return.
+     * @return The matching tasks with their archive numbers.
+     * @throws IOException If the archive cannot be read.
+     */
+    public synchronized List<ArchivedTask> search(Predicate<ArchivedTask> filter) throws IOException {
+        assert filter != null : "Filter cannot be null";
+        List<ArchivedTask> archived = readAll();
+        List<ArchivedTask> matches = new ArrayList<>();
+        for (ArchivedTask task : archived) {
+            if (filter.test(task)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the archived task with the given number.
+     *
+     * @param number Archive number, as shown by a search.
+     * @return The archived task.
+     * @throws SidException If no unrestored task has that number.
+     * @throws IOException  If the archive cannot be read.
+     */
+    public synchronized ArchivedTask get(int number) throws SidException, IOException {
+        for (ArchivedTask task : readAll()) {
+            if (task.getNumber() == number) {
+                return task;
+            }
+        }
+        throw new SidException("There's no archived task " + number + ".");
+    }
+
+    /** Reads every archived task that has not been restored. */
+    private List<ArchivedTask> readAll() throws IOException {
+        List<ArchivedTask> archived = new ArrayList<>();
+        if (!file.exists()) {
+            return archived;
+        }
+        Set<Integer> restored = new HashSet<>();
+        int number = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\\s*\\|\\s*", 2);
+                if (parts.length < 2) {
+                    continue;
+                }
+                if (parts[0].equals(ARCHIVED_OP)) {
+                    number++;
+                    try {
+                        archived.add(new ArchivedTask(number, TaskRecord.parseText(parts[1])));
+                    } catch (SidException e) {
+                        System.err.println("Skipping corrupted archive entry: " + line + ": " + e.getMessage());
+                    }
+                } else if (parts[0].equals(RESTORED_OP)) {
+                    restored.add(Integer.parseInt(parts[1].trim()));
+                }
+            }
+        } catch (EOFException | ZipException | NumberFormatException e) {
+            // A crash while appending leaves a cut-off last batch; everything before it is intact.
+            System.err.println("Archive ends with an incomplete batch: " + e.getMessage());
+        }
+        archived.removeIf(task -> restored.contains(task.getNumber()));
+        return archived;
+    }
+}
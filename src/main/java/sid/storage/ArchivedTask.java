@@ -0,0 +1,35 @@
+package sid.storage;
+
+/**
+ * A task held in the {@link Archive}, together with its permanent archive number.
+ */
+public class ArchivedTask {
+    private final int number;
+    private final TaskRecord record;
+
+    /**
+     * Constructs an archived task.
+     *
+     * @param number 1-based archive number.
+     * @param record The archived task's record.
+     */
+    public ArchivedTask(int number, TaskRecord record) {
+        assert number > 0 : "Archive numbers start at 1";
+        assert record != null : "Record cannot be null";
+        this.number = number;
+        this.record = record;
+    }
+
+    public int getNumber() {
+        return this.number;
+    }
+
+    public TaskRecord getRecord() {
+        return this.record;
+    }
+
+    @Override
+    public String toString() {
+        return number + ". " + record.toDisplayString();
+    }
+}
@@ -0,0 +1,53 @@
+package sid.storage;
+
+/**
+ * The available {@link StorageBackend} implementations, selectable by name on the command line.
+ */
+public enum Backend {
+    /** A single task file; see {@link Storage}. */
+    FILE,
+
+    /** A directory of task pages, for very large lists; see {@link PagedStorage}. */
+    PAGED,
+
+    /** Nothing is written; tasks last as long as the process. See {@link InMemoryStorage}. */
+    MEMORY;
+
+    /**
+     * Creates a backend of this kind.
+     *
+     * @param path    Task file path (e.g., {@code data/sid.txt}); the paged backend keeps its pages in a
+     *                directory derived from it, and the in-memory backend ignores it.
+     * @param options Storage options; see each backend for the ones it honours.
+     * @return The new backend.
+     */
+    public StorageBackend create(String path, StorageOptions options) {
+        assert path != null : "Path cannot be null";
+        assert options != null : "Storage options cannot be null";
+        switch (this) {
+        case PAGED:
+            return new PagedStorage(path, options);
+        case MEMORY:
+            return new InMemoryStorage();
+        default:
+            return new Storage(path, options);
+        }
+    }
+
+    /**
+     * Parses a backend name as given on the command line ({@code file}, {@code paged} or {@code memory}).
+     *
+     * @param name Backend name, case-insensitive.
+     * @return The matching backend.
+     * @throws IllegalArgumentException If the name is unknown.
+     */
+    public static Backend fromName(String name) {
+        assert name != null : "Backend name cannot be null";
+        return valueOf(name.trim().toUpperCase());
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,370 @@
+package sid.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import sid.enums.TaskType;
+
+/**
+ * Compact, versioned binary task format.
+ *
+ * <p>A file starts with the 4-byte magic {@code SIDB} and a version byte, followed by one frame per task:
+ * <pre>
+ * length       varint   byte length of the record
+ * checksum     4 bytes  CRC32C of the record, big-endian
+ * record:
+ * flags        1 byte   bits 0-1: type (0 = to-do, 1 = deadline, 2 = event)
+ *                       bit 4: the task's id follows the completion time (version 3)
+ *                       bit 5: a completion time follows the dates (version 2)
+ *                       bit 6: dates carry seconds and nanoseconds
+ *                       bit 7: done
+ * length       varint   byte length of the description
+ * description  UTF-8
+ * dates        varints  deadlines: due; events: start, end; then the completion time, if flagged
+ * id           varint   stable task id, if flagged
+ * </pre>
+ * Dates are zig-zag varints of minutes since {@code 1970-01-01T00:00}. A date with seconds or
+ * nanoseconds sets bit 6, and every date of that record is then written as epoch seconds followed by a
+ * nanosecond varint, so conversion to and from the text format is lossless.
+ *
+ * <p>Readers skip whatever follows the fields they know in a record, so version 3 files with ids are still
+ * read by versions that predate them.
+ *
+ * <p>A record whose checksum does not match is skipped with a warning, and thanks to the length the
+ * records after it are still read. Version 1 and 2 files, whose records are not framed and carry no
+ * checksums (and, in version 1, never set bit 5), are still read; there, a corrupted record ends the read.
+ *
+ * <p>Reading needs no regular expressions or date parsing, and a typical record takes well under half the
+ * space of its text form.
+ */
+public class BinaryCodec implements TaskCodec {
+    /** Leading bytes that identify a binary task file. */
+    public static final byte[] MAGIC = {'S', 'I', 'D', 'B'};
+
+    /** Current format version, written after the magic. */
+    public static final int VERSION = 3;
+
+    /** First version whose records are framed with a length and checksum. */
+    private static final int FRAMED_VERSION = 3;
+
+    /** Longest record accepted; a longer length can only come from a corrupted frame. */
+    private static final int MAX_RECORD_LENGTH = 1 << 26;
+
+    /** Oldest format version that can still be read. */
+    private static final int MIN_VERSION = 1;
+
+    private static final int TYPE_MASK = 0x03;
+    private static final int ID_FLAG = 0x10;
+    private static final int DONE_AT_FLAG = 0x20;
+    private static final int PRECISE_FLAG = 0x40;
+    private static final int DONE_FLAG = 0x80;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long SECONDS_PER_MINUTE = 60;
+
+    @Override
+    public List<TaskRecord> read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+        int version = readHeader(data);
+        List<TaskRecord> records = new ArrayList<>();
+        if (version < FRAMED_VERSION) {
+            readUnframed(data, records);
+            return records;
+        }
+        CRC32C crc = new CRC32C();
+        for (long number = 1; ; number++) {
+            byte[] record;
+            try {
+                record = readFrame(data, crc);
+            } catch (EOFException | IllegalArgumentException e) {
+                System.err.println("Skipping corrupted binary records after record " + records.size()
+                        + ": " + e.getMessage());
+                return records;
+            }
+            if (record == null) {
+                return records;
+            }
+            if (record.length == 0) {
+                System.err.println("Skipping corrupted binary record " + number + ": Checksum mismatch");
+                continue;
+            }
+            try {
+                DataInputStream fields = new DataInputStream(new ByteArrayInputStream(record));
+                records.add(readRecord(fields, fields.read()));
+            } catch (EOFException | IllegalArgumentException | DateTimeException e) {
+                System.err.println("Skipping corrupted binary record " + number + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static void readUnframed(DataInputStream data, List<TaskRecord> records) throws IOException {
+        while (true) {
+            int flags = data.read();
+            if (flags < 0) {
+                return;
+            }
+            try {
+                records.add(readRecord(data, flags));
+            } catch (EOFException | IllegalArgumentException | DateTimeException e) {
+                // Record boundaries cannot be recovered after a bad record, so keep what was read so far.
+                System.err.println("Skipping corrupted binary records after record " + records.size()
+                        + ": " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads the next frame and checks its checksum.
+     *
+     * @return The record's bytes; an empty array if the checksum does not match; null at the end of the file.
+     * @throws EOFException If the file ends inside the frame.
+     */
+    private static byte[] readFrame(DataInputStream data, CRC32C crc) throws IOException {
+        int first = data.read();
+        if (first < 0) {
+            return null;
+        }
+        long length = readVarLong(data, first);
+        if (length <= 0 || length > MAX_RECORD_LENGTH) {
+            throw new IllegalArgumentException("Invalid record length " + length);
+        }
+        int expected = data.readInt();
+        byte[] record = new byte[(int) length];
+        data.readFully(record);
+        crc.reset();
+        crc.update(record);
+        return (int) crc.getValue() == expected ? record : new byte[0];
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Frames are read one after another and only their checksums are computed. Files from before
+     * checksums were added are read in full and reported as unchecked.
+     */
+    @Override
+    public IntegrityReport verify(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+        int version = readHeader(data);
+        IntegrityReport report = new IntegrityReport("record");
+        if (version < FRAMED_VERSION) {
+            List<TaskRecord> records = new ArrayList<>();
+            readUnframed(data, records);
+            for (int i = 0; i < records.size(); i++) {
+                report.addUnchecked();
+            }
+            return report;
+        }
+        CRC32C crc = new CRC32C();
+        while (true) {
+            byte[] record;
+            try {
+                record = readFrame(data, crc);
+            } catch (EOFException | IllegalArgumentException e) {
+                // The rest of the file cannot be framed; count it as one corrupted record.
+                report.addCorrupted();
+                return report;
+            }
+            if (record == null) {
+                return report;
+            }
+            if (record.length == 0) {
+                report.addCorrupted();
+            } else {
+                report.addChecked();
+            }
+        }
+    }
+
+    /** Reads the header and returns the file's version. */
+    private static int readHeader(DataInputStream data) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        try {
+            data.readFully(magic);
+        } catch (EOFException e) {
+            throw new IOException("Not a binary task file (too short)");
+        }
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a binary task file (bad magic)");
+        }
+        int version = data.read();
+        if (version < MIN_VERSION || version > VERSION) {
+            throw new IOException("Unsupported binary task file version: " + version);
+        }
+        return version;
+    }
+
+    private static TaskRecord readRecord(DataInputStream data, int flags) throws IOException {
+        int typeBits = flags & TYPE_MASK;
+        if (typeBits >= TaskType.values().length) {
+            throw new IllegalArgumentException("Unknown task type " + typeBits);
+        }
+        TaskType type = TaskType.values()[typeBits];
+        boolean isDone = (flags & DONE_FLAG) != 0;
+        boolean isPrecise = (flags & PRECISE_FLAG) != 0;
+
+        int length = (int) readVarLong(data);
+        if (length < 0) {
+            throw new IllegalArgumentException("Negative description length");
+        }
+        byte[] utf8 = new byte[length];
+        data.readFully(utf8);
+        String description = new String(utf8, StandardCharsets.UTF_8);
+
+        LocalDateTime start = type == TaskType.TODO ? null : readDate(data, isPrecise);
+        LocalDateTime end = type == TaskType.EVENT ? readDate(data, isPrecise) : null;
+        LocalDateTime doneAt = (flags & DONE_AT_FLAG) != 0 ? readDate(data, isPrecise) : null;
+        if (doneAt != null && !isDone) {
+            throw new IllegalArgumentException("Completion time on a task that is not done");
+        }
+        long id = (flags & ID_FLAG) != 0 ? readVarLong(data) : 0;
+        if (id <= 0 && (flags & ID_FLAG) != 0 || id > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid task id " + id);
+        }
+        return new TaskRecord(type, isDone, description, start, end, doneAt, (int) id);
+    }
+
+    @Override
+    public void write(OutputStream out, Iterable<TaskRecord> records) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        data.write(MAGIC);
+        data.write(VERSION);
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        CRC32C crc = new CRC32C();
+        for (TaskRecord r : records) {
+            writeFrame(data, r, record, crc);
+        }
+        data.flush();
+    }
+
+    @Override
+    public void writeHeader(OutputStream out) throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+    }
+
+    @Override
+    public void writeRecord(OutputStream out, TaskRecord record) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        writeFrame(data, record, new ByteArrayOutputStream(), new CRC32C());
+        data.flush();
+    }
+
+    /** Writes one frame, using {@code buffer} to encode the record before its length and checksum. */
+    private static void writeFrame(DataOutputStream data, TaskRecord record, ByteArrayOutputStream buffer,
+            CRC32C crc) throws IOException {
+        buffer.reset();
+        writeRecord(new DataOutputStream(buffer), record);
+        byte[] bytes = buffer.toByteArray();
+        crc.reset();
+        crc.update(bytes);
+        writeVarLong(data, bytes.length);
+        data.writeInt((int) crc.getValue());
+        data.write(bytes);
+    }
+
+    private static void writeRecord(DataOutputStream data, TaskRecord record) throws IOException {
+        boolean isPrecise = !isWholeMinute(record.getStart()) || !isWholeMinute(record.getEnd())
+                || !isWholeMinute(record.getDoneAt());
+        int flags = record.getType().ordinal()
+                | (record.getId() != 0 ? ID_FLAG : 0)
+                | (record.getDoneAt() != null ? DONE_AT_FLAG : 0)
+                | (isPrecise ? PRECISE_FLAG : 0)
+                | (record.isDone() ? DONE_FLAG : 0);
+        data.write(flags);
+
+        byte[] utf8 = record.getDescription().getBytes(StandardCharsets.UTF_8);
+        writeVarLong(data, utf8.length);
+        data.write(utf8);
+
+        if (record.getStart() != null) {
+            writeDate(data, record.getStart(), isPrecise);
+        }
+        if (record.getEnd() != null) {
+            writeDate(data, record.getEnd(), isPrecise);
+        }
+        if (record.getDoneAt() != null) {
+            writeDate(data, record.getDoneAt(), isPrecise);
+        }
+        if (record.getId() != 0) {
+            writeVarLong(data, record.getId());
+        }
+    }
+
+    private static boolean isWholeMinute(LocalDateTime dt) {
+        return dt == null || (dt.getSecond() == 0 && dt.getNano() == 0);
+    }
+
+    private static void writeDate(DataOutputStream data, LocalDateTime dt, boolean isPrecise) throws IOException {
+        long epochSecond = dt.toEpochSecond(ZoneOffset.UTC);
+        if (isPrecise) {
+            writeVarLong(data, zigZag(epochSecond));
+            writeVarLong(data, dt.getNano());
+        } else {
+            writeVarLong(data, zigZag(epochSecond / SECONDS_PER_MINUTE));
+        }
+    }
+
+    private static LocalDateTime readDate(DataInputStream data, boolean isPrecise) throws IOException {
+        if (isPrecise) {
+            long epochSecond = unZigZag(readVarLong(data));
+            int nano = (int) readVarLong(data);
+            return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+        }
+        long epochMinute = unZigZag(readVarLong(data));
+        return LocalDateTime.ofEpochSecond(epochMinute * SECONDS_PER_MINUTE, 0, ZoneOffset.UTC);
+    }
+
+    private static long zigZag(long n) {
+        return (n << 1) ^ (n >> 63);
+    }
+
+    private static long unZigZag(long n) {
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    /** Writes an unsigned LEB128 varint: 7 bits per byte, high bit set on all but the last byte. */
+    private static void writeVarLong(DataOutputStream data, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            data.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        data.write((int) value);
+    }
+
+    private static long readVarLong(DataInputStream data) throws IOException {
+        return readVarLong(data, data.readUnsignedByte());
+    }
+
+    /** Reads a varint whose first byte has already been read. */
+    private static long readVarLong(DataInputStream data, int first) throws IOException {
+        long result = 0;
+        int b = first;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (shift > 0) {
+                b = data.readUnsignedByte();
+            }
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
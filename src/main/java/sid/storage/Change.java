@@ -0,0 +1,89 @@
+package sid.storage;
+
+import sid.models.ToDo;
+
+/**
+ * Describes a single mutation applied to a {@link sid.models.TodoList}.
+ *
+ * <p>Handed to {@link StorageBackend#persistChange} after every mutation, or to
+ * {@link StorageBackend#persistChanges} for a batch, so that storage modes which only record deltas know
+ * what changed without walking the whole list.
+ */
+public class Change {
+    /** Kinds of mutation a task list can undergo. */
+    public enum Kind {
+        ADD,
+        MARK,
+        UNMARK,
+        DELETE
+    }
+
+    private final Kind kind;
+    private final int index;
+    private final ToDo task;
+
+    private Change(Kind kind, int index, ToDo task) {
+        assert kind != null : "Change kind cannot be null";
+        assert index > 0 : "Change index must be positive (1-based indexing)";
+        assert task != null : "Changed task cannot be null";
+        this.kind = kind;
+        this.index = index;
+        this.task = task;
+    }
+
+    /**
+     * Returns a change recording that {@code task} was appended at position {@code index}.
+     *
+     * @param index 1-based position of the new task.
+     * @param task  The task that was added.
+     * @return The change.
+     */
+    public static Change add(int index, ToDo task) {
+        return new Change(Kind.ADD, index, task);
+    }
+
+    /**
+     * Returns a change recording that the task at {@code index} was marked as done.
+     *
+     * @param index 1-based position of the task.
+     * @param task  The task after marking.
+     * @return The change.
+     */
+    public static Change mark(int index, ToDo task) {
+        return new Change(Kind.MARK, index, task);
+    }
+
+    /**
+     * Returns a change recording that the task at {@code index} was marked as not done.
+     *
+     * @param index 1-based position of the task.
+     * @param task  The task after unmarking.
+     * @return The change.
+     */
+    public static Change unmark(int index, ToDo task) {
+        return new Change(Kind.UNMARK, index, task);
+    }
+
+    /**
+     * Returns a change recording that the task at {@code index} was removed.
+     *
+     * @param index 1-based position the task occupied before removal.
+     * @param task  The task that was removed.
+     * @return The change.
+     */
+    public static Change delete(int index, ToDo task) {
+        return new Change(Kind.DELETE, index, task);
+    }
+
+    public Kind getKind() {
+        return this.kind;
+    }
+
+    public int getIndex() {
+        return this.index;
+    }
+
+    public ToDo getTask() {
+        return this.task;
+    }
+}
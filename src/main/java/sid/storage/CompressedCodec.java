@@ -0,0 +1,120 @@
+package sid.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import sid.models.ToDo;
+
+/**
+ * Deflate-compressed task format, wrapping another codec.
+ *
+ * <p>A file starts with the 4-byte magic {@code SIDZ} and a version byte, followed by a zlib stream of the
+ * wrapped codec's file. Records are deflated as they are written and inflated as they are read, through
+ * fixed-size buffers, so neither direction holds the uncompressed file in memory. Task files repeat the
+ * same type codes, separators and date prefixes on every line, which deflate removes almost entirely.
+ *
+ * <p>A compressed stream cannot be rewritten from the middle, so this codec does not support
+ * {@link #writeRecord(OutputStream, TaskRecord) per-record writes}; {@link Storage} always saves it whole.
+ */
+public class CompressedCodec implements TaskCodec {
+    /** Leading bytes that identify a compressed task file. */
+    public static final byte[] MAGIC = {'S', 'I', 'D', 'Z'};
+
+    /** Current format version, written after the magic. */
+    public static final int VERSION = 1;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final TaskCodec inner;
+
+    /**
+     * Constructs a codec that compresses files in another codec's format.
+     *
+     * @param inner Codec for the uncompressed content.
+     */
+    public CompressedCodec(TaskCodec inner) {
+        assert inner != null : "Inner codec cannot be null";
+        this.inner = inner;
+    }
+
+    @Override
+    public List<TaskRecord> read(InputStream in) throws IOException {
+        readHeader(in);
+        Inflater inflater = new Inflater();
+        try {
+            return inner.read(new InflaterInputStream(in, inflater, BUFFER_SIZE));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public List<ToDo> readTasks(InputStream in) throws IOException {
+        readHeader(in);
+        Inflater inflater = new Inflater();
+        try {
+            return inner.readTasks(new InflaterInputStream(in, inflater, BUFFER_SIZE));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public IntegrityReport verify(InputStream in) throws IOException {
+        readHeader(in);
+        Inflater inflater = new Inflater();
+        try {
+            return inner.verify(new InflaterInputStream(in, inflater, BUFFER_SIZE));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void readHeader(InputStream in) throws IOException {
+        byte[] header = in.readNBytes(MAGIC.length + 1);
+        if (header.length < MAGIC.length + 1 || !Arrays.equals(MAGIC, Arrays.copyOf(header, MAGIC.length))) {
+            throw new IOException("Not a compressed task file");
+        }
+        int version = header[MAGIC.length];
+        if (version != VERSION) {
+            throw new IOException("Unsupported compressed file version " + version);
+        }
+    }
+
+    @Override
+    public void write(OutputStream out, Iterable<TaskRecord> records) throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            DeflaterOutputStream deflated = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+            inner.write(deflated, records);
+            deflated.finish();
+            out.flush();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public boolean canWriteRecords() {
+        return false;
+    }
+
+    /**
+     * Not supported, as a deflated record depends on everything written before it.
+     *
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public void writeRecord(OutputStream out, TaskRecord record) {
+        throw new UnsupportedOperationException("Compressed files can only be written whole");
+    }
+}
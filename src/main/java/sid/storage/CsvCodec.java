@@ -0,0 +1,145 @@
+package sid.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import sid.exceptions.SidException;
+
+/**
+ * Comma-separated values, one task per row, as defined by RFC 4180.
+ *
+ * <p>Files start with a header row naming the columns:
+ * <pre>
+ * type,done,description,start,end,done_at
+ * T,1,read book,,,2019-12-01T09:30
+ * D,0,"return book, then pay fine",2019-12-02T18:00,,
+ * </pre>
+ * Fields containing commas, quotes or line breaks are quoted, with quotes doubled. Dates are ISO-8601 and
+ * empty where they do not apply. When reading, the type may also be spelt out ({@code deadline}), the done
+ * flag may be {@code true} or {@code false}, and trailing empty columns may be left out.
+ */
+public class CsvCodec implements ExchangeCodec {
+    /** Column names, written as the first row. */
+    public static final String HEADER = "type,done,description,start,end,done_at";
+
+    private static final DateTimeFormatter ISO_DT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final String LINE_SEPARATOR = "\r\n";
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final int FIELD_COUNT = 6;
+
+    @Override
+    public void writeHeader(Writer out) throws IOException {
+        out.write(HEADER);
+        out.write(LINE_SEPARATOR);
+    }
+
+    @Override
+    public void writeRecord(Writer out, TaskRecord record) throws IOException {
+        out.write(record.getType().toString());
+        out.write(SEPARATOR);
+        out.write(record.isDone() ? '1' : '0');
+        out.write(SEPARATOR);
+        writeField(out, record.getDescription());
+        out.write(SEPARATOR);
+        writeDate(out, record.getStart());
+        out.write(SEPARATOR);
+        writeDate(out, record.getEnd());
+        out.write(SEPARATOR);
+        writeDate(out, record.getDoneAt());
+        out.write(LINE_SEPARATOR);
+    }
+
+    private static void writeDate(Writer out, LocalDateTime dt) throws IOException {
+        if (dt != null) {
+            out.write(dt.format(ISO_DT));
+        }
+    }
+
+    private static void writeField(Writer out, String value) throws IOException {
+        boolean needsQuotes = value.indexOf(SEPARATOR) >= 0 || value.indexOf(QUOTE) >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            out.write(value);
+            return;
+        }
+        out.write(QUOTE);
+        out.write(value.replace("\"", "\"\""));
+        out.write(QUOTE);
+    }
+
+    @Override
+    public TaskRecord readRecord(BufferedReader in) throws IOException, SidException {
+        while (true) {
+            List<String> fields = readRow(in);
+            if (fields == null) {
+                return null;
+            }
+            boolean isBlank = fields.size() == 1 && fields.get(0).isBlank();
+            // No type is called "type", so a row starting with it is a header, however many columns it names.
+            if (isBlank || fields.get(0).trim().equalsIgnoreCase("type")) {
+                continue;
+            }
+            if (fields.size() < 3 || fields.size() > FIELD_COUNT) {
+                throw new SidException("Expected 3 to " + FIELD_COUNT + " columns but found " + fields.size());
+            }
+            while (fields.size() < FIELD_COUNT) {
+                fields.add("");
+            }
+            return TaskRecord.fromFields(fields.get(0), fields.get(1), fields.get(2), fields.get(3), fields.get(4),
+                    fields.get(5));
+        }
+    }
+
+    /** Reads the fields of one row, which may span lines inside quotes; null at the end of the input. */
+    private static List<String> readRow(BufferedReader in) throws IOException, SidException {
+        int c = in.read();
+        if (c < 0) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>(FIELD_COUNT);
+        StringBuilder field = new StringBuilder();
+        boolean isQuoted = false;
+        while (true) {
+            if (isQuoted) {
+                if (c < 0) {
+                    throw new SidException("Unterminated quoted field");
+                }
+                if (c == QUOTE) {
+                    in.mark(1);
+                    if (in.read() == QUOTE) {
+                        field.append(QUOTE);
+                    } else {
+                        in.reset();
+                        isQuoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c < 0 || c == '\n') {
+                break;
+            } else if (c == '\r') {
+                in.mark(1);
+                if (in.read() != '\n') {
+                    in.reset();
+                }
+                break;
+            } else if (c == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == QUOTE && field.length() == 0) {
+                isQuoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = in.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,37 @@
+package sid.storage;
+
+/**
+ * How hard {@link Storage} works to make a save survive a crash or power loss.
+ *
+ * <p>The levels differ in when written data is forced from the operating system's page cache to the disk.
+ * Whole-file saves always replace the task file atomically through a temporary file. Below {@link #ALWAYS},
+ * a single change instead rewrites the file in place from the first changed record, which is much cheaper
+ * but can lose that tail if the process dies mid-write.
+ */
+public enum Durability {
+    /** Never force; the operating system writes the data back in its own time. */
+    NONE,
+
+    /** Force recently written files from a background thread at a fixed interval. */
+    BATCH,
+
+    /** Replace the file atomically and force every save, and every journal append, before it returns. */
+    ALWAYS;
+
+    /**
+     * Parses a durability level as given on the command line ({@code none}, {@code batch} or {@code always}).
+     *
+     * @param name Level name, case-insensitive.
+     * @return The matching level.
+     * @throws IllegalArgumentException If the name is unknown.
+     */
+    public static Durability fromName(String name) {
+        assert name != null : "Durability name cannot be null";
+        return valueOf(name.trim().toUpperCase());
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase();
+    }
+}
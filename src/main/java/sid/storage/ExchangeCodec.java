@@ -0,0 +1,45 @@
+package sid.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+
+import sid.exceptions.SidException;
+
+/**
+ * Reads and writes tasks one record at a time in a format meant for other programs, such as spreadsheets.
+ *
+ * <p>Unlike a {@link TaskCodec}, which handles Sid's own files, an exchange codec never holds more than one
+ * record, so files of any size can be streamed through it. Streams are neither opened nor closed by the
+ * codec.
+ */
+public interface ExchangeCodec {
+    /**
+     * Writes whatever precedes the first record, such as a header row.
+     *
+     * @param out Writer to write to.
+     * @throws IOException If the writer fails.
+     */
+    default void writeHeader(Writer out) throws IOException {
+    }
+
+    /**
+     * Writes a single record, including its line terminator.
+     *
+     * @param out    Writer to write to.
+     * @param record Record to write.
+     * @throws IOException If the writer fails.
+     */
+    void writeRecord(Writer out, TaskRecord record) throws IOException;
+
+    /**
+     * Reads the next record, skipping blank lines and header rows.
+     *
+     * @param in Reader positioned at the start of a record.
+     * @return The record, or null at the end of the input.
+     * @throws IOException  If the reader fails.
+     * @throws SidException If the record is malformed; the reader is then positioned after it, so reading can
+     *                      continue with the next one.
+     */
+    TaskRecord readRecord(BufferedReader in) throws IOException, SidException;
+}
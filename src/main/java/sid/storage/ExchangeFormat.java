@@ -0,0 +1,46 @@
+package sid.storage;
+
+import sid.exceptions.SidException;
+
+/**
+ * Formats tasks can be exported to and imported from, each identified by a file extension.
+ */
+public enum ExchangeFormat {
+    /** Comma-separated values with a header row; see {@link CsvCodec}. */
+    CSV(new CsvCodec(), ".csv"),
+
+    /** One JSON object per line; see {@link JsonLinesCodec}. */
+    JSON_LINES(new JsonLinesCodec(), ".jsonl", ".ndjson");
+
+    private final ExchangeCodec codec;
+    private final String[] extensions;
+
+    ExchangeFormat(ExchangeCodec codec, String... extensions) {
+        this.codec = codec;
+        this.extensions = extensions;
+    }
+
+    /**
+     * Returns the format implied by a file's extension.
+     *
+     * @param path File path.
+     * @return The matching format.
+     * @throws SidException If the extension names no exchange format.
+     */
+    public static ExchangeFormat fromPath(String path) throws SidException {
+        assert path != null : "Path cannot be null";
+        String lowerCasePath = path.toLowerCase();
+        for (ExchangeFormat format : values()) {
+            for (String extension : format.extensions) {
+                if (lowerCasePath.endsWith(extension)) {
+                    return format;
+                }
+            }
+        }
+        throw new SidException("I can only read and write .csv and .jsonl files.");
+    }
+
+    public ExchangeCodec getCodec() {
+        return this.codec;
+    }
+}
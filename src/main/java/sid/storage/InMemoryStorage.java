@@ -0,0 +1,165 @@
+package sid.storage;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import sid.exceptions.SidException;
+import sid.models.ToDo;
+import sid.models.TodoList;
+
+/**
+ * Backend that keeps tasks, and the archive, in memory only.
+ *
+ * <p>Changes are mirrored into a list of {@link TaskRecord}s, which a later {@link #load()} starts from,
+ * so the backend behaves like a store that happens to lose everything when the process exits. This makes
+ * it suitable for tests and as a baseline when benchmarking the on-disk backends.
+ */
+public class InMemoryStorage implements StorageBackend {
+    private final List<TaskRecord> records;
+    private final List<ArchivedTask> archived = new ArrayList<>();
+    private final Set<Integer> restored = new HashSet<>();
+    /** The next unused task id of the list last saved, so a later load does not reuse deleted tasks' ids. */
+    private int nextId;
+
+    /**
+     * Constructs an empty in-memory backend.
+     */
+    public InMemoryStorage() {
+        this(new ArrayList<>());
+    }
+
+    /**
+     * Constructs an in-memory backend holding the given records.
+     *
+     * @param records Records that {@link #load()} turns into tasks.
+     */
+    public InMemoryStorage(List<TaskRecord> records) {
+        assert records != null : "Records cannot be null";
+        this.records = new ArrayList<>(records);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Records that are no longer valid tasks are skipped with a warning, as when loading a file.
+     */
+    @Override
+    public synchronized TodoList load() {
+        List<ToDo> tasks = new ArrayList<>(records.size());
+        for (TaskRecord record : records) {
+            try {
+                tasks.add(record.toTask());
+            } catch (SidException e) {
+                System.err.println("Skipping corrupted line: " + record.toText() + ": " + e.getMessage());
+            }
+        }
+        return new TodoList(tasks, this, nextId);
+    }
+
+    @Override
+    public synchronized void persistChange(TodoList list, Change change) {
+        assert list != null : "TodoList to save cannot be null";
+        assert change != null : "Change cannot be null";
+        int i = change.getIndex() - 1;
+        try {
+            switch (change.getKind()) {
+            case ADD:
+                records.add(TaskRecord.of(change.getTask()));
+                break;
+            case DELETE:
+                records.remove(i);
+                break;
+            default:
+                records.set(i, TaskRecord.of(change.getTask()));
+                break;
+            }
+        } catch (SidException e) {
+            System.err.println("Failed to save tasks: " + e.getMessage());
+        }
+        nextId = Math.max(nextId, list.getNextId());
+    }
+
+    @Override
+    public void save(TodoList list) {
+        assert list != null : "TodoList to save cannot be null";
+        // Lock the list first, as its mutators do before calling persistChange.
+        list.readLock().lock();
+        try {
+            synchronized (this) {
+                records.clear();
+                for (int i = 1; i <= list.getSize(); i++) {
+                    try {
+                        records.add(TaskRecord.of(list.getTodo(i)));
+                    } catch (SidException e) {
+                        throw new AssertionError("Index within list size must be valid", e);
+                    }
+                }
+                nextId = Math.max(nextId, list.getNextId());
+            }
+        } finally {
+            list.readLock().unlock();
+        }
+    }
+
+    /** Nothing is ever deferred, so there is nothing to wait for. */
+    @Override
+    public void flush() {
+    }
+
+    /** Memory is never shared with another process, so there is nothing to catch up on. */
+    @Override
+    public void refresh(TodoList list) {
+    }
+
+    /** Records in memory cannot be damaged, so every one of them is reported as checked. */
+    @Override
+    public synchronized IntegrityReport verify() {
+        IntegrityReport report = new IntegrityReport("record");
+        for (int i = 0; i < records.size(); i++) {
+            report.addChecked();
+        }
+        return report;
+    }
+
+    /** Returns a copy of the records currently stored, in list order. */
+    public synchronized List<TaskRecord> getRecords() {
+        return new ArrayList<>(records);
+    }
+
+    @Override
+    public synchronized void archive(List<ToDo> tasks) throws SidException {
+        assert tasks != null : "Tasks to archive cannot be null";
+        for (ToDo task : tasks) {
+            archived.add(new ArchivedTask(archived.size() + 1, TaskRecord.of(task)));
+        }
+    }
+
+    @Override
+    public synchronized List<ArchivedTask> searchArchive(String keyword) {
+        assert keyword != null : "Keyword cannot be null";
+        String query = keyword.trim().toLowerCase();
+        List<ArchivedTask> matches = new ArrayList<>();
+        for (ArchivedTask task : archived) {
+            if (!restored.contains(task.getNumber())
+                    && task.getRecord().toDisplayString().toLowerCase().contains(query)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public synchronized TaskRecord getArchived(int number) throws SidException {
+        if (number < 1 || number > archived.size() || restored.contains(number)) {
+            throw new SidException("There's no archived task " + number + ".");
+        }
+        return archived.get(number - 1).getRecord();
+    }
+
+    @Override
+    public synchronized void markRestored(int number) {
+        restored.add(number);
+    }
+}
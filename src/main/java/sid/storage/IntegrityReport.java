@@ -0,0 +1,108 @@
+package sid.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of checking a task file's record checksums without loading its tasks.
+ *
+ * <p>Positions are counted in the file's own unit, lines for text files and records for binary files,
+ * and are 1-based. Records written before checksums existed are counted as unchecked.
+ */
+public class IntegrityReport {
+    /** Corrupted positions listed by {@link #toString()}; the rest are only counted. */
+    private static final int MAX_LISTED = 10;
+
+    private final String unit;
+    private long span;
+    private long checkedCount;
+    private long uncheckedCount;
+    private final List<Long> corrupted = new ArrayList<>();
+
+    /**
+     * Constructs an empty report.
+     *
+     * @param unit What a position counts, e.g. {@code line} or {@code record}.
+     */
+    public IntegrityReport(String unit) {
+        assert unit != null : "Unit cannot be null";
+        this.unit = unit;
+    }
+
+    /** Records that the next position holds a record whose checksum matched. */
+    public void addChecked() {
+        span++;
+        checkedCount++;
+    }
+
+    /** Records that the next position holds a record without a checksum. */
+    public void addUnchecked() {
+        span++;
+        uncheckedCount++;
+    }
+
+    /** Records that the next position holds a record whose checksum did not match. */
+    public void addCorrupted() {
+        span++;
+        corrupted.add(span);
+    }
+
+    /** Records that the next position holds no record, such as a blank line. */
+    public void addBlank() {
+        span++;
+    }
+
+    /**
+     * Adds the results of the part of the file that follows the part this report covers.
+     *
+     * @param later Report on the following part, whose positions start again from 1.
+     */
+    public void append(IntegrityReport later) {
+        assert later != null : "Report cannot be null";
+        for (long position : later.corrupted) {
+            corrupted.add(span + position);
+        }
+        span += later.span;
+        checkedCount += later.checkedCount;
+        uncheckedCount += later.uncheckedCount;
+    }
+
+    public long getCheckedCount() {
+        return this.checkedCount;
+    }
+
+    public long getUncheckedCount() {
+        return this.uncheckedCount;
+    }
+
+    /** Returns the 1-based positions of the corrupted records, in file order. */
+    public List<Long> getCorrupted() {
+        return Collections.unmodifiableList(corrupted);
+    }
+
+    /** Returns whether no checksum failed. */
+    public boolean isIntact() {
+        return corrupted.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        long total = checkedCount + uncheckedCount + corrupted.size();
+        StringBuilder summary = new StringBuilder("Checked ").append(total).append(" records");
+        if (uncheckedCount > 0) {
+            summary.append(" (").append(uncheckedCount).append(" without checksums)");
+        }
+        if (isIntact()) {
+            return summary.append(", all intact.").toString();
+        }
+        summary.append(", ").append(corrupted.size()).append(" corrupted at ").append(unit);
+        for (int i = 0; i < Math.min(MAX_LISTED, corrupted.size()); i++) {
+            summary.append(i == 0 ? " " : ", ").append(corrupted.get(i));
+        }
+        if (corrupted.size() > MAX_LISTED) {
+            summary.append(" and ").append(corrupted.size() - MAX_LISTED).append(" more");
+        }
+        return summary.append('.').toString();
+    }
+}
@@ -0,0 +1,360 @@
+package sid.storage;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import sid.exceptions.SidException;
+
+/**
+ * Append-only log of task list mutations kept beside the main task file.
+ *
+ * <p>Each line records one {@link Change}. Task payloads use the same pipe-separated record format as
+ * the main file, prefixed with an operation code and, where needed, the 1-based position. Every entry ends
+ * with a CRC32C of the rest of the line, written as in the main file:
+ * <pre>
+ * A | T | 0 | read book | *27d38c2a
+ * M | 3 | D | 1 | return book | 2019-12-02T18:00 | *c37ac71a
+ * U | 3 | D | 0 | return book | 2019-12-02T18:00 | *a0626b7d
+ * D | 2 | *1b1cf07c
+ * </pre>
+ * Replaying the journal over the records of the main file reproduces the current list, whatever format
+ * the main file itself uses. Each entry's position depends on the entries before it, so replay stops at the
+ * first entry whose checksum is missing or does not match, such as one torn by a crash, rather than apply
+ * the later ones to the wrong tasks.
+ *
+ * <p>Three files sit next to the main file {@code sid.txt}:
+ * <ul>
+ *   <li>{@code sid.txt.journal} - the active journal that new changes are appended to</li>
+ *   <li>{@code sid.txt.journal.old} - a rotated journal waiting to be folded into the main file</li>
+ *   <li>{@code sid.txt.checkpoint} - checksum of a main file that already contains journaled changes,
+ *       written just before that file replaces the old one so a crash cannot replay a change twice</li>
+ * </ul>
+ *
+ * <p>Methods that touch the active journal are synchronized, so it can be {@link #force() synced} from a
+ * background thread while changes are appended.
+ */
+public class Journal {
+    private static final String ADD_OP = "A";
+    private static final String MARK_OP = "M";
+    private static final String UNMARK_OP = "U";
+    private static final String DELETE_OP = "D";
+    private static final String SEPARATOR = " | ";
+
+    /** Marker scope written when the checkpoint covers the rotated journal only. */
+    private static final String SCOPE_ROTATED = "rotated";
+
+    /** Marker scope written when the checkpoint covers every journal on disk. */
+    private static final String SCOPE_ALL = "all";
+
+    private final File active;
+    private final File rotated;
+    private final File marker;
+
+    private FileOutputStream stream;
+    private BufferedWriter writer;
+    private int entryCount;
+
+    /**
+     * Constructs a journal for the given main task file.
+     *
+     * @param taskFile The main task file whose changes are journaled.
+     */
+    public Journal(File taskFile) {
+        assert taskFile != null : "Task file cannot be null";
+        this.active = new File(taskFile.getPath() + ".journal");
+        this.rotated = new File(taskFile.getPath() + ".journal.old");
+        this.marker = new File(taskFile.getPath() + ".checkpoint");
+    }
+
+    /**
+     * Appends one change to the active journal and flushes it to the operating system.
+     *
+     * @param change The change to record.
+     * @param record Serialized form of the changed task, in main-file record format.
+     * @return Bytes appended to the journal.
+     * @throws IOException If the journal cannot be written.
+     */
+    public long append(Change change, String record) throws IOException {
+        return append(List.of(change), List.of(record));
+    }
+
+    /**
+     * Appends a group of changes to the active journal with a single flush.
+     *
+     * @param changes The changes to record, in the order they were applied.
+     * @param records Serialized forms of the changed tasks, parallel to {@code changes}.
+     * @return Bytes appended to the journal.
+     * @throws IOException If the journal cannot be written.
+     */
+    public synchronized long append(List<Change> changes, List<String> records) throws IOException {
+        assert changes != null && records != null : "Changes and records cannot be null";
+        assert changes.size() == records.size() : "Each change needs exactly one record";
+        if (writer == null) {
+            File parent = active.getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            stream = new FileOutputStream(active, true);
+            writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+        }
+        long before = stream.getChannel().position();
+        for (int i = 0; i < changes.size(); i++) {
+            String entry = encode(changes.get(i), records.get(i));
+            writer.write(entry);
+            writer.write(TextCodec.CHECKSUM_MARK);
+            writer.write(checksum(entry));
+            writer.write(System.lineSeparator());
+        }
+        writer.flush();
+        entryCount += changes.size();
+        return stream.getChannel().position() - before;
+    }
+
+    private static String encode(Change change, String record) {
+        switch (change.getKind()) {
+        case ADD:
+            return ADD_OP + SEPARATOR + record;
+        case MARK:
+            return MARK_OP + SEPARATOR + change.getIndex() + SEPARATOR + record;
+        case UNMARK:
+            return UNMARK_OP + SEPARATOR + change.getIndex() + SEPARATOR + record;
+        case DELETE:
+            return DELETE_OP + SEPARATOR + change.getIndex();
+        default:
+            throw new IllegalArgumentException("Unknown change kind: " + change.getKind());
+        }
+    }
+
+    /** Returns the CRC32C of an entry as lower-case hex digits, padded to {@link TextCodec#CHECKSUM_DIGITS}. */
+    private static String checksum(String entry) {
+        CRC32C crc = new CRC32C();
+        crc.update(entry.getBytes(StandardCharsets.UTF_8));
+        String hex = Long.toHexString(crc.getValue());
+        return "0".repeat(TextCodec.CHECKSUM_DIGITS - hex.length()) + hex;
+    }
+
+    /**
+     * Returns a trimmed journal line without its checksum field, or null if the field is missing or does not
+     * match the rest of the line.
+     */
+    private static String checkedEntry(String line) {
+        int mark = line.length() - TextCodec.CHECKSUM_DIGITS - TextCodec.CHECKSUM_MARK.length();
+        if (mark < 0 || !line.startsWith(TextCodec.CHECKSUM_MARK, mark)) {
+            return null;
+        }
+        String entry = line.substring(0, mark);
+        return line.substring(mark + TextCodec.CHECKSUM_MARK.length()).equals(checksum(entry)) ? entry : null;
+    }
+
+    /**
+     * Forces appended entries from the operating system's cache to the disk.
+     *
+     * @throws IOException If the journal cannot be synced.
+     */
+    public synchronized void force() throws IOException {
+        if (stream != null) {
+            stream.getChannel().force(false);
+        }
+    }
+
+    /** Returns the number of entries appended since this journal was opened or last rotated. */
+    public synchronized int getEntryCount() {
+        return this.entryCount;
+    }
+
+    /** Returns true if no journal or checkpoint file exists on disk. */
+    public boolean isEmpty() {
+        return !active.exists() && !rotated.exists() && !marker.exists();
+    }
+
+    /** Returns true if a rotated journal is waiting to be checkpointed. */
+    public boolean hasRotated() {
+        return rotated.exists();
+    }
+
+    /**
+     * Moves the active journal aside so that it can be checkpointed while new changes go to a fresh journal.
+     *
+     * @return False if a previously rotated journal has not been checkpointed yet; true otherwise.
+     * @throws IOException If the journal cannot be renamed.
+     */
+    public synchronized boolean rotate() throws IOException {
+        if (rotated.exists()) {
+            return false;
+        }
+        close();
+        if (active.exists()) {
+            Files.move(active.toPath(), rotated.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        }
+        entryCount = 0;
+        return true;
+    }
+
+    /**
+     * Replays the journals that are not yet contained in the main file onto its records.
+     *
+     * @param records      Records read from the main file; modified in place.
+     * @param baseChecksum Checksum of the main file the records were read from.
+     * @return The number of entries applied.
+     * @throws IOException If a journal cannot be read.
+     */
+    public int replay(List<TaskRecord> records, long baseChecksum) throws IOException {
+        String scope = readCheckpointScope(baseChecksum);
+        Replay replay = new Replay();
+        if (scope == null) {
+            replayFile(rotated, records, replay);
+        }
+        if (!SCOPE_ALL.equals(scope)) {
+            replayFile(active, records, replay);
+        }
+        return replay.applied;
+    }
+
+    /**
+     * Replays only the rotated journal onto the given records, as done by a background checkpoint.
+     *
+     * @param records Records read from the main file; modified in place.
+     * @return The number of entries applied.
+     * @throws IOException If the rotated journal cannot be read.
+     */
+    public int replayRotated(List<TaskRecord> records) throws IOException {
+        Replay replay = new Replay();
+        replayFile(rotated, records, replay);
+        return replay.applied;
+    }
+
+    /** Progress of a replay across the rotated and active journals. */
+    private static class Replay {
+        private int applied;
+
+        /** Set at a corrupted entry; later entries, in either journal, are not applied. */
+        private boolean isStopped;
+    }
+
+    private String readCheckpointScope(long baseChecksum) throws IOException {
+        if (!marker.exists()) {
+            return null;
+        }
+        String[] parts = Files.readString(marker.toPath(), StandardCharsets.UTF_8).trim().split(" ");
+        if (parts.length != 2 || !parts[0].equals(Long.toHexString(baseChecksum))) {
+            // The checkpoint never replaced the main file, so its journals still need replaying.
+            return null;
+        }
+        return parts[1];
+    }
+
+    private static void replayFile(File journalFile, List<TaskRecord> records, Replay replay) throws IOException {
+        if (replay.isStopped || !journalFile.exists()) {
+            return;
+        }
+        List<String> lines = Files.readAllLines(journalFile.toPath(), StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String entry = checkedEntry(line);
+            if (entry == null) {
+                long ignored = lines.subList(i + 1, lines.size()).stream().filter(l -> !l.isBlank()).count();
+                System.err.println("Stopping journal replay at corrupted entry: " + line
+                        + ": Checksum mismatch; entries ignored after it: " + ignored);
+                replay.isStopped = true;
+                return;
+            }
+            try {
+                apply(entry, records);
+                replay.applied++;
+            } catch (SidException | IllegalArgumentException | IndexOutOfBoundsException e) {
+                System.err.println("Skipping corrupted journal entry: " + line + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static void apply(String entry, List<TaskRecord> records) throws SidException {
+        String[] parts = entry.split("\\s*\\|\\s*", 2);
+        if (parts.length < 2) {
+            throw new IllegalArgumentException("Too few fields");
+        }
+        String op = parts[0];
+        if (op.equals(ADD_OP)) {
+            records.add(TaskRecord.parseText(parts[1]));
+            return;
+        }
+
+        String[] indexAndRecord = parts[1].split("\\s*\\|\\s*", 2);
+        int i = Integer.parseInt(indexAndRecord[0]) - 1;
+        switch (op) {
+        case MARK_OP:
+        case UNMARK_OP:
+            if (indexAndRecord.length < 2) {
+                throw new IllegalArgumentException("Missing task record");
+            }
+            records.set(i, TaskRecord.parseText(indexAndRecord[1]));
+            break;
+        case DELETE_OP:
+            records.remove(i);
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown journal operation: " + op);
+        }
+    }
+
+    /**
+     * Records that a main file with the given checksum is about to replace the current one.
+     *
+     * @param baseChecksum     Checksum of the new main file contents.
+     * @param includesActive   True if the new file also contains the active journal's changes.
+     * @throws IOException If the marker cannot be written.
+     */
+    public void markCheckpoint(long baseChecksum, boolean includesActive) throws IOException {
+        String scope = includesActive ? SCOPE_ALL : SCOPE_ROTATED;
+        File tmp = new File(marker.getPath() + ".tmp");
+        Files.writeString(tmp.toPath(), Long.toHexString(baseChecksum) + " " + scope, StandardCharsets.UTF_8);
+        Files.move(tmp.toPath(), marker.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Deletes the rotated journal and checkpoint marker once a background checkpoint has completed.
+     *
+     * @throws IOException If either file cannot be deleted.
+     */
+    public void finishRotatedCheckpoint() throws IOException {
+        Files.deleteIfExists(rotated.toPath());
+        Files.deleteIfExists(marker.toPath());
+    }
+
+    /**
+     * Deletes every journal file once the main file holds the complete list.
+     *
+     * @throws IOException If a file cannot be deleted.
+     */
+    public synchronized void clear() throws IOException {
+        close();
+        Files.deleteIfExists(active.toPath());
+        Files.deleteIfExists(rotated.toPath());
+        Files.deleteIfExists(marker.toPath());
+        entryCount = 0;
+    }
+
+    /**
+     * Closes the active journal writer, if open.
+     *
+     * @throws IOException If the writer cannot be closed.
+     */
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+            stream = null;
+        }
+    }
+}
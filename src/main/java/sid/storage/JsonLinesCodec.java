@@ -0,0 +1,234 @@
+package sid.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+import sid.exceptions.SidException;
+
+/**
+ * JSON Lines: one JSON object per line, one line per task.
+ *
+ * <pre>
+ * {"type":"todo","done":true,"description":"read book","doneAt":"2019-12-01T09:30:00"}
+ * {"type":"deadline","done":false,"description":"return book","start":"2019-12-02T18:00:00"}
+ * {"type":"event","done":false,"description":"meeting","start":"2019-08-06T14:00:00","end":"2019-08-06T16:00:00"}
+ * </pre>
+ * Dates are ISO-8601 strings, and fields that do not apply are left out. When reading, fields may come in
+ * any order, unknown fields are ignored, and the type may also be given as its code ({@code "D"}).
+ * Objects must be flat; values are strings, booleans or {@code null}.
+ */
+public class JsonLinesCodec implements ExchangeCodec {
+    private static final DateTimeFormatter ISO_DT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final int HEX_RADIX = 16;
+    private static final int UNICODE_ESCAPE_LENGTH = 4;
+
+    @Override
+    public void writeRecord(Writer out, TaskRecord record) throws IOException {
+        out.write("{\"type\":\"");
+        out.write(record.getType().name().toLowerCase());
+        out.write("\",\"done\":");
+        out.write(record.isDone() ? "true" : "false");
+        out.write(",\"description\":");
+        writeString(out, record.getDescription());
+        writeDate(out, "start", record.getStart());
+        writeDate(out, "end", record.getEnd());
+        writeDate(out, "doneAt", record.getDoneAt());
+        out.write("}\n");
+    }
+
+    private static void writeDate(Writer out, String name, LocalDateTime dt) throws IOException {
+        if (dt == null) {
+            return;
+        }
+        out.write(",\"");
+        out.write(name);
+        out.write("\":\"");
+        out.write(dt.format(ISO_DT));
+        out.write('"');
+    }
+
+    private static void writeString(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                out.write("\\\"");
+                break;
+            case '\\':
+                out.write("\\\\");
+                break;
+            case '\n':
+                out.write("\\n");
+                break;
+            case '\r':
+                out.write("\\r");
+                break;
+            case '\t':
+                out.write("\\t");
+                break;
+            default:
+                if (c < ' ') {
+                    out.write(String.format("\\u%04x", (int) c));
+                } else {
+                    out.write(c);
+                }
+                break;
+            }
+        }
+        out.write('"');
+    }
+
+    @Override
+    public TaskRecord readRecord(BufferedReader in) throws IOException, SidException {
+        String line;
+        do {
+            line = in.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        Map<String, String> fields = new ObjectParser(line.trim()).parse();
+        return TaskRecord.fromFields(fields.get("type"), fields.get("done"), fields.get("description"),
+                fields.get("start"), fields.get("end"), fields.get("doneAt"));
+    }
+
+    /** Parses one flat JSON object into its fields, with every value in string form. */
+    private static class ObjectParser {
+        private final String text;
+        private int pos;
+
+        ObjectParser(String text) {
+            this.text = text;
+        }
+
+        Map<String, String> parse() throws SidException {
+            Map<String, String> fields = new HashMap<>();
+            expect('{');
+            skipSpaces();
+            if (peek() == '}') {
+                pos++;
+                return fields;
+            }
+            while (true) {
+                skipSpaces();
+                String name = readString();
+                skipSpaces();
+                expect(':');
+                skipSpaces();
+                fields.put(name, readValue());
+                skipSpaces();
+                char c = next();
+                if (c == '}') {
+                    break;
+                }
+                if (c != ',') {
+                    throw error("Expected ',' or '}'");
+                }
+            }
+            skipSpaces();
+            if (pos < text.length()) {
+                throw error("Unexpected text after the object");
+            }
+            return fields;
+        }
+
+        /** Reads a string, boolean or null value; null values come back as Java null. */
+        private String readValue() throws SidException {
+            if (peek() == '"') {
+                return readString();
+            }
+            for (String literal : new String[] {"true", "false", "null"}) {
+                if (text.startsWith(literal, pos)) {
+                    pos += literal.length();
+                    return literal.equals("null") ? null : literal;
+                }
+            }
+            throw error("Expected a string, boolean or null");
+        }
+
+        private String readString() throws SidException {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'u':
+                    if (pos + UNICODE_ESCAPE_LENGTH > text.length()) {
+                        throw error("Incomplete unicode escape");
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(text.substring(pos, pos + UNICODE_ESCAPE_LENGTH),
+                                HEX_RADIX));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid unicode escape");
+                    }
+                    pos += UNICODE_ESCAPE_LENGTH;
+                    break;
+                default:
+                    // Covers \" \\ and \/
+                    value.append(escaped);
+                    break;
+                }
+            }
+        }
+
+        private void skipSpaces() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private char peek() throws SidException {
+            if (pos >= text.length()) {
+                throw error("Unexpected end of line");
+            }
+            return text.charAt(pos);
+        }
+
+        private char next() throws SidException {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char expected) throws SidException {
+            if (next() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+        }
+
+        private SidException error(String message) {
+            return new SidException("Invalid JSON at column " + pos + ": " + message);
+        }
+    }
+}
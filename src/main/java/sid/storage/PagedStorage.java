@@ -0,0 +1,392 @@
+package sid.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import sid.exceptions.SidException;
+import sid.models.DescriptionPool;
+import sid.models.ToDo;
+import sid.models.TodoList;
+
+/**
+ * Backend that splits the list into pages of at most {@value #PAGE_SIZE} tasks, each in its own file, so
+ * that a change rewrites one page however long the list is.
+ *
+ * <p>Pages live in the directory {@code <task file>.pages}, next to an {@code index} file that lists their
+ * ids in list order, one per line. Each page is a text task file ({@link TextCodec}) named
+ * {@code page-<id>.txt}; how many tasks a page holds is simply how many records it contains. Deleting a
+ * task shrinks its page, adding one fills the last page or starts a new one, and marking rewrites the
+ * page in place. The index is only rewritten when a page is created or removed.
+ *
+ * <p>A {@code next-id} file beside the index holds the list's next unused task id, so that the id of a deleted
+ * task is not given out again after a restart. Ids of tasks still in a page are safe anyway, so it is only
+ * written by whole saves and by deletes that find it behind, before the page that loses the task.
+ *
+ * <p>Every file is replaced through a temporary file and an atomic rename. At {@link Durability#ALWAYS}
+ * durability each write is also forced to disk; journaling, write-behind and file formats apply to the
+ * flat-file {@link Storage} only. Done tasks are archived next to the task file, as with {@link Storage}.
+ *
+ * <p>When the page directory does not exist yet, it is created from the flat task file at the same path,
+ * if there is one, which is left in place.
+ */
+public class PagedStorage implements StorageBackend {
+    /** Most tasks a page holds. */
+    public static final int PAGE_SIZE = 1024;
+
+    private static final String INDEX_NAME = "index";
+    private static final String NEXT_ID_NAME = "next-id";
+
+    private final File taskFile;
+    private final File directory;
+    private final StorageOptions options;
+    private final TextCodec codec = new TextCodec();
+    private final Archive archive;
+    private final SaveLatency saveLatency = new SaveLatency();
+
+    /** Pages in list order. Guarded by this object's monitor. */
+    private final List<Page> pages = new ArrayList<>();
+    private int nextPageId;
+    /** The task id last written to the {@code next-id} file. Guarded by this object's monitor. */
+    private int savedNextId;
+
+    /**
+     * Constructs a paged backend for the given task file path.
+     *
+     * @param relativePath Path of the task file (e.g., {@code data/sid.txt}); pages are kept in
+     *                     {@code data/sid.txt.pages}.
+     * @param options      Storage options.
+     */
+    public PagedStorage(String relativePath, StorageOptions options) {
+        assert relativePath != null : "File path cannot be null";
+        assert !relativePath.trim().isEmpty() : "File path cannot be empty";
+        assert options != null : "Storage options cannot be null";
+        this.taskFile = new File(relativePath);
+        this.directory = new File(relativePath + ".pages");
+        this.options = options;
+        this.archive = new Archive(this.taskFile);
+    }
+
+    /** A page file and the number of tasks in it. */
+    private static class Page {
+        private final int id;
+        private int size;
+
+        Page(int id, int size) {
+            this.id = id;
+            this.size = size;
+        }
+    }
+
+    @Override
+    public TodoList load() {
+        TodoList list = loadPages();
+        if (options.getArchiveAfterDays() > 0) {
+            try {
+                list.archiveDone(LocalDateTime.now().minusDays(options.getArchiveAfterDays()));
+            } catch (SidException e) {
+                System.err.println("Could not archive old tasks: " + e.getMessage());
+            }
+        }
+        return list;
+    }
+
+    private synchronized TodoList loadPages() {
+        pages.clear();
+        nextPageId = 0;
+        savedNextId = readNextId();
+        List<TaskRecord> records = new ArrayList<>();
+        boolean isImported = false;
+        try {
+            File index = new File(directory, INDEX_NAME);
+            if (index.exists()) {
+                for (String line : Files.readAllLines(index.toPath(), StandardCharsets.UTF_8)) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    int id = Integer.parseInt(line.trim());
+                    List<TaskRecord> page = codec.read(pageFile(id));
+                    records.addAll(page);
+                    pages.add(new Page(id, page.size()));
+                    nextPageId = Math.max(nextPageId, id + 1);
+                }
+            } else if (taskFile.exists()) {
+                records.addAll(StorageFormat.fromHeader(taskFile).getCodec().read(taskFile));
+                isImported = true;
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Load failed: " + directory.getAbsolutePath() + ": " + e.getMessage());
+        }
+
+        List<ToDo> tasks = new ArrayList<>(records.size());
+        for (TaskRecord record : records) {
+            try {
+                tasks.add(record.toTask());
+            } catch (SidException e) {
+                System.err.println("Skipping corrupted line: " + record.toText() + ": " + e.getMessage());
+            }
+        }
+        TodoList list = new TodoList(tasks, this, savedNextId);
+        if (isImported || tasks.size() < records.size() || list.hasNewIds()) {
+            // Page sizes must match the list again before single pages can be rewritten, and new ids be kept.
+            save(list);
+        }
+        return list;
+    }
+
+    @Override
+    public void persistChange(TodoList list, Change change) {
+        assert list != null : "TodoList to save cannot be null";
+        assert change != null : "Change cannot be null";
+        list.readLock().lock();
+        try {
+            synchronized (this) {
+                try {
+                    long start = System.nanoTime();
+                    long written = applyChange(list, change);
+                    saveLatency.record(System.nanoTime() - start, written);
+                } catch (IOException | SidException e) {
+                    System.err.println("Failed to save page, saving everything instead: " + e.getMessage());
+                    save(list);
+                }
+            }
+        } finally {
+            list.readLock().unlock();
+        }
+    }
+
+    /** Updates the pages for one change and returns the bytes written. */
+    private long applyChange(TodoList list, Change change) throws IOException, SidException {
+        if (change.getKind() == Change.Kind.ADD) {
+            boolean isNewPage = pages.isEmpty() || pages.get(pages.size() - 1).size >= PAGE_SIZE;
+            if (isNewPage) {
+                pages.add(new Page(nextPageId++, 0));
+            }
+            Page last = pages.get(pages.size() - 1);
+            last.size++;
+            // The page is written before the index names it, so the index never points at a missing page.
+            long written = writePage(list, last, list.getSize() - last.size);
+            return isNewPage ? written + writeIndex() : written;
+        }
+
+        // For a delete the task is gone from the list already, so its old position still finds its page.
+        long idWritten = change.getKind() == Change.Kind.DELETE ? writeNextId(list) : 0;
+        int index = change.getIndex() - 1;
+        int pageStart = 0;
+        int p = 0;
+        while (pageStart + pages.get(p).size <= index) {
+            pageStart += pages.get(p++).size;
+        }
+        Page page = pages.get(p);
+        if (change.getKind() != Change.Kind.DELETE) {
+            return writePage(list, page, pageStart);
+        }
+        page.size--;
+        if (page.size > 0) {
+            return idWritten + writePage(list, page, pageStart);
+        }
+        pages.remove(p);
+        long written = writeIndex();
+        Files.deleteIfExists(pageFile(page.id).toPath());
+        return idWritten + written;
+    }
+
+    /**
+     * Rewrites every page from the current list, in full pages, and removes the old ones.
+     */
+    @Override
+    public void save(TodoList list) {
+        assert list != null : "TodoList to save cannot be null";
+        list.readLock().lock();
+        try {
+            synchronized (this) {
+                List<Page> oldPages = new ArrayList<>(pages);
+                try {
+                    long start = System.nanoTime();
+                    pages.clear();
+                    long written = 0;
+                    for (int pageStart = 0; pageStart < list.getSize(); pageStart += PAGE_SIZE) {
+                        Page page = new Page(nextPageId++, Math.min(PAGE_SIZE, list.getSize() - pageStart));
+                        pages.add(page);
+                        written += writePage(list, page, pageStart);
+                    }
+                    written += writeIndex();
+                    written += writeNextId(list);
+                    for (Page page : oldPages) {
+                        Files.deleteIfExists(pageFile(page.id).toPath());
+                    }
+                    saveLatency.record(System.nanoTime() - start, written);
+                } catch (IOException | SidException e) {
+                    // New pages get fresh ids, so the old pages and index are still intact on disk.
+                    pages.clear();
+                    pages.addAll(oldPages);
+                    System.err.println("Failed to save tasks: " + e.getMessage());
+                }
+            }
+        } finally {
+            list.readLock().unlock();
+        }
+    }
+
+    /**
+     * Prints save latency and description pool statistics when {@link StorageOptions#withLatencyReport()
+     * requested}; every write has already completed.
+     */
+    @Override
+    public void flush() {
+        if (options.isReportingLatency()) {
+            System.err.println("Save latency (paged, durability " + options.getDurability() + "): "
+                    + saveLatency);
+            System.err.println("Description pool: " + DescriptionPool.totals());
+        }
+    }
+
+    /** Pages are not shared between processes, so the list is left as it is. */
+    @Override
+    public void refresh(TodoList list) {
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Pages are checked in list order, so line numbers in the report count the lines of all pages.
+     */
+    @Override
+    public synchronized IntegrityReport verify() throws SidException {
+        IntegrityReport report = new IntegrityReport("line");
+        try {
+            for (Page page : pages) {
+                report.append(codec.verify(pageFile(page.id)));
+            }
+        } catch (IOException e) {
+            throw new SidException("Couldn't read the task pages: " + e.getMessage());
+        }
+        return report;
+    }
+
+    /** Returns statistics of how long saves have taken so far. */
+    public SaveLatency getSaveLatency() {
+        return this.saveLatency;
+    }
+
+    /** Returns the number of page files the list currently occupies. */
+    public synchronized int getPageCount() {
+        return pages.size();
+    }
+
+    /** Returns the file holding the page with the given id. */
+    public File pageFile(int id) {
+        return new File(directory, "page-" + id + ".txt");
+    }
+
+    private long writePage(TodoList list, Page page, int pageStart) throws IOException, SidException {
+        List<TaskRecord> records = new ArrayList<>(page.size);
+        for (int i = pageStart + 1; i <= pageStart + page.size; i++) {
+            records.add(TaskRecord.of(list.getTodo(i)));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(out, records);
+        return writeAtomically(pageFile(page.id), out.toByteArray());
+    }
+
+    private long writeIndex() throws IOException {
+        StringBuilder index = new StringBuilder();
+        for (Page page : pages) {
+            index.append(page.id).append(System.lineSeparator());
+        }
+        return writeAtomically(new File(directory, INDEX_NAME), index.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Writes the list's next id to the {@code next-id} file if it is ahead of the saved one. */
+    private long writeNextId(TodoList list) throws IOException {
+        int nextId = list.getNextId();
+        if (nextId <= savedNextId) {
+            return 0;
+        }
+        byte[] content = (nextId + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        long written = writeAtomically(new File(directory, NEXT_ID_NAME), content);
+        savedNextId = nextId;
+        return written;
+    }
+
+    /** Returns the id saved in the {@code next-id} file, or 0 if there is none. */
+    private int readNextId() {
+        File file = new File(directory, NEXT_ID_NAME);
+        if (!file.exists()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Could not read " + file + ", ids of deleted tasks may be reused: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private long writeAtomically(File target, byte[] content) throws IOException {
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+        boolean isForced = options.getDurability() == Durability.ALWAYS;
+        File tmp = new File(target.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp, false)) {
+            out.write(content);
+            if (isForced) {
+                out.getChannel().force(true);
+            }
+        }
+        Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        return content.length;
+    }
+
+    @Override
+    public void archive(List<ToDo> tasks) throws SidException {
+        assert tasks != null : "Tasks to archive cannot be null";
+        List<TaskRecord> records = new ArrayList<>(tasks.size());
+        for (ToDo task : tasks) {
+            records.add(TaskRecord.of(task));
+        }
+        try {
+            archive.append(records);
+        } catch (IOException e) {
+            throw new SidException("Couldn't write the archive: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public List<ArchivedTask> searchArchive(String keyword) throws SidException {
+        assert keyword != null : "Keyword cannot be null";
+        String query = keyword.trim().toLowerCase();
+        try {
+            return archive.search(task -> task.getRecord().toDisplayString().toLowerCase().contains(query));
+        } catch (IOException e) {
+            throw new SidException("Couldn't read the archive: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public TaskRecord getArchived(int number) throws SidException {
+        try {
+            return archive.get(number).getRecord();
+        } catch (IOException e) {
+            throw new SidException("Couldn't read the archive: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void markRestored(int number) throws SidException {
+        try {
+            archive.markRestored(number);
+        } catch (IOException e) {
+            throw new SidException("Couldn't write the archive: " + e.getMessage());
+        }
+    }
+}
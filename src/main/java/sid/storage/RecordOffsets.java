@@ -0,0 +1,60 @@
+package sid.storage;
+
+import java.util.Arrays;
+
+/**
+ * Byte offsets of the records in a task file, so that a save can start rewriting at any record.
+ *
+ * <p>Record indices are 0-based. {@link #start(int)} of the record count is the end of the file.
+ */
+public class RecordOffsets {
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** {@code offsets[i]} is where record {@code i} starts; {@code offsets[count]} is the end of the file. */
+    private long[] offsets = new long[INITIAL_CAPACITY];
+    private int count;
+
+    /**
+     * Constructs offsets for a file with no records yet.
+     *
+     * @param headerLength Bytes before the first record.
+     */
+    public RecordOffsets(long headerLength) {
+        assert headerLength >= 0 : "Header length cannot be negative";
+        offsets[0] = headerLength;
+    }
+
+    public int getRecordCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns where the given record starts.
+     *
+     * @param index 0-based record index, up to and including the record count.
+     * @return Byte offset in the file.
+     */
+    public long start(int index) {
+        assert index >= 0 && index <= count : "Record index out of range";
+        return offsets[index];
+    }
+
+    /** Forgets every record from {@code index} on, so that the next appended record starts there. */
+    public void truncate(int index) {
+        assert index >= 0 && index <= count : "Record index out of range";
+        count = index;
+    }
+
+    /**
+     * Adds a record after the current last one.
+     *
+     * @param length Encoded length of the record in bytes.
+     */
+    public void append(long length) {
+        if (count + 1 == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        offsets[count + 1] = offsets[count] + length;
+        count++;
+    }
+}
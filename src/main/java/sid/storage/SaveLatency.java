@@ -0,0 +1,64 @@
+package sid.storage;
+
+/**
+ * Running statistics of how long each save took and how many bytes it wrote, so that durability levels
+ * and formats can be compared.
+ *
+ * <p>A save is either a whole-file rewrite or a journal append, measured from the start of writing until
+ * the data is as durable as the configured {@link Durability} level promises.
+ */
+public class SaveLatency {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+    private long lastNanos;
+    private long totalBytes;
+
+    /**
+     * Records one save.
+     *
+     * @param nanos Duration of the save in nanoseconds.
+     * @param bytes Bytes written to disk by the save.
+     */
+    public synchronized void record(long nanos, long bytes) {
+        assert nanos >= 0 : "Duration cannot be negative";
+        assert bytes >= 0 : "Byte count cannot be negative";
+        count++;
+        totalNanos += nanos;
+        totalBytes += bytes;
+        maxNanos = Math.max(maxNanos, nanos);
+        lastNanos = nanos;
+    }
+
+    public synchronized long getCount() {
+        return this.count;
+    }
+
+    /** Returns the mean save duration in milliseconds, or 0 if nothing was saved. */
+    public synchronized double getMeanMillis() {
+        return count == 0 ? 0 : totalNanos / NANOS_PER_MILLI / count;
+    }
+
+    /** Returns the longest save duration in milliseconds. */
+    public synchronized double getMaxMillis() {
+        return maxNanos / NANOS_PER_MILLI;
+    }
+
+    /** Returns the duration of the latest save in milliseconds. */
+    public synchronized double getLastMillis() {
+        return lastNanos / NANOS_PER_MILLI;
+    }
+
+    /** Returns the total bytes written by all saves. */
+    public synchronized long getTotalBytes() {
+        return this.totalBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d saves, mean %.2f ms, max %.2f ms, last %.2f ms, %d bytes written",
+                count, getMeanMillis(), getMaxMillis(), getLastMillis(), totalBytes);
+    }
+}
@@ -0,0 +1,187 @@
+package sid.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lock and generation counter that let several processes share one task file.
+ *
+ * <p>The lock file {@code <task file>.lock} is locked with {@link FileChannel#lock()} around every write to
+ * the task file or its journal. It holds a generation counter that each write increments, the index of the
+ * first record the write may have changed, and the next unused task id:
+ * <pre>
+ * 42 17 108
+ * </pre>
+ * A process that remembers the generation it last saw can tell whether anyone else has written since, and,
+ * if exactly one write has happened, which records it needs to read again. The next id only ever grows, so
+ * ids of deleted tasks are not given out again; a lock file from before it was kept reads as next id 0.
+ *
+ * <p>File locks belong to the whole JVM, so a second lock on the same file from this process would fail.
+ * Instances for the same file therefore also share an in-process lock, which makes locking re-entrant.
+ */
+public class SharedFile {
+    /** Changed-record index published by writes that leave every record as it was. */
+    public static final int NOTHING_CHANGED = Integer.MAX_VALUE;
+
+    private static final Map<Path, ReentrantLock> LOCAL_LOCKS = new ConcurrentHashMap<>();
+
+    private final File lockFile;
+    private final ReentrantLock localLock;
+
+    /** Open while the file lock is held; guarded by {@link #localLock}. */
+    private FileChannel channel;
+    private FileLock fileLock;
+
+    /**
+     * A generation, the first record that the write which produced it may have changed, and the next unused
+     * task id.
+     */
+    public static class Stamp {
+        private final long generation;
+        private final int changedFrom;
+        private final int nextId;
+
+        Stamp(long generation, int changedFrom, int nextId) {
+            this.generation = generation;
+            this.changedFrom = changedFrom;
+            this.nextId = nextId;
+        }
+
+        public long getGeneration() {
+            return this.generation;
+        }
+
+        /** Returns the 0-based index of the first record that may have changed. */
+        public int getChangedFrom() {
+            return this.changedFrom;
+        }
+
+        /** Returns the smallest id no task has had yet, or 0 if it is not known. */
+        public int getNextId() {
+            return this.nextId;
+        }
+    }
+
+    /**
+     * Constructs the lock for the given task file.
+     *
+     * @param taskFile The shared task file.
+     */
+    public SharedFile(File taskFile) {
+        assert taskFile != null : "Task file cannot be null";
+        this.lockFile = new File(taskFile.getPath() + ".lock");
+        Path key = lockFile.getAbsoluteFile().toPath().normalize();
+        this.localLock = LOCAL_LOCKS.computeIfAbsent(key, k -> new ReentrantLock());
+    }
+
+    /**
+     * Blocks until no other process or instance holds the lock, then takes it. Each call must be paired with
+     * {@link #unlock()}.
+     *
+     * <p>If the lock file cannot be used, e.g. on a read-only file system, a warning is printed and only
+     * other instances in this process are kept out.
+     */
+    public void lock() {
+        localLock.lock();
+        if (localLock.getHoldCount() > 1) {
+            return;
+        }
+        try {
+            File parent = lockFile.getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            fileLock = channel.lock();
+        } catch (IOException e) {
+            System.err.println("Could not lock " + lockFile + ", continuing without it: " + e.getMessage());
+            closeChannel();
+        }
+    }
+
+    /**
+     * Releases the lock taken by the matching {@link #lock()}.
+     */
+    public void unlock() {
+        assert localLock.isHeldByCurrentThread() : "Lock must be held to be released";
+        if (localLock.getHoldCount() == 1) {
+            closeChannel();
+        }
+        localLock.unlock();
+    }
+
+    private void closeChannel() {
+        try {
+            if (fileLock != null) {
+                fileLock.release();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Could not release " + lockFile + ": " + e.getMessage());
+        }
+        fileLock = null;
+        channel = null;
+    }
+
+    /**
+     * Returns the current generation; generation 0 means nothing has been written through a lock yet.
+     *
+     * @return The stamp stored in the lock file.
+     * @throws IOException If the lock file cannot be read.
+     */
+    public Stamp read() throws IOException {
+        assert localLock.isHeldByCurrentThread() : "Lock must be held to read the generation";
+        if (channel == null) {
+            throw new IOException("Lock file is not available");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), 64));
+        channel.read(buffer, 0);
+        String[] parts = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8).trim().split(" ");
+        if (parts.length != 2 && parts.length != 3) {
+            return new Stamp(0, 0, 0);
+        }
+        try {
+            int nextId = parts.length == 3 ? Integer.parseInt(parts[2]) : 0;
+            return new Stamp(Long.parseLong(parts[0]), Integer.parseInt(parts[1]), nextId);
+        } catch (NumberFormatException e) {
+            return new Stamp(0, 0, 0);
+        }
+    }
+
+    /**
+     * Records a write by incrementing the generation, and raises the stored next id to {@code nextId} if that
+     * is larger.
+     *
+     * @param changedFrom 0-based index of the first record the write may have changed, or
+     *                    {@link #NOTHING_CHANGED}.
+     * @param nextId The writer's next unused task id, or 0 to keep the stored one.
+     * @return The new generation.
+     * @throws IOException If the lock file cannot be written.
+     */
+    public long publish(int changedFrom, int nextId) throws IOException {
+        assert changedFrom >= 0 : "Changed record index cannot be negative";
+        Stamp previous = read();
+        long generation = previous.getGeneration() + 1;
+        int keptNextId = Math.max(previous.getNextId(), nextId);
+        byte[] content = (generation + " " + changedFrom + " " + keptNextId + "\n").getBytes(StandardCharsets.UTF_8);
+        channel.truncate(0);
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        long position = 0;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        return generation;
+    }
+}
@@ -1,59 +1,151 @@
 package sid.storage;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
 
-import sid.enums.TaskType;
 import sid.exceptions.SidException;
-import sid.models.Deadline;
-import sid.models.Event;
+import sid.models.DescriptionPool;
 import sid.models.ToDo;
 import sid.models.TodoList;
 
 /**
- * Persists and retrieves tasks in a pipe-separated flat file.
+ * Backend that persists and retrieves tasks in a flat file.
  *
- * <p>Each record occupies one line; optional whitespace is allowed around
- * the {@code |} separators. The second field is a done flag
- * ({@code 1} = done, {@code 0} = not done).
+ * <p>By default the file uses the pipe-separated text format: each record occupies one line; optional
+ * whitespace is allowed around the {@code |} separators. Each line starts with the task type and a done flag
+ * ({@code 1} = done, {@code 0} = not done). After a done task's completion time comes the task's id, and
+ * last a CRC32C of the rest of the line, as {@code *} and eight hex digits (see {@link TextCodec}).
  *
  * <p>Level 8 dates/times are stored in ISO-8601 {@code LocalDateTime} format
- * (e.g., {@code 2019-12-02T18:00}) for unambiguous parsing. Examples:
+ * (e.g., {@code 2019-12-02T18:00:00}) for unambiguous parsing. Examples:
  * <pre>
- * T | 1 | read book
- * D | 0 | return book | 2019-12-02T18:00
- * E | 0 | project meeting | 2019-08-06T14:00 | 2019-08-06T16:00
+ * T | 1 | read book | 2019-12-01T09:30:00 | #1 | *4c907eaf
+ * D | 0 | return book | 2019-12-02T18:00:00 | #2 | *aea3a9ac
+ * E | 0 | project meeting | 2019-08-06T14:00:00 | 2019-08-06T16:00:00 | #3 | *732174f9
  * </pre>
+ * Lines without the checksum, as older versions wrote them, are still read. Older versions read only the
+ * fields they know, which come first, so they still read lines with it.
+ *
+ * <p>Files ending in {@code .sidb}, or any file when {@link StorageOptions#withFormat(StorageFormat)} selects
+ * it, use the compact {@link BinaryCodec binary format} instead, and files ending in {@code .sidz} use the
+ * {@link CompressedCodec deflate-compressed} text format, which is streamed to and from disk. A file whose
+ * header names another format is read in that format regardless of its extension. A missing binary or
+ * compressed file is created from the text file next to it, if there is one.
  *
  * <p>On load, a missing file is treated as empty; malformed lines are skipped
  * with a warning to {@code System.err}. On save, the parent directory is
  * created if it does not exist.
+ *
+ * <p>When {@link StorageOptions#withJournal(int) journaling} is enabled, mutations are appended to a
+ * {@link Journal} instead of rewriting the file, and a background thread periodically folds the journal
+ * back into the file. Loading replays any outstanding journal entries.
+ *
+ * <p>When {@link StorageOptions#withWriteBehind(long, int) write-behind} is enabled, changes are queued and a
+ * background {@link WriteBehindWriter} writes them in groups, so a change only waits on disk I/O if it is
+ * made while the writer holds the list to write a group. Call {@link #close()} before exiting to make sure
+ * nothing is left queued and the writer thread and its shutdown hook are released.
+ *
+ * <p>Whole-file saves go through a temporary file and an atomic rename, so a crash mid-save never leaves a
+ * truncated file. Once the file has been saved, single changes rewrite only the file from the first changed
+ * record onward, unless {@link StorageOptions#withDurability(Durability, long) durability} is
+ * {@link Durability#ALWAYS}. Durability also decides when data is forced to disk, and
+ * {@link #getSaveLatency()} reports what each save costs.
+ *
+ * <p>Several processes, such as the command-line and desktop apps, may share the file. Every write holds the
+ * {@link SharedFile} lock and bumps its generation; before writing, and on {@link #refresh(TodoList)}, a
+ * storage that sees a newer generation reads what the other process changed, re-reading only the records
+ * from the first changed one onward when it can, and replays its own unwritten changes on top.
+ *
+ * <p>Locks are always taken in one order, and a thread never waits for a lock earlier in it than one it
+ * holds: the list's {@link TodoList#writeLock() write} or {@link TodoList#readLock() read} lock, then
+ * {@link #flushLock}, the {@link SharedFile} lock, {@link #fileLock} and {@link #pendingLock}. A list changes
+ * and calls {@link #persistChange(TodoList, Change)} or {@link #save(TodoList)} under its write lock, so
+ * every path into a write that may need the list takes the list's lock first, including the write-behind
+ * writer: catching up with another process changes the list, which needs its write lock, and the read lock
+ * cannot be upgraded to it.
  */
 
-public class Storage {
-    private static final DateTimeFormatter ISO_DT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+public class Storage implements StorageBackend {
+    /** Loaded record counts at which tasks are built in parallel. */
+    private static final int PARALLEL_CONVERT_THRESHOLD = 50_000;
 
-    /** Minimum fields required in storage format: type, done flag, description. */
-    private static final int MIN_STORAGE_FIELDS = 3;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
 
-    /** Fields required for deadline tasks: type, done flag, description, due date. */
-    private static final int DEADLINE_FIELDS = 4;
+    private final File file;
+    private final StorageOptions options;
+    private final StorageFormat format;
 
-    /** Fields required for event tasks: type, done flag, description, start date, end date. */
-    private static final int EVENT_FIELDS = 5;
+    /** Journal of changes not yet folded into {@link #file}; null unless journaling is enabled. */
+    private final Journal journal;
 
-    private static final String DONE_FLAG = "1";
+    /** Runs journal checkpoints off the caller thread; null unless journaling is enabled. */
+    private final ExecutorService checkpointer;
 
-    private static final String NOT_DONE_FLAG = "0";
+    /** Guards rewrites of {@link #file} against concurrent checkpoints. */
+    private final Object fileLock = new Object();
 
-    private final File file;
+    private final AtomicBoolean isCheckpointing = new AtomicBoolean(false);
+
+    /** Background writer that coalesces changes; null unless write-behind is enabled. */
+    private final WriteBehindWriter writeBehind;
+
+    /** Serializes whole-list saves and write-behind flushes against each other. */
+    private final Object flushLock = new Object();
+
+    /** Guards {@link #pendingChanges} and {@link #dirtyList}. */
+    private final Object pendingLock = new Object();
+
+    /** Changes queued for the write-behind writer, in the order they were applied. */
+    private final List<Change> pendingChanges = new ArrayList<>();
+
+    /** List with changes queued for the write-behind writer; null when nothing is pending. */
+    private TodoList dirtyList;
+
+    /** Periodically forces written files to disk; null unless durability is {@link Durability#BATCH}. */
+    private final ScheduledExecutorService syncer;
+
+    /** Set when data has been written since the last background sync. */
+    private final AtomicBoolean needsSync = new AtomicBoolean(false);
+
+    private final SaveLatency saveLatency = new SaveLatency();
+
+    /**
+     * Where each record of {@link #file} starts, for rewriting only the changed tail; null when unknown,
+     * e.g. before the first save after loading, or in journaled mode. Guarded by {@link #flushLock}.
+     */
+    private RecordOffsets offsets;
+
+    /** Done tasks moved out of {@link #file}; read only on demand. */
+    private final Archive archive;
+
+    /** Keeps other processes out while {@link #file} or its journal is written. */
+    private final SharedFile shared;
+
+    /** Generation of {@link #file} this instance last read or wrote. Guarded by {@link #flushLock}. */
+    private long knownGeneration;
 
     /**
      * Constructs a storage backed by the specified file path.
@@ -61,154 +153,1064 @@ public class Storage {
      * @param relativePath Path to save file (e.g., {@code data/sid.txt}).
      */
     public Storage(String relativePath) {
+        this(relativePath, StorageOptions.defaults());
+    }
+
+    /**
+     * Constructs a storage backed by the specified file path with the given options.
+     *
+     * @param relativePath Path to save file (e.g., {@code data/sid.txt}).
+     * @param options      Storage options.
+     */
+    public Storage(String relativePath, StorageOptions options) {
         assert relativePath != null : "File path cannot be null";
         assert !relativePath.trim().isEmpty() : "File path cannot be empty";
+        assert options != null : "Storage options cannot be null";
         this.file = new File(relativePath);
+        this.options = options;
+        this.format = options.getFormat() != null ? options.getFormat() : StorageFormat.fromPath(relativePath);
+        this.archive = new Archive(this.file);
+        this.shared = new SharedFile(this.file);
+        if (options.isJournaled()) {
+            this.journal = new Journal(this.file);
+            this.checkpointer = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "sid-journal-checkpoint");
+                t.setDaemon(true);
+                return t;
+            });
+        } else {
+            this.journal = null;
+            this.checkpointer = null;
+        }
+        this.writeBehind = options.isWriteBehind()
+                ? new WriteBehindWriter(this::flushPending, options.getFlushIntervalMillis(), options.getBatchSize())
+                : null;
+        if (options.getDurability() == Durability.BATCH) {
+            this.syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "sid-durability-sync");
+                t.setDaemon(true);
+                return t;
+            });
+            long interval = options.getSyncIntervalMillis();
+            this.syncer.scheduleWithFixedDelay(this::syncPending, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.syncer = null;
+        }
     }
 
     /**
      * Loads tasks from disk into a new {@link TodoList}.
      *
      * <p>If the file does not exist, an empty list is returned. Corrupted lines are skipped with a warning.
+     * Tasks saved without ids, e.g. by an older version, are given ids and the file is saved again so they
+     * keep them. When {@link StorageOptions#withArchiveAfter(int) automatic archiving} is enabled, tasks done long
+     * enough ago are then moved to the archive.
      *
      * @return A {@link TodoList} containing all successfully parsed tasks; empty if no file exists.
      */
+    @Override
     public TodoList load() {
-        List<ToDo> initialList = new ArrayList<>();
+        TodoList list = loadList();
+        if (list.hasNewIds()) {
+            // Saved without ids, e.g. by an older version; keep the ids just given so they stay stable.
+            save(list);
+        }
+        if (options.getArchiveAfterDays() > 0) {
+            try {
+                list.archiveDone(LocalDateTime.now().minusDays(options.getArchiveAfterDays()));
+            } catch (SidException e) {
+                System.err.println("Could not archive old tasks: " + e.getMessage());
+            }
+        }
+        return list;
+    }
+
+    private TodoList loadList() {
+        synchronized (flushLock) {
+            shared.lock();
+            try {
+                SharedFile.Stamp stamp = readStamp();
+                knownGeneration = stamp == null ? 0 : stamp.getGeneration();
+                return readList(stamp == null ? 0 : stamp.getNextId());
+            } finally {
+                shared.unlock();
+            }
+        }
+    }
+
+    /** Reads the tasks into a list that gives out no id below {@code nextId}. */
+    private TodoList readList(int nextId) {
+        if (!file.exists()) {
+            migrateFromText();
+        }
+        if (journal != null) {
+            return loadJournaled(nextId);
+        }
 
         if (!file.exists()) {
             // First run, nothing to load yet.
-            return new TodoList(initialList, this);
+            return new TodoList(new ArrayList<>(), this, nextId);
+        }
+        List<ToDo> tasks = new ArrayList<>();
+        try {
+            // The header wins over the extension, so a renamed or differently configured file still loads;
+            // the next save writes it in the configured format.
+            tasks = StorageFormat.fromHeader(file).getCodec().readTasks(file);
+        } catch (IOException e) {
+            System.err.println("Load failed: " + file.getAbsolutePath() + ": " + e.getMessage());
+        }
+        return new TodoList(tasks, this, nextId);
+    }
+
+    /**
+     * Creates a missing non-text file from the text file next to it, so switching formats keeps existing
+     * tasks. The text file is left in place.
+     */
+    private void migrateFromText() {
+        File textFile = new File(StorageFormat.TEXT.applyTo(file.getPath()));
+        if (format == StorageFormat.TEXT || !textFile.exists()) {
+            return;
+        }
+        try {
+            convert(textFile.getPath(), StorageFormat.TEXT, file.getPath(), format);
+        } catch (IOException e) {
+            System.err.println("Could not convert " + textFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Builds tasks from records, skipping invalid ones with a warning. Large lists are converted in
+     * parallel; tasks and warnings still come out in record order.
+     */
+    static List<ToDo> toTasks(List<TaskRecord> records) {
+        int size = records.size();
+        ToDo[] converted = new ToDo[size];
+        String[] warnings = new String[size];
+        IntStream indices = IntStream.range(0, size);
+        if (size >= PARALLEL_CONVERT_THRESHOLD) {
+            indices = indices.parallel();
+        }
+        indices.forEach(i -> {
+            TaskRecord record = records.get(i);
+            try {
+                converted[i] = record.toTask();
+            } catch (SidException e) {
+                warnings[i] = "Skipping corrupted line: " + record.toText() + ": " + e.getMessage();
+            }
+        });
+
+        List<ToDo> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (converted[i] != null) {
+                tasks.add(converted[i]);
+            } else {
+                System.err.println(warnings[i]);
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Loads the file and replays outstanding journal entries over its records.
+     *
+     * <p>If anything was replayed or skipped, the result is written back as a fresh checkpoint so that
+     * record positions in the file line up with task positions in the list again.
+     */
+    private TodoList loadJournaled(int nextId) {
+        List<TaskRecord> records = new ArrayList<>();
+        int replayed = 0;
+        synchronized (fileLock) {
+            try {
+                byte[] content = file.exists() ? Files.readAllBytes(file.toPath()) : new byte[0];
+                records.addAll(decode(content));
+                replayed = journal.replay(records, checksum(content));
+            } catch (IOException e) {
+                System.err.println("Load failed: " + e.getMessage());
+            }
+        }
+
+        List<ToDo> initialList = toTasks(records);
+        boolean hasSkipped = initialList.size() < records.size();
+        TodoList list = new TodoList(initialList, this, nextId);
+        if (replayed > 0 || hasSkipped || !journal.isEmpty()) {
+            save(list);
+        }
+        return list;
+    }
+
+    /**
+     * Persists a single mutation that has just been applied to {@code list}.
+     *
+     * <p>Without journaling this rewrites the whole file via {@link #save(TodoList)}. With journaling it
+     * appends one record to the journal, starting a background checkpoint once enough entries accumulate.
+     * With {@link StorageOptions#withWriteBehind(long, int) write-behind}, the change is only queued here
+     * and written later by the background writer; see {@link #flush()}.
+     *
+     * @param list   The list after the change.
+     * @param change The change that was applied.
+     */
+    @Override
+    public void persistChange(TodoList list, Change change) {
+        assert list != null : "TodoList to save cannot be null";
+        assert change != null : "Change cannot be null";
+        if (writeBehind == null) {
+            writeChanges(list, List.of(change));
+            return;
+        }
+        synchronized (pendingLock) {
+            pendingChanges.add(change);
+            dirtyList = list;
+        }
+        writeBehind.changed();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The changes are written as {@link #persistChange(TodoList, Change)} writes one, after catching up
+     * with other processes: the file is rewritten from the first changed record onward, or the changes are
+     * appended to the journal together, or queued for write-behind.
+     */
+    @Override
+    public void persistChanges(TodoList list, List<Change> changes) {
+        assert list != null : "TodoList to save cannot be null";
+        assert changes != null : "Changes cannot be null";
+        if (writeBehind == null) {
+            writeChanges(list, new ArrayList<>(changes));
+            return;
+        }
+        synchronized (pendingLock) {
+            pendingChanges.addAll(changes);
+            dirtyList = list;
+        }
+        for (int i = 0; i < changes.size(); i++) {
+            writeBehind.changed();
+        }
+    }
+
+    /**
+     * Writes any changes still queued by write-behind mode, blocking until they are on disk.
+     *
+     * <p>At {@link Durability#BATCH} durability, anything not yet synced is synced now. When
+     * {@link StorageOptions#withLatencyReport() requested}, save latency and description pool statistics are
+     * printed.
+     */
+    @Override
+    public void flush() {
+        if (writeBehind != null) {
+            writeBehind.flush();
+        }
+        if (syncer != null) {
+            syncPending();
+        }
+        if (options.isReportingLatency()) {
+            System.err.println("Save latency (durability " + options.getDurability() + "): " + saveLatency);
+            System.err.println("Description pool: " + DescriptionPool.totals());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Stops the write-behind writer, waits for a running journal checkpoint, then flushes and stops the
+     * background syncer. Journal entries written after this are folded in on the next load.
+     */
+    @Override
+    public void close() {
+        if (writeBehind != null) {
+            writeBehind.close();
+        }
+        if (checkpointer != null) {
+            checkpointer.shutdown();
+            try {
+                checkpointer.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+        if (syncer != null) {
+            syncer.shutdown();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Only the task file is checked; outstanding journal entries are applied on the next load.
+     */
+    @Override
+    public IntegrityReport verify() throws SidException {
+        synchronized (flushLock) {
+            shared.lock();
+            try {
+                if (!file.exists()) {
+                    return new IntegrityReport("record");
+                }
+                return StorageFormat.fromHeader(file).getCodec().verify(file);
+            } catch (IOException e) {
+                throw new SidException("Couldn't read the task file: " + e.getMessage());
+            } finally {
+                shared.unlock();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Only the generation in the lock file is read unless another process has written since, so this is
+     * cheap enough to call before every command. Changes still queued for write-behind are written too.
+     */
+    @Override
+    public void refresh(TodoList list) {
+        assert list != null : "TodoList to refresh cannot be null";
+        writeChanges(list, new ArrayList<>());
+    }
+
+    /** Returns statistics of how long saves have taken so far. */
+    public SaveLatency getSaveLatency() {
+        return this.saveLatency;
+    }
+
+    /** Forces everything written since the last sync to disk; runs on the sync thread or in {@link #flush()}. */
+    private void syncPending() {
+        if (!needsSync.getAndSet(false)) {
+            return;
         }
         try {
-            Scanner s = new Scanner(file);
-            while (s.hasNextLine()) {
-                String line = s.nextLine().trim();
-                if (line.isEmpty()) {
-                    continue;
+            if (file.exists()) {
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+            }
+            if (journal != null) {
+                journal.force();
+            }
+            syncDirectory();
+        } catch (IOException e) {
+            System.err.println("Background sync failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Drains the write-behind queue; runs on the writer thread or on a caller of {@link #flush()}.
+     *
+     * <p>The queued list is looked up without a lock, so that its write lock can be taken before
+     * {@link #flushLock}, and looked up again once both are held.
+     */
+    private void flushPending() {
+        while (true) {
+            TodoList list;
+            synchronized (pendingLock) {
+                list = dirtyList;
+            }
+            if (list == null) {
+                return;
+            }
+            list.writeLock().lock();
+            try {
+                synchronized (flushLock) {
+                    List<Change> changes;
+                    synchronized (pendingLock) {
+                        if (dirtyList != list) {
+                            continue; // written meanwhile, or another list was queued; look again
+                        }
+                        changes = new ArrayList<>(pendingChanges);
+                        pendingChanges.clear();
+                        dirtyList = null;
+                    }
+                    writeChanges(list, changes);
+                    return;
                 }
+            } finally {
+                list.writeLock().unlock();
+            }
+        }
+    }
 
+    /**
+     * Writes changes that have been applied to {@code list}, first catching up with anything other processes
+     * have written since this instance last looked. Takes the list's write lock, which the thread that made
+     * the changes already holds, before {@link #flushLock}.
+     */
+    private void writeChanges(TodoList list, List<Change> changes) {
+        list.writeLock().lock();
+        try {
+            synchronized (flushLock) {
+                shared.lock();
                 try {
-                    ToDo todo = deserializeToDo(line);
-                    initialList.add(todo);
-                } catch (SidException e) {
-                    System.err.println("Skipping corrupted line: " + line + ": " + e.getMessage());
+                    writeCaughtUp(list, catchUp(list, changes));
+                } finally {
+                    shared.unlock();
+                }
+            }
+        } finally {
+            list.writeLock().unlock();
+        }
+    }
+
+    private void writeCaughtUp(TodoList list, List<Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (journal == null) {
+            int from = Integer.MAX_VALUE;
+            for (Change change : changes) {
+                from = Math.min(from, change.getIndex() - 1);
+            }
+            saveFrom(list, from);
+            return;
+        }
+
+        try {
+            List<String> records = new ArrayList<>(changes.size());
+            int nextId;
+            list.readLock().lock();
+            try {
+                for (Change change : changes) {
+                    records.add(TaskRecord.of(change.getTask()).toText());
                 }
+                nextId = list.getNextId();
+            } finally {
+                list.readLock().unlock();
+            }
+            long start = System.nanoTime();
+            long appended = journal.append(changes, records);
+            if (options.getDurability() == Durability.ALWAYS) {
+                journal.force();
+            } else {
+                needsSync.set(true);
             }
-        } catch (FileNotFoundException e) {
-            System.err.println("Load failed (not found): " + file.getAbsolutePath());
+            saveLatency.record(System.nanoTime() - start, appended);
+            publish(firstIndex(changes), nextId);
+        } catch (SidException | IOException e) {
+            System.err.println("Failed to journal change, saving everything instead: " + e.getMessage());
+            save(list);
+            return;
+        }
+        if (journal.getEntryCount() >= options.getCheckpointInterval()) {
+            startCheckpoint();
+        }
+    }
+
+    /** Returns the 0-based index of the first record that {@code changes} touch. */
+    private static int firstIndex(List<Change> changes) {
+        int first = SharedFile.NOTHING_CHANGED;
+        for (Change change : changes) {
+            first = Math.min(first, change.getIndex() - 1);
+        }
+        return first;
+    }
+
+    /**
+     * Catches up with writes other processes have made since this instance last read or wrote the file.
+     *
+     * <p>{@code changes}, together with any changes still queued for write-behind, have been applied to
+     * {@code list} but not written. They are undone on a copy of the list's records to recover the file as
+     * this instance last knew it, the records other processes changed are read on top of that, and the
+     * changes are applied again. A change to a task that another process has removed is dropped with a
+     * warning. The list is then updated from the first task that differs. Caller holds the list's write
+     * lock, {@link #flushLock} and the shared lock, taken in that order.
+     *
+     * @return The changes to write, with positions in the caught-up list.
+     */
+    private List<Change> catchUp(TodoList list, List<Change> changes) {
+        SharedFile.Stamp stamp = readStamp();
+        if (stamp == null || stamp.getGeneration() == knownGeneration) {
+            return changes;
+        }
+        List<Change> unsaved = new ArrayList<>(changes);
+        synchronized (pendingLock) {
+            unsaved.addAll(pendingChanges);
+            pendingChanges.clear();
+            dirtyList = null;
+        }
+        try {
+            if (journal != null) {
+                // Another process may have rotated or deleted the journal under this instance's writer.
+                journal.close();
+            }
+            List<TaskRecord> current = new ArrayList<>(list.getSize());
+            for (int i = 1; i <= list.getSize(); i++) {
+                current.add(TaskRecord.of(list.getTodo(i)));
+            }
+            List<TaskRecord> records = readChanged(undo(new ArrayList<>(current), unsaved), stamp);
+            List<Change> rebased = rebase(records, unsaved);
+
+            int first = 0;
+            while (first < current.size() && first < records.size()
+                    && current.get(first).equals(records.get(first))) {
+                first++;
+            }
+            List<ToDo> tasks = toTasks(records.subList(first, records.size()));
+            list.replaceFrom(first + 1, tasks);
+            list.reserveIds(stamp.getNextId());
+            knownGeneration = stamp.getGeneration();
+            if (first + tasks.size() < records.size()) {
+                // Skipped records would shift every later position, so line the file up with the list again.
+                saveWhole(list);
+                return new ArrayList<>();
+            }
+            return rebased;
+        } catch (SidException | IOException e) {
+            System.err.println("Could not read changes from another process: " + e.getMessage());
+            return unsaved;
+        }
+    }
+
+    /** Reverts {@code changes}, newest first, on the records they were applied to. */
+    private static List<TaskRecord> undo(List<TaskRecord> records, List<Change> changes) throws SidException {
+        for (int i = changes.size() - 1; i >= 0; i--) {
+            Change change = changes.get(i);
+            if (change.getKind() == Change.Kind.ADD) {
+                records.remove(change.getIndex() - 1);
+            } else if (change.getKind() == Change.Kind.DELETE) {
+                records.add(change.getIndex() - 1, TaskRecord.of(change.getTask()));
+            }
+            // Marking leaves positions alone, and applying it again below overwrites the record anyway.
+        }
+        return records;
+    }
+
+    /**
+     * Applies {@code changes} to the records another process may have rearranged, finding each changed task
+     * by its content when it is no longer at its old position.
+     */
+    private static List<Change> rebase(List<TaskRecord> records, List<Change> changes) throws SidException {
+        List<Change> rebased = new ArrayList<>(changes.size());
+        for (Change change : changes) {
+            ToDo task = change.getTask();
+            TaskRecord record = TaskRecord.of(task);
+            if (change.getKind() == Change.Kind.ADD) {
+                records.add(record);
+                rebased.add(Change.add(records.size(), task));
+                continue;
+            }
+            int i = change.getIndex() - 1;
+            if (i >= records.size() || !records.get(i).isSameTask(record)) {
+                i = 0;
+                while (i < records.size() && !records.get(i).isSameTask(record)) {
+                    i++;
+                }
+            }
+            if (i == records.size()) {
+                System.err.println("Another process removed this task, dropping its change: "
+                        + record.toDisplayString());
+                continue;
+            }
+            switch (change.getKind()) {
+            case DELETE:
+                records.remove(i);
+                rebased.add(Change.delete(i + 1, task));
+                break;
+            case MARK:
+                records.set(i, record);
+                rebased.add(Change.mark(i + 1, task));
+                break;
+            default:
+                records.set(i, record);
+                rebased.add(Change.unmark(i + 1, task));
+                break;
+            }
+        }
+        return rebased;
+    }
+
+    /**
+     * Returns the records now on disk, given the records that were there at {@link #knownGeneration}.
+     *
+     * <p>If only one write has happened since, and record offsets are known, only the records from the first
+     * one it changed onward are read; otherwise the whole file is read and any journal replayed.
+     */
+    private List<TaskRecord> readChanged(List<TaskRecord> known, SharedFile.Stamp stamp) throws IOException {
+        boolean isTailOnly = journal == null && offsets != null && offsets.getRecordCount() == known.size()
+                && stamp.getGeneration() == knownGeneration + 1 && file.exists()
+                && StorageFormat.fromHeader(file) == format;
+        if (isTailOnly) {
+            int from = Math.min(stamp.getChangedFrom(), known.size());
+            List<TaskRecord> records = new ArrayList<>(known.subList(0, from));
+            List<TaskRecord> tail;
+            try (FileInputStream in = new FileInputStream(file)) {
+                byte[] header = in.readNBytes((int) offsets.start(0));
+                in.getChannel().position(offsets.start(from));
+                tail = format.getCodec().read(new SequenceInputStream(new ByteArrayInputStream(header), in));
+            }
+            records.addAll(tail);
+            offsets.truncate(from);
+            measureOffsets(tail);
+            return records;
+        }
+
+        byte[] content = file.exists() ? Files.readAllBytes(file.toPath()) : new byte[0];
+        List<TaskRecord> records = decode(content);
+        if (journal != null) {
+            journal.replay(records, checksum(content));
+            return records;
+        }
+        offsets = null;
+        if (format.getCodec().canWriteRecords() && content.length > 0 && StorageFormat.fromHeader(content) == format) {
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            format.getCodec().writeHeader(header);
+            offsets = new RecordOffsets(header.size());
+            measureOffsets(records);
+        }
+        return records;
+    }
+
+    /**
+     * Appends the encoded lengths of {@code records} to {@link #offsets}, and forgets the offsets if the file
+     * turns out not to be laid out that way, e.g. because it was edited by hand.
+     */
+    private void measureOffsets(List<TaskRecord> records) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (TaskRecord record : records) {
+            out.reset();
+            format.getCodec().writeRecord(out, record);
+            offsets.append(out.size());
+        }
+        if (offsets.start(offsets.getRecordCount()) != file.length()) {
+            offsets = null;
+        }
+    }
+
+    /** Returns the lock file's stamp, or null if it cannot be read, in which case other writers go unnoticed. */
+    private SharedFile.Stamp readStamp() {
+        try {
+            return shared.read();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Records a write in the lock file so that other processes notice it, along with the list's next id, or 0
+     * to keep the one already there. Caller holds the shared lock.
+     */
+    private void publish(int changedFrom, int nextId) {
+        try {
+            knownGeneration = shared.publish(changedFrom, nextId);
+        } catch (IOException e) {
+            // Already reported when the lock was taken; other processes will not see this write until they reload.
+        }
+    }
+
+    /** Rotates the journal and folds the rotated part into the file on the checkpoint thread. */
+    private void startCheckpoint() {
+        if (checkpointer.isShutdown()) {
+            return; // closed; the journal is folded in on the next load
+        }
+        if (!isCheckpointing.compareAndSet(false, true)) {
+            return; // the previous checkpoint is still running; the journal just keeps growing meanwhile
+        }
+        try {
+            if (journal.rotate()) {
+                // Other processes must reopen the journal, which has just moved.
+                publish(SharedFile.NOTHING_CHANGED, 0);
+                checkpointer.execute(this::checkpointRotated);
+                return;
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to rotate journal: " + e.getMessage());
+        }
+        isCheckpointing.set(false);
+    }
+
+    private void checkpointRotated() {
+        shared.lock();
+        try {
+            synchronized (fileLock) {
+                if (!journal.hasRotated()) {
+                    return; // a full save already superseded this checkpoint
+                }
+                List<TaskRecord> records = file.exists()
+                        ? decode(Files.readAllBytes(file.toPath()))
+                        : new ArrayList<>();
+                journal.replayRotated(records);
+                byte[] content = encode(records);
+                journal.markCheckpoint(checksum(content), false);
+                writeAtomically(content);
+                journal.finishRotatedCheckpoint();
+            }
+        } catch (IOException e) {
+            System.err.println("Journal checkpoint failed: " + e.getMessage());
+        } finally {
+            shared.unlock();
+            isCheckpointing.set(false);
+        }
+    }
+
+    /**
+     * Appends tasks to the archive. The caller removes them from the list afterwards, so a failure here
+     * leaves every task where it was.
+     *
+     * @param tasks Tasks to archive.
+     * @throws SidException If the archive cannot be written.
+     */
+    @Override
+    public void archive(List<ToDo> tasks) throws SidException {
+        assert tasks != null : "Tasks to archive cannot be null";
+        List<TaskRecord> records = new ArrayList<>(tasks.size());
+        for (ToDo task : tasks) {
+            records.add(TaskRecord.of(task));
+        }
+        try {
+            archive.append(records);
+        } catch (IOException e) {
+            throw new SidException("Couldn't write the archive: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the archived tasks whose list form contains {@code keyword}, ignoring case.
+     *
+     * @param keyword Text to look for; empty matches every archived task.
+     * @return The matches, in archive order.
+     * @throws SidException If the archive cannot be read.
+     */
+    @Override
+    public List<ArchivedTask> searchArchive(String keyword) throws SidException {
+        assert keyword != null : "Keyword cannot be null";
+        String query = keyword.trim().toLowerCase();
+        try {
+            return archive.search(task -> task.getRecord().toDisplayString().toLowerCase().contains(query));
+        } catch (IOException e) {
+            throw new SidException("Couldn't read the archive: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the archived task with the given number without removing it from the archive.
+     *
+     * @param number Archive number, as shown by {@link #searchArchive(String)}.
+     * @return The archived task's record.
+     * @throws SidException If there is no such task or the archive cannot be read.
+     */
+    @Override
+    public TaskRecord getArchived(int number) throws SidException {
+        try {
+            return archive.get(number).getRecord();
+        } catch (IOException e) {
+            throw new SidException("Couldn't read the archive: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Hides an archived task that has been put back into the list.
+     *
+     * @param number Archive number of the restored task.
+     * @throws SidException If the archive cannot be written.
+     */
+    @Override
+    public void markRestored(int number) throws SidException {
+        try {
+            archive.markRestored(number);
+        } catch (IOException e) {
+            throw new SidException("Couldn't write the archive: " + e.getMessage());
         }
-        return new TodoList(initialList, this);
     }
 
     /**
      * Saves the current list into the disk
+     *
+     * <p>The file is replaced with this instance's list even if another process has written to it since;
+     * that process then reloads the whole list.
+     *
+     * <p>Takes the list's read lock before {@link #flushLock}; callers that are changing the list already hold
+     * its write lock.
+     *
      * @param list The current list
      */
+    @Override
     public void save(TodoList list) {
         assert list != null : "TodoList to save cannot be null";
-        // Ensure ./data exists
-        File parent = this.file.getParentFile();
-        if (parent != null && !parent.exists()) {
-            parent.mkdirs(); // safe even if it already exists
+        list.readLock().lock();
+        try {
+            synchronized (flushLock) {
+                shared.lock();
+                try {
+                    saveWhole(list);
+                } finally {
+                    shared.unlock();
+                }
+            }
+        } finally {
+            list.readLock().unlock();
         }
+    }
 
-        try (FileWriter fw = new FileWriter(this.file, false)) { // overwrite mode
-            for (int i = 1; i <= list.getSize(); i++) {
-                ToDo t = list.getTodo(i);
-                fw.write(serializeTodo(t));
-                fw.write(System.lineSeparator());
+    private void saveWhole(TodoList list) {
+        synchronized (flushLock) {
+            List<TaskRecord> records;
+            int nextId = list.getNextId();
+            try {
+                records = snapshot(list);
+            } catch (SidException e) {
+                System.err.println("Failed to save tasks: " + e.getMessage());
+                return;
+            }
+            if (journal != null) {
+                saveJournaled(records, nextId);
+                return;
+            }
+
+            try {
+                long start = System.nanoTime();
+                offsets = null;
+                if (format.getCodec().canWriteRecords()) {
+                    offsets = writeWithOffsets(records);
+                } else {
+                    // Streamed straight to disk, so the file is never held in memory whole.
+                    writeAtomically(out -> format.getCodec().write(out, records));
+                }
+                saveLatency.record(System.nanoTime() - start, file.length());
+                publish(0, nextId);
+            } catch (IOException e) {
+                System.err.println("Failed to save tasks: " + e.getMessage());
             }
-        } catch (SidException | IOException e) {
-            System.err.println("Failed to save tasks: " + e.getMessage());
         }
     }
 
     /**
-     * Returns the serialized string representing a todo to be saved onto the disk
-     * @param t The task to be serialized into a string
-     * @return a serialized string
-     * @throws SidException If task is of unknown type
-     * @see sid.enums.TaskType
+     * Replaces the file with {@code records}, returning where each of them starts. Records are streamed to
+     * disk as they are encoded, so the file is never held in memory whole.
      */
-    private String serializeTodo(ToDo t) throws SidException {
-        TaskType type;
-        String extra = "";
+    private RecordOffsets writeWithOffsets(List<TaskRecord> records) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        format.getCodec().writeHeader(header);
+        RecordOffsets written = new RecordOffsets(header.size());
+        writeAtomically(out -> {
+            CountingOutputStream counted = new CountingOutputStream(out);
+            counted.write(header.toByteArray());
+            for (TaskRecord record : records) {
+                long before = counted.getCount();
+                format.getCodec().writeRecord(counted, record);
+                written.append(counted.getCount() - before);
+            }
+        });
+        return written;
+    }
 
-        if (t instanceof Deadline) {
-            Deadline deadline = (Deadline) t;
-            type = TaskType.DEADLINE;
-            extra = deadline.getDueDate().format(ISO_DT);
+    /**
+     * Rewrites the file from record {@code from} onward, leaving earlier bytes untouched: the file is
+     * truncated where that record starts and the remaining records are written there with positional
+     * writes. Appending a task therefore writes one record.
+     *
+     * <p>Falls back to a whole-file {@link #save(TodoList)} when record offsets are unknown, for formats
+     * that cannot be written one record at a time, and at {@link Durability#ALWAYS} durability, whose saves
+     * must replace the file atomically.
+     */
+    private void saveFrom(TodoList list, int from) {
+        synchronized (flushLock) {
+            if (offsets == null || options.getDurability() == Durability.ALWAYS
+                    || !format.getCodec().canWriteRecords()) {
+                save(list);
+                return;
+            }
+            try {
+                long start = System.nanoTime();
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                long position;
+                int nextId;
+                list.readLock().lock();
+                try {
+                    synchronized (pendingLock) {
+                        // The tail written below includes any changes still queued, so claim them too.
+                        for (Change change : pendingChanges) {
+                            from = Math.min(from, change.getIndex() - 1);
+                        }
+                        pendingChanges.clear();
+                        dirtyList = null;
+                    }
+                    from = Math.min(from, offsets.getRecordCount());
+                    offsets.truncate(from);
+                    for (int i = from + 1; i <= list.getSize(); i++) {
+                        int before = out.size();
+                        format.getCodec().writeRecord(out, TaskRecord.of(list.getTodo(i)));
+                        offsets.append(out.size() - before);
+                    }
+                    position = offsets.start(from);
+                    nextId = list.getNextId();
+                } finally {
+                    list.readLock().unlock();
+                }
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                    channel.truncate(position);
+                    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+                    while (buffer.hasRemaining()) {
+                        position += channel.write(buffer, position);
+                    }
+                }
+                needsSync.set(true);
+                saveLatency.record(System.nanoTime() - start, out.size());
+                publish(from, nextId);
+            } catch (SidException | IOException e) {
+                System.err.println("Partial save failed, saving everything instead: " + e.getMessage());
+                offsets = null;
+                save(list);
+            }
+        }
+    }
 
-        } else if (t instanceof Event) {
-            Event event = (Event) t;
-            type = TaskType.EVENT;
-            extra = event.getStartDate().format(ISO_DT) + " | " + event.getEndDate().format(ISO_DT);
+    /**
+     * Captures every task in {@code list} while holding its lock, so that a background writer sees a
+     * consistent state. Any queued write-behind changes are dropped, as the result already contains them.
+     */
+    private List<TaskRecord> snapshot(TodoList list) throws SidException {
+        list.readLock().lock();
+        try {
+            synchronized (pendingLock) {
+                pendingChanges.clear();
+                dirtyList = null;
+            }
+            List<TaskRecord> records = new ArrayList<>(list.getSize());
+            for (int i = 1; i <= list.getSize(); i++) {
+                records.add(TaskRecord.of(list.getTodo(i)));
+            }
+            return records;
+        } finally {
+            list.readLock().unlock();
+        }
+    }
 
-        } else if (t instanceof ToDo) {
-            type = TaskType.TODO;
+    /** Writes the whole list as a checkpoint and discards the journals it supersedes. */
+    private void saveJournaled(List<TaskRecord> records, int nextId) {
+        synchronized (fileLock) {
+            try {
+                long start = System.nanoTime();
+                byte[] content = encode(records);
+                journal.markCheckpoint(checksum(content), true);
+                writeAtomically(content);
+                journal.clear();
+                saveLatency.record(System.nanoTime() - start, content.length);
+                publish(0, nextId);
+            } catch (IOException e) {
+                System.err.println("Failed to save tasks: " + e.getMessage());
+            }
+        }
+    }
 
-        } else {
-            throw new SidException("Unknown task type: " + t.getClass().getName());
+    /**
+     * Converts a task file from one format to another without loading it into a {@link TodoList}.
+     *
+     * <p>Conversion works on {@link TaskRecord}s, so it is lossless and keeps tasks whose dates have passed.
+     *
+     * @param sourcePath   File to read.
+     * @param sourceFormat Format of {@code sourcePath}.
+     * @param targetPath   File to create or replace.
+     * @param targetFormat Format to write.
+     * @throws IOException If either file cannot be accessed or the source is not in {@code sourceFormat}.
+     */
+    public static void convert(String sourcePath, StorageFormat sourceFormat, String targetPath,
+            StorageFormat targetFormat) throws IOException {
+        List<TaskRecord> records = sourceFormat.getCodec().read(new File(sourcePath));
+        File target = new File(targetPath);
+        File parent = target.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
         }
+        try (OutputStream out = new FileOutputStream(target, false)) {
+            targetFormat.getCodec().write(out, records);
+        }
+    }
 
-        String done = t.isDone() ? DONE_FLAG : NOT_DONE_FLAG;
-        String base = type.toString() + " | " + done + " | " + t.getDescription();
-        return extra.isEmpty() ? base : base + " | " + extra;
+    private List<TaskRecord> decode(byte[] content) throws IOException {
+        if (content.length == 0) {
+            return new ArrayList<>();
+        }
+        return StorageFormat.fromHeader(content).getCodec().read(new ByteArrayInputStream(content));
+    }
+
+    private byte[] encode(List<TaskRecord> records) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        format.getCodec().write(out, records);
+        return out.toByteArray();
+    }
+
+    private static long checksum(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return crc.getValue();
     }
 
     /**
-     * Parses a line into a task instance.
+     * Replaces the file with {@code content} via a temporary file, so readers never see a partial write.
      *
-     * <p>Expected formats (ISO date-times for D/E):
-     * <pre>
-     * T | 0|1 | description
-     * D | 0|1 | description | 2019-12-02T18:00
-     * E | 0|1 | description | 2019-12-02T18:00 | 2019-12-02T20:00
-     * </pre>
+     * <p>At {@link Durability#ALWAYS} durability the temporary file is forced before the rename and the
+     * directory after it, so the new file survives a power loss once this returns.
      */
-    private ToDo deserializeToDo(String line) throws SidException {
-        assert line != null : "Line to deserialize cannot be null";
-        String[] parts = line.split("\\s*\\|\\s*");
-        if (parts.length < MIN_STORAGE_FIELDS) {
-            throw new IllegalArgumentException("Too few fields");
+    private void writeAtomically(byte[] content) throws IOException {
+        writeAtomically(out -> out.write(content));
+    }
+
+    /**
+     * Replaces the file with whatever {@code content} writes, via a temporary file as above.
+     */
+    private void writeAtomically(ContentWriter content) throws IOException {
+        // Ensure ./data exists
+        File parent = this.file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs(); // safe even if it already exists
+        }
+        boolean isForced = options.getDurability() == Durability.ALWAYS;
+        File tmp = new File(this.file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp, false)) {
+            BufferedOutputStream buffered = new BufferedOutputStream(out, WRITE_BUFFER_SIZE);
+            content.writeTo(buffered);
+            buffered.flush();
+            if (isForced) {
+                out.getChannel().force(true);
+            }
         }
-        String type = parts[0].trim();
-        String doneFlag = parts[1].trim();
-        if (!doneFlag.equals(DONE_FLAG) && !doneFlag.equals(NOT_DONE_FLAG)) {
-            throw new SidException("Invalid done flag");
+        Files.move(tmp.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        if (isForced) {
+            syncDirectory();
+        } else {
+            needsSync.set(true);
+        }
+    }
+
+    /**
+     * Forces the directory holding the file, which makes a rename into it durable. Not every platform
+     * allows opening a directory (Windows does not), in which case the rename is left to the file system.
+     */
+    private void syncDirectory() {
+        File parent = this.file.getAbsoluteFile().getParentFile();
+        try (FileChannel channel = FileChannel.open(parent.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be synced on this platform.
         }
-        boolean isDone = doneFlag.equals(DONE_FLAG);
-        String description = parts[2].trim();
-        ToDo task;
+    }
 
-        switch (TaskType.fromCode(type)) {
-        case TODO:
-            task = new ToDo(description, isDone);
-            break;
+    /** Passes bytes through to another stream, counting them. */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
 
-        case DEADLINE:
-            // Guard clause for validation
-            if (parts.length < DEADLINE_FIELDS) {
-                throw new SidException("Deadline missing 'by' field");
-            }
-            LocalDateTime by = LocalDateTime.parse(parts[3].trim(), ISO_DT);
-            task = new Deadline(description, by, isDone);
-            break;
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
 
-        case EVENT:
-            // Guard clause for validation
-            if (parts.length < EVENT_FIELDS) {
-                throw new SidException("Event missing start/end fields");
-            }
-            LocalDateTime start = LocalDateTime.parse(parts[3].trim(), ISO_DT);
-            LocalDateTime end = LocalDateTime.parse(parts[4].trim(), ISO_DT);
-            task = new Event(description, start, end, isDone);
-            break;
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
 
-        default:
-            throw new SidException("Unsupported type: " + type);
+        long getCount() {
+            return this.count;
         }
-        return task;
+    }
+
+    /** Writes a file's content to a stream. */
+    private interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
     }
 }
@@ -0,0 +1,116 @@
+package sid.storage;
+
+import java.util.List;
+
+import sid.exceptions.SidException;
+import sid.models.ToDo;
+import sid.models.TodoList;
+
+/**
+ * Where a {@link TodoList} keeps its tasks between runs.
+ *
+ * <p>A backend creates the list it persists through {@link #load()}; the list then reports every mutation
+ * via {@link #persistChange(TodoList, Change)}. Implementations differ in where and how the tasks are
+ * written: {@link Storage} uses a single flat file, {@link PagedStorage} a directory of fixed-size pages,
+ * and {@link InMemoryStorage} nothing at all. {@link Backend} picks one by name.
+ */
+public interface StorageBackend {
+    /**
+     * Loads the stored tasks into a new list bound to this backend.
+     *
+     * @return The loaded list; empty if nothing has been stored yet.
+     */
+    TodoList load();
+
+    /**
+     * Persists a single mutation that has just been applied to {@code list}.
+     *
+     * @param list   The list after the change.
+     * @param change The change that was applied.
+     */
+    void persistChange(TodoList list, Change change);
+
+    /**
+     * Persists several mutations that have just been applied to {@code list}, e.g. by an import, with one
+     * write where the backend can. By default the whole list is saved.
+     *
+     * @param list    The list after the changes.
+     * @param changes The changes that were applied, in order; each position is as it was when that change
+     *                was made.
+     */
+    default void persistChanges(TodoList list, List<Change> changes) {
+        save(list);
+    }
+
+    /**
+     * Persists the whole list, e.g. after a change that affects many tasks at once.
+     *
+     * @param list The current list.
+     */
+    void save(TodoList list);
+
+    /**
+     * Blocks until every change handed to this backend has been written.
+     */
+    void flush();
+
+    /**
+     * Flushes, then releases the backend's background threads and shutdown hooks. Backends without any only
+     * flush. The backend should not be used afterwards; changes it is still given are written on the caller
+     * thread.
+     */
+    default void close() {
+        flush();
+    }
+
+    /**
+     * Brings {@code list} up to date with changes other processes have written to the same storage. Backends
+     * that cannot be shared leave it as it is.
+     *
+     * @param list The list loaded from this backend.
+     */
+    void refresh(TodoList list);
+
+    /**
+     * Checks the stored records against their checksums without loading them.
+     *
+     * @return The report.
+     * @throws SidException If the stored tasks cannot be read.
+     */
+    IntegrityReport verify() throws SidException;
+
+    /**
+     * Appends tasks to the archive. The caller removes them from the list afterwards, so a failure here
+     * leaves every task where it was.
+     *
+     * @param tasks Tasks to archive.
+     * @throws SidException If the archive cannot be written.
+     */
+    void archive(List<ToDo> tasks) throws SidException;
+
+    /**
+     * Returns the archived tasks whose list form contains {@code keyword}, ignoring case.
+     *
+     * @param keyword Text to look for; empty matches every archived task.
+     * @return The matches, in archive order.
+     * @throws SidException If the archive cannot be read.
+     */
+    List<ArchivedTask> searchArchive(String keyword) throws SidException;
+
+    /**
+     * Returns the archived task with the given number without removing it from the archive.
+     *
+     * @param number Archive number, as shown by {@link #searchArchive(String)}.
+     * @return The archived task's record.
+     * @throws SidException If there is no such task or the archive cannot be read.
+     */
+    TaskRecord getArchived(int number) throws SidException;
+
+    /**
+     * Hides an archived task that has been put back into the list.
+     *
+     * @param number Archive number of the restored task.
+     * @throws SidException If the archive cannot be written.
+     */
+    void markRestored(int number) throws SidException;
+}
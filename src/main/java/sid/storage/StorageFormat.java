@@ -0,0 +1,116 @@
+package sid.storage;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * On-disk formats that {@link Storage} can read and write, each identified by a file extension.
+ */
+public enum StorageFormat {
+    /** Human-readable pipe-separated lines; see {@link TextCodec}. */
+    TEXT(".txt", new TextCodec()),
+
+    /** Compact versioned binary records; see {@link BinaryCodec}. */
+    BINARY(".sidb", new BinaryCodec()),
+
+    /** Deflate-compressed text lines; see {@link CompressedCodec}. */
+    COMPRESSED(".sidz", new CompressedCodec(new TextCodec()));
+
+    /** Length of the magic that starts binary and compressed files. */
+    private static final int MAGIC_LENGTH = 4;
+
+    private final String extension;
+    private final TaskCodec codec;
+
+    StorageFormat(String extension, TaskCodec codec) {
+        this.extension = extension;
+        this.codec = codec;
+    }
+
+    /**
+     * Returns the format implied by a file's extension, defaulting to {@link #TEXT}.
+     *
+     * @param path File path.
+     * @return The matching format.
+     */
+    public static StorageFormat fromPath(String path) {
+        assert path != null : "Path cannot be null";
+        for (StorageFormat format : values()) {
+            if (path.endsWith(format.extension)) {
+                return format;
+            }
+        }
+        return TEXT;
+    }
+
+    /**
+     * Returns the format a file's leading bytes identify, regardless of its extension.
+     *
+     * @param file An existing file.
+     * @return The identified format; see {@link #fromHeader(byte[])}.
+     * @throws IOException If the file cannot be read.
+     */
+    public static StorageFormat fromHeader(File file) throws IOException {
+        assert file != null : "File cannot be null";
+        try (InputStream in = new FileInputStream(file)) {
+            return fromHeader(in.readNBytes(MAGIC_LENGTH));
+        }
+    }
+
+    /**
+     * Returns the format identified by the leading bytes of a file.
+     *
+     * @param content The file's content, or at least its first four bytes.
+     * @return {@link #BINARY} or {@link #COMPRESSED} if the content starts with that format's magic,
+     *     otherwise {@link #TEXT}, as text records never start with either.
+     */
+    public static StorageFormat fromHeader(byte[] content) {
+        assert content != null : "Content cannot be null";
+        byte[] header = Arrays.copyOf(content, Math.min(content.length, MAGIC_LENGTH));
+        if (Arrays.equals(header, BinaryCodec.MAGIC)) {
+            return BINARY;
+        }
+        if (Arrays.equals(header, CompressedCodec.MAGIC)) {
+            return COMPRESSED;
+        }
+        return TEXT;
+    }
+
+    /**
+     * Returns {@code path} with its extension replaced by this format's extension.
+     *
+     * @param path File path, e.g. {@code data/sid.txt}.
+     * @return The path for this format, e.g. {@code data/sid.sidb}.
+     */
+    public String applyTo(String path) {
+        assert path != null : "Path cannot be null";
+        String base = path;
+        for (StorageFormat format : values()) {
+            if (base.endsWith(format.extension)) {
+                base = base.substring(0, base.length() - format.extension.length());
+                break;
+            }
+        }
+        return base + this.extension;
+    }
+
+    public TaskCodec getCodec() {
+        return this.codec;
+    }
+
+    /**
+     * Parses a format name as given on the command line ({@code text}, {@code binary} or
+     * {@code compressed}).
+     *
+     * @param name Format name, case-insensitive.
+     * @return The matching format.
+     * @throws IllegalArgumentException If the name is unknown.
+     */
+    public static StorageFormat fromName(String name) {
+        assert name != null : "Format name cannot be null";
+        return valueOf(name.trim().toUpperCase());
+    }
+}
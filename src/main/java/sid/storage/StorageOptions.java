@@ -0,0 +1,313 @@
+package sid.storage;
+
+import java.util.List;
+
+/**
+ * Tunable settings for {@link Storage} and the other {@link StorageBackend backends}.
+ *
+ * <p>Instances are immutable; each {@code with...} method returns a modified copy so that options can be
+ * chained from {@link #defaults()}. The defaults reproduce the classic behaviour of rewriting the whole
+ * task file after every mutation.
+ *
+ * <p>Options can also be parsed from command-line flags (see {@link #fromArgs(List)}), e.g.
+ * {@code --journal} or {@code --journal=500}.
+ */
+public class StorageOptions {
+    /** Journal entries accumulated before a background checkpoint folds them into the task file. */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 1000;
+
+    /** Longest time a change waits in write-behind mode before it is written. */
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 200;
+
+    /** Pending changes that make the write-behind writer flush before the interval is up. */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    /** Time between background syncs at {@link Durability#BATCH} durability. */
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 1000;
+
+    private boolean isJournaled;
+    private int checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+    private boolean isWriteBehind;
+    private long flushIntervalMillis = DEFAULT_FLUSH_INTERVAL_MILLIS;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private StorageFormat format;
+    private Durability durability = Durability.NONE;
+    private long syncIntervalMillis = DEFAULT_SYNC_INTERVAL_MILLIS;
+    private boolean isReportingLatency;
+    private int archiveAfterDays;
+    private Backend backend = Backend.FILE;
+
+    private StorageOptions() {
+    }
+
+    private StorageOptions(StorageOptions other) {
+        this.isJournaled = other.isJournaled;
+        this.checkpointInterval = other.checkpointInterval;
+        this.isWriteBehind = other.isWriteBehind;
+        this.flushIntervalMillis = other.flushIntervalMillis;
+        this.batchSize = other.batchSize;
+        this.format = other.format;
+        this.durability = other.durability;
+        this.syncIntervalMillis = other.syncIntervalMillis;
+        this.isReportingLatency = other.isReportingLatency;
+        this.archiveAfterDays = other.archiveAfterDays;
+        this.backend = other.backend;
+    }
+
+    /**
+     * Returns the default options: a plain flat file replaced on every change, at {@link Durability#NONE}.
+     *
+     * @return Default options.
+     */
+    public static StorageOptions defaults() {
+        return new StorageOptions();
+    }
+
+    /**
+     * Returns a copy with the append-only mutation journal enabled.
+     *
+     * @param checkpointInterval Journal entries after which a background checkpoint is started.
+     * @return Modified copy of these options.
+     */
+    public StorageOptions withJournal(int checkpointInterval) {
+        assert checkpointInterval > 0 : "Checkpoint interval must be positive";
+        StorageOptions copy = new StorageOptions(this);
+        copy.isJournaled = true;
+        copy.checkpointInterval = checkpointInterval;
+        return copy;
+    }
+
+    /**
+     * Returns a copy with write-behind enabled: changes are queued and written by a background thread.
+     *
+     * @param flushIntervalMillis Longest time a change may wait before it is written.
+     * @param batchSize           Number of pending changes that triggers an early write.
+     * @return Modified copy of these options.
+     */
+    public StorageOptions withWriteBehind(long flushIntervalMillis, int batchSize) {
+        assert flushIntervalMillis > 0 : "Flush interval must be positive";
+        assert batchSize > 0 : "Batch size must be positive";
+        StorageOptions copy = new StorageOptions(this);
+        copy.isWriteBehind = true;
+        copy.flushIntervalMillis = flushIntervalMillis;
+        copy.batchSize = batchSize;
+        return copy;
+    }
+
+    /**
+     * Returns a copy that stores tasks in the given format regardless of the file extension.
+     *
+     * @param format File format to read and write.
+     * @return Modified copy of these options.
+     */
+    public StorageOptions withFormat(StorageFormat format) {
+        assert format != null : "Storage format cannot be null";
+        StorageOptions copy = new StorageOptions(this);
+        copy.format = format;
+        return copy;
+    }
+
+    /**
+     * Returns a copy that saves at the given durability level.
+     *
+     * @param durability         How far each save is forced towards the disk.
+     * @param syncIntervalMillis Time between background syncs; only used by {@link Durability#BATCH}.
+     * @return Modified copy of these options.
+     */
+    public StorageOptions withDurability(Durability durability, long syncIntervalMillis) {
+        assert durability != null : "Durability cannot be null";
+        assert syncIntervalMillis > 0 : "Sync interval must be positive";
+        StorageOptions copy = new StorageOptions(this);
+        copy.durability = durability;
+        copy.syncIntervalMillis = syncIntervalMillis;
+        return copy;
+    }
+
+    /**
+     * Returns a copy that prints save latency and {@link sid.models.DescriptionPool description pool}
+     * statistics whenever the storage is flushed, e.g. on exit.
+     *
+     * @return Modified copy of these options.
+     */
+    public StorageOptions withLatencyReport() {
+        StorageOptions copy = new StorageOptions(this);
+        copy.isReportingLatency = true;
+        return copy;
+    }
+
+    /**
+     * Returns a copy that moves tasks to the archive on load once they have been done for the given number
+     * of days. Done tasks without a known completion time are archived too.
+     *
+     * @param days Days a task must have been done before it is archived.
+     * @return Modified copy of these options.
+     */
+    public StorageOptions withArchiveAfter(int days) {
+        assert days > 0 : "Archive age must be positive";
+        StorageOptions copy = new StorageOptions(this);
+        copy.archiveAfterDays = days;
+        return copy;
+    }
+
+    /**
+     * Returns a copy that stores tasks in the given backend.
+     *
+     * @param backend Backend to create; {@link Backend#FILE} by default.
+     * @return Modified copy of these options.
+     */
+    public StorageOptions withBackend(Backend backend) {
+        assert backend != null : "Backend cannot be null";
+        StorageOptions copy = new StorageOptions(this);
+        copy.backend = backend;
+        return copy;
+    }
+
+    /**
+     * Parses storage flags from command-line arguments.
+     *
+     * <p>Recognised flags:
+     * <ul>
+     *   <li>{@code --journal[=<entries>]} - append changes to a journal, checkpointing every {@code entries}</li>
+     *   <li>{@code --write-behind[=<millis>]} - write changes in the background at most every {@code millis}</li>
+     *   <li>{@code --write-batch=<changes>} - with write-behind, also write once {@code changes} are pending</li>
+     *   <li>{@code --format=text|binary|compressed} - file format; the file extension is changed to match</li>
+     *   <li>{@code --durability=none|batch|always} - how far each save is forced towards the disk</li>
+     *   <li>{@code --sync-interval=<millis>} - with batch durability, sync every {@code millis}</li>
+     *   <li>{@code --report-latency} - print save latency and description pool statistics on exit</li>
+     *   <li>{@code --archive-after=<days>} - on startup, archive tasks done at least {@code days} ago</li>
+     *   <li>{@code --backend=file|paged|memory} - where tasks are stored; see {@link Backend}</li>
+     * </ul>
+     * Flags may come in any order. {@code --write-batch} needs {@code --write-behind}, and
+     * {@code --sync-interval} needs {@code --durability=batch}; without them they are rejected rather than
+     * turning the other mode on. Unrecognised and rejected arguments are reported on {@code System.err} and
+     * otherwise ignored.
+     *
+     * @param args Raw command-line arguments.
+     * @return Options described by {@code args}, starting from {@link #defaults()}.
+     */
+    public static StorageOptions fromArgs(List<String> args) {
+        assert args != null : "Argument list cannot be null";
+        StorageOptions options = defaults();
+        // Applied after the loop, once the modes they tune are known.
+        String writeBatchArg = null;
+        int batchSize = DEFAULT_BATCH_SIZE;
+        String syncIntervalArg = null;
+        long syncIntervalMillis = DEFAULT_SYNC_INTERVAL_MILLIS;
+        for (String arg : args) {
+            String[] keyValue = arg.split("=", 2);
+            String value = keyValue.length > 1 ? keyValue[1] : null;
+            try {
+                switch (keyValue[0]) {
+                case "--journal":
+                    options = options.withJournal(value == null ? DEFAULT_CHECKPOINT_INTERVAL : parsePositive(value));
+                    break;
+                case "--write-behind":
+                    options = options.withWriteBehind(
+                            value == null ? DEFAULT_FLUSH_INTERVAL_MILLIS : parsePositive(value), options.batchSize);
+                    break;
+                case "--write-batch":
+                    batchSize = parsePositive(value);
+                    writeBatchArg = arg;
+                    break;
+                case "--format":
+                    options = options.withFormat(StorageFormat.fromName(String.valueOf(value)));
+                    break;
+                case "--durability":
+                    options = options.withDurability(Durability.fromName(String.valueOf(value)),
+                            options.syncIntervalMillis);
+                    break;
+                case "--sync-interval":
+                    syncIntervalMillis = parsePositive(value);
+                    syncIntervalArg = arg;
+                    break;
+                case "--report-latency":
+                    options = options.withLatencyReport();
+                    break;
+                case "--archive-after":
+                    options = options.withArchiveAfter(parsePositive(value));
+                    break;
+                case "--backend":
+                    options = options.withBackend(Backend.fromName(String.valueOf(value)));
+                    break;
+                default:
+                    System.err.println("Ignoring unknown option: " + arg);
+                    break;
+                }
+            } catch (IllegalArgumentException e) {
+                System.err.println("Ignoring invalid option " + arg + ": " + e.getMessage());
+            }
+        }
+        if (writeBatchArg != null) {
+            if (options.isWriteBehind) {
+                options = options.withWriteBehind(options.flushIntervalMillis, batchSize);
+            } else {
+                System.err.println("Ignoring invalid option " + writeBatchArg + ": it needs --write-behind");
+            }
+        }
+        if (syncIntervalArg != null) {
+            if (options.durability == Durability.BATCH) {
+                options = options.withDurability(Durability.BATCH, syncIntervalMillis);
+            } else {
+                System.err.println("Ignoring invalid option " + syncIntervalArg + ": it needs --durability=batch");
+            }
+        }
+        return options;
+    }
+
+    private static int parsePositive(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("a value is required");
+        }
+        int parsed = Integer.parseInt(value.trim());
+        if (parsed <= 0) {
+            throw new IllegalArgumentException("value must be positive");
+        }
+        return parsed;
+    }
+
+    public boolean isJournaled() {
+        return this.isJournaled;
+    }
+
+    public int getCheckpointInterval() {
+        return this.checkpointInterval;
+    }
+
+    public boolean isWriteBehind() {
+        return this.isWriteBehind;
+    }
+
+    public long getFlushIntervalMillis() {
+        return this.flushIntervalMillis;
+    }
+
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    /** Returns the explicitly selected format, or null to choose by file extension. */
+    public StorageFormat getFormat() {
+        return this.format;
+    }
+
+    public Durability getDurability() {
+        return this.durability;
+    }
+
+    public long getSyncIntervalMillis() {
+        return this.syncIntervalMillis;
+    }
+
+    public boolean isReportingLatency() {
+        return this.isReportingLatency;
+    }
+
+    /** Returns the age in days at which done tasks are archived on load, or 0 if they never are. */
+    public int getArchiveAfterDays() {
+        return this.archiveAfterDays;
+    }
+
+    public Backend getBackend() {
+        return this.backend;
+    }
+}
@@ -0,0 +1,133 @@
+package sid.storage;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+import sid.models.ToDo;
+
+/**
+ * Reads and writes whole task files in one on-disk format.
+ *
+ * <p>Codecs work on {@link TaskRecord}s rather than model objects, so that converting between formats is
+ * lossless and never trips model validation. Streams are neither opened nor closed by the codec.
+ */
+public interface TaskCodec {
+    /**
+     * Reads every record from {@code in}. Corrupted records are skipped with a warning to {@code System.err}.
+     *
+     * @param in Stream positioned at the start of a task file.
+     * @return The records, in file order.
+     * @throws IOException If the stream cannot be read or is not in this codec's format.
+     */
+    List<TaskRecord> read(InputStream in) throws IOException;
+
+    /**
+     * Reads every record from {@code file}. Codecs may override this to read the file more directly than
+     * through a stream.
+     *
+     * @param file An existing task file.
+     * @return The records, in file order.
+     * @throws IOException If the file cannot be read or is not in this codec's format.
+     */
+    default List<TaskRecord> read(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads every record from {@code in} and builds its task. Records that are corrupted, or that are no longer
+     * valid tasks, e.g. because their date has passed, are skipped with a warning to {@code System.err}.
+     * Codecs that read lines report every skipped line in file order, with the line as it appears in the file.
+     *
+     * @param in Stream positioned at the start of a task file.
+     * @return The tasks, in file order.
+     * @throws IOException If the stream cannot be read or is not in this codec's format.
+     */
+    default List<ToDo> readTasks(InputStream in) throws IOException {
+        return Storage.toTasks(read(in));
+    }
+
+    /**
+     * Reads every record from {@code file} and builds its task, as {@link #readTasks(InputStream)} does.
+     *
+     * @param file An existing task file.
+     * @return The tasks, in file order.
+     * @throws IOException If the file cannot be read or is not in this codec's format.
+     */
+    default List<ToDo> readTasks(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return readTasks(in);
+        }
+    }
+
+    /**
+     * Checks the record checksums in {@code in} without building records. Codecs whose format carries no
+     * checksums read the records and report them all as unchecked.
+     *
+     * @param in Stream positioned at the start of a task file.
+     * @return The report.
+     * @throws IOException If the stream cannot be read or is not in this codec's format.
+     */
+    default IntegrityReport verify(InputStream in) throws IOException {
+        IntegrityReport report = new IntegrityReport("record");
+        for (int i = read(in).size(); i > 0; i--) {
+            report.addUnchecked();
+        }
+        return report;
+    }
+
+    /**
+     * Checks the record checksums in {@code file} without building records.
+     *
+     * @param file An existing task file.
+     * @return The report.
+     * @throws IOException If the file cannot be read or is not in this codec's format.
+     */
+    default IntegrityReport verify(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return verify(in);
+        }
+    }
+
+    /**
+     * Writes {@code records} to {@code out} as a complete task file and flushes it.
+     *
+     * @param out     Stream to write to.
+     * @param records Records to write, in order.
+     * @throws IOException If the stream cannot be written.
+     */
+    void write(OutputStream out, Iterable<TaskRecord> records) throws IOException;
+
+    /**
+     * Writes whatever precedes the first record of a file, such as a header. Together with
+     * {@link #writeRecord(OutputStream, TaskRecord)} this produces the same bytes as
+     * {@link #write(OutputStream, Iterable)}, which lets a file be rewritten one record at a time.
+     *
+     * @param out Stream to write to.
+     * @throws IOException If the stream cannot be written.
+     */
+    default void writeHeader(OutputStream out) throws IOException {
+    }
+
+    /**
+     * Returns whether {@link #writeRecord(OutputStream, TaskRecord)} is supported, so that a file can be
+     * rewritten from any record onward.
+     */
+    default boolean canWriteRecords() {
+        return true;
+    }
+
+    /**
+     * Writes a single record, unbuffered.
+     *
+     * @param out    Stream to write to.
+     * @param record Record to write.
+     * @throws IOException If the stream cannot be written.
+     */
+    void writeRecord(OutputStream out, TaskRecord record) throws IOException;
+}
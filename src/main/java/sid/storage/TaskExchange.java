@@ -0,0 +1,161 @@
+package sid.storage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import sid.exceptions.SidException;
+import sid.models.TaskSnapshot;
+import sid.models.ToDo;
+import sid.models.TodoList;
+
+/**
+ * Streams a {@link TodoList} to and from files in an {@link ExchangeFormat}.
+ *
+ * <p>Both directions handle one record at a time through a buffered {@link Writer} or {@link BufferedReader},
+ * so apart from the list itself, memory use does not grow with the size of the file.
+ */
+public class TaskExchange {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Counts of what an import did. */
+    public static class Summary {
+        private final int importedCount;
+        private final int skippedCount;
+
+        Summary(int importedCount, int skippedCount) {
+            this.importedCount = importedCount;
+            this.skippedCount = skippedCount;
+        }
+
+        public int getImportedCount() {
+            return this.importedCount;
+        }
+
+        /** Returns the number of entries that were malformed, no longer valid, or clashed with an event. */
+        public int getSkippedCount() {
+            return this.skippedCount;
+        }
+
+        @Override
+        public String toString() {
+            return skippedCount == 0 ? String.valueOf(importedCount)
+                    : importedCount + " (skipped " + skippedCount + " that I couldn't use)";
+        }
+    }
+
+    /**
+     * Writes every task in {@code list} to {@code file}, in the format its extension names.
+     *
+     * @param list Tasks to export.
+     * @param file File to create or replace.
+     * @return The number of tasks written.
+     * @throws SidException If the extension names no exchange format or the file cannot be written.
+     */
+    public static int export(TodoList list, File file) throws SidException {
+        assert list != null : "TodoList to export cannot be null";
+        assert file != null : "Export file cannot be null";
+        ExchangeCodec codec = ExchangeFormat.fromPath(file.getPath()).getCodec();
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (Writer out = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file, false), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            codec.writeHeader(out);
+            // A snapshot does not change while it is written, so changes to the list need not wait for the file.
+            TaskSnapshot tasks = list.snapshot();
+            for (ToDo task : tasks) {
+                codec.writeRecord(out, TaskRecord.of(task));
+            }
+            return tasks.size();
+        } catch (IOException e) {
+            throw new SidException("Couldn't write " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Appends the tasks in {@code file}, in the format its extension names, to {@code list}, which is then
+     * saved once.
+     *
+     * <p>Malformed entries, tasks that are no longer valid (e.g., deadlines that have passed) and events that
+     * clash with another event are skipped, with a warning for the first two.
+     *
+     * @param list List to add the tasks to.
+     * @param file File to read.
+     * @return What was imported.
+     * @throws SidException If the extension names no exchange format or the file cannot be read. Tasks read
+     *                      before a read error are kept.
+     */
+    public static Summary importInto(TodoList list, File file) throws SidException {
+        assert list != null : "TodoList to import into cannot be null";
+        assert file != null : "Import file cannot be null";
+        ExchangeCodec codec = ExchangeFormat.fromPath(file.getPath()).getCodec();
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            TaskReader tasks = new TaskReader(codec, in);
+            int imported = list.addAll(tasks);
+            return new Summary(imported, tasks.invalidCount + tasks.readCount - imported);
+        } catch (IOException e) {
+            throw new SidException("Couldn't read " + file + ": " + e.getMessage());
+        } catch (UncheckedIOException e) {
+            throw new SidException("Couldn't read " + file + ": " + e.getCause().getMessage());
+        }
+    }
+
+    /** Reads tasks on demand, skipping entries that do not make valid tasks. */
+    private static class TaskReader implements Iterator<ToDo> {
+        private final ExchangeCodec codec;
+        private final BufferedReader in;
+        private ToDo next;
+        private boolean isDone;
+        private int readCount;
+        private int invalidCount;
+
+        TaskReader(ExchangeCodec codec, BufferedReader in) {
+            this.codec = codec;
+            this.in = in;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !isDone) {
+                try {
+                    TaskRecord record = codec.readRecord(in);
+                    if (record == null) {
+                        isDone = true;
+                    } else {
+                        next = record.toTask();
+                        readCount++;
+                    }
+                } catch (SidException e) {
+                    System.err.println("Skipping invalid entry: " + e.getMessage());
+                    invalidCount++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public ToDo next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ToDo task = next;
+            next = null;
+            return task;
+        }
+    }
+}
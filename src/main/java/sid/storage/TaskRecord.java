@@ -0,0 +1,431 @@
+package sid.storage;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Objects;
+
+import sid.enums.TaskType;
+import sid.exceptions.SidException;
+import sid.models.Deadline;
+import sid.models.Event;
+import sid.models.ToDo;
+
+/**
+ * Storage-level form of a single task, independent of the file format it is read from or written to.
+ *
+ * <p>Unlike {@link ToDo} and its subclasses, a record only checks the shape of its fields, so records of
+ * tasks whose dates have already passed can still be copied between files and formats unchanged.
+ * {@link #toTask()} applies the full model validation.
+ *
+ * <p>The text form is the pipe-separated line format of the original task file, with ISO-8601 dates:
+ * <pre>
+ * T | 0|1 | description
+ * D | 0|1 | description | 2019-12-02T18:00
+ * E | 0|1 | description | 2019-12-02T18:00 | 2019-12-02T20:00
+ * </pre>
+ * A done task may carry its completion time as one more trailing field, e.g.
+ * {@code T | 1 | read book | 2019-12-01T09:30}. Readers that predate it ignore the extra field, and an
+ * unreadable completion time is dropped rather than rejecting the line. The task's stable id comes last, as
+ * {@code #} and a number, e.g. {@code T | 0 | read book | #12}; it is likewise ignored by older readers, and
+ * a task without one is given a new id when it is loaded.
+ */
+public class TaskRecord {
+    private static final DateTimeFormatter ISO_DT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final DateTimeFormatter DISPLAY_DATE_FMT = DateTimeFormatter.ofPattern("MMM dd yyyy");
+    private static final DateTimeFormatter DISPLAY_DATE_TIME_FMT = DateTimeFormatter.ofPattern("MMM dd yyyy HH:mm");
+
+    /** Minimum fields required in storage format: type, done flag, description. */
+    private static final int MIN_STORAGE_FIELDS = 3;
+
+    /** Fields required for deadline tasks: type, done flag, description, due date. */
+    private static final int DEADLINE_FIELDS = 4;
+
+    /** Fields required for event tasks: type, done flag, description, start date, end date. */
+    private static final int EVENT_FIELDS = 5;
+
+    private static final String DONE_FLAG = "1";
+
+    private static final String NOT_DONE_FLAG = "0";
+
+    /** Marks the id field of the text format. */
+    private static final String ID_PREFIX = "#";
+
+    private final TaskType type;
+    private final boolean isDone;
+    private final String description;
+
+    /** Due date of a deadline or start of an event; null for to-dos. */
+    private final LocalDateTime start;
+
+    /** End of an event; null for other types. */
+    private final LocalDateTime end;
+
+    /** When a done task was completed; null if not done or not known. */
+    private final LocalDateTime doneAt;
+
+    /** Stable task id; 0 if the task has none. */
+    private final int id;
+
+    /**
+     * Constructs a record from its fields, without a completion time.
+     *
+     * @param type        Task type.
+     * @param isDone      Completion flag.
+     * @param description Task description.
+     * @param start       Due date of a deadline or start of an event; null for to-dos.
+     * @param end         End of an event; null for other types.
+     */
+    public TaskRecord(TaskType type, boolean isDone, String description, LocalDateTime start, LocalDateTime end) {
+        this(type, isDone, description, start, end, null);
+    }
+
+    /**
+     * Constructs a record from its fields.
+     *
+     * @param type        Task type.
+     * @param isDone      Completion flag.
+     * @param description Task description.
+     * @param start       Due date of a deadline or start of an event; null for to-dos.
+     * @param end         End of an event; null for other types.
+     * @param doneAt      Completion time of a done task; null if not known.
+     */
+    public TaskRecord(TaskType type, boolean isDone, String description, LocalDateTime start, LocalDateTime end,
+            LocalDateTime doneAt) {
+        this(type, isDone, description, start, end, doneAt, 0);
+    }
+
+    /**
+     * Constructs a record from its fields, including the task's id.
+     *
+     * @param type        Task type.
+     * @param isDone      Completion flag.
+     * @param description Task description.
+     * @param start       Due date of a deadline or start of an event; null for to-dos.
+     * @param end         End of an event; null for other types.
+     * @param doneAt      Completion time of a done task; null if not known.
+     * @param id          Stable task id, or 0 for none.
+     */
+    public TaskRecord(TaskType type, boolean isDone, String description, LocalDateTime start, LocalDateTime end,
+            LocalDateTime doneAt, int id) {
+        assert type != null : "Task type cannot be null";
+        assert description != null : "Description cannot be null";
+        assert (type == TaskType.TODO) == (start == null) : "Only deadlines and events carry a date";
+        assert (type == TaskType.EVENT) == (end != null) : "Only events carry an end date";
+        assert doneAt == null || isDone : "Only done tasks have a completion time";
+        assert id >= 0 : "Task id cannot be negative";
+        this.type = type;
+        this.isDone = isDone;
+        this.description = description;
+        this.start = start;
+        this.end = end;
+        this.doneAt = doneAt;
+        this.id = id;
+    }
+
+    /**
+     * Returns the record describing the given task.
+     *
+     * @param t The task to describe.
+     * @return The record.
+     * @throws SidException If the task is of an unknown type.
+     * @see sid.enums.TaskType
+     */
+    public static TaskRecord of(ToDo t) throws SidException {
+        if (t instanceof Deadline) {
+            Deadline deadline = (Deadline) t;
+            return new TaskRecord(TaskType.DEADLINE, t.isDone(), t.getDescription(), deadline.getDueDate(), null,
+                    t.getDoneAt(), t.getId());
+        } else if (t instanceof Event) {
+            Event event = (Event) t;
+            return new TaskRecord(TaskType.EVENT, t.isDone(), t.getDescription(), event.getStartDate(),
+                    event.getEndDate(), t.getDoneAt(), t.getId());
+        } else if (t instanceof ToDo) {
+            return new TaskRecord(TaskType.TODO, t.isDone(), t.getDescription(), null, null, t.getDoneAt(),
+                    t.getId());
+        } else {
+            throw new SidException("Unknown task type: " + t.getClass().getName());
+        }
+    }
+
+    /**
+     * Builds the task this record describes.
+     *
+     * @return A new task instance.
+     * @throws SidException If the task fails model validation (e.g., its date is in the past).
+     */
+    public ToDo toTask() throws SidException {
+        ToDo task;
+        switch (type) {
+        case TODO:
+            task = new ToDo(description, isDone);
+            break;
+        case DEADLINE:
+            task = new Deadline(description, start, isDone);
+            break;
+        case EVENT:
+            task = new Event(description, start, end, isDone);
+            break;
+        default:
+            throw new SidException("Unsupported type: " + type);
+        }
+        task.setDoneAt(doneAt);
+        task.setId(id);
+        return task;
+    }
+
+    /**
+     * Builds a record from separately stored fields, as found in exported files.
+     *
+     * @param type        Type code ({@code T}, {@code D}, {@code E}) or name ({@code todo}, {@code deadline},
+     *                    {@code event}), in any case.
+     * @param done        {@code 1}, {@code 0}, {@code true} or {@code false}.
+     * @param description Task description.
+     * @param start       ISO-8601 due date or event start; null or blank for to-dos.
+     * @param end         ISO-8601 event end; null or blank for other types.
+     * @param doneAt      ISO-8601 completion time; null or blank if not known. Ignored unless done.
+     * @return The record.
+     * @throws SidException If a field is missing or malformed.
+     */
+    public static TaskRecord fromFields(String type, String done, String description, String start, String end,
+            String doneAt) throws SidException {
+        if (type == null || done == null || description == null || description.isBlank()) {
+            throw new SidException("Type, done flag and description are required");
+        }
+        TaskType taskType = parseType(type.trim());
+        boolean isDone;
+        switch (done.trim().toLowerCase()) {
+        case DONE_FLAG:
+        case "true":
+            isDone = true;
+            break;
+        case NOT_DONE_FLAG:
+        case "false":
+            isDone = false;
+            break;
+        default:
+            throw new SidException("Invalid done flag: " + done);
+        }
+        LocalDateTime startDate = taskType == TaskType.TODO ? null : parseRequiredDate(start);
+        LocalDateTime endDate = taskType == TaskType.EVENT ? parseRequiredDate(end) : null;
+        LocalDateTime doneDate = isDone && doneAt != null && !doneAt.isBlank() ? parseRequiredDate(doneAt) : null;
+        return new TaskRecord(taskType, isDone, description.trim(), startDate, endDate, doneDate);
+    }
+
+    private static TaskType parseType(String type) throws SidException {
+        for (TaskType candidate : TaskType.values()) {
+            if (candidate.toString().equalsIgnoreCase(type) || candidate.name().equalsIgnoreCase(type)) {
+                return candidate;
+            }
+        }
+        throw new SidException("Unknown task type: " + type);
+    }
+
+    private static LocalDateTime parseRequiredDate(String value) throws SidException {
+        if (value == null || value.isBlank()) {
+            throw new SidException("Missing date");
+        }
+        try {
+            return LocalDateTime.parse(value.trim(), ISO_DT);
+        } catch (DateTimeParseException e) {
+            throw new SidException("Invalid date: " + value);
+        }
+    }
+
+    /**
+     * Parses a line of the text format into a record.
+     *
+     * @param line A non-empty line from a text task file.
+     * @return The parsed record.
+     * @throws SidException If the line is malformed.
+     */
+    public static TaskRecord parseText(String line) throws SidException {
+        assert line != null : "Line to deserialize cannot be null";
+        String[] parts = line.split("\\s*\\|\\s*");
+        if (parts.length < MIN_STORAGE_FIELDS) {
+            throw new SidException("Too few fields");
+        }
+        String code = parts[0].trim();
+        String doneFlag = parts[1].trim();
+        if (!doneFlag.equals(DONE_FLAG) && !doneFlag.equals(NOT_DONE_FLAG)) {
+            throw new SidException("Invalid done flag");
+        }
+        boolean isDone = doneFlag.equals(DONE_FLAG);
+        String description = parts[2].trim();
+        int id = parseId(parts);
+        if (id > 0) {
+            parts = Arrays.copyOf(parts, parts.length - 1);
+        }
+
+        try {
+            TaskType type = TaskType.fromCode(code);
+            switch (type) {
+            case TODO:
+                return new TaskRecord(type, isDone, description, null, null,
+                        parseDoneAt(parts, MIN_STORAGE_FIELDS, isDone), id);
+
+            case DEADLINE:
+                // Guard clause for validation
+                if (parts.length < DEADLINE_FIELDS) {
+                    throw new SidException("Deadline missing 'by' field");
+                }
+                return new TaskRecord(type, isDone, description, LocalDateTime.parse(parts[3].trim(), ISO_DT), null,
+                        parseDoneAt(parts, DEADLINE_FIELDS, isDone), id);
+
+            case EVENT:
+                // Guard clause for validation
+                if (parts.length < EVENT_FIELDS) {
+                    throw new SidException("Event missing start/end fields");
+                }
+                return new TaskRecord(type, isDone, description, LocalDateTime.parse(parts[3].trim(), ISO_DT),
+                        LocalDateTime.parse(parts[4].trim(), ISO_DT), parseDoneAt(parts, EVENT_FIELDS, isDone), id);
+
+            default:
+                throw new SidException("Unsupported type: " + code);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new SidException(e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the id in the last field, or 0 if there is none. The description is never taken for the id.
+     */
+    private static int parseId(String[] parts) {
+        String last = parts[parts.length - 1].trim();
+        if (parts.length <= MIN_STORAGE_FIELDS || !last.startsWith(ID_PREFIX)) {
+            return 0;
+        }
+        try {
+            int id = Integer.parseInt(last.substring(ID_PREFIX.length()));
+            return id > 0 ? id : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /** Returns the optional completion time after the type's fields, or null if absent or unreadable. */
+    private static LocalDateTime parseDoneAt(String[] parts, int index, boolean isDone) {
+        if (!isDone || parts.length <= index) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(parts[index].trim(), ISO_DT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns this record as a line of the text format, without a line terminator.
+     *
+     * @return The serialized line.
+     */
+    public String toText() {
+        String base = type.toString() + " | " + (isDone ? DONE_FLAG : NOT_DONE_FLAG) + " | " + description;
+        switch (type) {
+        case DEADLINE:
+            base += " | " + start.format(ISO_DT);
+            break;
+        case EVENT:
+            base += " | " + start.format(ISO_DT) + " | " + end.format(ISO_DT);
+            break;
+        default:
+            break;
+        }
+        if (doneAt != null) {
+            base += " | " + doneAt.format(ISO_DT);
+        }
+        return id == 0 ? base : base + " | " + ID_PREFIX + id;
+    }
+
+    /**
+     * Returns the record as the task would be shown in a list, e.g. {@code [D][X] return book (by: Dec 02 2019)}.
+     *
+     * <p>Unlike {@code toTask().toString()}, this works for tasks whose dates have already passed.
+     *
+     * @return The display form.
+     */
+    public String toDisplayString() {
+        String base = "[" + type + "][" + (isDone ? "X" : " ") + "] " + description;
+        switch (type) {
+        case DEADLINE:
+            return base + " (by: " + formatForDisplay(start) + ")";
+        case EVENT:
+            return base + " (from: " + formatForDisplay(start) + ", to: " + formatForDisplay(end) + ")";
+        default:
+            return base;
+        }
+    }
+
+    private static String formatForDisplay(LocalDateTime dt) {
+        return (dt.getHour() == 0 && dt.getMinute() == 0)
+                ? dt.toLocalDate().format(DISPLAY_DATE_FMT)
+                : dt.format(DISPLAY_DATE_TIME_FMT);
+    }
+
+    public TaskType getType() {
+        return this.type;
+    }
+
+    public boolean isDone() {
+        return this.isDone;
+    }
+
+    public String getDescription() {
+        return this.description;
+    }
+
+    public LocalDateTime getStart() {
+        return this.start;
+    }
+
+    public LocalDateTime getEnd() {
+        return this.end;
+    }
+
+    public LocalDateTime getDoneAt() {
+        return this.doneAt;
+    }
+
+    /** Returns the stable task id, or 0 if the task has none. */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Returns whether both records describe the same task, whether or not it is done.
+     *
+     * @param other Record to compare with.
+     * @return True if the type, description and dates match; ids are not compared.
+     */
+    public boolean isSameTask(TaskRecord other) {
+        return type == other.type && description.equals(other.description) && Objects.equals(start, other.start)
+                && Objects.equals(end, other.end);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof TaskRecord)) {
+            return false;
+        }
+        TaskRecord that = (TaskRecord) other;
+        return type == that.type && isDone == that.isDone && description.equals(that.description)
+                && Objects.equals(start, that.start) && Objects.equals(end, that.end)
+                && Objects.equals(doneAt, that.doneAt) && id == that.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, isDone, description, start, end, doneAt, id);
+    }
+
+    @Override
+    public String toString() {
+        return toText();
+    }
+}
@@ -0,0 +1,707 @@
+package sid.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.CRC32C;
+
+import sid.enums.TaskType;
+import sid.exceptions.SidException;
+import sid.models.ToDo;
+
+/**
+ * Codec for the original pipe-separated text format, one {@link TaskRecord#toText() record} per line.
+ *
+ * <p>Optional whitespace is allowed around the {@code |} separators and blank lines are ignored.
+ *
+ * <p>Each line ends with a CRC32C of the rest of the line, as a last field of {@code *} and eight hex digits
+ * (e.g. {@code T | 0 | read book | *4833030a}), so that damage the parser would not notice, such as a flipped
+ * done flag, is caught. A line whose checksum does not match is skipped like any other corrupted line. Being
+ * last, the field is ignored by older versions, which read only the fields they know. Lines without a
+ * checksum, e.g. from older versions or added by hand, are read unchecked; the checksum must be removed
+ * when editing a line by hand. Only lines with at least three separators, including the checksum's, can
+ * have one, so a to-do described as {@code *} and eight hex digits is not taken for a checksum. Checksums
+ * are checked in the same parallel chunks that parse the file, and {@link #verify(File)} checks them
+ * without parsing anything else.
+ *
+ * <p>Reading scans raw bytes for line breaks and {@code |} separators instead of splitting decoded lines,
+ * so a well-formed line costs one {@code String} (its description) plus its dates, which are parsed from
+ * their fixed-width ISO-8601 form directly. Files are memory-mapped, so startup on a large file does not
+ * first copy it onto the heap. Any line the fast path does not recognise is decoded and handed to
+ * {@link TaskRecord#parseText(String)}, so the accepted syntax and error messages stay the same.
+ */
+public class TextCodec implements TaskCodec {
+    /** Files are read in windows of at most this many bytes, each ending on a line break. */
+    private static final int WINDOW_SIZE = 1 << 28;
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    /** Streams are read in windows of this many bytes. */
+    private static final int STREAM_WINDOW_SIZE = 1 << 20;
+
+    /** Files smaller than this are read onto the heap, which is cheaper than setting up a mapping. */
+    private static final int MAP_THRESHOLD = 1 << 20;
+
+    /**
+     * Mapped files stay mapped until the buffer is garbage collected, and Windows refuses to overwrite a
+     * mapped file, so the next save would fail there. Other systems allow it.
+     */
+    private static final boolean CAN_MAP = !System.getProperty("os.name", "").startsWith("Windows");
+
+    /** Buffers at least this large are parsed in parallel chunks. */
+    private static final int PARALLEL_THRESHOLD = 1 << 22;
+
+    /** Smallest chunk worth handing to another thread. */
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    /**
+     * Separators needed to delimit the seven fields of a done event with its completion time and id, and a
+     * checksum.
+     */
+    private static final int MAX_SEPARATORS = 8;
+
+    /** Fewest separators in a line with a checksum: those of a to-do's three fields and the checksum's. */
+    private static final int MIN_CHECKED_SEPARATORS = 3;
+
+    /** Written between a line's record and the hex digits of its checksum. */
+    static final String CHECKSUM_MARK = " | *";
+
+    /** Hex digits of a line checksum. */
+    static final int CHECKSUM_DIGITS = 8;
+
+    /** Length of a line's checksum field, including the {@link #CHECKSUM_MARK} before it. */
+    private static final int CHECKSUM_FIELD_LENGTH = CHECKSUM_MARK.length() + CHECKSUM_DIGITS;
+
+    private static final byte[] CHECKSUM_MARK_BYTES = CHECKSUM_MARK.getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    /** Length of {@code yyyy-MM-ddTHH:mm}. */
+    private static final int MINUTE_DATE_LENGTH = 16;
+
+    /** Length of {@code yyyy-MM-ddTHH:mm:ss}. */
+    private static final int SECOND_DATE_LENGTH = 19;
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The stream is read in windows of {@value #STREAM_WINDOW_SIZE} bytes, each parsed up to its last
+     * line break, so memory use does not grow with the stream beyond the records themselves.
+     */
+    @Override
+    public List<TaskRecord> read(InputStream in) throws IOException {
+        List<TaskRecord> records = new ArrayList<>();
+        forEachWindow(in, window -> records.addAll(read(window)));
+        return records;
+    }
+
+    @Override
+    public List<TaskRecord> read(File file) throws IOException {
+        List<TaskRecord> records = new ArrayList<>();
+        forEachWindow(file, window -> records.addAll(read(window)));
+        return records;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Tasks are built in the same chunks that parse the lines, so a line that fails model validation is
+     * reported like one that fails to parse: with the line as it appears in the file, in its place among the
+     * other warnings.
+     */
+    @Override
+    public List<ToDo> readTasks(InputStream in) throws IOException {
+        List<ToDo> tasks = new ArrayList<>();
+        forEachWindow(in, window -> tasks.addAll(readTasks(window)));
+        return tasks;
+    }
+
+    @Override
+    public List<ToDo> readTasks(File file) throws IOException {
+        List<ToDo> tasks = new ArrayList<>();
+        forEachWindow(file, window -> tasks.addAll(readTasks(window)));
+        return tasks;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Only checksummed lines are checked, and only their checksums: fields are not parsed. Line numbers
+     * in the report count every line, including blank ones.
+     */
+    @Override
+    public IntegrityReport verify(InputStream in) throws IOException {
+        IntegrityReport report = new IntegrityReport("line");
+        forEachWindow(in, window -> report.append(verify(window)));
+        return report;
+    }
+
+    @Override
+    public IntegrityReport verify(File file) throws IOException {
+        IntegrityReport report = new IntegrityReport("line");
+        forEachWindow(file, window -> report.append(verify(window)));
+        return report;
+    }
+
+    /** Handles one window of a file, which ends on a line break unless it is the last one. */
+    private interface WindowHandler {
+        void handle(ByteBuffer window);
+    }
+
+    private static void forEachWindow(InputStream in, WindowHandler handler) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(STREAM_WINDOW_SIZE);
+        while (true) {
+            int count = in.read(window.array(), window.position(), window.remaining());
+            if (count < 0) {
+                window.flip();
+                handler.handle(window);
+                return;
+            }
+            window.position(window.position() + count);
+            if (window.hasRemaining()) {
+                continue;
+            }
+            window.flip();
+            int end = lastLineBreak(window) + 1;
+            if (end == 0) {
+                // A single line fills the window, so make room for the rest of it.
+                window = ByteBuffer.allocate(window.capacity() * 2).put(window);
+                continue;
+            }
+            window.limit(end);
+            handler.handle(window);
+            window.limit(window.capacity()).position(end);
+            window.compact();
+        }
+    }
+
+    private static void forEachWindow(File file, WindowHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                int length = (int) Math.min(size - position, WINDOW_SIZE);
+                ByteBuffer window = readWindow(channel, position, length);
+                int end = length;
+                if (position + length < size) {
+                    // Leave a line cut off by the window for the next one.
+                    end = lastLineBreak(window) + 1;
+                    if (end == 0) {
+                        throw new IOException("Line too long at byte " + position);
+                    }
+                    window.limit(end);
+                }
+                handler.handle(window);
+                position += end;
+            }
+        }
+    }
+
+    private static ByteBuffer readWindow(FileChannel channel, long position, int length) throws IOException {
+        if (CAN_MAP && length >= MAP_THRESHOLD) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static int lastLineBreak(ByteBuffer buffer) {
+        for (int i = buffer.limit() - 1; i >= 0; i--) {
+            if (isLineBreak(buffer.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parses every line between the buffer's position and limit.
+     *
+     * <p>Lines end at {@code \n}, {@code \r} or {@code \r\n}, as with {@link java.io.BufferedReader#readLine()}.
+     * Corrupted lines are skipped with a warning to {@code System.err}.
+     *
+     * <p>Large buffers are cut into chunks at line breaks and the chunks are parsed in parallel on the
+     * common {@link ForkJoinPool}. Results and warnings are gathered per chunk and joined in file order, so
+     * the outcome is the same as a sequential read.
+     *
+     * @param buffer UTF-8 text; its position is not changed.
+     * @return The records, in file order.
+     */
+    public List<TaskRecord> read(ByteBuffer buffer) {
+        List<TaskRecord> records = new ArrayList<>();
+        for (Chunk chunk : inChunks(buffer, (from, to) -> readChunk(buffer, from, to, false))) {
+            chunk.report();
+            records.addAll(chunk.records);
+        }
+        return records;
+    }
+
+    /**
+     * Parses every line between the buffer's position and limit and builds its task, as
+     * {@link #read(ByteBuffer)} does for records. Lines whose records fail model validation are skipped with
+     * the same warning as corrupted ones, in file order.
+     *
+     * @param buffer UTF-8 text; its position is not changed.
+     * @return The tasks, in file order.
+     */
+    public List<ToDo> readTasks(ByteBuffer buffer) {
+        List<ToDo> tasks = new ArrayList<>();
+        for (Chunk chunk : inChunks(buffer, (from, to) -> readChunk(buffer, from, to, true))) {
+            chunk.report();
+            tasks.addAll(chunk.tasks);
+        }
+        return tasks;
+    }
+
+    /**
+     * Checks the checksums of every line between the buffer's position and limit, in parallel chunks as
+     * for {@link #read(ByteBuffer)}.
+     *
+     * @param buffer UTF-8 text; its position is not changed.
+     * @return The report, with line numbers counted from the buffer's position.
+     */
+    public IntegrityReport verify(ByteBuffer buffer) {
+        IntegrityReport report = new IntegrityReport("line");
+        for (IntegrityReport chunk : inChunks(buffer, (from, to) -> verifyChunk(buffer, from, to))) {
+            report.append(chunk);
+        }
+        return report;
+    }
+
+    /** Processes the lines in {@code [from, to)} of a buffer. */
+    private interface ChunkReader<T> {
+        T read(int from, int to);
+    }
+
+    /**
+     * Cuts the buffer into chunks at line breaks and runs {@code reader} on each, in parallel for large
+     * buffers. A few chunks per worker evens out chunks that happen to be slow.
+     *
+     * @return The results, in buffer order.
+     */
+    private static <T> List<T> inChunks(ByteBuffer buffer, ChunkReader<T> reader) {
+        int from = buffer.position();
+        int to = buffer.limit();
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (to - from < PARALLEL_THRESHOLD || parallelism < 2) {
+            return List.of(reader.read(from, to));
+        }
+
+        long chunkSize = Math.max(MIN_CHUNK_SIZE, (long) (to - from) / (parallelism * CHUNKS_PER_WORKER));
+        List<ForkJoinTask<T>> chunks = new ArrayList<>();
+        int chunkStart = from;
+        while (chunkStart < to) {
+            int chunkEnd = nextLineStart(buffer, (int) Math.min(to, chunkStart + chunkSize), to);
+            int start = chunkStart;
+            chunks.add(ForkJoinPool.commonPool().submit(() -> reader.read(start, chunkEnd)));
+            chunkStart = chunkEnd;
+        }
+
+        List<T> results = new ArrayList<>(chunks.size());
+        for (ForkJoinTask<T> chunk : chunks) {
+            results.add(chunk.join());
+        }
+        return results;
+    }
+
+    /** Returns the position just after the first line break at or after {@code from}, or {@code to}. */
+    private static int nextLineStart(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (isLineBreak(buffer.get(i))) {
+                return i + 1;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Parses the lines in {@code [from, to)}, which must start at a line start and end after a line break,
+     * building tasks rather than keeping records if {@code isBuildingTasks}.
+     */
+    private static Chunk readChunk(ByteBuffer buffer, int from, int to, boolean isBuildingTasks) {
+        Chunk chunk = new Chunk(isBuildingTasks);
+        int[] separators = new int[MAX_SEPARATORS];
+        int lineStart = from;
+        while (lineStart < to) {
+            int count = 0;
+            int lineEnd = lineStart;
+            for (; lineEnd < to; lineEnd++) {
+                byte b = buffer.get(lineEnd);
+                if (isLineBreak(b)) {
+                    break;
+                }
+                if (b == '|' && count < MAX_SEPARATORS) {
+                    separators[count++] = lineEnd;
+                }
+            }
+            readLine(buffer, lineStart, lineEnd, separators, count, chunk);
+            lineStart = lineEnd + 1;
+        }
+        return chunk;
+    }
+
+    private static void readLine(ByteBuffer buffer, int start, int end, int[] separators, int count, Chunk chunk) {
+        int from = skipBlanks(buffer, start, end);
+        int to = trimBlanks(buffer, from, end);
+        if (from == to) {
+            return;
+        }
+        int recordTo = to;
+        if (hasChecksum(buffer, from, to, count)) {
+            if (!isChecksumValid(buffer, from, to, chunk.crc)) {
+                chunk.skip(decode(buffer, from, to), "Checksum mismatch");
+                return;
+            }
+            recordTo = trimBlanks(buffer, from, to - CHECKSUM_FIELD_LENGTH);
+            // Past MAX_SEPARATORS the checksum's separator was not recorded; the general parser takes those.
+            boolean isLastSeparator = separators[count - 1] == to - CHECKSUM_FIELD_LENGTH + 1;
+            count = isLastSeparator ? count - 1 : 0;
+        }
+
+        TaskRecord record = parseFast(buffer, from, recordTo, separators, count);
+        if (record == null) {
+            try {
+                record = TaskRecord.parseText(decode(buffer, from, recordTo));
+            } catch (SidException e) {
+                chunk.skip(decode(buffer, from, to), e.getMessage());
+                return;
+            }
+        }
+        if (!chunk.isBuildingTasks) {
+            chunk.records.add(record);
+            return;
+        }
+        try {
+            chunk.tasks.add(record.toTask());
+        } catch (SidException e) {
+            chunk.skip(decode(buffer, from, to), e.getMessage());
+        }
+    }
+
+    /** Checks the line checksums in {@code [from, to)}, which must start at a line start. */
+    private static IntegrityReport verifyChunk(ByteBuffer buffer, int from, int to) {
+        IntegrityReport report = new IntegrityReport("line");
+        CRC32C crc = new CRC32C();
+        int lineStart = from;
+        while (lineStart < to) {
+            int lineEnd = lineStart;
+            int separatorCount = 0;
+            for (; lineEnd < to && !isLineBreak(buffer.get(lineEnd)); lineEnd++) {
+                if (buffer.get(lineEnd) == '|') {
+                    separatorCount++;
+                }
+            }
+            boolean isCrLf = lineEnd == lineStart && lineStart > from && buffer.get(lineStart - 1) == '\r'
+                    && buffer.get(lineStart) == '\n';
+            int lineFrom = skipBlanks(buffer, lineStart, lineEnd);
+            int lineTo = trimBlanks(buffer, lineFrom, lineEnd);
+            if (isCrLf) {
+                // The second half of a CRLF, not a line of its own.
+            } else if (lineFrom == lineTo) {
+                report.addBlank();
+            } else if (!hasChecksum(buffer, lineFrom, lineTo, separatorCount)) {
+                report.addUnchecked();
+            } else if (isChecksumValid(buffer, lineFrom, lineTo, crc)) {
+                report.addChecked();
+            } else {
+                report.addCorrupted();
+            }
+            lineStart = lineEnd + 1;
+        }
+        return report;
+    }
+
+    /**
+     * Returns whether a trimmed line with the given number of separators ends with a checksum field:
+     * {@code " | *"} and eight hex digits.
+     */
+    private static boolean hasChecksum(ByteBuffer buffer, int from, int to, int separatorCount) {
+        if (separatorCount < MIN_CHECKED_SEPARATORS || to - from <= CHECKSUM_FIELD_LENGTH) {
+            return false;
+        }
+        int mark = to - CHECKSUM_FIELD_LENGTH;
+        for (int i = 0; i < CHECKSUM_MARK_BYTES.length; i++) {
+            if (buffer.get(mark + i) != CHECKSUM_MARK_BYTES[i]) {
+                return false;
+            }
+        }
+        for (int i = to - CHECKSUM_DIGITS; i < to; i++) {
+            if (Character.digit(buffer.get(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns whether a checksummed line's checksum matches the rest of the trimmed line. */
+    private static boolean isChecksumValid(ByteBuffer buffer, int from, int to, CRC32C crc) {
+        long expected = 0;
+        for (int i = to - CHECKSUM_DIGITS; i < to; i++) {
+            expected = (expected << 4) | Character.digit(buffer.get(i), 16);
+        }
+        ByteBuffer record = buffer.duplicate();
+        record.limit(trimBlanks(buffer, from, to - CHECKSUM_FIELD_LENGTH)).position(from);
+        crc.reset();
+        crc.update(record);
+        return crc.getValue() == expected;
+    }
+
+    /** Records or tasks parsed from one chunk, with the warnings for lines that were skipped, in line order. */
+    private static class Chunk {
+        private final boolean isBuildingTasks;
+        private final List<TaskRecord> records = new ArrayList<>();
+        private final List<ToDo> tasks = new ArrayList<>();
+        private final List<String> warnings = new ArrayList<>();
+        private final CRC32C crc = new CRC32C();
+
+        private Chunk(boolean isBuildingTasks) {
+            this.isBuildingTasks = isBuildingTasks;
+        }
+
+        /** Notes that a line was skipped, quoting it as it appears in the file. */
+        private void skip(String line, String reason) {
+            warnings.add("Skipping corrupted line: " + line + ": " + reason);
+        }
+
+        /** Prints the warnings to {@code System.err}. */
+        private void report() {
+            for (String warning : warnings) {
+                System.err.println(warning);
+            }
+        }
+    }
+
+    /**
+     * Parses a trimmed, canonical line without decoding it first.
+     *
+     * @return The record, or null if the line needs the general parser.
+     */
+    private static TaskRecord parseFast(ByteBuffer buffer, int from, int to, int[] separators, int count) {
+        if (count < 2 || buffer.get(to - 1) == '|') {
+            // Too few fields, or trailing empty fields, which the general parser drops before counting.
+            return null;
+        }
+        TaskType type = parseType(buffer, from, separators[0]);
+        int doneFrom = skipBlanks(buffer, separators[0] + 1, separators[1]);
+        int doneTo = trimBlanks(buffer, doneFrom, separators[1]);
+        if (type == null || doneTo - doneFrom != 1) {
+            return null;
+        }
+        byte doneFlag = buffer.get(doneFrom);
+        if (doneFlag != '0' && doneFlag != '1') {
+            return null;
+        }
+
+        int required = type == TaskType.TODO ? 3 : type == TaskType.DEADLINE ? 4 : 5;
+        if (count + 1 < required) {
+            return null;
+        }
+        int id = 0;
+        if (count >= required && buffer.get(skipBlanks(buffer, separators[count - 1] + 1, to)) == '#') {
+            id = parseId(buffer, separators[count - 1] + 1, to);
+            if (id <= 0) {
+                return null;
+            }
+            // The other fields end where the id starts.
+            count--;
+            to = separators[count];
+        }
+        int descriptionFrom = skipBlanks(buffer, separators[1] + 1, fieldEnd(separators, count, 2, to));
+        int descriptionTo = trimBlanks(buffer, descriptionFrom, fieldEnd(separators, count, 2, to));
+        LocalDateTime start = null;
+        LocalDateTime end = null;
+        if (type != TaskType.TODO) {
+            start = parseDate(buffer, separators[2] + 1, fieldEnd(separators, count, 3, to));
+            if (start == null) {
+                return null;
+            }
+        }
+        if (type == TaskType.EVENT) {
+            end = parseDate(buffer, separators[3] + 1, fieldEnd(separators, count, 4, to));
+            if (end == null) {
+                return null;
+            }
+        }
+        boolean isDone = doneFlag == '1';
+        LocalDateTime doneAt = null;
+        if (isDone && count >= required) {
+            doneAt = parseDate(buffer, separators[required - 1] + 1, fieldEnd(separators, count, required, to));
+            if (doneAt == null) {
+                return null;
+            }
+        }
+        String description = decode(buffer, descriptionFrom, descriptionTo);
+        return new TaskRecord(type, isDone, description, start, end, doneAt, id);
+    }
+
+    /** Parses a trimmed {@code #} and decimal id; returns 0 if it is malformed or out of range. */
+    private static int parseId(ByteBuffer buffer, int from, int to) {
+        from = skipBlanks(buffer, from, to) + 1;
+        to = trimBlanks(buffer, from, to);
+        long id = 0;
+        for (int i = from; i < to; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9 || id > Integer.MAX_VALUE) {
+                return 0;
+            }
+            id = id * 10 + digit;
+        }
+        return id > Integer.MAX_VALUE ? 0 : (int) id;
+    }
+
+    private static int fieldEnd(int[] separators, int count, int field, int lineEnd) {
+        return field < count ? separators[field] : lineEnd;
+    }
+
+    private static TaskType parseType(ByteBuffer buffer, int from, int to) {
+        int codeTo = trimBlanks(buffer, from, to);
+        if (codeTo - from != 1) {
+            return null;
+        }
+        switch (buffer.get(from)) {
+        case 'T':
+            return TaskType.TODO;
+        case 'D':
+            return TaskType.DEADLINE;
+        case 'E':
+            return TaskType.EVENT;
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Parses {@code yyyy-MM-ddTHH:mm} or {@code yyyy-MM-ddTHH:mm:ss}, the forms {@link TaskRecord#toText()}
+     * writes. Returns null for anything else, including out-of-range values.
+     */
+    private static LocalDateTime parseDate(ByteBuffer buffer, int from, int to) {
+        from = skipBlanks(buffer, from, to);
+        to = trimBlanks(buffer, from, to);
+        int length = to - from;
+        if (length != MINUTE_DATE_LENGTH && length != SECOND_DATE_LENGTH) {
+            return null;
+        }
+        if (buffer.get(from + 4) != '-' || buffer.get(from + 7) != '-' || buffer.get(from + 10) != 'T'
+                || buffer.get(from + 13) != ':' || (length == SECOND_DATE_LENGTH && buffer.get(from + 16) != ':')) {
+            return null;
+        }
+        int year = digits(buffer, from, 4);
+        int month = digits(buffer, from + 5, 2);
+        int day = digits(buffer, from + 8, 2);
+        int hour = digits(buffer, from + 11, 2);
+        int minute = digits(buffer, from + 14, 2);
+        int second = length == SECOND_DATE_LENGTH ? digits(buffer, from + 17, 2) : 0;
+        if ((year | month | day | hour | minute | second) < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /** Returns the value of {@code count} ASCII digits starting at {@code from}, or -1 if any is not a digit. */
+    private static int digits(ByteBuffer buffer, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static String decode(ByteBuffer buffer, int from, int to) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + from, to - from, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isLineBreak(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    /** Matches what {@link String#trim()} removes; UTF-8 continuation bytes are negative and never match. */
+    private static boolean isBlank(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    private static int skipBlanks(ByteBuffer buffer, int from, int to) {
+        while (from < to && isBlank(buffer.get(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimBlanks(ByteBuffer buffer, int from, int to) {
+        while (to > from && isBlank(buffer.get(to - 1))) {
+            to--;
+        }
+        return to;
+    }
+
+    @Override
+    public void write(OutputStream out, Iterable<TaskRecord> records) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, WRITE_BUFFER_SIZE);
+        CRC32C crc = new CRC32C();
+        for (TaskRecord record : records) {
+            buffered.write(encodeLine(record, crc));
+        }
+        buffered.flush();
+    }
+
+    @Override
+    public void writeRecord(OutputStream out, TaskRecord record) throws IOException {
+        out.write(encodeLine(record, new CRC32C()));
+    }
+
+    /** Returns the record's trimmed line, followed by the checksum of that text and a line break. */
+    private static byte[] encodeLine(TaskRecord record, CRC32C crc) {
+        byte[] text = record.toText().getBytes(StandardCharsets.UTF_8);
+        int end = text.length;
+        while (end > 0 && isBlank(text[end - 1])) {
+            end--;
+        }
+        crc.reset();
+        crc.update(text, 0, end);
+        long checksum = crc.getValue();
+
+        byte[] line = new byte[end + CHECKSUM_FIELD_LENGTH + LINE_SEPARATOR.length];
+        System.arraycopy(text, 0, line, 0, end);
+        System.arraycopy(CHECKSUM_MARK_BYTES, 0, line, end, CHECKSUM_MARK_BYTES.length);
+        for (int i = end + CHECKSUM_FIELD_LENGTH - 1; i >= end + CHECKSUM_MARK_BYTES.length; i--) {
+            line[i] = HEX_DIGITS[(int) (checksum & 0xF)];
+            checksum >>>= 4;
+        }
+        System.arraycopy(LINE_SEPARATOR, 0, line, end + CHECKSUM_FIELD_LENGTH, LINE_SEPARATOR.length);
+        return line;
+    }
+}
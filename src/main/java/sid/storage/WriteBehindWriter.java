@@ -0,0 +1,135 @@
+package sid.storage;
+
+/**
+ * Background thread that coalesces bursts of changes into occasional flushes.
+ *
+ * <p>Callers report each change through {@link #changed()} and return immediately. The writer thread
+ * waits until either {@code batchSize} changes are pending or {@code flushIntervalMillis} has passed
+ * since the first pending change, then runs the flush action once for the whole group. A shutdown hook
+ * flushes whatever is still pending when the JVM exits, unless {@link #close()} has already stopped the
+ * writer.
+ */
+public class WriteBehindWriter {
+    private final Runnable flushAction;
+    private final long flushIntervalMillis;
+    private final int batchSize;
+    private final Object lock = new Object();
+    private final Thread writer;
+    private final Thread shutdownHook;
+
+    private int pendingChanges;
+    private long firstPendingAtMillis;
+    private boolean isClosed;
+
+    /**
+     * Constructs and starts a write-behind writer.
+     *
+     * @param flushAction         Writes all pending changes; may be called from any thread.
+     * @param flushIntervalMillis Longest time a change may wait before being flushed.
+     * @param batchSize           Number of pending changes that triggers an early flush.
+     */
+    public WriteBehindWriter(Runnable flushAction, long flushIntervalMillis, int batchSize) {
+        assert flushAction != null : "Flush action cannot be null";
+        assert flushIntervalMillis > 0 : "Flush interval must be positive";
+        assert batchSize > 0 : "Batch size must be positive";
+        this.flushAction = flushAction;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.batchSize = batchSize;
+
+        this.writer = new Thread(this::runWriter, "sid-write-behind");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        this.shutdownHook = new Thread(this::flush, "sid-write-behind-shutdown");
+        Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+    }
+
+    /** Records that one more change is waiting to be flushed; once closed, flushes it on the calling thread. */
+    public void changed() {
+        synchronized (lock) {
+            if (!isClosed) {
+                if (pendingChanges == 0) {
+                    firstPendingAtMillis = System.currentTimeMillis();
+                }
+                pendingChanges++;
+                if (pendingChanges == 1 || pendingChanges >= batchSize) {
+                    lock.notifyAll();
+                }
+                return;
+            }
+        }
+        flushAction.run();
+    }
+
+    /** Flushes all pending changes on the calling thread, blocking until they are written. */
+    public void flush() {
+        synchronized (lock) {
+            pendingChanges = 0;
+        }
+        flushAction.run();
+    }
+
+    /**
+     * Stops the writer thread, flushes whatever is still pending on the calling thread and removes the
+     * shutdown hook. Waits for a flush the writer has already started. Does nothing if already closed.
+     */
+    public void close() {
+        synchronized (lock) {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+            lock.notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // The JVM is already shutting down, so the hook is running or about to; it only flushes again.
+        }
+    }
+
+    private void runWriter() {
+        while (true) {
+            try {
+                if (!awaitFlushDue()) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                flushAction.run();
+            } catch (RuntimeException e) {
+                System.err.println("Background save failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Blocks until the pending group is full or old enough, then claims it.
+     *
+     * @return False if the writer was closed instead; {@link #close()} then flushes what is pending.
+     */
+    private boolean awaitFlushDue() throws InterruptedException {
+        synchronized (lock) {
+            while (pendingChanges == 0 && !isClosed) {
+                lock.wait();
+            }
+            long remaining = firstPendingAtMillis + flushIntervalMillis - System.currentTimeMillis();
+            while (pendingChanges > 0 && pendingChanges < batchSize && remaining > 0 && !isClosed) {
+                lock.wait(remaining);
+                remaining = firstPendingAtMillis + flushIntervalMillis - System.currentTimeMillis();
+            }
+            if (isClosed) {
+                return false;
+            }
+            pendingChanges = 0;
+            return true;
+        }
+    }
+}
@@ -3,8 +3,8 @@ package sid.ui;
 import java.util.Scanner;
 
 import sid.enums.SidMsg;
+import sid.models.TaskPage;
 import sid.models.ToDo;
-import sid.models.TodoList;
 
 /**
  * Handles user interaction: reading input and printing formatted output.
@@ -41,10 +41,10 @@ public class Ui {
 
     // ---------- High-level task messages (used by Parser) ----------
 
-    /** Displays the current task list. */
-    public void showList(TodoList tasks) {
-        assert tasks != null : "TodoList cannot be null";
-        frame("Here are your tasks:\n" + tasks.toString());
+    /** Displays one page of the task list. */
+    public void showList(TaskPage page) {
+        assert page != null : "Page cannot be null";
+        frame("Here are your tasks:\n" + page);
     }
 
     /** Shows confirmation that a task has been added successfully*/
@@ -75,10 +75,10 @@ public class Ui {
         frame("OK, I've marked this task as not done yet:\n  " + task);
     }
 
-    /** Displays search results. */
-    public void showFind(TodoList foundTasks) {
-        assert foundTasks != null : "TodoList cannot be null";
-        frame("Here are the tasks I found:\n" + foundTasks.toString());
+    /** Displays one page of search results. */
+    public void showFind(TaskPage page) {
+        assert page != null : "Page cannot be null";
+        frame("Here are the tasks I found:\n" + page);
     }
 
     // ---------- Input plumbing ----------
@@ -177,4 +177,23 @@ public class DeleteCommandTest {
         assertEquals(ResponseMessage.DELETE_INVALID_NUMBER.getMessage(), exception.getMessage());
         assertEquals(3, tasks.getSize()); // List unchanged
     }
+
+    @Test
+    public void execute_selection_deletesInOnePassAndSavesOnce() throws SidException {
+        for (int i = 4; i <= 12; i++) {
+            tasks.add(new ToDo("Task " + i, false));
+        }
+        int savesBefore = storage.getSaveCalls();
+
+        CommandResult result = deleteCommand.execute("3,7,9-12", tasks);
+
+        assertEquals(ResponseMessage.DELETE_BATCH_SUCCESS.getMessage() + 6, result.getMessage());
+        assertEquals(6, tasks.getSize());
+        assertEquals("1. [T][ ] First task\n2. [T][X] Second task\n3. [T][ ] Task 4\n4. [T][ ] Task 5\n"
+                + "5. [T][ ] Task 6\n6. [T][ ] Task 8", tasks.toString());
+        assertEquals(savesBefore + 1, storage.getSaveCalls());
+        // Indexes are rebuilt for the new positions.
+        assertEquals(1, tasks.findTodos("Task 8").getSize());
+        assertEquals(6, tasks.positionOf(8));
+    }
 }
@@ -0,0 +1,107 @@
+package sid.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sid.exceptions.SidException;
+import sid.messages.ResponseMessage;
+import sid.models.TaskPage;
+import sid.models.ToDo;
+import sid.models.TodoList;
+import sid.stubs.StorageStub;
+
+/**
+ * Test cases for paging in ListCommand and FindCommand.
+ */
+public class ListCommandTest {
+    private TodoList tasks;
+
+    @BeforeEach
+    public void setUp() throws SidException {
+        tasks = new StorageStub().load();
+        for (int i = 1; i <= 250; i++) {
+            tasks.add(new ToDo((i % 2 == 0 ? "even " : "odd ") + "task " + i, false));
+        }
+    }
+
+    @Test
+    public void execute_noArguments_showsFirstPageWithCursor() throws SidException {
+        TaskPage page = new ListCommand().execute("", tasks).getPage();
+
+        assertEquals(PageOptions.DEFAULT_SIZE, page.getShown());
+        assertEquals(250, page.getTotal());
+        assertTrue(page.getLines().startsWith("1. [T][ ] odd task 1 #1\n"));
+        assertTrue(page.getLines().endsWith("\n100. [T][ ] even task 100 #100"));
+        assertTrue(page.toString().endsWith("(Showing 1-100 of 250. Add /after #100 for more.)"));
+    }
+
+    @Test
+    public void execute_pageAndSize_showsThatWindowNumberedByPosition() throws SidException {
+        TaskPage page = new ListCommand().execute("/size 20 /page 3", tasks).getPage();
+
+        assertEquals(41, page.getFirst());
+        assertEquals(20, page.getShown());
+        assertTrue(page.getLines().startsWith("41. [T][ ] odd task 41 #41\n"));
+        assertEquals(60, page.getNextAfterId());
+    }
+
+    @Test
+    public void execute_after_continuesPastDeletedTask() throws SidException {
+        tasks.delete(100);
+
+        TaskPage page = new ListCommand().execute("/after #100 /size 200", tasks).getPage();
+
+        assertEquals(100, page.getFirst());
+        assertTrue(page.getLines().startsWith("100. [T][ ] odd task 101 #101\n"));
+        assertEquals(150, page.getShown());
+        assertFalse(page.hasMore());
+        assertTrue(page.toString().endsWith("(Showing 100-249 of 249.)"));
+    }
+
+    @Test
+    public void execute_pagePastEnd_saysHowManyTasksThereAre() throws SidException {
+        CommandResult result = new ListCommand().execute("/page 9", tasks);
+
+        assertTrue(result.getPage().isEmpty());
+        assertEquals(ResponseMessage.PAGE_PAST_END.getMessage() + "250 tasks.", result.getMessage());
+    }
+
+    @Test
+    public void execute_badPagingOptions_throwsUsageError() {
+        ListCommand list = new ListCommand();
+
+        for (String arg : new String[] {"/page", "/page 0", "/size -1", "/after #x", "/page 2 /colour red"}) {
+            SidException e = assertThrows(SidException.class, () -> list.execute(arg, tasks));
+            assertEquals(ResponseMessage.PAGE_USAGE_ERROR.getMessage(), e.getMessage());
+        }
+    }
+
+    @Test
+    public void find_pagesThroughMatches_numberedFromOne() throws SidException {
+        FindCommand find = new FindCommand();
+
+        TaskPage first = find.execute("even /size 50", tasks).getPage();
+        TaskPage next = find.execute("even /size 50 /after #" + first.getNextAfterId(), tasks).getPage();
+
+        assertEquals(125, first.getTotal());
+        assertTrue(first.getLines().startsWith("1. [T][ ] even task 2 #2\n"));
+        assertEquals(100, first.getNextAfterId());
+        assertTrue(next.getLines().startsWith("51. [T][ ] even task 102 #102\n"));
+        assertEquals(find.execute("even /page 2 /size 50", tasks).getMessage(),
+                find.execute("even /after #100 /size 50", tasks).getMessage());
+    }
+
+    @Test
+    public void find_queryWithSlash_isNotTakenForOption() throws SidException {
+        tasks.add(new ToDo("read a/b testing notes", false));
+
+        TaskPage page = new FindCommand().execute("a/b", tasks).getPage();
+
+        assertEquals(1, page.getTotal());
+    }
+}
@@ -150,4 +150,68 @@ public class MarkCommandTest {
         assertEquals("First task", result1.getTask().getDescription());
         assertEquals("First task", result2.getTask().getDescription());
     }
+
+    @Test
+    public void execute_taskId_marksThatTaskWhereverItMoved() throws SidException {
+        int id = tasks.getTodo(2).getId();
+        tasks.delete(1);
+
+        CommandResult result = markCommand.execute("#" + id, tasks);
+
+        assertEquals("Second task", result.getTask().getDescription());
+        assertTrue(tasks.getTodo(1).isDone());
+    }
+
+    @Test
+    public void execute_unknownTaskId_throwsException() {
+        for (String arg : new String[] {"#99", "#0", "#-1"}) {
+            SidException exception = assertThrows(SidException.class, () -> markCommand.execute(arg, tasks));
+            assertEquals(ResponseMessage.INVALID_TASK_ID.getMessage(), exception.getMessage());
+        }
+    }
+
+    @Test
+    public void execute_rangesAndIds_marksEveryTaskAndSavesOnce() throws SidException {
+        for (int i = 4; i <= 12; i++) {
+            tasks.add(new ToDo("Task " + i, false));
+        }
+        int savesBefore = storage.getSaveCalls();
+
+        CommandResult result = markCommand.execute("1, 5-7,#10,6-8", tasks);
+
+        assertEquals(null, result.getTask());
+        // Tasks 1, 5, 6, 7, 8 and 10; task 3 was already done and is not counted.
+        assertEquals(ResponseMessage.MARK_BATCH_SUCCESS.getMessage() + 6, result.getMessage());
+        for (int i = 1; i <= 12; i++) {
+            boolean isSelected = i == 1 || i == 3 || (i >= 5 && i <= 8) || i == 10;
+            assertEquals(isSelected, tasks.getTodo(i).isDone(), "task " + i);
+        }
+        assertEquals(savesBefore + 1, storage.getSaveCalls());
+    }
+
+    @Test
+    public void execute_find_marksEveryMatch() throws SidException {
+        tasks.add(new ToDo("pay invoice 7", false));
+        tasks.add(new ToDo("file invoice 8", false));
+
+        markCommand.execute("/find invoice", tasks);
+
+        assertTrue(tasks.getTodo(4).isDone());
+        assertTrue(tasks.getTodo(5).isDone());
+        assertEquals(false, tasks.getTodo(1).isDone());
+    }
+
+    @Test
+    public void execute_rangePastEnd_marksNothing() throws SidException {
+        int savesBefore = storage.getSaveCalls();
+
+        SidException exception = assertThrows(SidException.class, () -> markCommand.execute("1-2,2-999999999999",
+                tasks));
+
+        assertEquals(ResponseMessage.INVALID_TASK_NUMBER.getMessage(), exception.getMessage());
+        assertEquals(false, tasks.getTodo(1).isDone());
+        assertEquals(savesBefore, storage.getSaveCalls());
+        assertThrows(SidException.class, () -> markCommand.execute("3-1", tasks));
+        assertThrows(SidException.class, () -> markCommand.execute("0-2", tasks));
+    }
 }
@@ -0,0 +1,115 @@
+package sid.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sid.exceptions.SidException;
+import sid.messages.ResponseMessage;
+import sid.models.Deadline;
+import sid.models.TaskPage;
+import sid.models.ToDo;
+import sid.models.TodoList;
+import sid.stubs.StorageStub;
+
+/**
+ * Test cases for UpcomingCommand class.
+ */
+public class UpcomingCommandTest {
+    private UpcomingCommand upcomingCommand;
+    private TodoList tasks;
+    private LocalDateTime now;
+
+    @BeforeEach
+    public void setUp() throws SidException {
+        upcomingCommand = new UpcomingCommand();
+        tasks = new StorageStub().load();
+        now = LocalDateTime.now().withNano(0);
+
+        tasks.add(new Deadline("file taxes", now.plusDays(10), false));
+        tasks.add(new ToDo("water plants", false));
+        tasks.add(new Deadline("pay rent", now.plusDays(2), false));
+        tasks.add(new Deadline("return book", now.plusHours(5), false));
+        tasks.add(new Deadline("old essay", now.plusDays(1), true));
+    }
+
+    @Test
+    public void execute_noArguments_listsPendingDeadlinesByDueDate() throws SidException {
+        CommandResult result = upcomingCommand.execute("", tasks);
+
+        String[] lines = result.getPage().getLines().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("1. [D][ ] return book"));
+        assertTrue(lines[1].startsWith("2. [D][ ] pay rent"));
+        assertTrue(lines[2].startsWith("3. [D][ ] file taxes"));
+        assertEquals(ResponseMessage.UPCOMING_RESULTS.getMessage() + result.getPage().getLines(), result.getMessage());
+    }
+
+    @Test
+    public void execute_dueOrderDiffersFromListOrder_showsEachTasksOwnId() throws SidException {
+        TodoList list = new StorageStub().load();
+        list.add(new Deadline("late", now.plusDays(3), false));
+        list.add(new Deadline("soon", now.plusDays(1), false));
+
+        String lines = upcomingCommand.execute("", list).getPage().getLines();
+
+        assertEquals("1. " + list.getTodo(2) + " #" + list.getTodo(2).getId() + "\n"
+                + "2. " + list.getTodo(1) + " #" + list.getTodo(1).getId(), lines);
+    }
+
+    @Test
+    public void execute_countAndWithin_limitResults() throws SidException {
+        assertEquals(1, upcomingCommand.execute("1", tasks).getPage().getShown());
+        assertEquals(2, upcomingCommand.execute("/within 3d", tasks).getPage().getShown());
+        assertEquals(1, upcomingCommand.execute("5 /within 6h", tasks).getPage().getShown());
+        assertEquals(3, upcomingCommand.execute("/within 2w", tasks).getPage().getShown());
+    }
+
+    @Test
+    public void execute_followsMarkUnmarkAndDelete() throws SidException {
+        tasks.markDone(4);
+        assertTrue(upcomingCommand.execute("1", tasks).getPage().getLines().startsWith("1. [D][ ] pay rent"));
+
+        tasks.unmarkDone(5);
+        assertTrue(upcomingCommand.execute("2", tasks).getPage().getLines().startsWith("1. [D][ ] old essay"));
+
+        tasks.delete(5);
+        tasks.delete(3);
+        TaskPage upcoming = upcomingCommand.execute("", tasks).getPage();
+        assertEquals(1, upcoming.getShown());
+        assertTrue(upcoming.getLines().startsWith("1. [D][ ] file taxes"));
+
+        tasks.add(new Deadline("renew passport", now.plusDays(20), false));
+        assertEquals(2, upcomingCommand.execute("", tasks).getPage().getShown());
+    }
+
+    @Test
+    public void execute_noPendingDeadlines_saysSo() throws SidException {
+        CommandResult result = upcomingCommand.execute("/within 30m", tasks);
+
+        assertTrue(result.getPage().isEmpty());
+        assertEquals(ResponseMessage.UPCOMING_NOTHING.getMessage(), result.getMessage());
+    }
+
+    @Test
+    public void execute_invalidArguments_throwsUsageError() {
+        for (String arg : new String[] {"0", "-2", "soon", "/within", "/within 3", "/within 3y", "/within -1d"}) {
+            SidException exception = assertThrows(SidException.class, () -> upcomingCommand.execute(arg, tasks));
+            assertEquals(ResponseMessage.UPCOMING_USAGE_ERROR.getMessage(), exception.getMessage());
+        }
+    }
+
+    @Test
+    public void parseDuration_acceptsEachUnit() throws SidException {
+        assertEquals(Duration.ofMinutes(90), UpcomingCommand.parseDuration("90m"));
+        assertEquals(Duration.ofHours(12), UpcomingCommand.parseDuration(" 12H "));
+        assertEquals(Duration.ofDays(3), UpcomingCommand.parseDuration("3d"));
+        assertEquals(Duration.ofDays(14), UpcomingCommand.parseDuration("2w"));
+    }
+}
@@ -0,0 +1,100 @@
+package sid.models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for DescriptionPool.
+ */
+class DescriptionPoolTest {
+
+    private static byte[] bytes(String description) {
+        return description.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void share_keepsFirstCopyInline_andSharesTheSecondWithLaterOnes() {
+        DescriptionPool pool = new DescriptionPool(16);
+        byte[] leafText = bytes("read review pull request");
+        assertNull(pool.share(bytes("review pull request")));
+        pool.remember(leafText, 5, 19);
+
+        byte[] second = bytes("review pull request");
+        assertSame(second, pool.share(second));
+        assertEquals(0, pool.getHits());
+        assertSame(second, pool.share(bytes("review pull request")));
+        assertSame(second, pool.share(bytes("review pull request")));
+
+        assertEquals(4, pool.getLookups());
+        assertEquals(2, pool.getHits());
+        // The shared array costs 40 bytes and a reference; each later copy saves 19 bytes less a reference.
+        assertEquals(19 - 40 - 4 + 2 * (19 - 4), pool.getBytesSaved());
+    }
+
+    @Test
+    void share_keepsTableSize_whenDescriptionsCollide() {
+        DescriptionPool pool = new DescriptionPool(1);
+        pool.remember(bytes("standup"), 0, 7);
+        assertNull(pool.share(bytes("pay invoice")));
+        pool.remember(bytes("pay invoice"), 0, 11);
+
+        // The only slot now holds "pay invoice", so an equal "standup" is no longer found.
+        assertNull(pool.share(bytes("standup")));
+        assertEquals(0, pool.getHits());
+    }
+
+    @Test
+    void moved_keepsFindingDescription_inItsNewBuffer() {
+        DescriptionPool pool = new DescriptionPool(16);
+        byte[] oldText = bytes("standup");
+        byte[] newText = bytes("xstandup");
+        pool.remember(oldText, 0, 7);
+        pool.moved(oldText, 0, newText, 1, 7);
+        oldText[0] = 'S';
+
+        byte[] second = bytes("standup");
+        assertSame(second, pool.share(second));
+    }
+
+    @Test
+    void table_distinctDescriptions_shareNothing() {
+        TaskTable table = new TaskTable();
+        table.addAll(List.of(new ToDo("standup", false), new ToDo("pay invoice", false),
+                new ToDo("review PR", false)));
+
+        assertEquals(3, table.descriptions().getLookups());
+        assertEquals(0, table.descriptions().getHits());
+        assertEquals(0, table.descriptions().getBytesSaved());
+    }
+
+    @Test
+    void table_sharesRepeatedDescription_acrossLeaves_andCountsEachTaskOnce() {
+        TaskTable table = new TaskTable();
+        List<ToDo> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            tasks.add(new ToDo(i % 2 == 0 ? "standup" : "task " + i, false));
+        }
+        table.addAll(tasks);
+        table.add(new ToDo("standup", false));
+
+        // The first copy stays inline and the second becomes the shared one.
+        assertEquals(201, table.descriptions().getLookups());
+        assertEquals(99, table.descriptions().getHits());
+        table.removeIf(task -> task.getDescription().equals("task 1"));
+        table.removeAll(new int[] {0});
+        assertEquals(201, table.descriptions().getLookups());
+
+        assertEquals(199, table.size());
+        for (int position = 0; position < table.size(); position++) {
+            int i = position + 2;
+            assertEquals(i % 2 == 0 ? "standup" : "task " + i, table.get(position).getDescription());
+        }
+    }
+}
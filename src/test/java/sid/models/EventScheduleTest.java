@@ -0,0 +1,85 @@
+package sid.models;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import sid.exceptions.SidException;
+
+/**
+ * Differential tests of {@link EventSchedule} against checking every event.
+ */
+class EventScheduleTest {
+    private static final LocalDateTime BASE = LocalDateTime.now().plusYears(1).withNano(0);
+
+    /** Ids ascend in list order, as {@link TaskTable} gives them. */
+    private int nextId = 1;
+
+    @Test
+    void overlapping_matchesScan_underRandomAddsAndRemoves() throws SidException {
+        Random random = new Random(3);
+        List<ToDo> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            tasks.add(randomEvent(random, "seed" + i));
+        }
+        tasks.add(new ToDo("not an event", false));
+        EventSchedule schedule = new EventSchedule(tasks);
+
+        for (int round = 0; round < 3000; round++) {
+            if (random.nextInt(3) == 0 && !tasks.isEmpty()) {
+                ToDo removed = tasks.remove(random.nextInt(tasks.size()));
+                if (removed instanceof Event) {
+                    schedule.remove((Event) removed);
+                }
+            } else {
+                Event added = randomEvent(random, "event" + round);
+                tasks.add(added);
+                schedule.add(added);
+            }
+            Event probe = randomEvent(random, "probe");
+            assertArrayEquals(scan(tasks, probe), schedule.overlapping(probe));
+        }
+    }
+
+    @Test
+    void overlapping_ignoresEventsTouchingAtEndpoints() throws SidException {
+        Event morning = new Event("morning", BASE.plusHours(9), BASE.plusHours(10), false);
+        morning.setId(7);
+        EventSchedule schedule = new EventSchedule(List.of(morning));
+
+        assertArrayEquals(new int[0],
+                schedule.overlapping(new Event("next", BASE.plusHours(10), BASE.plusHours(11), false)));
+        assertArrayEquals(new int[0],
+                schedule.overlapping(new Event("before", BASE.plusHours(8), BASE.plusHours(9), false)));
+        assertArrayEquals(new int[] {7},
+                schedule.overlapping(new Event("inside", BASE.plusHours(9).plusMinutes(15), BASE.plusHours(9)
+                        .plusMinutes(30), false)));
+    }
+
+    /** Random event over a small range of hours, so that overlaps and shared start times are common. */
+    private Event randomEvent(Random random, String description) throws SidException {
+        LocalDateTime start = BASE.plusHours(random.nextInt(200));
+        Event event = new Event(description, start, start.plusHours(random.nextInt(6)), false);
+        event.setId(nextId++);
+        return event;
+    }
+
+    private static int[] scan(List<ToDo> tasks, Event probe) {
+        List<Integer> overlapping = new ArrayList<>();
+        for (ToDo task : tasks) {
+            if (task instanceof Event) {
+                Event event = (Event) task;
+                if (probe.getStartDate().isBefore(event.getEndDate())
+                        && event.getStartDate().isBefore(probe.getEndDate())) {
+                    overlapping.add(event.getId());
+                }
+            }
+        }
+        return overlapping.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
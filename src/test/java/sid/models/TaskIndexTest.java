@@ -0,0 +1,108 @@
+package sid.models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import sid.exceptions.SidException;
+import sid.stubs.StorageStub;
+
+/**
+ * Differential tests of indexed {@link TodoList#findTodos(String)} against a scan of every task.
+ */
+class TaskIndexTest {
+    private static final String ALPHABET = "abc d(e)";
+    private static final int ROUNDS = 2000;
+
+    @Test
+    void findTodos_matchesScan_underRandomChanges() throws SidException {
+        Random random = new Random(42);
+        TodoList list = new TodoList(new ArrayList<ToDo>(), new StorageStub());
+        for (int i = 0; i < 50; i++) {
+            list.add(new ToDo("t" + randomText(random, 12), random.nextBoolean()));
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            int size = list.getSize();
+            switch (random.nextInt(5)) {
+            case 0:
+                list.add(new ToDo("t" + randomText(random, 12), false));
+                break;
+            case 1:
+                if (size > 0) {
+                    list.delete(1 + random.nextInt(size));
+                }
+                break;
+            case 2:
+                if (size > 0) {
+                    list.markDone(1 + random.nextInt(size));
+                }
+                break;
+            case 3:
+                if (size > 0) {
+                    list.unmarkDone(1 + random.nextInt(size));
+                }
+                break;
+            default:
+                break;
+            }
+            String query = randomQuery(random, list);
+            assertEquals(scan(list, query), list.findTodos(query).toString(), "Query: '" + query + "'");
+        }
+    }
+
+    @Test
+    void findTodos_matchesScan_forSubstringsOfTasks() throws SidException {
+        Random random = new Random(7);
+        List<ToDo> tasks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            tasks.add(new ToDo("t" + randomText(random, 20), random.nextBoolean()));
+        }
+        TodoList list = new TodoList(tasks);
+        for (int round = 0; round < ROUNDS; round++) {
+            String query = randomQuery(random, list);
+            assertEquals(scan(list, query), list.findTodos(query).toString(), "Query: '" + query + "'");
+        }
+    }
+
+    /** Returns a piece of a random task's list form, or random text, in random case. */
+    private static String randomQuery(Random random, TodoList list) throws SidException {
+        String query;
+        if (list.getSize() > 0 && random.nextBoolean()) {
+            String text = list.getTodo(1 + random.nextInt(list.getSize())).toString();
+            int start = random.nextInt(text.length());
+            query = text.substring(start, Math.min(text.length(), start + 1 + random.nextInt(8)));
+        } else {
+            query = randomText(random, 6);
+        }
+        return random.nextBoolean() ? query.toUpperCase() : query;
+    }
+
+    private static String randomText(Random random, int maxLength) {
+        StringBuilder text = new StringBuilder();
+        int length = 1 + random.nextInt(maxLength);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+
+    /** The search {@code find} did before it was indexed. */
+    private static String scan(TodoList list, String keyword) throws SidException {
+        List<ToDo> results = new ArrayList<>();
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            String query = keyword.trim().toLowerCase();
+            for (int i = 1; i <= list.getSize(); i++) {
+                ToDo task = list.getTodo(i);
+                if (task.toString().toLowerCase().contains(query)) {
+                    results.add(task);
+                }
+            }
+        }
+        return new TodoList(results).toString();
+    }
+}
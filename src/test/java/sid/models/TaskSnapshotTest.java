@@ -0,0 +1,177 @@
+package sid.models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import sid.exceptions.SidException;
+import sid.storage.InMemoryStorage;
+
+/**
+ * Tests for TaskSnapshot, against an {@link ArrayList} copied at every version.
+ */
+class TaskSnapshotTest {
+    private static final LocalDateTime DUE = LocalDateTime.now().plusYears(1).withNano(0);
+
+    private final DescriptionPool pool = new DescriptionPool();
+
+    @Test
+    void changes_leaveEarlierVersionsIntact_andStayBalanced() throws SidException {
+        Random random = new Random(5);
+        TaskSnapshot snapshot = TaskSnapshot.EMPTY;
+        List<ToDo> expected = new ArrayList<>();
+        List<TaskSnapshot> versions = new ArrayList<>();
+        List<List<ToDo>> expectedVersions = new ArrayList<>();
+
+        for (int round = 0; round < 5000; round++) {
+            int choice = random.nextInt(10);
+            if (expected.isEmpty() || choice < 5) {
+                // Every third task repeats a description, which its row then shares.
+                ToDo task = randomTask(random, round % 3 == 0 ? "standup" : "task " + round);
+                task.setId(round + 1);
+                snapshot = snapshot.withAdded(task, pool);
+                expected.add(task);
+            } else if (choice < 8) {
+                int position = random.nextInt(expected.size());
+                snapshot = snapshot.withRemoved(position, pool);
+                expected.remove(position);
+            } else {
+                int position = random.nextInt(expected.size());
+                ToDo changed = snapshot.get(position);
+                if (changed.isDone()) {
+                    changed.unmarkTask();
+                } else {
+                    changed.markTask();
+                }
+                snapshot = snapshot.withStatus(position, changed.isDone(), changed.getDoneAt());
+                expected.set(position, changed);
+            }
+            if (round % 250 == 0) {
+                versions.add(snapshot);
+                expectedVersions.add(new ArrayList<>(expected));
+            }
+            assertEquals(expected.size(), snapshot.size());
+            // Leaves hold at least a few tasks each on average, so the tree stays shallow.
+            assertTrue(snapshot.height() <= 4);
+            if (!expected.isEmpty()) {
+                ToDo probe = expected.get(random.nextInt(expected.size()));
+                assertEquals(expected.indexOf(probe), snapshot.positionOf(probe.getId()));
+            }
+        }
+
+        assertEquals(expected, snapshot);
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals(expectedVersions.get(i), versions.get(i));
+            for (int position = 0; position < versions.get(i).size(); position++) {
+                assertEquals(expectedVersions.get(i).get(position), versions.get(i).get(position));
+            }
+        }
+    }
+
+    @Test
+    void views_keepEveryField_ofEachKindOfTask() throws SidException {
+        Deadline deadline = new Deadline("pay \u00e9l\u00e8ve fees", DUE.withNano(123456789), false);
+        deadline.markTask();
+        List<ToDo> tasks = List.of(new ToDo("a", false), deadline,
+                new Event("\uD83C\uDF89 party", DUE, DUE.plusHours(3), false), new ToDo("read", true));
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setId(i + 1);
+        }
+
+        TaskSnapshot snapshot = TaskSnapshot.EMPTY;
+        for (ToDo task : tasks) {
+            snapshot = snapshot.withAdded(task, pool);
+        }
+
+        assertEquals(tasks, snapshot);
+        assertEquals(tasks, TaskSnapshot.of(tasks));
+        Deadline view = (Deadline) snapshot.get(1);
+        assertEquals(deadline.getDueDate(), view.getDueDate());
+        assertEquals(deadline.getDoneAt(), view.getDoneAt());
+        assertEquals(-1, snapshot.positionOf(5));
+    }
+
+    @Test
+    void toString_reusesRenderedLines_andShowsEveryChange() throws SidException {
+        Random random = new Random(8);
+        TaskSnapshot snapshot = TaskSnapshot.EMPTY;
+        for (int i = 0; i < 300; i++) {
+            ToDo task = randomTask(random, "task " + i);
+            task.setId(i + 1);
+            snapshot = snapshot.withAdded(task, pool);
+        }
+        String listing = snapshot.toString();
+        assertSame(listing, snapshot.toString());
+        assertEquals(numbered(snapshot, false), listing);
+
+        snapshot = snapshot.withStatus(70, true, DUE).withRemoved(5, pool);
+        snapshot = snapshot.withAdded(new Deadline("new", DUE, false), pool);
+
+        assertEquals(numbered(snapshot, false), snapshot.toString());
+        assertEquals(numbered(snapshot, true), snapshot.toStringWithIds());
+    }
+
+    /** Numbers the tasks one by one, as the listing would be without any cached lines. */
+    private static String numbered(List<ToDo> tasks, boolean showIds) {
+        StringBuilder output = new StringBuilder();
+        for (int i = 0; i < tasks.size(); i++) {
+            output.append(i == 0 ? "" : "\n").append(i + 1).append(". ").append(tasks.get(i));
+            if (showIds) {
+                output.append(" #").append(tasks.get(i).getId());
+            }
+        }
+        return output.toString();
+    }
+
+    /** Random task of any kind, with dates that sometimes have fractions of a second. */
+    private static ToDo randomTask(Random random, String description) throws SidException {
+        LocalDateTime due = DUE.plusMinutes(random.nextInt(10000)).withNano(random.nextBoolean() ? 0 : 500);
+        switch (random.nextInt(3)) {
+        case 0:
+            return new Deadline(description, due, false);
+        case 1:
+            return new Event(description, due, due.plusHours(1), false);
+        default:
+            return new ToDo(description, random.nextBoolean());
+        }
+    }
+
+    @Test
+    void of_buildsBalancedTree() {
+        List<ToDo> tasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            tasks.add(new ToDo("task " + i, false));
+        }
+
+        TaskSnapshot snapshot = TaskSnapshot.of(tasks);
+
+        assertEquals(tasks, snapshot);
+        // 16 full leaves of 64 tasks under one branch.
+        assertEquals(2, snapshot.height());
+    }
+
+    @Test
+    void todoListSnapshot_isUnaffectedByLaterChanges() throws SidException {
+        TodoList list = new InMemoryStorage().load();
+        list.add(new ToDo("alpha", false));
+        list.add(new ToDo("beta", false));
+        TaskSnapshot before = list.snapshot();
+
+        list.markDone(1);
+        list.delete(2);
+        list.add(new ToDo("gamma", false));
+
+        assertEquals("1. [T][ ] alpha\n2. [T][ ] beta", before.toString());
+        assertFalse(before.get(0).isDone());
+        assertEquals("1. [T][X] alpha #1\n2. [T][ ] gamma #3", list.snapshot().toStringWithIds());
+        assertEquals(list.toString(), list.snapshot().toString());
+    }
+}
@@ -0,0 +1,194 @@
+package sid.models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import sid.enums.TaskType;
+import sid.exceptions.SidException;
+
+/**
+ * Measures the heap each task retains in a {@link TaskTable}, against the layout it replaced: one object per
+ * task in an {@link ArrayList}, with the fields {@link ToDo}, {@link Deadline} and {@link Event} had before
+ * tasks moved into columns, and its own description and dates, as loading a file made them.
+ *
+ * <p>Left out of the unit tests; run with {@code gradlew benchmark}. The heap in use is read after
+ * collecting garbage, so the figures are estimates, but the two layouts differ by far more than the noise.
+ */
+@Tag("benchmark")
+class TaskTableHeapBenchmark {
+    private static final int TASKS = 300_000;
+    private static final LocalDateTime START = LocalDateTime.now().plusYears(1).withSecond(0).withNano(0);
+
+    /** A task as it was kept before columns: a type, a description and a done flag, and its dates. */
+    private static class OldToDo {
+        protected TaskType type = TaskType.TODO;
+        private final String description;
+        private final boolean isDone;
+
+        OldToDo(String description, boolean isDone) {
+            this.description = description;
+            this.isDone = isDone;
+        }
+    }
+
+    private static class OldDeadline extends OldToDo {
+        private final LocalDateTime dueDate;
+
+        OldDeadline(String description, LocalDateTime dueDate, boolean isDone) {
+            super(description, isDone);
+            this.type = TaskType.DEADLINE;
+            this.dueDate = dueDate;
+        }
+    }
+
+    private static class OldEvent extends OldToDo {
+        private final LocalDateTime startDate;
+        private final LocalDateTime endDate;
+
+        OldEvent(String description, LocalDateTime startDate, LocalDateTime endDate, boolean isDone) {
+            super(description, isDone);
+            this.type = TaskType.EVENT;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+    }
+
+    @Test
+    void retainedHeapPerTask_distinctDescriptions_isAtLeastThreeTimesSmaller() {
+        double ratio = compare("distinct descriptions, none done", n -> "follow up on item " + n, n -> false);
+        assertTrue(ratio >= 3, "Columns should take at most a third of the heap, but took 1/" + ratio);
+    }
+
+    @Test
+    void retainedHeapPerTask_repeatedDescriptions_isMoreThanTwiceSmaller() {
+        String[] repeated = {"standup", "pay invoice", "review PR", "water plants", "team sync"};
+        double ratio = compare("half the descriptions repeated, a quarter done",
+                n -> n % 2 == 0 ? repeated[n / 2 % repeated.length] : "follow up on item " + n, n -> n % 4 == 0);
+        // Short repeated descriptions cost the old objects little, and the columns also keep when each done
+        // task was completed, which the old objects did not.
+        assertTrue(ratio >= 2.5, "Columns should take at most 40% of the heap, but took 1/" + ratio);
+    }
+
+    /** Prints and returns how many times more heap a task takes as an object than in columns. */
+    private static double compare(String scenario, IntFunction<String> descriptions, IntPredicate isDone) {
+        long before = usedHeap();
+        List<OldToDo> objects = new ArrayList<>();
+        for (int n = 0; n < TASKS; n++) {
+            objects.add(oldTask(n, descriptions.apply(n), isDone.test(n)));
+        }
+        double objectBytes = (double) (usedHeap() - before) / TASKS;
+        assertEquals(TASKS, objects.size());
+        objects = null;
+
+        before = usedHeap();
+        TaskTable table = new TaskTable();
+        table.addAll(new Generated(descriptions, isDone));
+        double columnBytes = (double) (usedHeap() - before) / TASKS;
+        assertEquals(TASKS, table.size());
+
+        double ratio = objectBytes / columnBytes;
+        System.out.printf("Retained heap per task (%s): %.1f bytes as objects, %.1f bytes in columns, "
+                + "%.1fx smaller%n", scenario, objectBytes, columnBytes, ratio);
+        return ratio;
+    }
+
+    /** Makes the n-th task as loading used to: a new string and newly parsed dates for every task. */
+    private static OldToDo oldTask(int n, String description, boolean isDone) {
+        String text = new String(description);
+        switch (n % 3) {
+        case 0:
+            return new OldToDo(text, isDone);
+        case 1:
+            return new OldDeadline(text, due(n), isDone);
+        default:
+            return new OldEvent(text, due(n), LocalDateTime.parse(due(n).plusHours(1).toString()), isDone);
+        }
+    }
+
+    private static LocalDateTime due(int n) {
+        return LocalDateTime.parse(START.plusMinutes(n).toString());
+    }
+
+    /**
+     * The same tasks as {@link #oldTask}, a third of each kind, made one at a time as they are iterated so that
+     * nothing but the table keeps them.
+     */
+    private static final class Generated extends AbstractCollection<ToDo> {
+        private final IntFunction<String> descriptions;
+        private final IntPredicate isDone;
+
+        Generated(IntFunction<String> descriptions, IntPredicate isDone) {
+            this.descriptions = descriptions;
+            this.isDone = isDone;
+        }
+
+        @Override
+        public int size() {
+            return TASKS;
+        }
+
+        @Override
+        public Iterator<ToDo> iterator() {
+            return new Iterator<>() {
+                private int n;
+
+                @Override
+                public boolean hasNext() {
+                    return n < TASKS;
+                }
+
+                @Override
+                public ToDo next() {
+                    String description = descriptions.apply(n);
+                    try {
+                        ToDo task;
+                        switch (n % 3) {
+                        case 0:
+                            task = new ToDo(description, false);
+                            break;
+                        case 1:
+                            task = new Deadline(description, due(n), false);
+                            break;
+                        default:
+                            task = new Event(description, due(n), due(n).plusHours(1), false);
+                            break;
+                        }
+                        if (isDone.test(n)) {
+                            task.markTask();
+                        }
+                        n++;
+                        return task;
+                    } catch (SidException e) {
+                        throw new AssertionError("Dates a year ahead must be valid", e);
+                    }
+                }
+            };
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,88 @@
+package sid.models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential tests of {@link TaskTable} against an {@link ArrayList}.
+ */
+class TaskTableTest {
+
+    @Test
+    void addAndRemove_matchArrayList_asLeavesFillAndMerge() {
+        Random random = new Random(11);
+        TaskTable table = new TaskTable();
+        List<ToDo> expected = new ArrayList<>();
+        Set<Integer> removedIds = new HashSet<>();
+
+        for (int round = 0; round < 20000; round++) {
+            // Grow for a while, then shrink, so that leaves fill up, thin out and merge.
+            boolean isShrinking = (round / 2000) % 2 == 1;
+            if (!expected.isEmpty() && random.nextInt(10) < (isShrinking ? 8 : 3)) {
+                int position = random.nextInt(expected.size());
+                ToDo removed = table.remove(position);
+                assertEquals(expected.remove(position), removed);
+                removedIds.add(removed.getId());
+            } else {
+                ToDo task = new ToDo("task " + round, false);
+                table.add(task);
+                expected.add(task);
+            }
+
+            assertEquals(expected.size(), table.size());
+            if (!expected.isEmpty()) {
+                int position = random.nextInt(expected.size());
+                assertEquals(expected.get(position), table.get(position));
+                assertEquals(position, table.positionOf(expected.get(position).getId()));
+            }
+        }
+        assertEquals(expected, new ArrayList<>(table));
+        for (int id : removedIds) {
+            assertEquals(-1, table.positionOf(id));
+        }
+    }
+
+    @Test
+    void add_keepsFreeIds_andReplacesMissingOrTakenOnes() {
+        TaskTable table = new TaskTable();
+        ToDo kept = new ToDo("kept", false);
+        kept.setId(40);
+        ToDo fresh = new ToDo("fresh", false);
+        ToDo clash = new ToDo("clash", false);
+        clash.setId(40);
+
+        table.add(kept);
+        table.add(fresh);
+        table.add(clash);
+
+        assertEquals(40, kept.getId());
+        assertEquals(41, fresh.getId());
+        assertEquals(42, clash.getId());
+        assertEquals(2, table.positionOf(42));
+    }
+
+    @Test
+    void ids_areNotReused_afterRemoval() {
+        TaskTable table = new TaskTable();
+        table.add(new ToDo("first", false));
+        ToDo second = new ToDo("second", false);
+        table.add(second);
+        table.remove(1);
+
+        ToDo third = new ToDo("third", false);
+        table.add(third);
+
+        assertNotEquals(second.getId(), third.getId());
+        assertThrows(IndexOutOfBoundsException.class, () -> table.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.remove(-1));
+    }
+}
@@ -0,0 +1,126 @@
+package sid.models;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import sid.exceptions.SidException;
+import sid.storage.InMemoryStorage;
+
+/**
+ * Runs readers on more and more threads against one list while a writer keeps changing it, and prints how
+ * many reads a second they manage together.
+ *
+ * <p>Reads hold the list's read lock, so on a machine with several cores the readers' throughput should grow
+ * with their number, up to the core count, while the writer still gets its turns. Left out of the unit tests;
+ * run with {@code gradlew benchmark}.
+ */
+@Tag("stress")
+class TodoListStressTest {
+    private static final int TASKS = 20_000;
+    private static final long ROUND_MILLIS = 1_000;
+    /** Pause between two changes, so that the writer keeps working without taking the lock all the time. */
+    private static final long WRITER_PAUSE_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    @Test
+    void readThroughput_withWriterRunning_growsWithReaderThreads() throws Exception {
+        TodoList list = new InMemoryStorage().load();
+        List<ToDo> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(new ToDo("item " + i, false));
+        }
+        list.addAll(tasks.iterator());
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads <= Math.max(2, cores); threads *= 2) {
+            threadCounts.add(threads);
+        }
+        if (!threadCounts.contains(cores)) {
+            threadCounts.add(cores);
+        }
+
+        round(list, 1); // warms up the lock, the search index and the JIT
+        double single = 0;
+        for (int threads : threadCounts) {
+            long[] counts = round(list, threads);
+            double reads = counts[0] * 1000.0 / ROUND_MILLIS;
+            double writes = counts[1] * 1000.0 / ROUND_MILLIS;
+            if (threads == 1) {
+                single = reads;
+            }
+            System.out.printf("%d reader thread(s) on %d core(s): %.0f reads/s (%.2fx one thread), "
+                    + "%.0f changes/s%n", threads, cores, reads, reads / single, writes);
+            assertTrue(counts[0] > 0, "Readers should get the read lock while the writer runs");
+            assertTrue(counts[1] > 0, "The writer should not be starved by " + threads + " readers");
+        }
+    }
+
+    /**
+     * Runs {@code threads} readers and one writer for {@link #ROUND_MILLIS}.
+     *
+     * @return The number of reads, and the number of changes the writer made.
+     */
+    private static long[] round(TodoList list, int threads) throws InterruptedException {
+        AtomicBoolean isRunning = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        AtomicLong changes = new AtomicLong();
+        List<Throwable> failures = new ArrayList<>();
+
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(new Thread(() -> {
+                long done = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    while (isRunning.get()) {
+                        // The writer only ever adds and removes past TASKS, so these positions always exist.
+                        list.getTodo(1 + random.nextInt(TASKS));
+                        list.findNumbers("item " + random.nextInt(TASKS));
+                        done += 2;
+                    }
+                } catch (SidException | RuntimeException e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+                reads.addAndGet(done);
+            }, "stress-reader-" + i));
+        }
+        workers.add(new Thread(() -> {
+            try {
+                while (isRunning.get()) {
+                    list.add(new ToDo("item written", false));
+                    list.markDone(list.getSize());
+                    list.delete(list.getSize());
+                    changes.addAndGet(3);
+                    LockSupport.parkNanos(WRITER_PAUSE_NANOS);
+                }
+            } catch (SidException | RuntimeException e) {
+                synchronized (failures) {
+                    failures.add(e);
+                }
+            }
+        }, "stress-writer"));
+
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        Thread.sleep(ROUND_MILLIS);
+        isRunning.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertTrue(failures.isEmpty(), "Workers failed: " + failures);
+        return new long[] {reads.get(), changes.get()};
+    }
+}
@@ -9,10 +9,14 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.Test;
 
 import sid.exceptions.SidException;
+import sid.storage.InMemoryStorage;
 import sid.stubs.StorageStub;
 
 /**
@@ -130,6 +134,51 @@ class TodoListTest {
         assertEquals(0, r3.getSize());
     }
 
+    @Test
+    void findTodos_booleanOperators_combineKeywords() {
+        TodoList list = new TodoList(List.of(
+                new ToDo("write report", false),
+                new ToDo("write essay draft", false),
+                new ToDo("read report", false),
+                new ToDo("essay final", false)
+        ));
+
+        assertEquals(1, list.findTodos("write AND report").getSize());
+        assertEquals(3, list.findTodos("report OR essay NOT draft").getSize());
+        assertEquals(1, list.findTodos("write NOT essay").getSize());
+        assertEquals(2, list.findTodos("NOT write").getSize());
+        // words without an operator must appear together
+        assertEquals(1, list.findTodos("read report").getSize());
+        assertEquals(0, list.findTodos("report read").getSize());
+        // lower-case operator words are ordinary keywords
+        assertEquals(0, list.findTodos("write and report").getSize());
+    }
+
+    @Test
+    void findTodos_prefixMatches_andFollowsChanges() throws SidException {
+        StorageStub storage = new StorageStub();
+        TodoList list = new TodoList(new ArrayList<ToDo>(), storage);
+        list.add(new ToDo("submit assignment", false));
+        list.add(new ToDo("buy milk", false));
+
+        assertEquals(1, list.findTodos("assign").getSize());
+        assertEquals(0, list.findTodos("X").getSize());
+
+        list.markDone(2);
+        assertEquals("[T][X] buy milk", list.findTodos("X").getTodo(1).toString());
+
+        list.add(new ToDo("assign reviewers", false));
+        assertEquals(2, list.findTodos("assign").getSize());
+
+        list.delete(1);
+        TodoList results = list.findTodos("assign");
+        assertEquals(1, results.getSize());
+        assertEquals("[T][ ] assign reviewers", results.getTodo(1).toString());
+
+        list.unmarkDone(1);
+        assertEquals(0, list.findTodos("X").getSize());
+    }
+
     @Test
     void toString_listsTasksOnePerLine_withOneBasedNumbers() {
         TodoList list = new TodoList(List.of(
@@ -316,4 +365,60 @@ class TodoListTest {
         list.add(event); // Should succeed
         assertEquals(3, list.getSize());
     }
+
+    @Test
+    void concurrentReads_seeConsistentList_whileWriterChangesIt() throws Exception {
+        TodoList list = new InMemoryStorage().load();
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    while (isWriting.get()) {
+                        String[] lines = list.toStringWithIds().split("\n");
+                        for (int i = 0; i < lines.length && !lines[0].isEmpty(); i++) {
+                            assertTrue(lines[i].startsWith((i + 1) + ". [T]["), lines[i]);
+                        }
+                        TodoList found = list.findTodos("task 1");
+                        for (int i = 1; i <= found.getSize(); i++) {
+                            assertTrue(found.getTodo(i).getDescription().contains("task 1"));
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        // The same changes, made by one thread with no readers, give the expected result.
+        TodoList expected = new InMemoryStorage().load();
+        try {
+            for (TodoList target : List.of(list, expected)) {
+                Random random = new Random(3);
+                for (int n = 0; n < 3000; n++) {
+                    target.add(new ToDo("task " + n, false));
+                    if (n % 3 == 0) {
+                        target.markDone(random.nextInt(target.getSize()) + 1);
+                    }
+                    if (n % 5 == 0) {
+                        target.delete(random.nextInt(target.getSize()) + 1);
+                    }
+                }
+            }
+        } finally {
+            isWriting.set(false);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+        }
+
+        if (failure.get() != null) {
+            throw new AssertionError("Reader failed", failure.get());
+        }
+        assertEquals(expected.toStringWithIds(), list.toStringWithIds());
+    }
 }
@@ -0,0 +1,132 @@
+package sid.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sid.enums.TaskType;
+import sid.exceptions.SidException;
+import sid.models.ToDo;
+import sid.models.TodoList;
+
+/**
+ * Tests for moving done tasks to the archive and back.
+ */
+public class ArchiveTest {
+    private Path tempDir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("sid-archive-test");
+    }
+
+    private String path(String name) {
+        return tempDir.resolve(name).toString();
+    }
+
+    private TodoList listWithDoneTasks(Storage storage) throws SidException {
+        TodoList list = storage.load();
+        list.add(new ToDo("read book", false));
+        list.add(new ToDo("pay invoice", false));
+        list.add(new ToDo("write report", false));
+        list.markDone(1);
+        list.markDone(3);
+        return list;
+    }
+
+    @Test
+    public void archiveDone_movesDoneTasksOutOfHotFile() throws SidException, IOException {
+        Storage storage = new Storage(path("sid.txt"));
+        TodoList list = listWithDoneTasks(storage);
+
+        assertEquals(2, list.archiveDone(null).size());
+        assertEquals("1. [T][ ] pay invoice", list.toString());
+        assertEquals(1, Files.readAllLines(Path.of(path("sid.txt"))).size());
+        assertEquals("1. [T][ ] pay invoice", new Storage(path("sid.txt")).load().toString());
+
+        List<ArchivedTask> archived = list.findArchived("");
+        assertEquals(List.of("1. [T][X] read book", "2. [T][X] write report"),
+                archived.stream().map(ArchivedTask::toString).toList());
+        assertEquals(1, list.findArchived("REPORT").size());
+    }
+
+    @Test
+    public void archiveDone_afterOtherInstanceAdded_keepsItsTask() throws SidException {
+        TodoList list = listWithDoneTasks(new Storage(path("sid.txt")));
+        TodoList other = new Storage(path("sid.txt")).load();
+        other.add(new ToDo("call plumber", false));
+
+        assertEquals(2, list.archiveDone(null).size());
+
+        String expected = "1. [T][ ] pay invoice\n2. [T][ ] call plumber";
+        assertEquals(expected, list.toString());
+        assertEquals(expected, new Storage(path("sid.txt")).load().toString());
+    }
+
+    @Test
+    public void restore_movesTaskBackAndHidesItFromArchive() throws SidException {
+        Storage storage = new Storage(path("sid.txt"));
+        TodoList list = listWithDoneTasks(storage);
+        list.archiveDone(null);
+
+        ToDo restored = list.restore(2);
+        assertEquals("[T][X] write report", restored.toString());
+        assertEquals("1. [T][ ] pay invoice\n2. [T][X] write report", list.toString());
+        assertEquals(List.of(1), list.findArchived("").stream().map(ArchivedTask::getNumber).toList());
+        assertThrows(SidException.class, () -> list.restore(2));
+
+        // Numbers stay stable across later batches.
+        list.markDone(1);
+        list.archiveDone(null);
+        assertEquals(List.of(1, 3, 4), list.findArchived("").stream().map(ArchivedTask::getNumber).toList());
+    }
+
+    @Test
+    public void archiveDone_withCutoff_keepsRecentlyDoneTasks() throws SidException {
+        Storage storage = new Storage(path("sid.txt"));
+        TodoList list = listWithDoneTasks(storage);
+
+        assertTrue(list.archiveDone(LocalDateTime.now().minusDays(1)).isEmpty());
+        assertEquals(2, list.archiveDone(LocalDateTime.now().plusMinutes(1)).size());
+    }
+
+    @Test
+    public void load_withArchiveAfter_archivesOldAndUndatedDoneTasks() throws IOException, SidException {
+        String old = LocalDateTime.now().minusDays(40).withSecond(0).withNano(0).toString();
+        String recent = LocalDateTime.now().minusDays(2).withSecond(0).withNano(0).toString();
+        Files.write(Path.of(path("sid.txt")), List.of(
+                "T | 1 | old | " + old,
+                "T | 1 | recent | " + recent,
+                "T | 1 | undated",
+                "T | 0 | open"));
+
+        TodoList list = new Storage(path("sid.txt"), StorageOptions.defaults().withArchiveAfter(30)).load();
+        assertEquals("1. [T][X] recent\n2. [T][ ] open", list.toString());
+        assertEquals(2, list.findArchived("").size());
+    }
+
+    @Test
+    public void search_truncatedLastBatch_keepsEarlierBatches() throws IOException, SidException {
+        Archive archive = new Archive(Path.of(path("sid.txt")).toFile());
+        archive.append(List.of(new TaskRecord(TaskType.TODO, true, "first", null, null)));
+        long intact = Files.size(Path.of(path("sid.txt.archive.gz")));
+        archive.append(List.of(new TaskRecord(TaskType.TODO, true, "second", null, null)));
+        try (RandomAccessFile file = new RandomAccessFile(path("sid.txt.archive.gz"), "rw")) {
+            file.setLength(intact + 5);
+        }
+
+        List<ArchivedTask> found = archive.search(task -> true);
+        assertEquals(1, found.size());
+        assertEquals("first", found.get(0).getRecord().getDescription());
+    }
+}
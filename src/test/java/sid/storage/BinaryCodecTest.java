@@ -0,0 +1,120 @@
+package sid.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import sid.enums.TaskType;
+import sid.models.TodoList;
+
+/**
+ * Tests for the binary task file codec and conversion to and from the text format.
+ */
+public class BinaryCodecTest {
+    private static final List<TaskRecord> RECORDS = List.of(
+            new TaskRecord(TaskType.TODO, false, "read book", null, null),
+            new TaskRecord(TaskType.TODO, true, "café ☕", null, null),
+            // Past dates must survive, since records skip model validation.
+            new TaskRecord(TaskType.DEADLINE, true, "return book", LocalDateTime.of(2019, 12, 2, 18, 0), null),
+            new TaskRecord(TaskType.DEADLINE, false, "pre-epoch", LocalDateTime.of(1969, 7, 20, 20, 17), null),
+            new TaskRecord(TaskType.TODO, true, "done at", null, null, LocalDateTime.of(2026, 10, 1, 9, 30)),
+            new TaskRecord(TaskType.EVENT, false, "meeting", LocalDateTime.of(2030, 8, 6, 14, 0),
+                    LocalDateTime.of(2030, 8, 6, 16, 0)),
+            new TaskRecord(TaskType.EVENT, false, "precise", LocalDateTime.of(2030, 8, 6, 14, 0, 30, 5),
+                    LocalDateTime.of(2030, 8, 6, 16, 0)));
+
+    private static byte[] encode(TaskCodec codec, List<TaskRecord> records) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(out, records);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void write_thenRead_roundTripsEveryField() throws IOException {
+        BinaryCodec codec = new BinaryCodec();
+        byte[] bytes = encode(codec, RECORDS);
+        assertEquals(RECORDS, codec.read(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void write_startsWithMagicAndVersion() throws IOException {
+        byte[] bytes = encode(new BinaryCodec(), List.of());
+        assertTrue(Arrays.equals(BinaryCodec.MAGIC, Arrays.copyOf(bytes, BinaryCodec.MAGIC.length)));
+        assertEquals(BinaryCodec.VERSION, bytes[BinaryCodec.MAGIC.length]);
+    }
+
+    @Test
+    public void write_isSmallerThanText() throws IOException {
+        byte[] binary = encode(new BinaryCodec(), RECORDS);
+        byte[] text = encode(new TextCodec(), RECORDS);
+        assertTrue(binary.length * 2 < text.length, binary.length + " vs " + text.length);
+    }
+
+    @Test
+    public void read_rejectsTextFile() {
+        byte[] text = "T | 0 | read book\n".getBytes(StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> new BinaryCodec().read(new ByteArrayInputStream(text)));
+    }
+
+    @Test
+    public void read_truncatedFile_keepsCompleteRecords() throws IOException {
+        byte[] bytes = encode(new BinaryCodec(), RECORDS);
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 2);
+        List<TaskRecord> read = new BinaryCodec().read(new ByteArrayInputStream(truncated));
+        assertEquals(RECORDS.subList(0, RECORDS.size() - 1), read);
+    }
+
+    @Test
+    public void read_corruptedRecord_skipsOnlyThatRecord() throws IOException {
+        byte[] bytes = encode(new BinaryCodec(), RECORDS);
+        String content = new String(bytes, StandardCharsets.ISO_8859_1);
+        bytes[content.indexOf("return book")] ^= 1;
+
+        List<TaskRecord> read = new BinaryCodec().read(new ByteArrayInputStream(bytes));
+        List<TaskRecord> expected = new ArrayList<>(RECORDS);
+        expected.remove(2);
+        assertEquals(expected, read);
+
+        IntegrityReport report = new BinaryCodec().verify(new ByteArrayInputStream(bytes));
+        assertEquals(List.of(3L), report.getCorrupted());
+        assertEquals(RECORDS.size() - 1, report.getCheckedCount());
+    }
+
+    @Test
+    public void convert_textToBinaryAndBack_isLossless() throws IOException {
+        Path dir = Files.createTempDirectory("sid-codec-test");
+        String text = dir.resolve("sid.txt").toString();
+        String binary = dir.resolve("sid.sidb").toString();
+        String back = dir.resolve("back.txt").toString();
+        Files.write(Path.of(text), encode(new TextCodec(), RECORDS));
+
+        Storage.convert(text, StorageFormat.TEXT, binary, StorageFormat.BINARY);
+        Storage.convert(binary, StorageFormat.BINARY, back, StorageFormat.TEXT);
+
+        assertEquals(Files.readString(Path.of(text)), Files.readString(Path.of(back)));
+    }
+
+    @Test
+    public void load_binaryFile_migratesFromTextFileNextToIt() throws IOException {
+        Path dir = Files.createTempDirectory("sid-codec-test");
+        String line = "T | 1 | read book" + System.lineSeparator();
+        Files.writeString(dir.resolve("sid.txt"), line);
+
+        TodoList list = new Storage(dir.resolve("sid.sidb").toString()).load();
+        assertEquals("1. [T][X] read book", list.toString());
+        assertTrue(Files.exists(dir.resolve("sid.sidb")));
+    }
+}
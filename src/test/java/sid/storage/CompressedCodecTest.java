@@ -0,0 +1,106 @@
+package sid.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sid.enums.TaskType;
+import sid.exceptions.SidException;
+import sid.models.ToDo;
+import sid.models.TodoList;
+
+/**
+ * Tests for the deflate-compressed task format and its selection by extension and header.
+ */
+public class CompressedCodecTest {
+    private Path tempDir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("sid-compressed-test");
+    }
+
+    private static List<TaskRecord> sampleRecords(int count) {
+        List<TaskRecord> records = new ArrayList<>();
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 9, 0);
+        for (int i = 0; i < count; i++) {
+            if (i % 2 == 0) {
+                records.add(new TaskRecord(TaskType.TODO, i % 3 == 0, "todo " + i, null, null));
+            } else {
+                records.add(new TaskRecord(TaskType.EVENT, false, "event " + i, base.plusHours(i),
+                        base.plusHours(i + 1)));
+            }
+        }
+        return records;
+    }
+
+    private static byte[] encode(TaskCodec codec, List<TaskRecord> records) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(out, records);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void write_thenRead_roundTripsRecords() throws IOException {
+        List<TaskRecord> records = sampleRecords(50_000);
+        CompressedCodec codec = new CompressedCodec(new TextCodec());
+        byte[] bytes = encode(codec, records);
+
+        assertTrue(Arrays.equals(CompressedCodec.MAGIC, Arrays.copyOf(bytes, CompressedCodec.MAGIC.length)));
+        assertEquals(records, codec.read(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void write_isMuchSmallerThanText() throws IOException {
+        List<TaskRecord> records = sampleRecords(10_000);
+        byte[] compressed = encode(new CompressedCodec(new TextCodec()), records);
+        byte[] text = encode(new TextCodec(), records);
+        assertTrue(compressed.length * 4 < text.length, compressed.length + " vs " + text.length);
+    }
+
+    @Test
+    public void read_rejectsTextFile() {
+        byte[] text = "T | 0 | read book\n".getBytes(StandardCharsets.UTF_8);
+        CompressedCodec codec = new CompressedCodec(new TextCodec());
+        assertThrows(IOException.class, () -> codec.read(new ByteArrayInputStream(text)));
+    }
+
+    @Test
+    public void storage_compressedExtension_savesAndLoadsCompressed() throws SidException, IOException {
+        String path = tempDir.resolve("sid.sidz").toString();
+        TodoList list = new Storage(path).load();
+        list.add(new ToDo("alpha", false));
+        list.add(new ToDo("beta", false));
+        list.markDone(2);
+
+        assertEquals(StorageFormat.COMPRESSED, StorageFormat.fromHeader(Path.of(path).toFile()));
+        assertEquals(list.toString(), new Storage(path).load().toString());
+    }
+
+    @Test
+    public void storage_headerOverridesExtension() throws SidException, IOException {
+        Path file = tempDir.resolve("sid.txt");
+        Files.write(file, encode(new CompressedCodec(new TextCodec()), sampleRecords(4)));
+
+        TodoList list = new Storage(file.toString()).load();
+        assertEquals(4, list.getSize());
+
+        // The next save writes the configured text format.
+        list.add(new ToDo("alpha", false));
+        assertEquals(5, Files.readAllLines(file).size());
+    }
+}
@@ -0,0 +1,135 @@
+package sid.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sid.exceptions.SidException;
+import sid.models.ToDo;
+import sid.models.TodoList;
+
+/**
+ * Tests for the paged and in-memory storage backends and backend selection.
+ */
+public class PagedStorageTest {
+    private Path tempDir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("sid-paged-test");
+    }
+
+    private String path(String name) {
+        return tempDir.resolve(name).toString();
+    }
+
+    private static void addTasks(TodoList list, int count) throws SidException {
+        for (int i = 1; i <= count; i++) {
+            list.add(new ToDo("task " + i, false));
+        }
+    }
+
+    @Test
+    public void changes_thenLoad_roundTripAcrossPages() throws SidException {
+        PagedStorage storage = new PagedStorage(path("sid.txt"), StorageOptions.defaults());
+        TodoList list = storage.load();
+        addTasks(list, PagedStorage.PAGE_SIZE * 2 + 10);
+        list.markDone(PagedStorage.PAGE_SIZE + 5);
+        list.delete(3);
+        list.unmarkDone(PagedStorage.PAGE_SIZE + 4);
+        list.markDone(list.getSize());
+        assertEquals(3, storage.getPageCount());
+
+        TodoList reloaded = new PagedStorage(path("sid.txt"), StorageOptions.defaults()).load();
+        assertEquals(list.toString(), reloaded.toString());
+    }
+
+    @Test
+    public void change_rewritesOnlyItsPage() throws SidException, IOException {
+        PagedStorage storage = new PagedStorage(path("sid.txt"), StorageOptions.defaults());
+        TodoList list = storage.load();
+        addTasks(list, PagedStorage.PAGE_SIZE * 3);
+        byte[] first = Files.readAllBytes(storage.pageFile(0).toPath());
+        byte[] last = Files.readAllBytes(storage.pageFile(2).toPath());
+        long bytesBefore = storage.getSaveLatency().getTotalBytes();
+
+        list.markDone(PagedStorage.PAGE_SIZE + 1);
+
+        assertArrayEquals(first, Files.readAllBytes(storage.pageFile(0).toPath()));
+        assertArrayEquals(last, Files.readAllBytes(storage.pageFile(2).toPath()));
+        assertEquals(Files.size(storage.pageFile(1).toPath()),
+                storage.getSaveLatency().getTotalBytes() - bytesBefore);
+    }
+
+    @Test
+    public void delete_lastTaskOfPage_removesPage() throws SidException {
+        PagedStorage storage = new PagedStorage(path("sid.txt"), StorageOptions.defaults());
+        TodoList list = storage.load();
+        addTasks(list, PagedStorage.PAGE_SIZE + 1);
+        list.delete(PagedStorage.PAGE_SIZE + 1);
+
+        assertEquals(1, storage.getPageCount());
+        assertFalse(storage.pageFile(1).exists());
+        assertEquals(PagedStorage.PAGE_SIZE,
+                new PagedStorage(path("sid.txt"), StorageOptions.defaults()).load().getSize());
+    }
+
+    @Test
+    public void load_withoutPages_importsFlatFile() throws SidException, IOException {
+        Files.writeString(Path.of(path("sid.txt")),
+                "T | 1 | read book" + System.lineSeparator() + "T | 0 | write book" + System.lineSeparator());
+        PagedStorage storage = new PagedStorage(path("sid.txt"), StorageOptions.defaults());
+
+        assertEquals("1. [T][X] read book\n2. [T][ ] write book", storage.load().toString());
+        assertTrue(storage.pageFile(0).exists());
+    }
+
+    @Test
+    public void load_afterNewestTaskDeleted_doesNotReuseItsId() throws SidException {
+        StorageBackend[] backends = {
+            new PagedStorage(path("sid.txt"), StorageOptions.defaults()),
+            new InMemoryStorage(),
+        };
+        for (StorageBackend backend : backends) {
+            TodoList list = backend.load();
+            addTasks(list, 3);
+            list.delete(3);
+
+            TodoList reloaded = backend instanceof PagedStorage
+                    ? new PagedStorage(path("sid.txt"), StorageOptions.defaults()).load()
+                    : backend.load();
+            reloaded.add(new ToDo("task 4", false));
+            assertEquals(4, reloaded.getTodo(3).getId());
+        }
+    }
+
+    @Test
+    public void inMemory_keepsChangesForNextLoad() throws SidException {
+        InMemoryStorage storage = new InMemoryStorage();
+        TodoList list = storage.load();
+        addTasks(list, 3);
+        list.markDone(2);
+        list.delete(1);
+
+        assertEquals(2, storage.getRecords().size());
+        assertEquals(list.toString(), storage.load().toString());
+    }
+
+    @Test
+    public void fromArgs_selectsBackend() {
+        StorageOptions options = StorageOptions.fromArgs(List.of("--backend=paged"));
+        assertEquals(Backend.PAGED, options.getBackend());
+        assertTrue(options.getBackend().create(path("sid.txt"), options) instanceof PagedStorage);
+        assertEquals(Backend.FILE, StorageOptions.defaults().getBackend());
+        assertTrue(Backend.MEMORY.create(path("sid.txt"), options) instanceof InMemoryStorage);
+    }
+}
@@ -0,0 +1,588 @@
+package sid.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sid.commands.DeleteCommand;
+import sid.commands.MarkCommand;
+import sid.commands.UnmarkCommand;
+import sid.enums.TaskType;
+import sid.exceptions.SidException;
+import sid.messages.ResponseMessage;
+import sid.models.Deadline;
+import sid.models.ToDo;
+import sid.models.TodoList;
+
+/**
+ * Tests for Storage persistence modes, using real files in a temporary directory.
+ */
+public class StorageTest {
+    private final List<Storage> opened = new ArrayList<>();
+    private Path tempDir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("sid-storage-test");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        for (Storage storage : opened) {
+            storage.close();
+        }
+    }
+
+    private String path(String name) {
+        return tempDir.resolve(name).toString();
+    }
+
+    /** Creates a storage that is closed after the test, releasing any background threads it started. */
+    private Storage open(String path, StorageOptions options) {
+        Storage storage = new Storage(path, options);
+        opened.add(storage);
+        return storage;
+    }
+
+    @Test
+    public void save_thenLoad_roundTripsAllTaskTypes() throws SidException {
+        Storage storage = new Storage(path("sid.txt"));
+        TodoList list = storage.load();
+        LocalDateTime due = LocalDateTime.now().plusDays(5).withHour(18).withMinute(0).withSecond(0).withNano(0);
+        list.add(new ToDo("read book", false));
+        list.add(new Deadline("return book", due, false));
+        list.markDone(1);
+
+        TodoList reloaded = new Storage(path("sid.txt")).load();
+        assertEquals(list.toString(), reloaded.toString());
+    }
+
+    @Test
+    public void load_skippedLines_warnInFileOrderWithTheirOwnText() throws IOException {
+        String badType = "X | 0 | no such type";
+        String pastDeadline = "D |  0 | too late   |  2000-01-01T10:00";
+        Files.writeString(tempDir.resolve("sid.txt"),
+                "T | 0 | first\n" + pastDeadline + "\n  " + badType + "\nT | 1 | last\n");
+
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        TodoList list;
+        try {
+            System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+            list = new Storage(path("sid.txt")).load();
+        } finally {
+            System.setErr(originalErr);
+        }
+
+        assertEquals(2, list.getSize());
+        assertEquals(List.of(
+                "Skipping corrupted line: " + pastDeadline + ": " + ResponseMessage.DEADLINE_PAST_DATE.getMessage(),
+                "Skipping corrupted line: " + badType + ": Unknown task type code: X"),
+                err.toString(StandardCharsets.UTF_8).lines().toList());
+    }
+
+    @Test
+    public void journaled_mutationsAppendWithoutRewritingFile() throws SidException, IOException {
+        StorageOptions options = StorageOptions.defaults().withJournal(1000);
+        TodoList list = open(path("sid.txt"), options).load();
+        list.add(new ToDo("alpha", false));
+        list.add(new ToDo("beta", false));
+        list.add(new ToDo("gamma", false));
+        list.markDone(2);
+        list.delete(1);
+
+        assertFalse(new File(path("sid.txt")).exists());
+        assertEquals(5, Files.readAllLines(Path.of(path("sid.txt.journal"))).size());
+
+        TodoList reloaded = open(path("sid.txt"), options).load();
+        assertEquals("1. [T][X] beta\n2. [T][ ] gamma", reloaded.toString());
+
+        // Loading folds the journal into the main file.
+        assertEquals(2, Files.readAllLines(Path.of(path("sid.txt"))).size());
+        assertFalse(new File(path("sid.txt.journal")).exists());
+    }
+
+    @Test
+    public void journaled_entryWithBadChecksum_stopsReplayThere() throws SidException, IOException {
+        StorageOptions options = StorageOptions.defaults().withJournal(1000);
+        TodoList list = open(path("sid.txt"), options).load();
+        list.add(new ToDo("alpha", false));
+        list.add(new ToDo("beta", false));
+        list.add(new ToDo("gamma", false));
+        list.delete(1);
+        list.markDone(1);
+
+        // A flipped index still parses, so only the checksum can tell; the mark after it depends on it.
+        Path journal = Path.of(path("sid.txt.journal"));
+        List<String> entries = new ArrayList<>(Files.readAllLines(journal));
+        assertTrue(entries.get(3).startsWith("D | 1 | *"), entries.get(3));
+        entries.set(3, entries.get(3).replace("D | 1", "D | 2"));
+        Files.write(journal, entries);
+
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        TodoList reloaded;
+        try {
+            System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+            reloaded = open(path("sid.txt"), options).load();
+        } finally {
+            System.setErr(originalErr);
+        }
+
+        assertEquals("1. [T][ ] alpha\n2. [T][ ] beta\n3. [T][ ] gamma", reloaded.toString());
+        assertEquals(List.of("Stopping journal replay at corrupted entry: " + entries.get(3)
+                + ": Checksum mismatch; entries ignored after it: 1"),
+                err.toString(StandardCharsets.UTF_8).lines().toList());
+    }
+
+    @Test
+    public void journaled_backgroundCheckpointKeepsListIntact() throws Exception {
+        StorageOptions options = StorageOptions.defaults().withJournal(3);
+        TodoList list = open(path("sid.txt"), options).load();
+        for (int i = 1; i <= 20; i++) {
+            list.add(new ToDo("task " + i, false));
+        }
+        list.markDone(7);
+        list.delete(3);
+
+        // Give the checkpoint thread time to fold at least one rotated journal.
+        for (int i = 0; i < 100 && !new File(path("sid.txt")).exists(); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(new File(path("sid.txt")).exists());
+
+        TodoList reloaded = open(path("sid.txt"), options).load();
+        assertEquals(list.toString(), reloaded.toString());
+    }
+
+    @Test
+    public void journaled_ignoresRotatedJournalAlreadyInCheckpoint() throws SidException, IOException {
+        StorageOptions options = StorageOptions.defaults().withJournal(1000);
+        TodoList list = open(path("sid.txt"), options).load();
+        list.add(new ToDo("alpha", false));
+
+        // Simulate a crash after a full checkpoint replaced the file but before the journal was deleted.
+        Files.writeString(Path.of(path("sid.txt")), "T | 0 | alpha" + System.lineSeparator());
+        Journal journal = new Journal(new File(path("sid.txt")));
+        journal.markCheckpoint(checksumOf(path("sid.txt")), true);
+
+        TodoList reloaded = open(path("sid.txt"), options).load();
+        assertEquals("1. [T][ ] alpha", reloaded.toString());
+    }
+
+    @Test
+    public void writeBehind_defersWritesUntilFlush() throws SidException, IOException {
+        StorageOptions options = StorageOptions.defaults().withWriteBehind(60_000, 1000);
+        TodoList list = open(path("sid.txt"), options).load();
+        list.add(new ToDo("alpha", false));
+        list.add(new ToDo("beta", false));
+        list.markDone(1);
+        assertFalse(new File(path("sid.txt")).exists());
+
+        list.flush();
+        assertEquals(2, Files.readAllLines(Path.of(path("sid.txt"))).size());
+        assertEquals(list.toString(), new Storage(path("sid.txt")).load().toString());
+    }
+
+    @Test
+    public void writeBehind_fullBatchFlushesBeforeInterval() throws Exception {
+        StorageOptions options = StorageOptions.defaults().withWriteBehind(60_000, 3);
+        TodoList list = open(path("sid.txt"), options).load();
+        for (int i = 1; i <= 3; i++) {
+            list.add(new ToDo("task " + i, false));
+        }
+        for (int i = 0; i < 100 && !new File(path("sid.txt")).exists(); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(new File(path("sid.txt")).exists());
+    }
+
+    @Test
+    public void writeBehind_saveUnderListLockWhileWriterFlushes_doesNotDeadlock() throws Exception {
+        StorageOptions options = StorageOptions.defaults().withWriteBehind(1, 1);
+        Storage storage = open(path("sid.txt"), options);
+        TodoList list = storage.load();
+        Thread changer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 300; i++) {
+                    list.add(new ToDo("task " + i, false));
+                    // Saving while holding the write lock takes the list's lock before the writer's.
+                    list.writeLock().lock();
+                    try {
+                        storage.save(list);
+                    } finally {
+                        list.writeLock().unlock();
+                    }
+                }
+            } catch (SidException e) {
+                throw new AssertionError(e);
+            }
+        });
+        changer.setDaemon(true);
+        changer.start();
+        changer.join(10_000);
+
+        assertFalse(changer.isAlive());
+        list.flush();
+        assertEquals(list.toString(), new Storage(path("sid.txt")).load().toString());
+    }
+
+    @Test
+    public void writeBehind_batchCommandsWhileWriterFlushes_doNotDeadlock() throws Exception {
+        StorageOptions options = StorageOptions.defaults().withWriteBehind(1, 1);
+        TodoList list = open(path("sid.txt"), options).load();
+        Thread changer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 100; i++) {
+                    list.add(new ToDo("first " + i, false));
+                    list.add(new ToDo("second " + i, false));
+                    list.add(new ToDo("third " + i, false));
+                    int last = list.getSize();
+                    new MarkCommand().execute((last - 2) + "-" + last, list);
+                    new UnmarkCommand().execute((last - 1) + "," + last, list);
+                    new DeleteCommand().execute((last - 2) + "," + last, list);
+                }
+            } catch (SidException e) {
+                throw new AssertionError(e);
+            }
+        });
+        changer.setDaemon(true);
+        changer.start();
+        changer.join(10_000);
+
+        assertFalse(changer.isAlive());
+        assertEquals(100, list.getSize());
+        list.flush();
+        assertEquals(list.toString(), new Storage(path("sid.txt")).load().toString());
+    }
+
+    @Test
+    public void close_writeBehind_writesPendingChangesAndStopsWriter() throws SidException {
+        long writersBefore = countThreads("sid-write-behind");
+        Storage storage = new Storage(path("sid.txt"), StorageOptions.defaults().withWriteBehind(60_000, 1000));
+        TodoList list = storage.load();
+        list.add(new ToDo("alpha", false));
+        assertEquals(writersBefore + 1, countThreads("sid-write-behind"));
+
+        storage.close();
+        assertEquals(writersBefore, countThreads("sid-write-behind"));
+        assertEquals("1. [T][ ] alpha", new Storage(path("sid.txt")).load().toString());
+
+        // With the writer gone, later changes are written straight away.
+        list.add(new ToDo("beta", false));
+        assertEquals("1. [T][ ] alpha\n2. [T][ ] beta", new Storage(path("sid.txt")).load().toString());
+    }
+
+    private static long countThreads(String name) {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals(name) && thread.isAlive())
+                .count();
+    }
+
+    @Test
+    public void writeBehind_withJournal_groupsChangesIntoJournal() throws SidException, IOException {
+        StorageOptions options = StorageOptions.defaults().withJournal(1000).withWriteBehind(60_000, 1000);
+        TodoList list = open(path("sid.txt"), options).load();
+        list.add(new ToDo("alpha", false));
+        list.add(new ToDo("beta", false));
+        list.delete(1);
+        assertFalse(new File(path("sid.txt.journal")).exists());
+
+        list.flush();
+        assertEquals(3, Files.readAllLines(Path.of(path("sid.txt.journal"))).size());
+        assertEquals("1. [T][ ] beta", open(path("sid.txt"), options).load().toString());
+    }
+
+    @Test
+    public void save_atEveryDurability_replacesFileAndRecordsLatency() throws SidException {
+        for (Durability durability : Durability.values()) {
+            String file = path("sid-" + durability + ".txt");
+            StorageOptions options = StorageOptions.defaults().withDurability(durability, 60_000);
+            Storage storage = open(file, options);
+            TodoList list = storage.load();
+            list.add(new ToDo("alpha", false));
+            list.add(new ToDo("beta", false));
+            list.flush();
+
+            assertEquals(2, storage.getSaveLatency().getCount(), durability.toString());
+            assertFalse(new File(file + ".tmp").exists(), durability.toString());
+            assertEquals(list.toString(), new Storage(file).load().toString(), durability.toString());
+        }
+    }
+
+    @Test
+    public void journaled_alwaysDurability_recordsEachAppend() throws SidException {
+        StorageOptions options = StorageOptions.defaults().withJournal(1000)
+                .withDurability(Durability.ALWAYS, StorageOptions.DEFAULT_SYNC_INTERVAL_MILLIS);
+        Storage storage = open(path("sid.txt"), options);
+        TodoList list = storage.load();
+        list.add(new ToDo("alpha", false));
+        list.markDone(1);
+
+        assertEquals(2, storage.getSaveLatency().getCount());
+        assertEquals("1. [T][X] alpha", open(path("sid.txt"), options).load().toString());
+    }
+
+    @Test
+    public void save_afterFirstSave_appendsOnlyTheNewRecord() throws SidException, IOException {
+        TodoList list = new Storage(path("sid.txt")).load();
+        list.add(new ToDo("alpha", false));
+        list.add(new ToDo("beta", false));
+        byte[] before = Files.readAllBytes(Path.of(path("sid.txt")));
+        File tmp = new File(path("sid.txt.tmp"));
+
+        list.add(new ToDo("gamma", false));
+
+        byte[] after = Files.readAllBytes(Path.of(path("sid.txt")));
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        new TextCodec().writeRecord(record, new TaskRecord(TaskType.TODO, false, "gamma", null, null, null, 3));
+        assertEquals(new String(before) + record, new String(after));
+        assertFalse(tmp.exists());
+    }
+
+    @Test
+    public void save_changeInTheMiddle_rewritesTailCorrectly() throws SidException {
+        for (StorageFormat format : StorageFormat.values()) {
+            String name = format.applyTo("mid.txt");
+            StorageOptions options = StorageOptions.defaults().withFormat(format);
+            TodoList list = open(path(name), options).load();
+            for (int i = 1; i <= 10; i++) {
+                list.add(new ToDo("task " + i, false));
+            }
+            list.markDone(4);
+            list.delete(2);
+            list.add(new ToDo("task 11 with a longer description", false));
+            list.unmarkDone(3);
+            list.markDone(9);
+
+            TodoList reloaded = open(path(name), options).load();
+            assertEquals(list.toString(), reloaded.toString());
+        }
+    }
+
+    @Test
+    public void load_keepsIdsAcrossReloads_andGivesLegacyTasksIds() throws SidException, IOException {
+        for (StorageFormat format : StorageFormat.values()) {
+            String name = format.applyTo("ids-" + format + ".txt");
+            StorageOptions options = StorageOptions.defaults().withFormat(format);
+            TodoList list = open(path(name), options).load();
+            list.add(new ToDo("alpha", false));
+            list.add(new ToDo("beta", false));
+            list.add(new ToDo("gamma", false));
+            list.delete(1);
+
+            TodoList reloaded = open(path(name), options).load();
+            assertEquals(2, reloaded.getTodo(1).getId());
+            assertEquals(3, reloaded.getTodo(2).getId());
+            assertEquals(2, reloaded.positionOf(3));
+        }
+
+        Files.write(Path.of(path("legacy.txt")), List.of("T | 0 | alpha", "T | 1 | beta"));
+        TodoList legacy = new Storage(path("legacy.txt")).load();
+        assertEquals(2, legacy.getTodo(2).getId());
+        String saved = Files.readAllLines(Path.of(path("legacy.txt"))).get(1);
+        assertTrue(saved.matches("T \\| 1 \\| beta \\| #2 \\| \\*\\p{XDigit}{8}"), saved);
+    }
+
+    @Test
+    public void load_afterNewestTaskDeleted_doesNotReuseItsId() throws SidException {
+        String[] names = {"newest-text.txt", "newest-binary.sidb", "newest-journaled.txt"};
+        StorageOptions[] configurations = {
+            StorageOptions.defaults(), StorageOptions.defaults(), StorageOptions.defaults().withJournal(100),
+        };
+        for (int i = 0; i < names.length; i++) {
+            TodoList list = open(path(names[i]), configurations[i]).load();
+            list.add(new ToDo("a", false));
+            list.add(new ToDo("b", false));
+            list.add(new ToDo("c", false));
+            list.delete(3);
+
+            TodoList reloaded = open(path(names[i]), configurations[i]).load();
+            reloaded.add(new ToDo("d", false));
+            assertEquals(4, reloaded.getTodo(3).getId());
+        }
+    }
+
+    @Test
+    public void save_alwaysDurability_keepsReplacingWholeFile() throws SidException, IOException {
+        StorageOptions options = StorageOptions.defaults().withDurability(Durability.ALWAYS, 1000);
+        TodoList list = open(path("sid.txt"), options).load();
+        list.add(new ToDo("alpha", false));
+        Object firstFile = Files.readAttributes(Path.of(path("sid.txt")),
+                BasicFileAttributes.class).fileKey();
+
+        list.add(new ToDo("beta", false));
+
+        Object secondFile = Files.readAttributes(Path.of(path("sid.txt")),
+                BasicFileAttributes.class).fileKey();
+        assertFalse(firstFile.equals(secondFile), "file should have been replaced by a rename");
+        assertEquals(2, Files.readAllLines(Path.of(path("sid.txt"))).size());
+    }
+
+    @Test
+    public void shared_addsFromTwoInstancesAreBothKept() throws SidException {
+        TodoList first = new Storage(path("sid.txt")).load();
+        TodoList second = new Storage(path("sid.txt")).load();
+        first.add(new ToDo("alpha", false));
+        second.add(new ToDo("beta", false));
+
+        assertEquals("1. [T][ ] alpha\n2. [T][ ] beta", second.toString());
+        first.refresh();
+        assertEquals(second.toString(), first.toString());
+        assertEquals(second.toString(), new Storage(path("sid.txt")).load().toString());
+    }
+
+    @Test
+    public void shared_importAfterOtherInstanceAdded_keepsBoth() throws SidException {
+        TodoList first = new Storage(path("sid.txt")).load();
+        first.add(new ToDo("alpha", false));
+        TodoList second = new Storage(path("sid.txt")).load();
+        first.add(new ToDo("beta", false));
+
+        int added = second.addAll(List.of(new ToDo("gamma", false), new ToDo("delta", false)).iterator());
+
+        assertEquals(2, added);
+        String expected = "1. [T][ ] alpha\n2. [T][ ] beta\n3. [T][ ] gamma\n4. [T][ ] delta";
+        assertEquals(expected, second.toString());
+        assertEquals(expected, new Storage(path("sid.txt")).load().toString());
+    }
+
+    @Test
+    public void shared_refreshWhileAnotherThreadChanges_doesNotDeadlock() throws Exception {
+        TodoList list = new Storage(path("sid.txt")).load();
+        TodoList other = new Storage(path("sid.txt")).load();
+        Thread changer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 200; i++) {
+                    other.add(new ToDo("theirs " + i, false));
+                    list.add(new ToDo("ours " + i, false));
+                }
+            } catch (SidException e) {
+                throw new AssertionError(e);
+            }
+        });
+        // Refreshing catches up with the other instance's writes, which changes the list under its write lock.
+        Thread refresher = new Thread(() -> {
+            while (changer.isAlive()) {
+                list.refresh();
+            }
+        });
+        changer.setDaemon(true);
+        refresher.setDaemon(true);
+        changer.start();
+        refresher.start();
+        changer.join(20_000);
+        refresher.join(20_000);
+
+        assertFalse(changer.isAlive());
+        assertFalse(refresher.isAlive());
+        assertEquals(400, new Storage(path("sid.txt")).load().getSize());
+    }
+
+    @Test
+    public void shared_changeAfterOtherInstanceDeleted_followsTheTask() throws SidException {
+        TodoList first = new Storage(path("sid.txt")).load();
+        first.add(new ToDo("alpha", false));
+        first.add(new ToDo("beta", false));
+        first.add(new ToDo("gamma", false));
+        TodoList second = new Storage(path("sid.txt")).load();
+
+        first.delete(1);
+        second.markDone(3);
+
+        assertEquals("1. [T][ ] beta\n2. [T][X] gamma", second.toString());
+        assertEquals(second.toString(), new Storage(path("sid.txt")).load().toString());
+    }
+
+    @Test
+    public void shared_refresh_picksUpChangesInTheMiddle() throws SidException {
+        TodoList first = new Storage(path("sid.txt")).load();
+        for (int i = 1; i <= 5; i++) {
+            first.add(new ToDo("task " + i, false));
+        }
+        TodoList second = new Storage(path("sid.txt")).load();
+        second.add(new ToDo("task 6", false));
+
+        first.markDone(2);
+        second.refresh();
+        assertEquals(6, second.getSize());
+        assertTrue(second.getTodo(2).isDone());
+
+        first.refresh();
+        assertEquals(second.toString(), first.toString());
+    }
+
+    @Test
+    public void shared_journaledInstancesKeepEachOthersChanges() throws SidException {
+        StorageOptions options = StorageOptions.defaults().withJournal(2);
+        TodoList first = open(path("sid.txt"), options).load();
+        TodoList second = open(path("sid.txt"), options).load();
+        for (int i = 1; i <= 4; i++) {
+            first.add(new ToDo("first " + i, false));
+            second.add(new ToDo("second " + i, false));
+        }
+        first.refresh();
+
+        assertEquals(8, first.getSize());
+        assertEquals(second.toString(), first.toString());
+        second.flush();
+        assertEquals(first.toString(), open(path("sid.txt"), options).load().toString());
+    }
+
+    @Test
+    public void fromArgs_parsesDurabilityFlags() {
+        StorageOptions options = StorageOptions.fromArgs(List.of("--durability=always"));
+        assertEquals(Durability.ALWAYS, options.getDurability());
+
+        options = StorageOptions.fromArgs(List.of("--sync-interval=250", "--durability=batch", "--report-latency"));
+        assertEquals(Durability.BATCH, options.getDurability());
+        assertEquals(250, options.getSyncIntervalMillis());
+        assertTrue(options.isReportingLatency());
+
+        assertEquals(Durability.NONE, StorageOptions.fromArgs(List.of("--durability=sometimes")).getDurability());
+    }
+
+    @Test
+    public void fromArgs_writeBatchWithoutWriteBehind_isRejected() {
+        StorageOptions options = StorageOptions.fromArgs(List.of("--write-batch=50"));
+        assertFalse(options.isWriteBehind());
+
+        options = StorageOptions.fromArgs(List.of("--write-batch=50", "--write-behind=100"));
+        assertTrue(options.isWriteBehind());
+        assertEquals(100, options.getFlushIntervalMillis());
+        assertEquals(50, options.getBatchSize());
+    }
+
+    @Test
+    public void fromArgs_syncIntervalWithoutBatchDurability_isRejected() {
+        StorageOptions options = StorageOptions.fromArgs(List.of("--durability=always", "--sync-interval=250"));
+        assertEquals(Durability.ALWAYS, options.getDurability());
+        assertEquals(StorageOptions.DEFAULT_SYNC_INTERVAL_MILLIS, options.getSyncIntervalMillis());
+
+        options = StorageOptions.fromArgs(List.of("--sync-interval=250"));
+        assertEquals(Durability.NONE, options.getDurability());
+    }
+
+    private static long checksumOf(String file) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(Files.readAllBytes(Path.of(file)));
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,137 @@
+package sid.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sid.enums.TaskType;
+import sid.exceptions.SidException;
+import sid.models.Deadline;
+import sid.models.Event;
+import sid.models.ToDo;
+import sid.models.TodoList;
+import sid.stubs.StorageStub;
+
+/**
+ * Tests for CSV and JSON Lines export and import.
+ */
+public class TaskExchangeTest {
+    private static final LocalDateTime DUE = LocalDateTime.of(2019, 12, 2, 18, 0);
+    private static final List<TaskRecord> RECORDS = List.of(
+            new TaskRecord(TaskType.TODO, true, "read book", null, null, LocalDateTime.of(2019, 12, 1, 9, 30)),
+            new TaskRecord(TaskType.DEADLINE, false, "return book, then pay \"fine\"", DUE, null),
+            new TaskRecord(TaskType.EVENT, false, "meeting \\ café\ttab", DUE, DUE.plusHours(2)));
+
+    private Path tempDir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("sid-exchange-test");
+    }
+
+    private static List<TaskRecord> roundTrip(ExchangeCodec codec, List<TaskRecord> records)
+            throws IOException, SidException {
+        StringWriter out = new StringWriter();
+        codec.writeHeader(out);
+        for (TaskRecord record : records) {
+            codec.writeRecord(out, record);
+        }
+        BufferedReader in = new BufferedReader(new StringReader(out.toString()));
+        List<TaskRecord> read = new ArrayList<>();
+        for (TaskRecord record = codec.readRecord(in); record != null; record = codec.readRecord(in)) {
+            read.add(record);
+        }
+        return read;
+    }
+
+    @Test
+    public void csv_roundTripsQuotesAndCommas() throws IOException, SidException {
+        assertEquals(RECORDS, roundTrip(new CsvCodec(), RECORDS));
+    }
+
+    @Test
+    public void jsonLines_roundTripsEscapes() throws IOException, SidException {
+        assertEquals(RECORDS, roundTrip(new JsonLinesCodec(), RECORDS));
+    }
+
+    @Test
+    public void csv_readsQuotedLineBreaksAndShortRows() throws IOException, SidException {
+        String content = "type,done,description\nT,false,\"two\nlines\"\r\ndeadline,1,due,2019-12-02T18:00\n";
+        BufferedReader in = new BufferedReader(new StringReader(content));
+        CsvCodec codec = new CsvCodec();
+
+        assertEquals(new TaskRecord(TaskType.TODO, false, "two\nlines", null, null), codec.readRecord(in));
+        assertEquals(new TaskRecord(TaskType.DEADLINE, true, "due", DUE, null), codec.readRecord(in));
+        assertNull(codec.readRecord(in));
+    }
+
+    @Test
+    public void jsonLines_malformedLine_canContinueWithTheNext() throws IOException, SidException {
+        String content = "{\"type\":\"todo\",\"done\":false\n"
+                + "{\"description\":\"b\",\"extra\":null,\"done\":true,\"type\":\"T\"}\n";
+        BufferedReader in = new BufferedReader(new StringReader(content));
+        JsonLinesCodec codec = new JsonLinesCodec();
+
+        assertThrows(SidException.class, () -> codec.readRecord(in));
+        assertEquals(new TaskRecord(TaskType.TODO, true, "b", null, null), codec.readRecord(in));
+    }
+
+    @Test
+    public void exportThenImport_copiesTheListAndSavesOnce() throws SidException {
+        LocalDateTime start = LocalDateTime.now().plusDays(3).withNano(0);
+        TodoList source = new StorageStub().load();
+        source.add(new ToDo("read book", false));
+        source.add(new Deadline("return book", start, true));
+        source.add(new Event("meeting", start, start.plusHours(1), false));
+        File file = tempDir.resolve("out/tasks.jsonl").toFile();
+        assertEquals(3, TaskExchange.export(source, file));
+
+        StorageStub storage = new StorageStub();
+        TodoList target = storage.load();
+        TaskExchange.Summary summary = TaskExchange.importInto(target, file);
+
+        assertEquals(3, summary.getImportedCount());
+        assertEquals(source.toString(), target.toString());
+        assertEquals(1, storage.getSaveCalls());
+    }
+
+    @Test
+    public void importInto_skipsInvalidAndClashingTasks() throws SidException, IOException {
+        LocalDateTime start = LocalDateTime.now().plusDays(3).withNano(0);
+        Path file = tempDir.resolve("tasks.csv");
+        Files.writeString(file, String.join("\n",
+                "E,0,meeting," + start + "," + start.plusHours(2),
+                "E,0,clash," + start.plusHours(1) + "," + start.plusHours(3),
+                "D,0,long gone,2000-01-01T00:00",
+                "X,0,what",
+                "T,0,fine"));
+
+        StorageStub storage = new StorageStub();
+        TodoList list = storage.load();
+        TaskExchange.Summary summary = TaskExchange.importInto(list, file.toFile());
+
+        assertEquals(2, summary.getImportedCount());
+        assertEquals(3, summary.getSkippedCount());
+        assertEquals(2, list.getSize());
+    }
+
+    @Test
+    public void importInto_unknownExtension_throws() {
+        TodoList list = new StorageStub().load();
+        assertThrows(SidException.class, () -> TaskExchange.importInto(list, tempDir.resolve("x.xml").toFile()));
+    }
+}
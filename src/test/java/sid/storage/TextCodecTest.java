@@ -0,0 +1,219 @@
+package sid.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import sid.enums.TaskType;
+import sid.exceptions.SidException;
+
+/**
+ * Tests for the byte-scanning text reader, checked against the line parser in {@link TaskRecord}.
+ */
+public class TextCodecTest {
+    private static final String[] LINES = {
+        "T | 1 | read book",
+        "  T|0|tight separators  ",
+        "D | 0 | return book | 2019-12-02T18:00",
+        "D | 1 | seconds | 2019-12-02T18:00:30",
+        "D | 1 | fraction | 2019-12-02T18:00:30.5",
+        "D | 0 | lowercase t | 2019-12-02t18:00",
+        "E | 0 | meeting | 2030-08-06T14:00 | 2030-08-06T16:00",
+        "E | 0 | extra | 2030-08-06T14:00 | 2030-08-06T16:00 | ignored",
+        "T | 0 | café ☕",
+        "T | 0 | extra fields | ignored",
+        "T | 1 | done at | 2026-10-01T09:30",
+        "T | 1 | unreadable done at | yesterday",
+        "T | 0 | not done | 2026-10-01T09:30",
+        "D | 1 | done deadline | 2030-01-01T09:00 | 2026-10-01T09:30:15",
+        "E | 1 | done event | 2030-08-06T14:00 | 2030-08-06T16:00 | 2026-10-01T09:30 | extra",
+        "T | 0 |",
+        "T | 0 | | empty description",
+        "D | 0 | missing date",
+        "D | 0 | trailing separator |",
+        "D | 0 | bad date | 2019-02-30T18:00",
+        "D | 0 | bad hour | 2019-12-02T25:00",
+        "E | 0 | missing end | 2030-08-06T14:00",
+        "X | 0 | unknown type",
+        "T | 2 | bad flag",
+        "TT | 0 | long code",
+        "| 0 | no code",
+    };
+
+    /** Parses each line with the general parser, as the reader did before it scanned bytes. */
+    private static List<TaskRecord> parseLines(String[] lines) {
+        List<TaskRecord> records = new ArrayList<>();
+        for (String line : lines) {
+            try {
+                records.add(TaskRecord.parseText(line.trim()));
+            } catch (SidException e) {
+                // skipped, as the reader does
+            }
+        }
+        return records;
+    }
+
+    @Test
+    public void read_matchesLineParser() throws IOException {
+        byte[] content = String.join("\n", LINES).getBytes(StandardCharsets.UTF_8);
+        List<TaskRecord> records = new TextCodec().read(new ByteArrayInputStream(content));
+        assertEquals(parseLines(LINES), records);
+    }
+
+    @Test
+    public void read_checksumMismatch_skipsOnlyThatLine() throws IOException {
+        List<TaskRecord> written = List.of(
+                new TaskRecord(TaskType.TODO, false, "alpha", null, null),
+                new TaskRecord(TaskType.TODO, false, "beta", null, null),
+                new TaskRecord(TaskType.TODO, false, "gamma", null, null));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new TextCodec().write(out, written);
+        // A flipped done flag still parses, so only the checksum can tell.
+        String damaged = out.toString(StandardCharsets.UTF_8).replace("| 0 | beta", "| 1 | beta");
+        byte[] content = damaged.getBytes(StandardCharsets.UTF_8);
+
+        List<TaskRecord> read = new TextCodec().read(new ByteArrayInputStream(content));
+        assertEquals(List.of(written.get(0), written.get(2)), read);
+
+        IntegrityReport report = new TextCodec().verify(new ByteArrayInputStream(content));
+        assertEquals(List.of(2L), report.getCorrupted());
+        assertEquals(2, report.getCheckedCount());
+    }
+
+    @Test
+    public void verify_countsLinesWithoutChecksumsAsUnchecked() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new TextCodec().writeRecord(out, new TaskRecord(TaskType.TODO, true, "checked", null, null));
+        String content = "T | 0 | by hand\r\n\r\n" + out.toString(StandardCharsets.UTF_8) + "T | 0 | bad | *00000000\n";
+
+        IntegrityReport report = new TextCodec().verify(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(1, report.getCheckedCount());
+        assertEquals(1, report.getUncheckedCount());
+        assertEquals(List.of(4L), report.getCorrupted());
+        assertFalse(report.isIntact());
+    }
+
+    @Test
+    public void write_checksumIsLastField_soOlderReadersSeeTheSameFields() throws IOException {
+        TaskRecord record = new TaskRecord(TaskType.DEADLINE, true, "return book",
+                LocalDateTime.of(2030, 1, 2, 18, 0), null, LocalDateTime.of(2030, 1, 1, 9, 30), 7);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new TextCodec().writeRecord(out, record);
+
+        String line = out.toString(StandardCharsets.UTF_8).trim();
+        assertTrue(line.startsWith(record.toText() + " | *"));
+        assertEquals(List.of(record), new TextCodec().read(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    public void read_todoDescribedLikeChecksum_isNotTakenForOne() throws IOException {
+        String content = "T | 0 | *deadbeef\n";
+        List<TaskRecord> records = new TextCodec().read(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        assertEquals("*deadbeef", records.get(0).getDescription());
+
+        IntegrityReport report = new TextCodec().verify(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(1, report.getUncheckedCount());
+    }
+
+    @Test
+    public void read_acceptsEveryLineEnding() throws IOException {
+        String content = "T | 0 | a\r\nT | 0 | b\rT | 0 | c\n\n   \nT | 0 | d";
+        List<TaskRecord> records = new TextCodec().read(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(List.of("a", "b", "c", "d"), records.stream().map(TaskRecord::getDescription).toList());
+    }
+
+    @Test
+    public void read_largeFile_matchesWrittenRecords() throws IOException {
+        // Large enough to be memory-mapped.
+        List<TaskRecord> written = new ArrayList<>();
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 9, 0);
+        for (int i = 0; i < 30_000; i++) {
+            switch (i % 3) {
+            case 0:
+                written.add(new TaskRecord(TaskType.TODO, i % 2 == 0, "todo " + i, null, null));
+                break;
+            case 1:
+                written.add(new TaskRecord(TaskType.DEADLINE, false, "deadline " + i, base.plusMinutes(i), null));
+                break;
+            default:
+                written.add(new TaskRecord(TaskType.EVENT, true, "event " + i, base.plusHours(i),
+                        base.plusHours(i).plusSeconds(i % 60)));
+                break;
+            }
+        }
+        Path file = Files.createTempFile("sid-text-codec", ".txt");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            new TextCodec().write(out, written);
+        }
+
+        assertEquals(written, new TextCodec().read(file.toFile()));
+    }
+
+    @Test
+    public void read_stream_splitsWindowsOnLineBreaks() throws IOException {
+        // Spans several stream windows, including a line longer than one window.
+        List<TaskRecord> written = new ArrayList<>();
+        for (int i = 0; i < 60_000; i++) {
+            written.add(new TaskRecord(TaskType.TODO, i % 2 == 0, "todo number " + i, null, null));
+        }
+        written.add(new TaskRecord(TaskType.TODO, false, "x".repeat(3 << 20), null, null));
+        written.add(new TaskRecord(TaskType.TODO, true, "after the long line", null, null));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new TextCodec().write(out, written);
+
+        assertEquals(written, new TextCodec().read(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    public void read_parallelChunks_keepFileOrderAndWarnings() {
+        // Large enough to be split into parallel chunks.
+        StringBuilder content = new StringBuilder();
+        List<TaskRecord> expected = new ArrayList<>();
+        List<String> expectedWarnings = new ArrayList<>();
+        for (int i = 0; i < 150_000; i++) {
+            if (i % 10_000 == 0) {
+                String line = "X | 0 | corrupted " + i;
+                content.append(line).append('\n');
+                expectedWarnings.add("Skipping corrupted line: " + line + ": Unknown task type code: X");
+            } else {
+                TaskRecord record = new TaskRecord(TaskType.DEADLINE, i % 2 == 0, "task " + i,
+                        LocalDateTime.of(2030, 1, 1, 0, 0).plusMinutes(i), null);
+                content.append(record.toText()).append(i % 3 == 0 ? "\r\n" : "\n");
+                expected.add(record);
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        List<TaskRecord> records;
+        try {
+            System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+            records = new TextCodec().read(buffer);
+        } finally {
+            System.setErr(originalErr);
+        }
+
+        assertEquals(expected, records);
+        assertEquals(expectedWarnings, err.toString(StandardCharsets.UTF_8).lines().toList());
+    }
+}
@@ -6,26 +6,19 @@ import java.util.List;
 import sid.exceptions.SidException;
 import sid.models.ToDo;
 import sid.models.TodoList;
-import sid.storage.Storage;
+import sid.storage.Change;
+import sid.storage.InMemoryStorage;
 
 /**
- * Test double for Storage that avoids disk I/O and records save() calls.
+ * Test double for storage that avoids disk I/O and records save() calls.
  */
-public class StorageStub extends Storage {
+public class StorageStub extends InMemoryStorage {
     public final List<String> snapshots = new ArrayList<>();
     private int saveCalls = 0;
 
-    /**
-     * Constructs a StorageStub for testing purposes.
-     */
-    public StorageStub() {
-        // Path is unused; superclass requires a constructor arg.
-        super("build/test-tmp/unused.txt");
-    }
-
     @Override
     public TodoList load() {
-        // Not needed for these tests; return an empty list bound to this stub.
+        // Every load starts from an empty list bound to this stub, whatever was saved before.
         return new TodoList(new ArrayList<ToDo>(), this);
     }
 
@@ -37,6 +30,12 @@ public class StorageStub extends Storage {
         return saveCalls;
     }
 
+    /** Saves the whole list for every change, so each mutation shows up as one snapshot. */
+    @Override
+    public void persistChange(TodoList list, Change change) {
+        save(list);
+    }
+
     @Override
     public void save(TodoList list) {
         saveCalls++;
@@ -50,5 +49,6 @@ public class StorageStub extends Storage {
             }
         }
         snapshots.add(sb.toString());
+        super.save(list);
     }
 }
@@ -3,8 +3,8 @@ package sid.stubs;
 import java.util.ArrayList;
 import java.util.List;
 
+import sid.models.TaskPage;
 import sid.models.ToDo;
-import sid.models.TodoList;
 import sid.ui.Ui;
 
 /**
@@ -53,8 +53,8 @@ public class UiStub extends Ui {
     }
 
     @Override
-    public void showList(TodoList tasks) {
-        capturedMessages.add("LIST: " + tasks.getSize() + " tasks");
+    public void showList(TaskPage page) {
+        capturedMessages.add("LIST: " + page.getTotal() + " tasks");
     }
 
     @Override
@@ -78,7 +78,7 @@ public class UiStub extends Ui {
     }
 
     @Override
-    public void showFind(TodoList foundTasks) {
-        capturedMessages.add("FOUND: " + foundTasks.getSize() + " matching tasks");
+    public void showFind(TaskPage page) {
+        capturedMessages.add("FOUND: " + page.getTotal() + " matching tasks");
     }
 }